@@ -0,0 +1,133 @@
+/**
+ * CalibrationCurve.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.core;
+
+import java.util.Arrays;
+
+/**
+ * Converts raw sensor values to engineering units by linear interpolation in a
+ * lookup table of (raw, value) points. Values outside the table are
+ * extrapolated from the first or last segment. Lookup is a binary search, so
+ * tables of any size cost O(log n) per conversion.
+ *
+ * <p>
+ * A table is written as comma-separated raw:value pairs, for example
+ * "0.0:-40.0,0.5:20.0,1.0:85.0".
+ * </p>
+ */
+public final class CalibrationCurve {
+
+  /**
+   * The curve that returns raw values unchanged.
+   */
+  public static final CalibrationCurve IDENTITY = new CalibrationCurve(new double[] {0.0, 1.0},
+      new double[] {0.0, 1.0});
+
+  /**
+   * Raw values in strictly increasing order.
+   */
+  private final double[] raw;
+
+  /**
+   * Calibrated value at each raw value.
+   */
+  private final double[] value;
+
+  /**
+   * Explicit constructor.
+   *
+   * @param rawPoints
+   *          raw values in strictly increasing order
+   * @param valuePoints
+   *          the calibrated value at each raw value
+   * @throws IllegalArgumentException
+   *           if there are fewer than two points, the arrays differ in length
+   *           or the raw values do not increase
+   */
+  public CalibrationCurve(final double[] rawPoints, final double[] valuePoints) {
+    if (rawPoints.length < 2 || rawPoints.length != valuePoints.length) {
+      throw new IllegalArgumentException("A calibration curve needs two or more points");
+    }
+    for (int i = 1; i < rawPoints.length; i++) {
+      if (!(rawPoints[i] > rawPoints[i - 1])) {
+        throw new IllegalArgumentException("Calibration raw values must increase");
+      }
+    }
+    raw = rawPoints.clone();
+    value = valuePoints.clone();
+  }
+
+  /**
+   * Parse a table of raw:value pairs.
+   *
+   * @param table
+   *          comma-separated raw:value pairs in increasing order of raw value
+   * @return the curve
+   * @throws InvalidValueException
+   *           if the table is malformed
+   */
+  public static CalibrationCurve parse(final String table) throws InvalidValueException {
+    if (table == null || table.isBlank()) {
+      throw new InvalidValueException("Empty calibration table");
+    }
+    final String[] pairs = table.split(",");
+    final double[] rawPoints = new double[pairs.length];
+    final double[] valuePoints = new double[pairs.length];
+    try {
+      for (int i = 0; i < pairs.length; i++) {
+        final String[] pair = pairs[i].split(":");
+        if (pair.length != 2) {
+          throw new InvalidValueException("Calibration point '" + pairs[i] + "' is not raw:value");
+        }
+        rawPoints[i] = Double.parseDouble(pair[0].trim());
+        valuePoints[i] = Double.parseDouble(pair[1].trim());
+      }
+      return new CalibrationCurve(rawPoints, valuePoints);
+    } catch (IllegalArgumentException err) {
+      throw new InvalidValueException("Invalid calibration table '" + table + "': "
+          + err.getMessage());
+    }
+  }
+
+  /**
+   * Convert a raw value.
+   *
+   * @param x
+   *          the raw value
+   * @return the calibrated value
+   */
+  public double apply(final double x) {
+    int i = Arrays.binarySearch(raw, x);
+    if (i >= 0) {
+      return value[i];
+    }
+
+    // Interpolate in the segment below the insertion point, using the end
+    // segments beyond the table
+    i = Math.min(Math.max(-i - 2, 0), raw.length - 2);
+    final double fraction = (x - raw[i]) / (raw[i + 1] - raw[i]);
+    return value[i] + fraction * (value[i + 1] - value[i]);
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < raw.length; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append(raw[i]).append(':').append(value[i]);
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,268 @@
+/**
+ * ControlLoop.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.core;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.simple.JSONObject;
+
+/**
+ * A PidController ticked at a fixed rate by a ControlLoopScheduler until its
+ * goal is reached, its tick budget is spent or it is cancelled. The outcome is
+ * reported through a CompletableFuture rather than by blocking the caller.
+ *
+ * <p>
+ * Each tick measures its jitter (distance from the ideal start time
+ * start + n * period) and counts an overrun if the tick started a whole
+ * period late or ran for longer than a period.
+ * </p>
+ */
+public class ControlLoop implements Runnable {
+
+  /**
+   * Acquire a reference to the application logger.
+   */
+  private static Logger log = LogManager.getLogger(ControlLoop.class.getPackage().getName());
+
+  /**
+   * Name of the loop, for diagnostics.
+   */
+  private final String myName;
+
+  /**
+   * The controller being ticked.
+   */
+  private final PidController controller;
+
+  /**
+   * Tick period in nanoseconds.
+   */
+  private final long periodNanos;
+
+  /**
+   * True when the controlled value has reached the setpoint.
+   */
+  private final BooleanSupplier goal;
+
+  /**
+   * Maximum number of ticks before giving up.
+   */
+  private final int maxTicks;
+
+  /**
+   * Completes with true when the goal is reached, or false when the tick
+   * budget is spent without reaching it.
+   */
+  private final CompletableFuture<Boolean> completion = new CompletableFuture<>();
+
+  /**
+   * Distribution of tick start times relative to the ideal schedule.
+   */
+  private final LatencyHistogram jitter = new LatencyHistogram();
+
+  /**
+   * Handle for the periodic task.
+   */
+  private volatile ScheduledFuture<?> schedule;
+
+  /**
+   * System.nanoTime of the first tick.
+   */
+  private long firstTick;
+
+  /**
+   * Number of ticks executed.
+   */
+  private volatile long ticks;
+
+  /**
+   * Number of ticks that started late by a whole period or ran too long.
+   */
+  private volatile long overruns;
+
+  /**
+   * Explicit constructor. Loops are created by ControlLoopScheduler.start.
+   *
+   * @param name
+   *          name of the loop
+   * @param pid
+   *          the controller to tick
+   * @param period
+   *          tick period in nanoseconds
+   * @param reached
+   *          true when the controlled value has reached the setpoint
+   * @param budget
+   *          maximum number of ticks
+   */
+  ControlLoop(final String name, final PidController pid, final long period,
+      final BooleanSupplier reached, final int budget) {
+    myName = name;
+    controller = pid;
+    periodNanos = period;
+    goal = reached;
+    maxTicks = budget;
+
+    // However the loop ends, stop ticking
+    completion.whenComplete((result, err) -> {
+      final ScheduledFuture<?> task = schedule;
+      if (task != null) {
+        task.cancel(false);
+      }
+    });
+  }
+
+  /**
+   * Attach the handle of the periodic task driving this loop.
+   *
+   * @param task
+   *          the handle
+   */
+  void setSchedule(final ScheduledFuture<?> task) {
+    schedule = task;
+    if (completion.isDone()) {
+      task.cancel(false);
+    }
+  }
+
+  /**
+   * Execute one tick.
+   */
+  @Override
+  public void run() {
+    if (completion.isDone()) {
+      return;
+    }
+
+    final long start = System.nanoTime();
+    if (ticks == 0) {
+      firstTick = start;
+    }
+    final long lateness = start - (firstTick + ticks * periodNanos);
+    jitter.record(Math.abs(lateness));
+
+    try {
+      if (goal.getAsBoolean()) {
+        completion.complete(Boolean.TRUE);
+        return;
+      }
+      if (ticks >= maxTicks) {
+        log.warn("Control loop {} did not reach its setpoint after {} ticks", myName,
+            Integer.valueOf(maxTicks));
+        completion.complete(Boolean.FALSE);
+        return;
+      }
+      controller.step();
+    } catch (RuntimeException err) {
+      log.error("Control loop {} failed", myName, err);
+      completion.completeExceptionally(err);
+      return;
+    }
+
+    ticks += 1;
+
+    final long elapsed = System.nanoTime() - start;
+    if (lateness >= periodNanos || elapsed > periodNanos) {
+      overruns += 1;
+      if (overruns == 1) {
+        log.warn("Control loop {} overran its {} ms period", myName,
+            Long.valueOf(TimeUnit.NANOSECONDS.toMillis(periodNanos)));
+      }
+    }
+  }
+
+  /**
+   * Get the future that completes when the loop ends: true if the setpoint was
+   * reached, false if the tick budget was spent. Cancelling the future stops
+   * the loop.
+   *
+   * @return the future
+   */
+  public CompletableFuture<Boolean> reachedSetpoint() {
+    return completion;
+  }
+
+  /**
+   * Stop the loop without reaching the setpoint.
+   */
+  public void cancel() {
+    completion.cancel(false);
+  }
+
+  /**
+   * Determine whether the loop has ended.
+   *
+   * @return true if ended
+   */
+  public boolean isDone() {
+    return completion.isDone();
+  }
+
+  /**
+   * Get the controller driven by this loop.
+   *
+   * @return the controller
+   */
+  public PidController getController() {
+    return controller;
+  }
+
+  /**
+   * Get the name of the loop.
+   *
+   * @return the name
+   */
+  public String getName() {
+    return myName;
+  }
+
+  /**
+   * Get the number of ticks executed.
+   *
+   * @return the count
+   */
+  public long getTicks() {
+    return ticks;
+  }
+
+  /**
+   * Get the number of overrun ticks.
+   *
+   * @return the count
+   */
+  public long getOverruns() {
+    return overruns;
+  }
+
+  /**
+   * Get the distribution of tick jitter.
+   *
+   * @return the histogram, in nanoseconds
+   */
+  public LatencyHistogram getJitter() {
+    return jitter;
+  }
+
+  /**
+   * Report the state of the loop.
+   *
+   * @return ticks, overruns and jitter
+   */
+  @SuppressWarnings("unchecked")
+  public JSONObject getStatus() {
+    final JSONObject result = new JSONObject();
+    result.put("ticks", Long.valueOf(ticks));
+    result.put("overruns", Long.valueOf(overruns));
+    result.put("jitter", jitter.toJson());
+    result.put("done", Boolean.valueOf(isDone()));
+    return result;
+  }
+}
@@ -0,0 +1,154 @@
+/**
+ * ControlLoopScheduler.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.core;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.json.simple.JSONObject;
+
+/**
+ * Runs any number of control loops on a shared scheduled executor. Each loop
+ * ticks its PidController at a fixed rate measured with System.nanoTime, so
+ * the caller never blocks waiting for an actuator to reach its setpoint.
+ *
+ * <p>
+ * Example of use:
+ * </p>
+ * <p>
+ * ControlLoopScheduler.getDefault().start("anchor", pid, 1000, () -&gt;
+ * atDepth(), 100).reachedSetpoint().thenAccept(ok -&gt; report(ok));
+ * </p>
+ */
+public class ControlLoopScheduler {
+
+  /**
+   * The scheduler used by default.
+   */
+  private static ControlLoopScheduler defaultScheduler;
+
+  /**
+   * Executor ticking the loops.
+   */
+  private final ScheduledExecutorService executor;
+
+  /**
+   * Loops that have not yet ended.
+   */
+  private final Set<ControlLoop> activeLoops = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Explicit constructor.
+   *
+   * @param exec
+   *          the executor on which loops are ticked
+   */
+  public ControlLoopScheduler(final ScheduledExecutorService exec) {
+    executor = exec;
+  }
+
+  /**
+   * Get the default scheduler, whose loops share one daemon thread. PID ticks
+   * are short, so one thread serves many loops.
+   *
+   * @return the scheduler
+   */
+  public static synchronized ControlLoopScheduler getDefault() {
+    if (defaultScheduler == null) {
+      final ScheduledThreadPoolExecutor exec = new ScheduledThreadPoolExecutor(1, r -> {
+        final Thread t = new Thread(r, "smr-control-loop");
+        t.setDaemon(true);
+        return t;
+      });
+      exec.setRemoveOnCancelPolicy(true);
+      defaultScheduler = new ControlLoopScheduler(exec);
+    }
+    return defaultScheduler;
+  }
+
+  /**
+   * Start ticking a controller. The controller is switched to automatic mode
+   * and ticked once per sample interval until the goal is reached or the tick
+   * budget is spent.
+   *
+   * @param name
+   *          name of the loop, for diagnostics
+   * @param pid
+   *          the controller
+   * @param goal
+   *          true when the controlled value has reached the setpoint
+   * @param maxTicks
+   *          maximum number of ticks before giving up
+   * @return the loop, whose reachedSetpoint future reports the outcome
+   */
+  public ControlLoop start(final String name, final PidController pid,
+      final BooleanSupplier goal, final int maxTicks) {
+
+    final long period = TimeUnit.MILLISECONDS.toNanos(pid.getSampleTime());
+    final ControlLoop loop = new ControlLoop(name, pid, period, goal, maxTicks);
+
+    activeLoops.add(loop);
+    loop.reachedSetpoint().whenComplete((result, err) -> activeLoops.remove(loop));
+
+    pid.setMode(PidController.AUTOMATIC_MODE);
+    loop.setSchedule(executor.scheduleAtFixedRate(loop, 0, period, TimeUnit.NANOSECONDS));
+    return loop;
+  }
+
+  /**
+   * Tick an arbitrary task, such as an autotuning experiment, at a fixed rate
+   * on the shared executor.
+   *
+   * @param tick
+   *          the task
+   * @param periodMillis
+   *          the tick period in milliseconds
+   * @return a handle with which to cancel the task
+   */
+  public ScheduledFuture<?> scheduleAtFixedRate(final Runnable tick, final long periodMillis) {
+    return executor.scheduleAtFixedRate(tick, 0, TimeUnit.MILLISECONDS.toNanos(periodMillis),
+        TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Get the number of loops that have not yet ended.
+   *
+   * @return the count
+   */
+  public int getActiveLoopCount() {
+    return activeLoops.size();
+  }
+
+  /**
+   * Report the state of every active loop.
+   *
+   * @return the status of each loop, keyed by name
+   */
+  @SuppressWarnings("unchecked")
+  public JSONObject getStatus() {
+    final JSONObject result = new JSONObject();
+    for (ControlLoop loop : activeLoops) {
+      result.put(loop.getName(), loop.getStatus());
+    }
+    return result;
+  }
+
+  /**
+   * Cancel every active loop and stop the executor.
+   */
+  public void shutdown() {
+    for (ControlLoop loop : activeLoops) {
+      loop.cancel();
+    }
+    executor.shutdown();
+  }
+}
@@ -121,4 +121,107 @@ public class Conversions {
   public static final double wsToKwh(final double ws) {
     return ws / 3600000.0d;
   }
+
+  /**
+   * Multiply a series of values by a conversion factor.
+   *
+   * @param in
+   *          the values
+   * @param out
+   *          receives the converted values; at least as long as in, and may be
+   *          in itself
+   * @param factor
+   *          the conversion factor
+   */
+  private static void scale(final double[] in, final double[] out, final double factor) {
+    for (int i = 0; i < in.length; i++) {
+      out[i] = in[i] * factor;
+    }
+  }
+
+  /**
+   * knotsToKph - convert a series of speeds from knots to kilometers per hour.
+   *
+   * @param knots
+   *          are the input speeds
+   * @param kph
+   *          receives the equivalent speeds; may be the input array
+   */
+  public static final void knotsToKph(final double[] knots, final double[] kph) {
+    scale(knots, kph, 1.852d);
+  }
+
+  /**
+   * knotsToMph - convert a series of speeds from knots to miles per hour.
+   *
+   * @param knots
+   *          are the input speeds
+   * @param mph
+   *          receives the equivalent speeds; may be the input array
+   */
+  public static final void knotsToMph(final double[] knots, final double[] mph) {
+    scale(knots, mph, 1.15077945d);
+  }
+
+  /**
+   * knotsToMps - convert a series of speeds from knots to meters per second.
+   *
+   * @param knots
+   *          are the input speeds
+   * @param mps
+   *          receives the equivalent speeds; may be the input array
+   */
+  public static final void knotsToMps(final double[] knots, final double[] mps) {
+    scale(knots, mps, 0.51444444d);
+  }
+
+  /**
+   * mpsToKnots - convert a series of speeds from meters per second to knots.
+   *
+   * @param mps
+   *          are the input speeds
+   * @param knots
+   *          receives the equivalent speeds; may be the input array
+   */
+  public static final void mpsToKnots(final double[] mps, final double[] knots) {
+    scale(mps, knots, 1.94384449d);
+  }
+
+  /**
+   * mpsToKph - convert a series of speeds from meters per second to
+   * kilometers per hour.
+   *
+   * @param mps
+   *          are the input speeds
+   * @param kph
+   *          receives the equivalent speeds; may be the input array
+   */
+  public static final void mpsToKph(final double[] mps, final double[] kph) {
+    scale(mps, kph, 3.6d);
+  }
+
+  /**
+   * mpsToMph - convert a series of speeds from meters per second to miles per
+   * hour.
+   *
+   * @param mps
+   *          are the input speeds
+   * @param mph
+   *          receives the equivalent speeds; may be the input array
+   */
+  public static final void mpsToMph(final double[] mps, final double[] mph) {
+    scale(mps, mph, 2.23693629d);
+  }
+
+  /**
+   * Convert a series of energies from watt-seconds to kilowatt hours.
+   *
+   * @param ws
+   *          energies in watt-seconds (aka joules)
+   * @param kwh
+   *          receives the energies in kilowatt hours; may be the input array
+   */
+  public static final void wsToKwh(final double[] ws, final double[] kwh) {
+    scale(ws, kwh, 1.0d / 3600000.0d);
+  }
 }
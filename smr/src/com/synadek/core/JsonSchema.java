@@ -40,11 +40,25 @@ public class JsonSchema {
   public static JSONObject schemaNumber(final String desc, final double min,
       final boolean exclusiveMin) {
     final JSONObject result = new JSONObject();
-    result.put(JSON_KEY_DESCRIPTION,
-        "Maximum depth of anchor i.e., length of anchor chain in meters.");
+    result.put(JSON_KEY_DESCRIPTION, desc);
     result.put(JSON_KEY_SCHEMA_TYPE, "number");
-    result.put(JSON_KEY_SCHEMA_MINIMUM, Double.valueOf(0));
-    result.put(JSON_KEY_EXCLUSIVE_MINIMUM, Boolean.TRUE);
+    result.put(JSON_KEY_SCHEMA_MINIMUM, Double.valueOf(min));
+    result.put(JSON_KEY_EXCLUSIVE_MINIMUM, Boolean.valueOf(exclusiveMin));
+    return result;
+  }
+
+  /**
+   * Create a JSON schema definition for a string.
+   *
+   * @param desc
+   *          description of the field
+   * @return the schema object
+   */
+  @SuppressWarnings("unchecked")
+  public static JSONObject schemaString(final String desc) {
+    final JSONObject result = new JSONObject();
+    result.put(JSON_KEY_DESCRIPTION, desc);
+    result.put(JSON_KEY_SCHEMA_TYPE, "string");
     return result;
   }
 
@@ -90,8 +104,8 @@ public class JsonSchema {
    */
   @SuppressWarnings("unchecked")
   public void setProperty(final String key, final JSONObject propSchema, final boolean required) {
-    JSONObject props = (JSONObject) schema.get("properties");
-    JSONArray reqd = (JSONArray) schema.get("reqd");
+    JSONObject props = (JSONObject) schema.get(JSON_KEY_SCHEMA_PROPERTIES);
+    JSONArray reqd = (JSONArray) schema.get(JSON_KEY_SCHEMA_REQUIRED);
 
     // Update the property definition
     props.put(key, propSchema);
@@ -0,0 +1,365 @@
+/**
+ * KalmanFilter.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.core;
+
+import java.util.Arrays;
+
+/**
+ * A Kalman filter over small, fixed-size state vectors. Every matrix is a
+ * preallocated row-major double array, so predict and update allocate nothing.
+ * For an extended Kalman filter the caller refreshes the transition matrix and
+ * measurement matrix with the current Jacobians before each step.
+ *
+ * <p>
+ * Not thread safe; the owner serializes predict and update.
+ * </p>
+ */
+public final class KalmanFilter {
+
+  /**
+   * Number of state variables.
+   */
+  private final int n;
+
+  /**
+   * Largest measurement dimension accepted by update.
+   */
+  private final int maxM;
+
+  /**
+   * State estimate x.
+   */
+  private final double[] x;
+
+  /**
+   * Estimate covariance P (n x n).
+   */
+  private final double[] p;
+
+  /**
+   * State transition F (n x n).
+   */
+  private final double[] f;
+
+  /**
+   * Process noise covariance Q (n x n).
+   */
+  private final double[] q;
+
+  /**
+   * Scratch state vector.
+   */
+  private final double[] xs;
+
+  /**
+   * Scratch n x n matrix.
+   */
+  private final double[] nn;
+
+  /**
+   * P H' (n x m).
+   */
+  private final double[] pht;
+
+  /**
+   * Innovation covariance S and, after inversion, its inverse (m x m).
+   */
+  private final double[] s;
+
+  /**
+   * Gauss-Jordan work space (m x 2m).
+   */
+  private final double[] aug;
+
+  /**
+   * Kalman gain K (n x m).
+   */
+  private final double[] k;
+
+  /**
+   * Innovation y (m).
+   */
+  private final double[] y;
+
+  /**
+   * Squared Mahalanobis distance of the last innovation.
+   */
+  private double lastDistance;
+
+  /**
+   * Explicit constructor. The state starts at zero with identity covariance,
+   * transition and zero process noise.
+   *
+   * @param states
+   *          number of state variables
+   * @param maxMeasurements
+   *          largest measurement dimension that will be applied
+   */
+  public KalmanFilter(final int states, final int maxMeasurements) {
+    n = states;
+    maxM = maxMeasurements;
+    x = new double[n];
+    p = new double[n * n];
+    f = new double[n * n];
+    q = new double[n * n];
+    xs = new double[n];
+    nn = new double[n * n];
+    pht = new double[n * maxM];
+    s = new double[maxM * maxM];
+    aug = new double[maxM * maxM * 2];
+    k = new double[n * maxM];
+    y = new double[maxM];
+    for (int i = 0; i < n; i++) {
+      p[i * n + i] = 1.0;
+      f[i * n + i] = 1.0;
+    }
+  }
+
+  /**
+   * Get the state vector, for reading or initializing in place.
+   *
+   * @return the state
+   */
+  public double[] getState() {
+    return x;
+  }
+
+  /**
+   * Get the covariance matrix, for reading or initializing in place.
+   *
+   * @return P, row-major
+   */
+  public double[] getCovariance() {
+    return p;
+  }
+
+  /**
+   * Get the transition matrix, to be filled before predict.
+   *
+   * @return F, row-major
+   */
+  public double[] getTransition() {
+    return f;
+  }
+
+  /**
+   * Get the process noise matrix, to be filled before predict.
+   *
+   * @return Q, row-major
+   */
+  public double[] getProcessNoise() {
+    return q;
+  }
+
+  /**
+   * Get the squared Mahalanobis distance of the last measurement, for
+   * diagnostics.
+   *
+   * @return the distance
+   */
+  public double getLastDistance() {
+    return lastDistance;
+  }
+
+  /**
+   * Propagate the state: x = F x, P = F P F' + Q.
+   */
+  public void predict() {
+    for (int i = 0; i < n; i++) {
+      double sum = 0.0;
+      for (int j = 0; j < n; j++) {
+        sum += f[i * n + j] * x[j];
+      }
+      xs[i] = sum;
+    }
+    System.arraycopy(xs, 0, x, 0, n);
+
+    // nn = F P
+    for (int i = 0; i < n; i++) {
+      for (int j = 0; j < n; j++) {
+        double sum = 0.0;
+        for (int l = 0; l < n; l++) {
+          sum += f[i * n + l] * p[l * n + j];
+        }
+        nn[i * n + j] = sum;
+      }
+    }
+
+    // P = nn F' + Q
+    for (int i = 0; i < n; i++) {
+      for (int j = 0; j < n; j++) {
+        double sum = q[i * n + j];
+        for (int l = 0; l < n; l++) {
+          sum += nn[i * n + l] * f[j * n + l];
+        }
+        p[i * n + j] = sum;
+      }
+    }
+  }
+
+  /**
+   * Apply a measurement z = H x + v with v ~ N(0, R).
+   *
+   * @param z
+   *          the measurement (m)
+   * @param h
+   *          the measurement matrix (m x n, row-major)
+   * @param r
+   *          the measurement noise covariance (m x m, row-major)
+   * @param m
+   *          the measurement dimension
+   * @param gate
+   *          reject the measurement if its squared Mahalanobis distance
+   *          exceeds this; zero or less accepts every measurement
+   * @return true if the measurement was applied
+   */
+  public boolean update(final double[] z, final double[] h, final double[] r, final int m,
+      final double gate) {
+    if (m > maxM) {
+      throw new IllegalArgumentException("Measurement dimension " + m + " exceeds " + maxM);
+    }
+
+    // y = z - H x
+    for (int i = 0; i < m; i++) {
+      double sum = 0.0;
+      for (int j = 0; j < n; j++) {
+        sum += h[i * n + j] * x[j];
+      }
+      y[i] = z[i] - sum;
+    }
+
+    // pht = P H'
+    for (int i = 0; i < n; i++) {
+      for (int j = 0; j < m; j++) {
+        double sum = 0.0;
+        for (int l = 0; l < n; l++) {
+          sum += p[i * n + l] * h[j * n + l];
+        }
+        pht[i * m + j] = sum;
+      }
+    }
+
+    // S = H P H' + R, then invert in place
+    for (int i = 0; i < m; i++) {
+      for (int j = 0; j < m; j++) {
+        double sum = r[i * m + j];
+        for (int l = 0; l < n; l++) {
+          sum += h[i * n + l] * pht[l * m + j];
+        }
+        s[i * m + j] = sum;
+      }
+    }
+    if (!invert(m)) {
+      return false;
+    }
+
+    // Reject outliers before touching the state
+    double distance = 0.0;
+    for (int i = 0; i < m; i++) {
+      for (int j = 0; j < m; j++) {
+        distance += y[i] * s[i * m + j] * y[j];
+      }
+    }
+    lastDistance = distance;
+    if (gate > 0.0 && distance > gate) {
+      return false;
+    }
+
+    // K = pht S^-1
+    for (int i = 0; i < n; i++) {
+      for (int j = 0; j < m; j++) {
+        double sum = 0.0;
+        for (int l = 0; l < m; l++) {
+          sum += pht[i * m + l] * s[l * m + j];
+        }
+        k[i * m + j] = sum;
+      }
+    }
+
+    // x = x + K y
+    for (int i = 0; i < n; i++) {
+      double sum = 0.0;
+      for (int j = 0; j < m; j++) {
+        sum += k[i * m + j] * y[j];
+      }
+      x[i] += sum;
+    }
+
+    // P = P - K (H P) = P - K pht', kept symmetric
+    for (int i = 0; i < n; i++) {
+      for (int j = 0; j < n; j++) {
+        double sum = 0.0;
+        for (int l = 0; l < m; l++) {
+          sum += k[i * m + l] * pht[j * m + l];
+        }
+        nn[i * n + j] = p[i * n + j] - sum;
+      }
+    }
+    for (int i = 0; i < n; i++) {
+      for (int j = i; j < n; j++) {
+        final double avg = 0.5 * (nn[i * n + j] + nn[j * n + i]);
+        p[i * n + j] = avg;
+        p[j * n + i] = avg;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Invert the leading m x m block of s in place by Gauss-Jordan elimination
+   * with partial pivoting.
+   *
+   * @param m
+   *          the dimension
+   * @return false if the matrix is singular
+   */
+  private boolean invert(final int m) {
+    final int w = 2 * m;
+    Arrays.fill(aug, 0, m * w, 0.0);
+    for (int i = 0; i < m; i++) {
+      System.arraycopy(s, i * m, aug, i * w, m);
+      aug[i * w + m + i] = 1.0;
+    }
+
+    for (int col = 0; col < m; col++) {
+      int pivot = col;
+      for (int row = col + 1; row < m; row++) {
+        if (Math.abs(aug[row * w + col]) > Math.abs(aug[pivot * w + col])) {
+          pivot = row;
+        }
+      }
+      final double pv = aug[pivot * w + col];
+      if (Math.abs(pv) < 1e-300) {
+        return false;
+      }
+      if (pivot != col) {
+        for (int j = 0; j < w; j++) {
+          final double t = aug[col * w + j];
+          aug[col * w + j] = aug[pivot * w + j];
+          aug[pivot * w + j] = t;
+        }
+      }
+      for (int j = 0; j < w; j++) {
+        aug[col * w + j] /= pv;
+      }
+      for (int row = 0; row < m; row++) {
+        final double factor = aug[row * w + col];
+        if (row != col && factor != 0.0) {
+          for (int j = 0; j < w; j++) {
+            aug[row * w + j] -= factor * aug[col * w + j];
+          }
+        }
+      }
+    }
+
+    for (int i = 0; i < m; i++) {
+      System.arraycopy(aug, i * w + m, s, i * m, m);
+    }
+    return true;
+  }
+}
@@ -0,0 +1,82 @@
+/**
+ * LabelCache.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.core;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Localized text for a fixed, indexed set of resource keys. The first request
+ * for a Locale resolves every key through ResourceFormatter into an immutable
+ * array; later requests are an array index, which suits status pages that
+ * render a label for every sample.
+ */
+public final class LabelCache {
+
+  /**
+   * Resource keys, by index.
+   */
+  private final String[] keys;
+
+  /**
+   * Resolved text for each Locale, by index.
+   */
+  private final Map<Locale, String[]> cache = new ConcurrentHashMap<>();
+
+  /**
+   * Explicit constructor.
+   *
+   * @param resourceKeys
+   *          the resource keys, by index
+   */
+  public LabelCache(final String... resourceKeys) {
+    keys = resourceKeys.clone();
+  }
+
+  /**
+   * Get the localized text of a key.
+   *
+   * @param idx
+   *          index of the key
+   * @param locale
+   *          the locale, or null for the default locale
+   * @return the text, or null if the index is out of range
+   */
+  public String get(final int idx, final Locale locale) {
+    if (idx < 0 || idx >= keys.length) {
+      return null;
+    }
+    final Locale loc = locale == null ? Locale.getDefault() : locale;
+    return cache.computeIfAbsent(loc, this::resolve)[idx];
+  }
+
+  /**
+   * Get the number of keys.
+   *
+   * @return the count
+   */
+  public int size() {
+    return keys.length;
+  }
+
+  /**
+   * Resolve every key for a locale.
+   *
+   * @param locale
+   *          the locale
+   * @return the text of each key
+   */
+  private String[] resolve(final Locale locale) {
+    final String[] result = new String[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      result[i] = ResourceFormatter.getMessage(keys[i], locale);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,210 @@
+/**
+ * LatencyHistogram.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.json.simple.JSONObject;
+
+/**
+ * Lock-free histogram of latencies in nanoseconds, in the style of
+ * HdrHistogram. Values are counted in log-linear buckets: each power of two is
+ * divided into 32 sub-buckets, so any percentile is reported to within about
+ * 3% of the true value from 1 ns up to about an hour, using a fixed 10 KB of
+ * counters. Recording is a few atomic increments and never blocks, so it is
+ * safe on event-handling threads.
+ */
+public class LatencyHistogram {
+
+  /**
+   * Number of bits of precision within each power of two.
+   */
+  private static final int SUB_BUCKET_BITS = 6;
+
+  /**
+   * Number of sub-buckets in the linear first range.
+   */
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+  /**
+   * Number of sub-buckets for each power of two above the first range.
+   */
+  private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT / 2;
+
+  /**
+   * Largest power of two tracked (2^42 ns is about 73 minutes). Larger values
+   * are counted in the last bucket.
+   */
+  private static final int MAX_EXPONENT = 41;
+
+  /**
+   * Number of buckets.
+   */
+  private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKET_HALF
+      + SUB_BUCKET_COUNT;
+
+  /**
+   * Nanoseconds per microsecond, for reporting.
+   */
+  private static final double NANOS_PER_MICRO = 1000.0;
+
+  /**
+   * Count of values in each bucket.
+   */
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+  /**
+   * Number of values recorded.
+   */
+  private final AtomicLong totalCount = new AtomicLong();
+
+  /**
+   * Sum of the values recorded.
+   */
+  private final AtomicLong totalNanos = new AtomicLong();
+
+  /**
+   * Largest value recorded.
+   */
+  private final AtomicLong maxNanos = new AtomicLong();
+
+  /**
+   * Record a latency.
+   *
+   * @param nanos
+   *          the latency in nanoseconds; negative values are counted as zero
+   */
+  public void record(final long nanos) {
+    final long val = Math.max(0L, nanos);
+    counts.incrementAndGet(bucketIndex(val));
+    totalCount.incrementAndGet();
+    totalNanos.addAndGet(val);
+    maxNanos.accumulateAndGet(val, Math::max);
+  }
+
+  /**
+   * Compute the bucket in which a value is counted.
+   *
+   * @param val
+   *          the value (non-negative)
+   * @return the index of the bucket
+   */
+  static int bucketIndex(final long val) {
+    if (val < SUB_BUCKET_COUNT) {
+      return (int) val;
+    }
+    final int exponent = Math.min(MAX_EXPONENT, 63 - Long.numberOfLeadingZeros(val));
+    final int shift = exponent - SUB_BUCKET_BITS + 1;
+    final long sub = Math.min(SUB_BUCKET_COUNT - 1, val >>> shift);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_HALF + (int) sub;
+  }
+
+  /**
+   * Compute the largest value counted in a bucket.
+   *
+   * @param index
+   *          the index of the bucket
+   * @return the largest value in that bucket
+   */
+  static long highestValueInBucket(final int index) {
+    if (index < SUB_BUCKET_COUNT) {
+      return index;
+    }
+    final int shift = index / SUB_BUCKET_HALF - 1;
+    final long sub = index % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+    return ((sub + 1) << shift) - 1;
+  }
+
+  /**
+   * Get the number of values recorded.
+   *
+   * @return the count
+   */
+  public long getCount() {
+    return totalCount.get();
+  }
+
+  /**
+   * Get the largest value recorded.
+   *
+   * @return the maximum latency in nanoseconds
+   */
+  public long getMax() {
+    return maxNanos.get();
+  }
+
+  /**
+   * Get the mean of the values recorded.
+   *
+   * @return the mean latency in nanoseconds, or zero if nothing was recorded
+   */
+  public double getMean() {
+    final long count = totalCount.get();
+    return count == 0 ? 0.0 : (double) totalNanos.get() / count;
+  }
+
+  /**
+   * Get the value at a percentile. Values are recorded concurrently, so the
+   * result describes a recent state of the histogram.
+   *
+   * @param percentile
+   *          the percentile (0-100)
+   * @return the latency in nanoseconds at or below which that percentage of
+   *         values fall
+   */
+  public long getValueAtPercentile(final double percentile) {
+    long total = 0;
+    for (int idx = 0; idx < BUCKET_COUNT; idx++) {
+      total += counts.get(idx);
+    }
+    if (total == 0) {
+      return 0;
+    }
+
+    final long target = Math.max(1L,
+        (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * total));
+    long seen = 0;
+    for (int idx = 0; idx < BUCKET_COUNT; idx++) {
+      seen += counts.get(idx);
+      if (seen >= target) {
+        return Math.min(highestValueInBucket(idx), maxNanos.get());
+      }
+    }
+    return maxNanos.get();
+  }
+
+  /**
+   * Discard all recorded values.
+   */
+  public void reset() {
+    for (int idx = 0; idx < BUCKET_COUNT; idx++) {
+      counts.set(idx, 0L);
+    }
+    totalCount.set(0L);
+    totalNanos.set(0L);
+    maxNanos.set(0L);
+  }
+
+  /**
+   * Summarize the histogram in microseconds.
+   *
+   * @return count, mean, p50, p90, p99, p99.9 and max
+   */
+  @SuppressWarnings("unchecked")
+  public JSONObject toJson() {
+    final JSONObject result = new JSONObject();
+    result.put("count", Long.valueOf(getCount()));
+    result.put("meanMicros", Double.valueOf(getMean() / NANOS_PER_MICRO));
+    result.put("p50Micros", Double.valueOf(getValueAtPercentile(50.0) / NANOS_PER_MICRO));
+    result.put("p90Micros", Double.valueOf(getValueAtPercentile(90.0) / NANOS_PER_MICRO));
+    result.put("p99Micros", Double.valueOf(getValueAtPercentile(99.0) / NANOS_PER_MICRO));
+    result.put("p999Micros", Double.valueOf(getValueAtPercentile(99.9) / NANOS_PER_MICRO));
+    result.put("maxMicros", Double.valueOf(getMax() / NANOS_PER_MICRO));
+    return result;
+  }
+}
@@ -38,6 +38,14 @@ public class MyResources extends ListResourceBundle {
         { "label.severegale", "Severe gale" }, { "label.storm", "Storm" },
         { "label.strongbreeze", "Strong breeze" }, { "label.violentstorm", "Violent storm" },
 
+        { "label.seastate.glassy", "Calm (glassy)" },
+        { "label.seastate.rippled", "Calm (rippled)" },
+        { "label.seastate.smooth", "Smooth" }, { "label.seastate.slight", "Slight" },
+        { "label.seastate.moderate", "Moderate" }, { "label.seastate.rough", "Rough" },
+        { "label.seastate.veryrough", "Very rough" }, { "label.seastate.high", "High" },
+        { "label.seastate.veryhigh", "Very high" },
+        { "label.seastate.phenomenal", "Phenomenal" },
+
         { "msg.water.calm", "Sea like a mirror" },
         { "msg.water.freshbreeze",
             "Moderate waves, taking a more pronounced long form; "
@@ -0,0 +1,482 @@
+/**
+ * PidBank.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.core;
+
+import java.util.Arrays;
+
+/**
+ * A bank of double-precision PID controllers stored in struct-of-arrays form,
+ * so that the rudder, propeller and anchor loops (or any number of others) can
+ * be stepped together in one pass without allocating.
+ *
+ * <p>
+ * Each controller uses the parallel form u = Kp*e + I + D with the integral
+ * state kept in output units. The derivative acts on the measurement rather
+ * than the error, so a setpoint change causes no derivative kick, and is
+ * smoothed by a first-order low-pass filter. The time step is the difference
+ * between successive System.nanoTime (or SimulationClock.nanoTime) values
+ * passed to compute, not a nominal sample interval.
+ * </p>
+ *
+ * <p>
+ * Example of use at 50 Hz:
+ * </p>
+ * <p>
+ * int rudder = bank.add(2.0, 0.5, 0.1, -1.0, 1.0); ... bank.setSetpoint(rudder,
+ * desiredHeading); ... bank.compute(measurements, outputs, System.nanoTime());
+ * </p>
+ */
+public class PidBank {
+
+  /**
+   * Strategies that keep the integral term from winding up while the output is
+   * saturated.
+   */
+  public enum AntiWindup {
+    /**
+     * Clamp the integral term to the output range (the PidController
+     * strategy).
+     */
+    CLAMPING,
+    /**
+     * Stop integrating while the output is saturated and the error would drive
+     * it further into saturation.
+     */
+    CONDITIONAL_INTEGRATION,
+    /**
+     * Bleed the integral term by the difference between the saturated and
+     * unsaturated output, scaled by a tracking gain.
+     */
+    BACK_CALCULATION,
+  }
+
+  /**
+   * Number of nanoseconds in one second.
+   */
+  private static final double NANOS_PER_SECOND = 1.0e9;
+
+  /**
+   * Marks a controller that has not yet been stepped.
+   */
+  private static final long NEVER = Long.MIN_VALUE;
+
+  /**
+   * Anti-windup strategies, indexed by ordinal.
+   */
+  private static final AntiWindup[] STRATEGIES = AntiWindup.values();
+
+  /**
+   * Ordinal of the conditional integration strategy.
+   */
+  private static final int MODE_CONDITIONAL = AntiWindup.CONDITIONAL_INTEGRATION.ordinal();
+
+  /**
+   * Ordinal of the back-calculation strategy.
+   */
+  private static final int MODE_BACK_CALCULATION = AntiWindup.BACK_CALCULATION.ordinal();
+
+  // Per-controller state indexed by controller number
+  private double[] kp;
+  private double[] ki;
+  private double[] kd;
+  private double[] setpoint;
+  private double[] outMin;
+  private double[] outMax;
+  private double[] filterTau;
+  private double[] trackingGain;
+  private int[] antiWindup;
+  private boolean[] enabled;
+  private double[] integral;
+  private double[] lastMeasurement;
+  private double[] derivative;
+  private double[] output;
+  private long[] lastNanos;
+
+  /**
+   * Number of controllers in the bank.
+   */
+  private int size;
+
+  /**
+   * Default constructor.
+   */
+  public PidBank() {
+    this(4);
+  }
+
+  /**
+   * Explicit constructor.
+   *
+   * @param capacity
+   *          number of controllers for which to preallocate storage
+   */
+  public PidBank(final int capacity) {
+    allocate(Math.max(1, capacity));
+  }
+
+  /**
+   * Allocate (or grow) the state arrays.
+   *
+   * @param capacity
+   *          the new capacity
+   */
+  private void allocate(final int capacity) {
+    kp = grow(kp, capacity);
+    ki = grow(ki, capacity);
+    kd = grow(kd, capacity);
+    setpoint = grow(setpoint, capacity);
+    outMin = grow(outMin, capacity);
+    outMax = grow(outMax, capacity);
+    filterTau = grow(filterTau, capacity);
+    trackingGain = grow(trackingGain, capacity);
+    integral = grow(integral, capacity);
+    lastMeasurement = grow(lastMeasurement, capacity);
+    derivative = grow(derivative, capacity);
+    output = grow(output, capacity);
+    antiWindup = antiWindup == null ? new int[capacity] : Arrays.copyOf(antiWindup, capacity);
+    enabled = enabled == null ? new boolean[capacity] : Arrays.copyOf(enabled, capacity);
+    lastNanos = lastNanos == null ? new long[capacity] : Arrays.copyOf(lastNanos, capacity);
+  }
+
+  /**
+   * Grow one state array.
+   *
+   * @param arr
+   *          the array, or null
+   * @param capacity
+   *          the new capacity
+   * @return the grown array
+   */
+  private static double[] grow(final double[] arr, final int capacity) {
+    return arr == null ? new double[capacity] : Arrays.copyOf(arr, capacity);
+  }
+
+  /**
+   * Add a controller to the bank. The controller starts enabled, with
+   * clamping anti-windup and no derivative filter.
+   *
+   * @param kpGain
+   *          proportional gain
+   * @param kiGain
+   *          integral gain (per second)
+   * @param kdGain
+   *          derivative gain (seconds)
+   * @param minOutput
+   *          minimum output value
+   * @param maxOutput
+   *          maximum output value
+   * @return the index of the new controller
+   */
+  public synchronized int add(final double kpGain, final double kiGain, final double kdGain,
+      final double minOutput, final double maxOutput) {
+    if (size == kp.length) {
+      allocate(2 * size);
+    }
+    final int idx = size++;
+    setTunings(idx, kpGain, kiGain, kdGain);
+    setOutputLimits(idx, minOutput, maxOutput);
+    filterTau[idx] = 0.0;
+    trackingGain[idx] = kpGain == 0.0 ? 1.0 : kiGain / kpGain;
+    antiWindup[idx] = AntiWindup.CLAMPING.ordinal();
+    enabled[idx] = true;
+    reset(idx, 0.0, 0.0);
+    return idx;
+  }
+
+  /**
+   * Get the number of controllers in the bank.
+   *
+   * @return the count
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Update the gains of a controller.
+   *
+   * @param idx
+   *          the controller
+   * @param kpGain
+   *          proportional gain
+   * @param kiGain
+   *          integral gain (per second)
+   * @param kdGain
+   *          derivative gain (seconds)
+   */
+  public void setTunings(final int idx, final double kpGain, final double kiGain,
+      final double kdGain) {
+    if (kpGain < 0 || kiGain < 0 || kdGain < 0) {
+      return;
+    }
+    kp[idx] = kpGain;
+    ki[idx] = kiGain;
+    kd[idx] = kdGain;
+  }
+
+  /**
+   * Update the output range of a controller.
+   *
+   * @param idx
+   *          the controller
+   * @param minOutput
+   *          minimum output value
+   * @param maxOutput
+   *          maximum output value
+   */
+  public void setOutputLimits(final int idx, final double minOutput, final double maxOutput) {
+
+    // Basic integrity check
+    if (minOutput > maxOutput) {
+      return;
+    }
+
+    outMin[idx] = minOutput;
+    outMax[idx] = maxOutput;
+    output[idx] = clamp(output[idx], minOutput, maxOutput);
+    integral[idx] = clamp(integral[idx], minOutput, maxOutput);
+  }
+
+  /**
+   * Set the time constant of the low-pass filter on the derivative term.
+   *
+   * @param idx
+   *          the controller
+   * @param tauSeconds
+   *          the time constant; zero disables filtering
+   */
+  public void setDerivativeFilter(final int idx, final double tauSeconds) {
+    filterTau[idx] = Math.max(0.0, tauSeconds);
+  }
+
+  /**
+   * Select the anti-windup strategy of a controller.
+   *
+   * @param idx
+   *          the controller
+   * @param mode
+   *          the strategy
+   * @param tracking
+   *          tracking gain (per second) for BACK_CALCULATION; ignored by the
+   *          other strategies. Ki/Kp is a common choice.
+   */
+  public void setAntiWindup(final int idx, final AntiWindup mode, final double tracking) {
+    antiWindup[idx] = mode.ordinal();
+    trackingGain[idx] = Math.max(0.0, tracking);
+  }
+
+  /**
+   * Get the anti-windup strategy of a controller.
+   *
+   * @param idx
+   *          the controller
+   * @return the strategy
+   */
+  public AntiWindup getAntiWindup(final int idx) {
+    return STRATEGIES[antiWindup[idx]];
+  }
+
+  /**
+   * Set the target value of a controller.
+   *
+   * @param idx
+   *          the controller
+   * @param target
+   *          the setpoint in measurement units
+   */
+  public void setSetpoint(final int idx, final double target) {
+    setpoint[idx] = target;
+  }
+
+  /**
+   * Get the target value of a controller.
+   *
+   * @param idx
+   *          the controller
+   * @return the setpoint
+   */
+  public double getSetpoint(final int idx) {
+    return setpoint[idx];
+  }
+
+  /**
+   * Enable or disable a controller. A disabled controller holds its output.
+   * On enabling, the controller is reset for a bumpless transfer from its
+   * current output.
+   *
+   * @param idx
+   *          the controller
+   * @param on
+   *          true to enable
+   */
+  public void setEnabled(final int idx, final boolean on) {
+    if (on && !enabled[idx]) {
+      reset(idx, lastMeasurement[idx], output[idx]);
+    }
+    enabled[idx] = on;
+  }
+
+  /**
+   * Reset the dynamic state of a controller.
+   *
+   * @param idx
+   *          the controller
+   * @param measurement
+   *          the current measurement
+   * @param currentOutput
+   *          the output the actuator currently has, so that the first step
+   *          continues from it without a bump
+   */
+  public void reset(final int idx, final double measurement, final double currentOutput) {
+    output[idx] = clamp(currentOutput, outMin[idx], outMax[idx]);
+    integral[idx] = output[idx];
+    lastMeasurement[idx] = measurement;
+    derivative[idx] = 0.0;
+    lastNanos[idx] = NEVER;
+  }
+
+  /**
+   * Get the most recent output of a controller.
+   *
+   * @param idx
+   *          the controller
+   * @return the output
+   */
+  public double getOutput(final int idx) {
+    return output[idx];
+  }
+
+  /**
+   * Get the integral term of a controller, e.g. to inspect windup.
+   *
+   * @param idx
+   *          the controller
+   * @return the integral term in output units
+   */
+  public double getIntegral(final int idx) {
+    return integral[idx];
+  }
+
+  /**
+   * Step one controller.
+   *
+   * @param idx
+   *          the controller
+   * @param measurement
+   *          the current measurement
+   * @param nanoTime
+   *          the current time in nanoseconds
+   * @return the new output
+   */
+  public double compute(final int idx, final double measurement, final long nanoTime) {
+    step(idx, measurement, nanoTime);
+    return output[idx];
+  }
+
+  /**
+   * Step every controller in the bank.
+   *
+   * @param measurements
+   *          the current measurement of each controller, by index
+   * @param outputs
+   *          receives the new output of each controller, by index
+   * @param nanoTime
+   *          the current time in nanoseconds
+   */
+  public void compute(final double[] measurements, final double[] outputs, final long nanoTime) {
+    final int count = size;
+    for (int idx = 0; idx < count; idx++) {
+      step(idx, measurements[idx], nanoTime);
+      outputs[idx] = output[idx];
+    }
+  }
+
+  /**
+   * Step one controller and store its output.
+   *
+   * @param idx
+   *          the controller
+   * @param y
+   *          the current measurement
+   * @param now
+   *          the current time in nanoseconds
+   */
+  private void step(final int idx, final double y, final long now) {
+
+    if (!enabled[idx]) {
+      return;
+    }
+
+    final long last = lastNanos[idx];
+    final double dt = last == NEVER ? 0.0 : (now - last) / NANOS_PER_SECOND;
+    lastNanos[idx] = now;
+    if (last != NEVER && dt <= 0.0) {
+      // Repeated timestamp: hold the output
+      lastMeasurement[idx] = y;
+      return;
+    }
+
+    final double lo = outMin[idx];
+    final double hi = outMax[idx];
+    final double error = setpoint[idx] - y;
+    final double proportional = kp[idx] * error;
+
+    // Derivative on measurement, low-pass filtered
+    if (dt > 0.0) {
+      final double raw = -(y - lastMeasurement[idx]) / dt;
+      final double tau = filterTau[idx];
+      final double alpha = tau > 0.0 ? dt / (tau + dt) : 1.0;
+      derivative[idx] += alpha * (raw - derivative[idx]);
+    }
+    lastMeasurement[idx] = y;
+    final double derivativeTerm = kd[idx] * derivative[idx];
+
+    final double increment = ki[idx] * error * dt;
+    double iterm = integral[idx];
+    final double result;
+
+    final int mode = antiWindup[idx];
+    if (mode == MODE_CONDITIONAL) {
+      // Integrate only if doing so does not deepen saturation
+      final double trial = proportional + iterm + increment + derivativeTerm;
+      if (trial > hi && increment > 0.0 || trial < lo && increment < 0.0) {
+        result = clamp(proportional + iterm + derivativeTerm, lo, hi);
+      } else {
+        iterm += increment;
+        result = clamp(trial, lo, hi);
+      }
+    } else if (mode == MODE_BACK_CALCULATION) {
+      // The integral tracks the saturated output
+      final double unsaturated = proportional + iterm + derivativeTerm;
+      result = clamp(unsaturated, lo, hi);
+      iterm += increment + trackingGain[idx] * (result - unsaturated) * dt;
+    } else {
+      // Clamp the integral to the output range
+      iterm = clamp(iterm + increment, lo, hi);
+      result = clamp(proportional + iterm + derivativeTerm, lo, hi);
+    }
+
+    integral[idx] = iterm;
+    output[idx] = result;
+  }
+
+  /**
+   * Bound a value to a range.
+   *
+   * @param val
+   *          the value
+   * @param lo
+   *          the minimum
+   * @param hi
+   *          the maximum
+   * @return the bounded value
+   */
+  private static double clamp(final double val, final double lo, final double hi) {
+    return val < lo ? lo : val > hi ? hi : val;
+  }
+}
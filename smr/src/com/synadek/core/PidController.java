@@ -7,6 +7,8 @@
 
 package com.synadek.core;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Proportional Integral Differential (PID) controller. Thanks to Brett
  * Beauregard for the code and excellent explanation at
@@ -34,7 +36,7 @@ public class PidController {
   public static final int AUTOMATIC_MODE = 1;
 
   /**
-   * Timestamp of last update to PID controls.
+   * Timestamp (System.nanoTime) of last update to PID controls.
    */
   private long lastTime;
 
@@ -127,6 +129,9 @@ public class PidController {
     // Capture the current input value as the 'last input'
     this.lastInput = this.actuator.getInputValue();
 
+    // Let the first call to compute update the controls
+    this.lastTime = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(sampleTimeMillis);
+
     // Initialize the integration term to the (range-bounded) current output
     // value
     if (outputValue > outMax) {
@@ -139,23 +144,29 @@ public class PidController {
   }
 
   /**
-   * Set the target level for the controller.
+   * Set the target level for the controller. The target is in the units of
+   * the actuator's input value, so it is not limited to the output range.
    *
    * @param target
    *          the new level
    */
   public void setTarget(final float target) {
-    if (target > this.outMax) {
-      this.setpointValue = this.outMax;
-    } else if (target < this.outMin) {
-      this.setpointValue = this.outMin;
-    } else {
-      this.setpointValue = target;
-    }
+    this.setpointValue = target;
+  }
+
+  /**
+   * Get the target level for the controller.
+   *
+   * @return the target
+   */
+  public float getTarget() {
+    return this.setpointValue;
   }
 
   /**
-   * Compute the next value and driver the actuator to that level.
+   * Compute the next value and driver the actuator to that level. The terms
+   * are only updated if at least one sample interval has passed since the last
+   * update, so compute may be called as often as convenient.
    */
   public void compute() {
 
@@ -164,38 +175,71 @@ public class PidController {
     }
 
     // Record the current time
-    final long now = System.currentTimeMillis();
-
-    // Record the elapsed time (ms) since the last invocation of the
-    // controller
-    final long timeChange = (now - lastTime);
+    final long now = System.nanoTime();
 
     // If at least sampleTime milliseconds have passed, update the
     // controls.
-    if (timeChange >= sampleTimeMillis) {
+    if (now - lastTime >= TimeUnit.MILLISECONDS.toNanos(sampleTimeMillis)) {
+      update(now);
+    }
+
+    drive();
+  }
+
+  /**
+   * Update the controls and drive the actuator unconditionally. Use step
+   * rather than compute when the controller is ticked at the sample interval
+   * by a scheduler such as ControlLoopScheduler, whose ticks may arrive
+   * slightly early or late.
+   */
+  public void step() {
+
+    if (!inAuto) {
+      return;
+    }
 
-      // Compute the error between current value and setpoint value
-      final float error = setpointValue - actuator.getInputValue();
+    update(System.nanoTime());
+    drive();
+  }
 
-      // Compute the integral term and be sure it is in range
-      integrationTerm += (ki * error);
-      if (integrationTerm > outMax) {
-        integrationTerm = outMax;
-      } else if (integrationTerm < outMin) {
-        integrationTerm = outMin;
-      }
+  /**
+   * Update the PID terms from the current input value.
+   *
+   * @param now
+   *          the current System.nanoTime
+   */
+  private void update(final long now) {
 
-      // Compute the derivative term
-      float derivativeInput = (inputValue - lastInput);
+    // Sample the input
+    inputValue = actuator.getInputValue();
 
-      // Compute PID Output
-      outputValue = kp * error + integrationTerm - kd * derivativeInput;
+    // Compute the error between current value and setpoint value
+    final float error = setpointValue - inputValue;
 
-      // Remember some variables for next time
-      this.lastInput = inputValue;
-      this.lastTime = now;
+    // Compute the integral term and be sure it is in range
+    integrationTerm += (ki * error);
+    if (integrationTerm > outMax) {
+      integrationTerm = outMax;
+    } else if (integrationTerm < outMin) {
+      integrationTerm = outMin;
     }
 
+    // Compute the derivative term
+    float derivativeInput = (inputValue - lastInput);
+
+    // Compute PID Output
+    outputValue = kp * error + integrationTerm - kd * derivativeInput;
+
+    // Remember some variables for next time
+    this.lastInput = inputValue;
+    this.lastTime = now;
+  }
+
+  /**
+   * Bound the output value and drive it to the actuator.
+   */
+  private void drive() {
+
     // Force output value to be in range
     if (outputValue > outMax) {
       outputValue = outMax;
@@ -207,6 +251,15 @@ public class PidController {
     this.actuator.setOutputValue(outputValue);
   }
 
+  /**
+   * Get the sample interval.
+   *
+   * @return the interval in milliseconds
+   */
+  public long getSampleTime() {
+    return sampleTimeMillis;
+  }
+
   /**
    * Update tuning parameters for PID.
    *
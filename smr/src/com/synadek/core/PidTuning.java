@@ -0,0 +1,228 @@
+/**
+ * PidTuning.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.core;
+
+import org.json.simple.JSONObject;
+
+/**
+ * PID gains identified by a RelayAutotuner, together with the ultimate gain
+ * and period from which they were derived. Integral gain is per second and
+ * derivative gain is in seconds, as expected by PidController.setTunings and
+ * PidBank.setTunings.
+ */
+public class PidTuning {
+
+  /**
+   * Rules for deriving gains from the ultimate gain Ku and period Tu.
+   */
+  public enum Rule {
+    /**
+     * Classic Ziegler-Nichols PID: Kp = 0.6 Ku, Ti = Tu / 2, Td = Tu / 8.
+     */
+    ZIEGLER_NICHOLS_PID(0.6, 0.5, 0.125),
+    /**
+     * Ziegler-Nichols PI: Kp = 0.45 Ku, Ti = Tu / 1.2.
+     */
+    ZIEGLER_NICHOLS_PI(0.45, 1.0 / 1.2, 0.0),
+    /**
+     * Conservative PID with little overshoot: Kp = 0.2 Ku, Ti = Tu / 2, Td =
+     * Tu / 3. Suits motors that should not hunt.
+     */
+    NO_OVERSHOOT(0.2, 0.5, 1.0 / 3.0);
+
+    /**
+     * Proportional gain as a fraction of Ku.
+     */
+    private final double kpFactor;
+
+    /**
+     * Integral time as a fraction of Tu.
+     */
+    private final double tiFactor;
+
+    /**
+     * Derivative time as a fraction of Tu.
+     */
+    private final double tdFactor;
+
+    /**
+     * Constructor.
+     *
+     * @param kpf
+     *          proportional gain as a fraction of Ku
+     * @param tif
+     *          integral time as a fraction of Tu
+     * @param tdf
+     *          derivative time as a fraction of Tu
+     */
+    Rule(final double kpf, final double tif, final double tdf) {
+      kpFactor = kpf;
+      tiFactor = tif;
+      tdFactor = tdf;
+    }
+  }
+
+  /**
+   * Ultimate gain.
+   */
+  private final double ultimateGain;
+
+  /**
+   * Ultimate period in seconds.
+   */
+  private final double ultimatePeriod;
+
+  /**
+   * Proportional gain.
+   */
+  private final double kp;
+
+  /**
+   * Integral gain (per second).
+   */
+  private final double ki;
+
+  /**
+   * Derivative gain (seconds).
+   */
+  private final double kd;
+
+  /**
+   * Explicit constructor.
+   *
+   * @param kpGain
+   *          proportional gain
+   * @param kiGain
+   *          integral gain (per second)
+   * @param kdGain
+   *          derivative gain (seconds)
+   * @param ku
+   *          ultimate gain, or zero if unknown
+   * @param tu
+   *          ultimate period in seconds, or zero if unknown
+   */
+  public PidTuning(final double kpGain, final double kiGain, final double kdGain, final double ku,
+      final double tu) {
+    kp = kpGain;
+    ki = kiGain;
+    kd = kdGain;
+    ultimateGain = ku;
+    ultimatePeriod = tu;
+  }
+
+  /**
+   * Derive gains from the ultimate gain and period.
+   *
+   * @param ku
+   *          ultimate gain
+   * @param tu
+   *          ultimate period in seconds
+   * @param rule
+   *          the tuning rule
+   * @return the tuning
+   */
+  public static PidTuning fromUltimate(final double ku, final double tu, final Rule rule) {
+    final double kpGain = rule.kpFactor * ku;
+    final double ti = rule.tiFactor * tu;
+    final double td = rule.tdFactor * tu;
+    return new PidTuning(kpGain, ti > 0.0 ? kpGain / ti : 0.0, kpGain * td, ku, tu);
+  }
+
+  /**
+   * Apply these gains to a controller.
+   *
+   * @param pid
+   *          the controller
+   */
+  public void applyTo(final PidController pid) {
+    pid.setTunings((float) kp, (float) ki, (float) kd);
+  }
+
+  /**
+   * Apply these gains to a controller in a bank.
+   *
+   * @param bank
+   *          the bank
+   * @param idx
+   *          the controller
+   */
+  public void applyTo(final PidBank bank, final int idx) {
+    bank.setTunings(idx, kp, ki, kd);
+  }
+
+  /**
+   * Get the proportional gain.
+   *
+   * @return the gain
+   */
+  public double getKp() {
+    return kp;
+  }
+
+  /**
+   * Get the integral gain.
+   *
+   * @return the gain per second
+   */
+  public double getKi() {
+    return ki;
+  }
+
+  /**
+   * Get the derivative gain.
+   *
+   * @return the gain in seconds
+   */
+  public double getKd() {
+    return kd;
+  }
+
+  /**
+   * Get the ultimate gain.
+   *
+   * @return Ku
+   */
+  public double getUltimateGain() {
+    return ultimateGain;
+  }
+
+  /**
+   * Get the ultimate period.
+   *
+   * @return Tu in seconds
+   */
+  public double getUltimatePeriod() {
+    return ultimatePeriod;
+  }
+
+  /**
+   * Represent the tuning as JSON.
+   *
+   * @return the gains, ultimate gain and ultimate period
+   */
+  @SuppressWarnings("unchecked")
+  public JSONObject toJson() {
+    final JSONObject result = new JSONObject();
+    result.put("kp", Double.valueOf(kp));
+    result.put("ki", Double.valueOf(ki));
+    result.put("kd", Double.valueOf(kd));
+    result.put("ku", Double.valueOf(ultimateGain));
+    result.put("tu", Double.valueOf(ultimatePeriod));
+    return result;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    return toJson().toJSONString();
+  }
+}
@@ -0,0 +1,285 @@
+/**
+ * RelayAutotuner.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.core;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Relay-feedback (Astrom-Hagglund) autotuner. The tuner replaces the PID
+ * controller with a relay: the actuator output is switched between bias + d
+ * and bias - d whenever the input crosses the setpoint (with hysteresis). The
+ * loop settles into a limit cycle whose amplitude a and period Tu give the
+ * ultimate gain Ku = 4d / (pi * sqrt(a^2 - eps^2)), from which a tuning rule
+ * computes the gains.
+ *
+ * <p>
+ * The experiment is driven one tick at a time through the ControlledActuator
+ * interface, so it works unchanged against hardware and against a
+ * simulation. On hardware, start it on a ControlLoopScheduler. Against a
+ * VesselSimulation running faster than real time, call tick with the
+ * simulation clock's nanoTime after each step of the simulation.
+ * </p>
+ *
+ * <p>
+ * For safety the experiment is aborted, and the output returned to the bias,
+ * if the input strays further than maxDeviation from the setpoint or the
+ * cycles have not been observed within the time limit.
+ * </p>
+ */
+public class RelayAutotuner {
+
+  /**
+   * Acquire a reference to the application logger.
+   */
+  private static Logger log = LogManager.getLogger(RelayAutotuner.class.getPackage().getName());
+
+  /**
+   * Number of initial cycles discarded while the limit cycle establishes.
+   */
+  private static final int SETTLING_CYCLES = 1;
+
+  /**
+   * Number of nanoseconds in one second.
+   */
+  private static final double NANOS_PER_SECOND = 1.0e9;
+
+  /**
+   * The actuator being tuned.
+   */
+  private final ControlledActuator actuator;
+
+  /**
+   * Input value about which the relay switches.
+   */
+  private final double setpoint;
+
+  /**
+   * Output value at the centre of the relay.
+   */
+  private final double bias;
+
+  /**
+   * Relay amplitude.
+   */
+  private final double amplitude;
+
+  /**
+   * Hysteresis about the setpoint.
+   */
+  private final double hysteresis;
+
+  /**
+   * Abort if the input strays further than this from the setpoint.
+   */
+  private final double maxDeviation;
+
+  /**
+   * Number of cycles to measure after settling.
+   */
+  private final int cycles;
+
+  /**
+   * Abort if the experiment has not finished after this long (nanoseconds).
+   */
+  private final long timeLimitNanos;
+
+  /**
+   * Rule used to derive the gains.
+   */
+  private final PidTuning.Rule rule;
+
+  /**
+   * Completes with the tuning, or exceptionally if the experiment is aborted.
+   */
+  private final CompletableFuture<PidTuning> result = new CompletableFuture<>();
+
+  /**
+   * Handle for the periodic task when running on a scheduler.
+   */
+  private volatile ScheduledFuture<?> schedule;
+
+  // Experiment state
+  private boolean relayHigh;
+  private long startNanos = -1;
+  private long lastRiseNanos = -1;
+  private int risesSeen;
+  private double cycleMax = Double.NEGATIVE_INFINITY;
+  private double cycleMin = Double.POSITIVE_INFINITY;
+  private double sumAmplitude;
+  private double sumPeriod;
+  private int measured;
+
+  /**
+   * Explicit constructor.
+   *
+   * @param actor
+   *          the actuator to tune
+   * @param target
+   *          input value about which to oscillate
+   * @param outputBias
+   *          output value at the centre of the relay
+   * @param relayAmplitude
+   *          relay amplitude d (output units)
+   * @param eps
+   *          hysteresis about the target (input units)
+   * @param deviation
+   *          abort if the input strays further than this from the target
+   * @param measureCycles
+   *          number of cycles to measure
+   * @param timeLimitSeconds
+   *          abort if the experiment takes longer than this
+   * @param tuningRule
+   *          rule used to derive the gains
+   */
+  public RelayAutotuner(final ControlledActuator actor, final double target,
+      final double outputBias, final double relayAmplitude, final double eps,
+      final double deviation, final int measureCycles, final double timeLimitSeconds,
+      final PidTuning.Rule tuningRule) {
+    actuator = actor;
+    setpoint = target;
+    bias = outputBias;
+    amplitude = Math.abs(relayAmplitude);
+    hysteresis = Math.abs(eps);
+    maxDeviation = Math.abs(deviation);
+    cycles = Math.max(1, measureCycles);
+    timeLimitNanos = (long) (timeLimitSeconds * NANOS_PER_SECOND);
+    rule = tuningRule;
+
+    // Once the experiment ends, stop ticking and leave the actuator at the
+    // bias
+    result.whenComplete((tuning, err) -> {
+      final ScheduledFuture<?> task = schedule;
+      if (task != null) {
+        task.cancel(false);
+      }
+      actuator.setOutputValue((float) bias);
+    });
+  }
+
+  /**
+   * Run the experiment in real time on a control loop scheduler.
+   *
+   * @param scheduler
+   *          the scheduler
+   * @param periodMillis
+   *          tick period; well below the expected ultimate period
+   * @return a future that completes with the tuning
+   */
+  public CompletableFuture<PidTuning> start(final ControlLoopScheduler scheduler,
+      final long periodMillis) {
+    schedule = scheduler.scheduleAtFixedRate(() -> tick(System.nanoTime()), periodMillis);
+    if (result.isDone()) {
+      schedule.cancel(false);
+    }
+    return result;
+  }
+
+  /**
+   * Get the future that completes with the tuning. Cancelling it aborts the
+   * experiment.
+   *
+   * @return the future
+   */
+  public CompletableFuture<PidTuning> getResult() {
+    return result;
+  }
+
+  /**
+   * Advance the experiment: read the input and switch the relay if needed.
+   *
+   * @param nanoTime
+   *          the current time in nanoseconds (System or simulated)
+   * @return true once the experiment has ended
+   */
+  public synchronized boolean tick(final long nanoTime) {
+    if (result.isDone()) {
+      return true;
+    }
+
+    final double y = actuator.getInputValue();
+
+    if (startNanos < 0) {
+      startNanos = nanoTime;
+      relayHigh = y < setpoint;
+      actuator.setOutputValue((float) (relayHigh ? bias + amplitude : bias - amplitude));
+      log.info("Relay autotune starting about {} with amplitude {}", Double.valueOf(setpoint),
+          Double.valueOf(amplitude));
+      return false;
+    }
+
+    // Safety checks
+    if (Math.abs(y - setpoint) > maxDeviation) {
+      abort("input " + y + " strayed more than " + maxDeviation + " from " + setpoint);
+      return true;
+    }
+    if (nanoTime - startNanos > timeLimitNanos) {
+      abort("no stable oscillation within the time limit");
+      return true;
+    }
+
+    cycleMax = Math.max(cycleMax, y);
+    cycleMin = Math.min(cycleMin, y);
+
+    if (relayHigh && y > setpoint + hysteresis) {
+      relayHigh = false;
+      actuator.setOutputValue((float) (bias - amplitude));
+    } else if (!relayHigh && y < setpoint - hysteresis) {
+      // A rising edge of the relay starts a new cycle
+      relayHigh = true;
+      actuator.setOutputValue((float) (bias + amplitude));
+      cycleCompleted(nanoTime);
+    }
+
+    return result.isDone();
+  }
+
+  /**
+   * Account for one full relay cycle ending at a rising edge.
+   *
+   * @param nanoTime
+   *          time of the rising edge
+   */
+  private void cycleCompleted(final long nanoTime) {
+    if (lastRiseNanos >= 0 && risesSeen > SETTLING_CYCLES) {
+      sumPeriod += (nanoTime - lastRiseNanos) / NANOS_PER_SECOND;
+      sumAmplitude += (cycleMax - cycleMin) / 2.0;
+      measured += 1;
+    }
+    risesSeen += 1;
+    lastRiseNanos = nanoTime;
+    cycleMax = Double.NEGATIVE_INFINITY;
+    cycleMin = Double.POSITIVE_INFINITY;
+
+    if (measured >= cycles) {
+      final double a = sumAmplitude / measured;
+      final double tu = sumPeriod / measured;
+      if (a <= hysteresis) {
+        abort("oscillation amplitude " + a + " is within the hysteresis band");
+        return;
+      }
+      final double ku = 4.0 * amplitude / (Math.PI * Math.sqrt(a * a - hysteresis * hysteresis));
+      final PidTuning tuning = PidTuning.fromUltimate(ku, tu, rule);
+      log.info("Relay autotune complete: {}", tuning);
+      result.complete(tuning);
+    }
+  }
+
+  /**
+   * Abort the experiment.
+   *
+   * @param reason
+   *          why
+   */
+  private void abort(final String reason) {
+    log.warn("Relay autotune aborted: {}", reason);
+    result.completeExceptionally(new ComponentException("Autotune aborted: " + reason));
+  }
+}
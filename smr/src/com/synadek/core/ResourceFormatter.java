@@ -22,7 +22,7 @@ public class ResourceFormatter {
   /**
    * base name for resource bundle.
    */
-  public static final String RESOURCE_BUNDLE = "com.smr.resources.MyResources";
+  public static final String RESOURCE_BUNDLE = "com.synadek.core.MyResources";
 
   /**
    * Error string returned for failed resource lookups.
@@ -0,0 +1,107 @@
+/**
+ * SensorChannel.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.core;
+
+/**
+ * The processing chain of one analog sensor: raw values are calibrated,
+ * filtered and published as the latest SensorReading. Updates come from the
+ * event dispatcher of the physical model; readers on the control path get the
+ * latest reading from a volatile field and never block on hardware.
+ */
+public final class SensorChannel {
+
+  /**
+   * Converts raw values to engineering units.
+   */
+  private volatile CalibrationCurve curve;
+
+  /**
+   * Smooths the calibrated values.
+   */
+  private volatile SensorFilter filter;
+
+  /**
+   * The latest filtered reading.
+   */
+  private volatile SensorReading latest = SensorReading.NONE;
+
+  /**
+   * Explicit constructor.
+   *
+   * @param calibration
+   *          converts raw values to engineering units
+   * @param smoothing
+   *          smooths the calibrated values
+   */
+  public SensorChannel(final CalibrationCurve calibration, final SensorFilter smoothing) {
+    curve = calibration;
+    filter = smoothing;
+  }
+
+  /**
+   * Process a raw value and publish the result.
+   *
+   * @param raw
+   *          the raw sensor value
+   * @param timestamp
+   *          when the value was read, in millis since the epoch
+   * @return the filtered value in engineering units
+   */
+  public double update(final double raw, final long timestamp) {
+    final double value = filter.update(curve.apply(raw));
+    latest = new SensorReading(value, timestamp);
+    return value;
+  }
+
+  /**
+   * Get the latest filtered reading.
+   *
+   * @return the reading, SensorReading.NONE before the first value
+   */
+  public SensorReading getReading() {
+    return latest;
+  }
+
+  /**
+   * Get the latest filtered value.
+   *
+   * @return the value, NaN before the first value
+   */
+  public double getValue() {
+    return latest.getValue();
+  }
+
+  /**
+   * Replace the calibration curve.
+   *
+   * @param calibration
+   *          the new curve
+   */
+  public void setCalibration(final CalibrationCurve calibration) {
+    curve = calibration;
+  }
+
+  /**
+   * Get the calibration curve.
+   *
+   * @return the curve
+   */
+  public CalibrationCurve getCalibration() {
+    return curve;
+  }
+
+  /**
+   * Replace the filter, discarding the filter history.
+   *
+   * @param smoothing
+   *          the new filter
+   */
+  public void setFilter(final SensorFilter smoothing) {
+    filter = smoothing;
+  }
+}
@@ -0,0 +1,176 @@
+/**
+ * SensorConfiguration.java
+ * 19 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.core;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * The configuration shared by components that read analog sensors through
+ * SensorChannels: one calibration table per channel, plus a median window and
+ * moving average weight used by all of the channels. A component registers its
+ * channels here and delegates resetting, describing and applying those
+ * settings, so that every sensor component reads them the same way.
+ */
+public final class SensorConfiguration {
+
+  /**
+   * Configuration key for the number of readings over which the median is
+   * taken.
+   */
+  public static final String JSON_KEY_MEDIAN_WINDOW = "medianWindow";
+
+  /**
+   * Configuration key for the weight of each reading in the moving average.
+   */
+  public static final String JSON_KEY_SMOOTHING = "smoothing";
+
+  /**
+   * Default median window.
+   */
+  public static final int DEFAULT_MEDIAN_WINDOW = 5;
+
+  /**
+   * Default moving average weight.
+   */
+  public static final double DEFAULT_SMOOTHING = 0.2;
+
+  /**
+   * Channels by the key of their calibration table, in registration order.
+   */
+  private final Map<String, SensorChannel> channels = new LinkedHashMap<>();
+
+  /**
+   * Schema descriptions of the calibration tables, by key.
+   */
+  private final Map<String, String> descriptions = new LinkedHashMap<>();
+
+  /**
+   * Create a channel with an identity calibration and the default filter.
+   *
+   * @param key
+   *          configuration key of the channel's calibration table
+   * @param description
+   *          schema description of the calibration table
+   * @return the channel
+   */
+  public SensorChannel addChannel(final String key, final String description) {
+    final SensorChannel channel = new SensorChannel(CalibrationCurve.IDENTITY,
+        new SensorFilter(DEFAULT_MEDIAN_WINDOW, DEFAULT_SMOOTHING));
+    channels.put(key, channel);
+    descriptions.put(key, description);
+    return channel;
+  }
+
+  /**
+   * Set the default value and schema entry of every setting.
+   *
+   * @param configuration
+   *          the component's configuration
+   */
+  public void reset(final Configuration configuration) {
+    for (String key : channels.keySet()) {
+      configuration.setProperty(key, CalibrationCurve.IDENTITY.toString());
+    }
+    configuration.setProperty(JSON_KEY_MEDIAN_WINDOW, DEFAULT_MEDIAN_WINDOW);
+    configuration.setProperty(JSON_KEY_SMOOTHING, DEFAULT_SMOOTHING);
+
+    final JsonSchema mySchema = configuration.getConfigurationSchema();
+    for (Map.Entry<String, String> entry : descriptions.entrySet()) {
+      mySchema.setProperty(entry.getKey(), JsonSchema.schemaString(entry.getValue()), true);
+    }
+    mySchema.setProperty(JSON_KEY_MEDIAN_WINDOW, JsonSchema
+        .schemaNumber("Number of readings over which the median is taken.", 1.0, false), true);
+    mySchema.setProperty(JSON_KEY_SMOOTHING, JsonSchema.schemaNumber(
+        "Weight of each reading in the moving average (0 to 1; 1 disables smoothing).", 0.0,
+        true), true);
+  }
+
+  /**
+   * Apply the settings to the channels. Every valid setting is applied; a
+   * filter setting that is missing or invalid is replaced by its default, and
+   * a channel whose calibration is missing or invalid keeps its current one.
+   *
+   * @param configuration
+   *          the component's configuration
+   * @throws InvalidValueException
+   *           naming each setting that was missing or invalid
+   */
+  public void apply(final Configuration configuration) throws InvalidValueException {
+    final StringJoiner problems = new StringJoiner("; ");
+    int window = DEFAULT_MEDIAN_WINDOW;
+    double smoothing = DEFAULT_SMOOTHING;
+    try {
+      window = (int) number(configuration, JSON_KEY_MEDIAN_WINDOW);
+    } catch (InvalidValueException err) {
+      problems.add(err.getMessage());
+    }
+    try {
+      smoothing = number(configuration, JSON_KEY_SMOOTHING);
+    } catch (InvalidValueException err) {
+      problems.add(err.getMessage());
+    }
+    for (Map.Entry<String, SensorChannel> entry : channels.entrySet()) {
+      final SensorChannel channel = entry.getValue();
+      channel.setFilter(new SensorFilter(window, smoothing));
+      try {
+        channel.setCalibration(calibration(configuration, entry.getKey()));
+      } catch (InvalidValueException err) {
+        problems.add(err.getMessage());
+      }
+    }
+    if (problems.length() > 0) {
+      throw new InvalidValueException(problems.toString());
+    }
+  }
+
+  /**
+   * Read a calibration table from a configuration.
+   *
+   * @param configuration
+   *          the configuration
+   * @param key
+   *          key of the table
+   * @return the calibration curve
+   * @throws InvalidValueException
+   *           if the table is missing or malformed
+   */
+  public static CalibrationCurve calibration(final Configuration configuration,
+      final String key) throws InvalidValueException {
+    final String table = configuration.getPropertyString(key);
+    if (table == null) {
+      throw new InvalidValueException("Missing setting " + key);
+    }
+    return CalibrationCurve.parse(table);
+  }
+
+  /**
+   * Read a number from a configuration.
+   *
+   * @param configuration
+   *          the configuration
+   * @param key
+   *          key of the number
+   * @return the value
+   * @throws InvalidValueException
+   *           if the number is missing or malformed
+   */
+  private static double number(final Configuration configuration, final String key)
+      throws InvalidValueException {
+    final String text = configuration.getPropertyString(key);
+    if (text == null) {
+      throw new InvalidValueException("Missing setting " + key);
+    }
+    try {
+      return Double.parseDouble(text.trim());
+    } catch (NumberFormatException err) {
+      throw new InvalidValueException("Setting " + key + " is not a number: '" + text + "'");
+    }
+  }
+}
@@ -0,0 +1,124 @@
+/**
+ * SensorFilter.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.core;
+
+/**
+ * Smooths a stream of sensor readings in constant memory: a median over the
+ * last few readings rejects isolated spikes, then an exponential moving average
+ * removes noise. A median window of one or a smoothing factor of one disables
+ * the corresponding stage.
+ *
+ * <p>
+ * Not thread safe; each filter is fed by a single event dispatcher.
+ * </p>
+ */
+public final class SensorFilter {
+
+  /**
+   * Largest median window accepted; sorting it must stay cheap.
+   */
+  public static final int MAX_MEDIAN_WINDOW = 15;
+
+  /**
+   * Most recent readings, oldest overwritten first.
+   */
+  private final double[] window;
+
+  /**
+   * Scratch space in which the window is sorted.
+   */
+  private final double[] sorted;
+
+  /**
+   * Weight of each new reading in the moving average (0..1].
+   */
+  private final double alpha;
+
+  /**
+   * Position of the next reading in the window.
+   */
+  private int next;
+
+  /**
+   * Number of readings in the window.
+   */
+  private int count;
+
+  /**
+   * Current moving average, NaN before the first reading.
+   */
+  private double average = Double.NaN;
+
+  /**
+   * Explicit constructor.
+   *
+   * @param medianWindow
+   *          number of readings over which the median is taken (odd sizes
+   *          work best); clamped to 1..MAX_MEDIAN_WINDOW
+   * @param smoothing
+   *          weight of each new reading in the moving average; clamped to
+   *          (0..1]
+   */
+  public SensorFilter(final int medianWindow, final double smoothing) {
+    window = new double[Math.min(Math.max(1, medianWindow), MAX_MEDIAN_WINDOW)];
+    sorted = new double[window.length];
+    alpha = smoothing > 0.0 && smoothing <= 1.0 ? smoothing : 1.0;
+  }
+
+  /**
+   * Add a reading.
+   *
+   * @param reading
+   *          the new reading
+   * @return the filtered value
+   */
+  public double update(final double reading) {
+    if (Double.isNaN(reading)) {
+      return average;
+    }
+    window[next] = reading;
+    next = (next + 1) % window.length;
+    if (count < window.length) {
+      count += 1;
+    }
+
+    // Insertion sort is fastest for a handful of values
+    for (int i = 0; i < count; i++) {
+      final double v = window[i];
+      int j = i - 1;
+      while (j >= 0 && sorted[j] > v) {
+        sorted[j + 1] = sorted[j];
+        j -= 1;
+      }
+      sorted[j + 1] = v;
+    }
+    final double median = (count & 1) == 1 ? sorted[count / 2]
+        : (sorted[count / 2 - 1] + sorted[count / 2]) / 2.0;
+
+    average = Double.isNaN(average) ? median : average + alpha * (median - average);
+    return average;
+  }
+
+  /**
+   * Get the filtered value.
+   *
+   * @return the value, or NaN before the first reading
+   */
+  public double getValue() {
+    return average;
+  }
+
+  /**
+   * Forget all readings.
+   */
+  public void reset() {
+    next = 0;
+    count = 0;
+    average = Double.NaN;
+  }
+}
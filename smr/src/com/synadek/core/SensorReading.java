@@ -0,0 +1,72 @@
+/**
+ * SensorReading.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.core;
+
+/**
+ * An immutable sensor value with the time it was read. Publishing a new
+ * SensorReading through a volatile field gives readers a consistent value and
+ * timestamp without locking.
+ */
+public final class SensorReading {
+
+  /**
+   * The reading before any value has been received.
+   */
+  public static final SensorReading NONE = new SensorReading(Double.NaN, 0L);
+
+  /**
+   * The value.
+   */
+  private final double value;
+
+  /**
+   * When the value was read, in millis since the epoch.
+   */
+  private final long timestamp;
+
+  /**
+   * Explicit constructor.
+   *
+   * @param val
+   *          the value
+   * @param time
+   *          when the value was read, in millis since the epoch
+   */
+  public SensorReading(final double val, final long time) {
+    value = val;
+    timestamp = time;
+  }
+
+  /**
+   * Get the value.
+   *
+   * @return the value, NaN if none has been received
+   */
+  public double getValue() {
+    return value;
+  }
+
+  /**
+   * Get the time of the reading.
+   *
+   * @return millis since the epoch, zero if none has been received
+   */
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    return value + "@" + timestamp;
+  }
+}
@@ -0,0 +1,214 @@
+/**
+ * SerialDispatcher.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.core;
+
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Processes the items in a queue one at a time, in order, on a shared
+ * executor. No thread is held while the queue is empty: signal schedules a
+ * drain task when items arrive, and the task returns its thread once the queue
+ * is empty. Long bursts are processed in batches so that one busy queue cannot
+ * monopolize a thread of a small shared pool.
+ *
+ * <p>
+ * Shutdown is structured: stop prevents further drains and waits for the
+ * drain in progress (if any) to finish its current item, so no item is left
+ * half processed and no thread needs to be interrupted. Items still queued
+ * remain in the queue and are processed if the dispatcher is started again.
+ * </p>
+ *
+ * @param <T>
+ *          the type of item processed
+ */
+public abstract class SerialDispatcher<T> {
+
+  /**
+   * Maximum number of items processed before the drain task yields its thread.
+   */
+  private static final int BATCH_SIZE = 256;
+
+  /**
+   * Acquire a reference to the application logger.
+   */
+  protected final Logger log = LogManager.getLogger(this.getClass().getPackage().getName());
+
+  /**
+   * Name of this dispatcher, for diagnostics.
+   */
+  private final String myName;
+
+  /**
+   * Queue of items to be processed.
+   */
+  private final Queue<T> myQueue;
+
+  /**
+   * Executor on which drain tasks run.
+   */
+  private final Executor myExecutor;
+
+  /**
+   * True while a drain task is scheduled or running.
+   */
+  private final AtomicBoolean scheduled = new AtomicBoolean();
+
+  /**
+   * True once the dispatcher has been stopped.
+   */
+  private volatile boolean stopped = true;
+
+  /**
+   * Thread running the drain task, if any.
+   */
+  private volatile Thread drainThread;
+
+  /**
+   * Explicit constructor.
+   *
+   * @param name
+   *          the name of the dispatcher
+   * @param queue
+   *          the queue of items to process
+   * @param executor
+   *          the executor on which to process them
+   */
+  protected SerialDispatcher(final String name, final Queue<T> queue, final Executor executor) {
+    myName = name;
+    myQueue = queue;
+    myExecutor = executor;
+  }
+
+  /**
+   * Process one item. Exceptions are logged and do not stop the dispatcher.
+   *
+   * @param item
+   *          the item
+   */
+  protected abstract void process(T item);
+
+  /**
+   * Start processing items, including any already queued.
+   */
+  public void start() {
+    stopped = false;
+    log.info("{} starting", myName);
+    signal();
+  }
+
+  /**
+   * Notify the dispatcher that items have been queued.
+   */
+  public void signal() {
+    if (!stopped && !myQueue.isEmpty() && scheduled.compareAndSet(false, true)) {
+      try {
+        myExecutor.execute(this::drain);
+      } catch (RuntimeException err) {
+        scheduled.set(false);
+        log.error("{} unable to schedule processing: {}", myName, err.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Body of the drain task.
+   */
+  private void drain() {
+    drainThread = Thread.currentThread();
+    try {
+      for (int count = 0; count < BATCH_SIZE && !stopped; count++) {
+        final T item = myQueue.poll();
+        if (item == null) {
+          break;
+        }
+        try {
+          process(item);
+        } catch (RuntimeException err) {
+          log.error("{} failed to process an item", myName, err);
+        }
+      }
+    } finally {
+      drainThread = null;
+      synchronized (this) {
+        scheduled.set(false);
+        notifyAll();
+      }
+    }
+
+    // Items may have arrived after the last poll, or the batch ran out
+    signal();
+  }
+
+  /**
+   * Stop processing items, waiting up to a limit for the item in progress.
+   *
+   * @param timeoutMillis
+   *          the maximum time to wait (milliseconds)
+   * @return true if no item is being processed
+   */
+  public boolean stop(final long timeoutMillis) {
+    stopped = true;
+
+    // An item may stop its own dispatcher; the drain ends after that item
+    if (drainThread == Thread.currentThread()) {
+      return true;
+    }
+
+    final long deadline = System.currentTimeMillis() + timeoutMillis;
+    synchronized (this) {
+      long remaining = timeoutMillis;
+      while (scheduled.get() && remaining > 0) {
+        try {
+          wait(remaining);
+        } catch (InterruptedException err) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+        remaining = deadline - System.currentTimeMillis();
+      }
+    }
+    final boolean idle = !scheduled.get();
+    if (idle) {
+      log.info("{} stopped", myName);
+    } else {
+      log.warn("{} still busy after {} ms", myName, Long.valueOf(timeoutMillis));
+    }
+    return idle;
+  }
+
+  /**
+   * Determine whether the dispatcher is stopped.
+   *
+   * @return true if stopped
+   */
+  public boolean isStopped() {
+    return stopped;
+  }
+
+  /**
+   * Get the number of items waiting to be processed.
+   *
+   * @return the queue depth
+   */
+  public int getQueueDepth() {
+    return myQueue.size();
+  }
+
+  /**
+   * Get the name of this dispatcher.
+   *
+   * @return the name
+   */
+  public String getName() {
+    return myName;
+  }
+}
@@ -0,0 +1,129 @@
+/**
+ * TaskExecutors.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.core;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Source of the executor on which event dispatchers, crew members and other
+ * background tasks run, so that they do not each own a platform thread.
+ *
+ * <p>
+ * When the Java runtime supports virtual threads, every task runs on its own
+ * virtual thread. Otherwise tasks share a small pool of daemon platform
+ * threads. Either choice may be overridden with setDefault, e.g. to run tests
+ * on a single thread.
+ * </p>
+ */
+public final class TaskExecutors {
+
+  /**
+   * Acquire a reference to the application logger.
+   */
+  private static Logger log = LogManager.getLogger(TaskExecutors.class.getPackage().getName());
+
+  /**
+   * Minimum number of threads in the shared pool.
+   */
+  private static final int MIN_POOL_SIZE = 4;
+
+  /**
+   * The executor used by default.
+   */
+  private static ExecutorService defaultExecutor;
+
+  /**
+   * True if the default executor runs tasks on virtual threads.
+   */
+  private static boolean virtual;
+
+  /**
+   * Prevent instantiation.
+   */
+  private TaskExecutors() {
+  }
+
+  /**
+   * Get the default executor, creating it on first use.
+   *
+   * @return the executor
+   */
+  public static synchronized ExecutorService getDefault() {
+    if (defaultExecutor == null) {
+      defaultExecutor = createVirtualThreadExecutor();
+      virtual = defaultExecutor != null;
+      if (!virtual) {
+        defaultExecutor = createSharedPool();
+      }
+    }
+    return defaultExecutor;
+  }
+
+  /**
+   * Replace the default executor. Components capture the executor when they
+   * start, so this should be called before anything is started.
+   *
+   * @param executor
+   *          the executor to use from now on
+   */
+  public static synchronized void setDefault(final ExecutorService executor) {
+    defaultExecutor = executor;
+    virtual = false;
+  }
+
+  /**
+   * Determine whether the default executor runs tasks on virtual threads.
+   *
+   * @return true if tasks run on virtual threads
+   */
+  public static synchronized boolean isVirtual() {
+    getDefault();
+    return virtual;
+  }
+
+  /**
+   * Create an executor that starts a virtual thread per task. The factory
+   * method is looked up reflectively so the code still runs on a Java runtime
+   * without virtual threads.
+   *
+   * @return the executor, or null if virtual threads are not available
+   */
+  private static ExecutorService createVirtualThreadExecutor() {
+    try {
+      final Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      final ExecutorService result = (ExecutorService) factory.invoke(null);
+      log.info("Background tasks run on virtual threads");
+      return result;
+    } catch (ReflectiveOperationException | RuntimeException err) {
+      return null;
+    }
+  }
+
+  /**
+   * Create a small pool of daemon platform threads shared by all tasks.
+   *
+   * @return the executor
+   */
+  private static ExecutorService createSharedPool() {
+    final int size = Math.max(MIN_POOL_SIZE, 2 * Runtime.getRuntime().availableProcessors());
+    final AtomicInteger count = new AtomicInteger();
+    final ThreadFactory factory = r -> {
+      final Thread t = new Thread(r, "smr-task-" + count.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    };
+    log.info("Background tasks share a pool of {} threads", Integer.valueOf(size));
+    return Executors.newFixedThreadPool(size, factory);
+  }
+}
@@ -0,0 +1,120 @@
+/**
+ * TestCoveragePlanner.java
+ * 19 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.core.test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import com.synadek.core.GpsCoordinates;
+import com.synadek.smr.control.navigation.CompiledRoute;
+import com.synadek.smr.control.navigation.CoveragePlanner;
+import com.synadek.smr.control.navigation.CoveragePlanner.Coverage;
+import com.synadek.smr.control.navigation.CoveragePlanner.Pattern;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Test that coverage plans stay out of the excluded areas.
+ */
+public class TestCoveragePlanner {
+
+  /**
+   * Southern edge of the hole in degrees.
+   */
+  private static final double HOLE_SOUTH = 40.003;
+
+  /**
+   * Northern edge of the hole in degrees.
+   */
+  private static final double HOLE_NORTH = 40.006;
+
+  /**
+   * Western edge of the hole in degrees.
+   */
+  private static final double HOLE_WEST = -69.996;
+
+  /**
+   * Eastern edge of the hole in degrees.
+   */
+  private static final double HOLE_EAST = -69.992;
+
+  /**
+   * Allowance for rounding at the edge of the hole in degrees (about 10 cm).
+   */
+  private static final double SLACK = 1.0e-6;
+
+  /**
+   * Points checked along each leg of a route.
+   */
+  private static final int SAMPLES = 50;
+
+  /**
+   * Passes split by the hole are joined without crossing it.
+   */
+  @Test
+  public void testBoustrophedonAvoidsHole() {
+    final CoveragePlanner planner = planner();
+    planner.setSweepBearing(0.0);
+    assertClear(planner.plan());
+    planner.setSweepBearing(90.0);
+    assertClear(planner.plan());
+  }
+
+  /**
+   * A spiral clipped by the hole goes around it.
+   */
+  @Test
+  public void testSpiralAvoidsHole() {
+    final CoveragePlanner planner = planner();
+    planner.setPattern(Pattern.SPIRAL);
+    for (Coverage coverage : planner.plan(2)) {
+      assertClear(coverage);
+    }
+  }
+
+  /**
+   * A square survey area about 1 km across with a hole off its middle.
+   *
+   * @return the planner
+   */
+  private static CoveragePlanner planner() {
+    final List<GpsCoordinates> boundary = Arrays.asList(new GpsCoordinates(40.0, -70.0),
+        new GpsCoordinates(40.0, -69.988), new GpsCoordinates(40.009, -69.988),
+        new GpsCoordinates(40.009, -70.0));
+    final CoveragePlanner planner = new CoveragePlanner(boundary, 60.0);
+    planner.addHole(Arrays.asList(new GpsCoordinates(HOLE_SOUTH, HOLE_WEST),
+        new GpsCoordinates(HOLE_SOUTH, HOLE_EAST), new GpsCoordinates(HOLE_NORTH, HOLE_EAST),
+        new GpsCoordinates(HOLE_NORTH, HOLE_WEST)));
+    return planner;
+  }
+
+  /**
+   * Check that no leg of a coverage enters the hole.
+   *
+   * @param coverage
+   *          the coverage
+   */
+  private static void assertClear(final Coverage coverage) {
+    final CompiledRoute route = coverage.getRoute().getCompiledRoute();
+    assertTrue(route.size() > 1);
+    for (int i = 1; i < route.size(); i++) {
+      final GpsCoordinates from = route.getWaypoint(i - 1);
+      final GpsCoordinates to = route.getWaypoint(i);
+      for (int s = 0; s <= SAMPLES; s++) {
+        final double t = (double) s / SAMPLES;
+        final double lat = from.getLatitude().degrees()
+            + t * (to.getLatitude().degrees() - from.getLatitude().degrees());
+        final double lon = from.getLongitude().degrees()
+            + t * (to.getLongitude().degrees() - from.getLongitude().degrees());
+        assertFalse("Leg " + i + " enters the hole at " + lat + ", " + lon,
+            lat > HOLE_SOUTH + SLACK && lat < HOLE_NORTH - SLACK && lon > HOLE_WEST + SLACK
+                && lon < HOLE_EAST - SLACK);
+      }
+    }
+  }
+}
@@ -0,0 +1,273 @@
+/**
+ * TestGeofence.java
+ * 19 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.core.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import com.synadek.core.GpsCoordinates;
+import com.synadek.smr.control.mission.Geofence;
+import com.synadek.smr.control.mission.Geofence.Kind;
+import com.synadek.smr.control.mission.Geofence.Zone;
+import com.synadek.smr.control.mission.GeofenceEvent;
+import com.synadek.smr.control.mission.GeofenceEvent.Event;
+import com.synadek.smr.control.mission.GeofenceListener;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Test zone containment and distance across the bands a zone is compiled
+ * into, and the events told to listeners.
+ */
+public class TestGeofence {
+
+  /**
+   * Latitude of the south-west corner of the test zones.
+   */
+  private static final double LAT = 40.0;
+
+  /**
+   * Longitude of the south-west corner of the test zones.
+   */
+  private static final double LON = -70.0;
+
+  /**
+   * Size of a grid unit in degrees.
+   */
+  private static final double UNIT = 0.01;
+
+  /**
+   * A C-shaped outline opening to the east, in grid units (east, north). Its
+   * eight vertices give eight bands, and the western edge spans all of them.
+   */
+  private static final double[][] C_SHAPE = { { 0, 0 }, { 3, 0 }, { 3, 1 }, { 1, 1 }, { 1, 2 },
+      { 3, 2 }, { 3, 3 }, { 0, 3 } };
+
+  /**
+   * Points on every band boundary, and just either side of it, agree with a
+   * ray cast over every edge of the outline.
+   */
+  @Test
+  public void testBandBoundaries() {
+    final Zone zone = new Geofence().addZone("c", Kind.KeepOut, outline(C_SHAPE));
+    final int bands = C_SHAPE.length;
+    final double[] easts = { -0.5, 0.25, 0.5, 0.75, 1.5, 2.5, 2.99, 3.5 };
+    for (int k = 1; k < bands; k++) {
+      final double north = 3.0 * k / bands;
+      for (double offset : new double[] { -1e-9, 0.0, 1e-9 }) {
+        for (double east : easts) {
+          final double lat = LAT + (north + offset) * UNIT;
+          final double lon = LON + east * UNIT;
+          assertEquals("Point " + east + "," + (north + offset), rayCast(C_SHAPE, east,
+              north + offset), zone.contains(lat, lon));
+        }
+      }
+    }
+  }
+
+  /**
+   * Distances from points on band boundaries are found across the bands,
+   * whichever band holds the nearest edge.
+   */
+  @Test
+  public void testDistanceAcrossBands() {
+    final Zone zone = new Geofence().addZone("c", Kind.KeepOut, outline(C_SHAPE));
+
+    // In the spine of the C: the western edge and the notch are half a unit
+    // of longitude away
+    final double spineLat = LAT + 1.5 * UNIT;
+    final double spineLon = LON + 0.5 * UNIT;
+    assertTrue(zone.contains(spineLat, spineLon));
+    assertEquals(distance(spineLat, spineLon, spineLat, LON),
+        zone.getDistanceToBoundary(spineLat, spineLon), 1.0);
+
+    // In the notch: the arms, in bands other than the point's, are half a
+    // unit of latitude away
+    final double notchLat = LAT + 1.5 * UNIT;
+    final double notchLon = LON + 2.0 * UNIT;
+    assertFalse(zone.contains(notchLat, notchLon));
+    assertEquals(distance(notchLat, notchLon, LAT + UNIT, notchLon),
+        zone.getDistanceToBoundary(notchLat, notchLon), 1.0);
+
+    // Well south of the zone: the nearest point is on the southern edge
+    final double southLat = LAT - 2.0 * UNIT;
+    final double southLon = LON + 1.5 * UNIT;
+    assertEquals(distance(southLat, southLon, LAT, southLon),
+        zone.getDistanceToBoundary(southLat, southLon), 1.0);
+  }
+
+  /**
+   * A zone with many vertices is compiled into many bands, and points in
+   * each agree with a ray cast over every edge.
+   */
+  @Test
+  public void testManyBands() {
+    // A star of 200 points, every other vertex pulled in toward the centre
+    final int points = 200;
+    final double[][] star = new double[points][];
+    for (int i = 0; i < points; i++) {
+      final double angle = 2.0 * Math.PI * i / points;
+      final double radius = i % 2 == 0 ? 2.0 : 1.0;
+      star[i] = new double[] { 2.0 + radius * Math.sin(angle), 2.0 + radius * Math.cos(angle) };
+    }
+    final Zone zone = new Geofence().addZone("star", Kind.KeepIn, outline(star));
+    for (int i = 0; i <= 40; i++) {
+      for (int j = 0; j <= 40; j++) {
+        final double east = 0.1 * i + 0.003;
+        final double north = 0.1 * j + 0.007;
+        assertEquals("Point " + east + "," + north, rayCast(star, east, north),
+            zone.contains(LAT + north * UNIT, LON + east * UNIT));
+      }
+    }
+  }
+
+  /**
+   * Listeners hear a keep-out zone neared, entered and left, once each.
+   */
+  @Test
+  public void testEnterAndExit() {
+    final Geofence fence = new Geofence();
+    final List<GeofenceEvent> events = new ArrayList<>();
+    final GeofenceListener listener = events::add;
+    fence.addListener(listener);
+    fence.addZone("c", Kind.KeepOut, outline(C_SHAPE));
+
+    // Far to the south, then within the approach distance of the south edge
+    fence.onFix(LAT - 2.0 * UNIT, LON + 0.5 * UNIT, 1000L);
+    assertEquals(0, events.size());
+    fence.onFix(LAT - 0.001, LON + 0.5 * UNIT, 2000L);
+    assertEquals(1, events.size());
+    assertEquals(Event.Approaching, events.get(0).getEvent());
+    assertFalse(events.get(0).isViolation());
+
+    // Into the zone, then further in
+    fence.onFix(LAT + 0.5 * UNIT, LON + 0.5 * UNIT, 3000L);
+    fence.onFix(LAT + 1.5 * UNIT, LON + 0.5 * UNIT, 4000L);
+    assertEquals(2, events.size());
+    assertEquals(Event.Entered, events.get(1).getEvent());
+    assertEquals("c", events.get(1).getZone());
+    assertTrue(events.get(1).isViolation());
+    assertEquals(3000L, events.get(1).getTimestamp());
+
+    // Out through the notch, which lies inside the bounding box
+    fence.onFix(LAT + 1.5 * UNIT, LON + 2.0 * UNIT, 5000L);
+    assertEquals(3, events.size());
+    assertEquals(Event.Exited, events.get(2).getEvent());
+    assertFalse(events.get(2).isViolation());
+
+    // A removed listener hears nothing more
+    fence.removeListener(listener);
+    fence.onFix(LAT + 1.5 * UNIT, LON + 0.5 * UNIT, 6000L);
+    assertEquals(3, events.size());
+  }
+
+  /**
+   * Starting inside a keep-in zone is not news, but starting outside one is.
+   */
+  @Test
+  public void testFirstFix() {
+    final Geofence inside = new Geofence();
+    final List<GeofenceEvent> quiet = new ArrayList<>();
+    inside.addListener(quiet::add);
+    inside.addZone("c", Kind.KeepIn, outline(C_SHAPE));
+    inside.onFix(LAT + 1.5 * UNIT, LON + 0.5 * UNIT, 1000L);
+    assertEquals(0, quiet.size());
+
+    final Geofence outside = new Geofence();
+    final List<GeofenceEvent> loud = new ArrayList<>();
+    outside.addListener(loud::add);
+    outside.addZone("c", Kind.KeepIn, outline(C_SHAPE));
+    outside.onFix(LAT + 1.5 * UNIT, LON + 2.0 * UNIT, 1000L);
+    assertEquals(1, loud.size());
+    assertEquals(Event.Exited, loud.get(0).getEvent());
+    assertTrue(loud.get(0).isViolation());
+  }
+
+  /**
+   * A fence with no zones permits everything and tells nobody anything.
+   */
+  @Test
+  public void testEmptyFence() {
+    final Geofence fence = new Geofence();
+    final List<GeofenceEvent> events = new ArrayList<>();
+    fence.addListener(events::add);
+    assertTrue(fence.isEmpty());
+    assertEquals(0, fence.getZones().size());
+    assertTrue(fence.isNavigable(LAT, LON));
+    assertTrue(fence.isNavigable(-89.0, 179.0));
+    fence.onFix(LAT, LON, 1000L);
+    assertFalse(fence.removeZone("c"));
+
+    // Emptied again after a zone comes and goes
+    fence.addZone("c", Kind.KeepOut, outline(C_SHAPE));
+    assertFalse(fence.isEmpty());
+    assertTrue(fence.removeZone("c"));
+    assertTrue(fence.isEmpty());
+    assertTrue(fence.isNavigable(LAT + 1.5 * UNIT, LON + 0.5 * UNIT));
+    fence.onFix(LAT + 1.5 * UNIT, LON + 0.5 * UNIT, 2000L);
+    assertEquals(0, events.size());
+  }
+
+  /**
+   * Place an outline on the earth.
+   *
+   * @param shape
+   *          vertices in grid units east and north of the corner
+   * @return the boundary
+   */
+  private static List<GpsCoordinates> outline(final double[][] shape) {
+    final List<GpsCoordinates> boundary = new ArrayList<>();
+    for (double[] vertex : shape) {
+      boundary.add(new GpsCoordinates(LAT + vertex[1] * UNIT, LON + vertex[0] * UNIT));
+    }
+    return boundary;
+  }
+
+  /**
+   * Determine whether a point is inside an outline by casting a ray east
+   * across every edge.
+   *
+   * @param shape
+   *          vertices in grid units
+   * @param east
+   *          grid units east of the corner
+   * @param north
+   *          grid units north of the corner
+   * @return true if the point is inside
+   */
+  private static boolean rayCast(final double[][] shape, final double east,
+      final double north) {
+    boolean inside = false;
+    for (int i = 0, j = shape.length - 1; i < shape.length; j = i++) {
+      if ((shape[i][1] > north) != (shape[j][1] > north) && east < shape[i][0]
+          + (north - shape[i][1]) * (shape[j][0] - shape[i][0]) / (shape[j][1] - shape[i][1])) {
+        inside = !inside;
+      }
+    }
+    return inside;
+  }
+
+  /**
+   * Get the great circle distance between two points.
+   *
+   * @param fromLat
+   *          latitude of the first point
+   * @param fromLon
+   *          longitude of the first point
+   * @param toLat
+   *          latitude of the second point
+   * @param toLon
+   *          longitude of the second point
+   * @return metres
+   */
+  private static double distance(final double fromLat, final double fromLon,
+      final double toLat, final double toLon) {
+    return new GpsCoordinates(fromLat, fromLon).getDistance(new GpsCoordinates(toLat, toLon));
+  }
+}
@@ -0,0 +1,82 @@
+/**
+ * TestLoadShedding.java
+ * 19 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.core.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import com.synadek.core.ComponentException;
+import com.synadek.smr.vessel.PowerManagement.LoadShedLevel;
+import com.synadek.smr.vessel.PowerManagementImpl;
+import com.synadek.smr.vessel.physical.VesselPhysicalModel.PhysicalDeviceType;
+import com.synadek.smr.vessel.physical.VesselSimulation;
+import org.junit.Test;
+
+/**
+ * Test that power management sheds load and restores it as it found it.
+ */
+public class TestLoadShedding {
+
+  /**
+   * Nanoseconds between battery readings.
+   */
+  private static final long SECOND = 1_000_000_000L;
+
+  /**
+   * Each sensor gets back its own sampling interval when shedding ends.
+   *
+   * @throws ComponentException
+   *           if the simulation cannot connect
+   */
+  @Test
+  public void testIntervalsRestored() throws ComponentException {
+    final VesselSimulation sim = new VesselSimulation();
+    sim.connect(true);
+    final PowerManagementImpl power = new PowerManagementImpl("power", sim);
+    power.connect(true);
+    final int wind = sim.getAnalogDataInterval(PhysicalDeviceType.PHY_WIND_SPEED_SENSOR);
+    final int air = sim.getAnalogDataInterval(PhysicalDeviceType.PHY_AIR_TEMPERATURE_SENSOR);
+    assertTrue(wind != air);
+
+    power.setLoadShedLevel(LoadShedLevel.REDUCED_SAMPLING);
+    assertEquals(10000, sim.getAnalogDataInterval(PhysicalDeviceType.PHY_WIND_SPEED_SENSOR));
+    power.setLoadShedLevel(LoadShedLevel.SENSORS_ASLEEP);
+    power.setLoadShedLevel(LoadShedLevel.NONE);
+
+    assertEquals(wind, sim.getAnalogDataInterval(PhysicalDeviceType.PHY_WIND_SPEED_SENSOR));
+    assertEquals(air, sim.getAnalogDataInterval(PhysicalDeviceType.PHY_AIR_TEMPERATURE_SENSOR));
+  }
+
+  /**
+   * Sensors put to sleep at the reserve stay asleep until the charge recovers
+   * past the reserve by the hysteresis margin.
+   */
+  @Test
+  public void testReserveHysteresis() {
+    final long[] now = { 0L };
+    final PowerManagementImpl power = new PowerManagementImpl("power", null, () -> now[0]);
+    power.onVoltage(11.9);
+    assertEquals(LoadShedLevel.SENSORS_ASLEEP, power.getLoadShedLevel());
+
+    // Charge rises slowly through the reserve and the release threshold
+    double volts = 11.9;
+    boolean heldAboveReserve = false;
+    while (power.getLoadShedLevel() == LoadShedLevel.SENSORS_ASLEEP && volts < 12.7) {
+      volts += 0.01;
+      now[0] += SECOND;
+      power.onVoltage(volts);
+      final double soc = power.getStateOfCharge();
+      if (soc > power.getReserve() && soc < power.getReserve() + 0.05) {
+        assertEquals(LoadShedLevel.SENSORS_ASLEEP, power.getLoadShedLevel());
+        heldAboveReserve = true;
+      }
+    }
+    assertTrue(heldAboveReserve);
+    assertEquals(LoadShedLevel.NONE, power.getLoadShedLevel());
+    assertTrue(power.getStateOfCharge() >= power.getReserve() + 0.05);
+  }
+}
@@ -0,0 +1,113 @@
+/**
+ * TestPidBank.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.core.test;
+
+import static org.junit.Assert.assertEquals;
+import com.synadek.core.PidBank;
+import com.synadek.core.PidBank.AntiWindup;
+import org.junit.Test;
+
+/**
+ * Test the double-precision PID bank against a simple first-order plant.
+ */
+public class TestPidBank {
+
+  /**
+   * Step period of the tests (50 Hz) in nanoseconds.
+   */
+  private static final long STEP = 20000000L;
+
+  /**
+   * Time constant of the plant in seconds.
+   */
+  private static final double PLANT_TAU = 0.5;
+
+  /**
+   * Run a bank against one first-order plant per controller.
+   *
+   * @param bank
+   *          the bank
+   * @param plant
+   *          the plant states, updated in place
+   * @param steps
+   *          the number of steps
+   */
+  private static void run(final PidBank bank, final double[] plant, final int steps) {
+    final double[] outputs = new double[plant.length];
+    final double dt = STEP / 1.0e9;
+    for (int i = 0; i < steps; i++) {
+      bank.compute(plant, outputs, i * STEP);
+      for (int j = 0; j < plant.length; j++) {
+        plant[j] += (outputs[j] - plant[j]) * dt / PLANT_TAU;
+      }
+    }
+  }
+
+  /**
+   * Every anti-windup strategy brings the plant to the setpoint.
+   */
+  @Test
+  public void testConvergence() {
+    final PidBank bank = new PidBank(1);
+    for (AntiWindup mode : AntiWindup.values()) {
+      final int idx = bank.add(2.0, 1.0, 0.05, -10.0, 10.0);
+      bank.setAntiWindup(idx, mode, 0.5);
+      bank.setDerivativeFilter(idx, 0.1);
+      bank.setSetpoint(idx, 3.0);
+    }
+    final double[] plant = new double[bank.size()];
+    run(bank, plant, 1500);
+    for (int j = 0; j < plant.length; j++) {
+      assertEquals(3.0, plant[j], 0.01);
+    }
+  }
+
+  /**
+   * Derivative on measurement means a setpoint change does not kick the
+   * output.
+   */
+  @Test
+  public void testNoDerivativeKick() {
+    final PidBank bank = new PidBank();
+    final int idx = bank.add(0.0, 0.0, 1.0, -100.0, 100.0);
+    bank.compute(idx, 0.0, 0L);
+    bank.setSetpoint(idx, 50.0);
+    assertEquals(0.0, bank.compute(idx, 0.0, STEP), 0.0);
+  }
+
+  /**
+   * While saturated, clamping pins the integral term at the output limit,
+   * conditional integration stops integrating and back-calculation holds the
+   * integral where Ki * e balances Kt * (u - uSat).
+   */
+  @Test
+  public void testAntiWindup() {
+    final PidBank bank = new PidBank();
+    final int clamped = bank.add(1.0, 5.0, 0.0, -1.0, 1.0);
+    final int conditional = bank.add(1.0, 5.0, 0.0, -1.0, 1.0);
+    final int backCalc = bank.add(1.0, 5.0, 0.0, -1.0, 1.0);
+    bank.setAntiWindup(conditional, AntiWindup.CONDITIONAL_INTEGRATION, 0.0);
+    bank.setAntiWindup(backCalc, AntiWindup.BACK_CALCULATION, 10.0);
+
+    // The plant cannot follow: measurement stays at zero with setpoint 10
+    final double[] measurements = new double[bank.size()];
+    final double[] outputs = new double[bank.size()];
+    for (int idx = 0; idx < bank.size(); idx++) {
+      bank.setSetpoint(idx, 10.0);
+    }
+    for (int i = 0; i < 500; i++) {
+      bank.compute(measurements, outputs, i * STEP);
+    }
+
+    assertEquals(1.0, bank.getIntegral(clamped), 1e-9);
+    assertEquals(0.0, bank.getIntegral(conditional), 1e-9);
+
+    // 5 * 10 = 10 * ((10 + I) - 1)
+    assertEquals(-4.0, bank.getIntegral(backCalc), 1e-6);
+  }
+}
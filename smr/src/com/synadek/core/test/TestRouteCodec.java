@@ -0,0 +1,225 @@
+/**
+ * TestRouteCodec.java
+ * 19 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.core.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import com.synadek.core.GpsCoordinates;
+import com.synadek.smr.control.navigation.GridSegment;
+import com.synadek.smr.control.navigation.HoldSegment;
+import com.synadek.smr.control.navigation.MoveSegment;
+import com.synadek.smr.control.navigation.RouteCodec;
+import com.synadek.smr.control.navigation.RouteImpl;
+import com.synadek.smr.control.navigation.RouteSegment;
+import com.synadek.smr.control.navigation.SpiralSegment;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import org.junit.Test;
+
+/**
+ * Test that routes survive the binary and streaming JSON forms.
+ */
+public class TestRouteCodec {
+
+  /**
+   * Resolution of stored locations in degrees.
+   */
+  private static final double DEGREE_UNIT = 1.0e-7;
+
+  /**
+   * Resolution of stored elevations in metres.
+   */
+  private static final double METRE_UNIT = 0.01;
+
+  /**
+   * A route with no segments is written and read back empty.
+   *
+   * @throws IOException
+   *           if the route cannot be written or read
+   */
+  @Test
+  public void testEmptyRoute() throws IOException {
+    final RouteImpl empty = new RouteImpl();
+    final byte[] bytes = toBinary(empty);
+    assertEquals(0, RouteCodec.readBinary(new ByteArrayInputStream(bytes)).getRoute().size());
+
+    final StringWriter json = new StringWriter();
+    RouteCodec.writeJson(empty, json);
+    assertEquals(0,
+        RouteCodec.readJson(new StringReader(json.toString())).getRoute().size());
+  }
+
+  /**
+   * Segments heading south and west, and below sea level, store negative
+   * differences from the location before.
+   *
+   * @throws IOException
+   *           if the route cannot be written or read
+   */
+  @Test
+  public void testNegativeDeltas() throws IOException {
+    final RouteImpl route = new RouteImpl();
+    final GpsCoordinates start = new GpsCoordinates(0.0000123, 0.0000456, 3.25);
+    final GpsCoordinates south = new GpsCoordinates(-0.0101234, -0.0202345, -1.5);
+    final GpsCoordinates further = new GpsCoordinates(-0.0201234, -0.0302345, -12.75);
+    route.addSegment(new MoveSegment(start, south));
+    route.addSegment(new MoveSegment(south, further));
+    route.addSegment(new HoldSegment(further, 90000L));
+
+    assertSameRoute(route, roundTrip(route));
+  }
+
+  /**
+   * Moves from pole to pole and across the antimeridian, and long holds,
+   * need the longest variable-length values.
+   *
+   * @throws IOException
+   *           if the route cannot be written or read
+   */
+  @Test
+  public void testLargeDeltas() throws IOException {
+    final RouteImpl route = new RouteImpl();
+    final GpsCoordinates southWest = new GpsCoordinates(-89.9999999, -179.9999999, -10000.0);
+    final GpsCoordinates northEast = new GpsCoordinates(89.9999999, 179.9999999, 8848.86);
+    final GpsCoordinates westAgain = new GpsCoordinates(45.0, -179.9999999, 0.0);
+    route.addSegment(new MoveSegment(southWest, northEast));
+    route.addSegment(new HoldSegment(northEast, 365L * 24L * 3600L * 1000L));
+    route.addSegment(new MoveSegment(northEast, westAgain));
+    route.addSegment(new GridSegment(westAgain, 250, northEast));
+    route.addSegment(new SpiralSegment(northEast, 270, 100, 1080));
+
+    assertSameRoute(route, roundTrip(route));
+
+    // The JSON form keeps the same values
+    final StringWriter json = new StringWriter();
+    RouteCodec.writeJson(route, json);
+    assertSameRoute(route, RouteCodec.readJson(new StringReader(json.toString())));
+  }
+
+  /**
+   * A route whose checksum does not match its contents is rejected.
+   *
+   * @throws IOException
+   *           expected, as the route is corrupt
+   */
+  @Test(expected = IOException.class)
+  public void testCorruptChecksum() throws IOException {
+    final RouteImpl route = new RouteImpl();
+    route.addSegment(new MoveSegment(new GpsCoordinates(41.0, -70.0),
+        new GpsCoordinates(41.01, -70.02)));
+    final byte[] bytes = toBinary(route);
+    bytes[bytes.length - 1] ^= 0x01;
+    RouteCodec.readBinary(new ByteArrayInputStream(bytes));
+  }
+
+  /**
+   * A route whose contents were damaged after the checksum was taken is
+   * rejected.
+   *
+   * @throws IOException
+   *           if the route cannot be written
+   */
+  @Test
+  public void testCorruptContents() throws IOException {
+    final RouteImpl route = new RouteImpl();
+    route.addSegment(new MoveSegment(new GpsCoordinates(41.0, -70.0),
+        new GpsCoordinates(41.01, -70.02)));
+    route.addSegment(new HoldSegment(new GpsCoordinates(41.01, -70.02), 60000L));
+    final byte[] clean = toBinary(route);
+
+    // Damage each byte after the header in turn; none may pass as a route
+    for (int i = 6; i < clean.length - 4; i++) {
+      final byte[] bytes = clean.clone();
+      bytes[i] ^= 0x10;
+      boolean rejected = false;
+      try {
+        RouteCodec.readBinary(new ByteArrayInputStream(bytes));
+      } catch (IOException err) {
+        rejected = true;
+      }
+      assertTrue("Damage at byte " + i + " was not detected", rejected);
+    }
+  }
+
+  /**
+   * Write a route in the binary format.
+   *
+   * @param route
+   *          the route
+   * @return the encoding
+   * @throws IOException
+   *           if the route cannot be written
+   */
+  private static byte[] toBinary(final RouteImpl route) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    RouteCodec.writeBinary(route, out);
+    return out.toByteArray();
+  }
+
+  /**
+   * Write a route in the binary format and read it back.
+   *
+   * @param route
+   *          the route
+   * @return the route read
+   * @throws IOException
+   *           if the route cannot be written or read
+   */
+  private static RouteImpl roundTrip(final RouteImpl route) throws IOException {
+    return RouteCodec.readBinary(new ByteArrayInputStream(toBinary(route)));
+  }
+
+  /**
+   * Check that two routes have the same segments, to the stored resolution.
+   *
+   * @param expected
+   *          the route written
+   * @param actual
+   *          the route read
+   */
+  private static void assertSameRoute(final RouteImpl expected, final RouteImpl actual) {
+    assertEquals(expected.getRoute().size(), actual.getRoute().size());
+    for (int i = 0; i < expected.getRoute().size(); i++) {
+      final RouteSegment want = expected.getSegment(i);
+      final RouteSegment got = actual.getSegment(i);
+      assertEquals(want.getType(), got.getType());
+      assertSameLocation(want.getStartLocation(), got.getStartLocation());
+      assertSameLocation(want.getDestination(), got.getDestination());
+      if (want instanceof HoldSegment) {
+        assertEquals(((HoldSegment) want).getHoldTimeMillis(),
+            ((HoldSegment) got).getHoldTimeMillis());
+      } else if (want instanceof GridSegment) {
+        assertEquals(((GridSegment) want).getSpacing(), ((GridSegment) got).getSpacing());
+      } else if (want instanceof SpiralSegment) {
+        final SpiralSegment spiral = (SpiralSegment) got;
+        assertEquals(((SpiralSegment) want).getSpacing(), spiral.getSpacing());
+        assertEquals(((SpiralSegment) want).getDegrees(), spiral.getDegrees());
+        assertEquals(((SpiralSegment) want).getBearing(), spiral.getBearing());
+      }
+    }
+  }
+
+  /**
+   * Check that two locations agree to the stored resolution.
+   *
+   * @param expected
+   *          the location written
+   * @param actual
+   *          the location read
+   */
+  private static void assertSameLocation(final GpsCoordinates expected,
+      final GpsCoordinates actual) {
+    assertEquals(expected.getLatitude().degrees(), actual.getLatitude().degrees(), DEGREE_UNIT);
+    assertEquals(expected.getLongitude().degrees(), actual.getLongitude().degrees(),
+        DEGREE_UNIT);
+    assertEquals(expected.getElevation(), actual.getElevation(), METRE_UNIT);
+  }
+}
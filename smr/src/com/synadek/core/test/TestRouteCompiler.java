@@ -0,0 +1,72 @@
+/**
+ * TestRouteCompiler.java
+ * 19 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.core.test;
+
+import static org.junit.Assert.assertEquals;
+import com.synadek.core.GpsCoordinates;
+import com.synadek.smr.control.navigation.CompiledRoute;
+import com.synadek.smr.control.navigation.GridSegment;
+import com.synadek.smr.control.navigation.HoldSegment;
+import com.synadek.smr.control.navigation.MoveSegment;
+import com.synadek.smr.control.navigation.RouteCompiler;
+import com.synadek.smr.control.navigation.RouteImpl;
+import com.synadek.smr.control.navigation.SpiralSegment;
+import org.junit.Test;
+
+/**
+ * Test that a segment without a start location starts where the segment before
+ * it actually ends.
+ */
+public class TestRouteCompiler {
+
+  /**
+   * Tolerance for comparing coordinates in degrees (about a centimetre).
+   */
+  private static final double SAME = 1.0e-7;
+
+  /**
+   * A grid of two strips ends back on the west side, not at its far corner.
+   */
+  @Test
+  public void testAfterEvenGrid() {
+    final GpsCoordinates start = new GpsCoordinates(40.0, -70.0);
+    final GpsCoordinates corner = new GpsCoordinates(40.0009, -69.9988);
+    final GpsCoordinates finish = new GpsCoordinates(40.01, -70.0);
+    final RouteImpl route = new RouteImpl();
+    route.addSegment(new GridSegment(start, 100, corner));
+    route.addSegment(new MoveSegment(null, finish));
+
+    final CompiledRoute compiled = RouteCompiler.compile(route);
+
+    // Four grid corners, then straight on to the finish
+    assertEquals(5, compiled.size());
+    assertEquals(40.0009, compiled.getLatitude(3), SAME);
+    assertEquals(-70.0, compiled.getLongitude(3), SAME);
+    assertEquals(40.01, compiled.getLatitude(4), SAME);
+  }
+
+  /**
+   * A hold after a spiral is kept where the spiral ends.
+   */
+  @Test
+  public void testAfterSpiral() {
+    final GpsCoordinates start = new GpsCoordinates(40.0, -70.0);
+    final RouteImpl route = new RouteImpl();
+    route.addSegment(new SpiralSegment(start, 0, 50, 720));
+    route.addSegment(new HoldSegment(null, 60000L));
+
+    final CompiledRoute compiled = RouteCompiler.compile(route);
+
+    final int last = compiled.size() - 1;
+    assertEquals(60000L, compiled.getHoldMillis(last));
+    // Two loops of 50 m end 100 m north of the start
+    assertEquals(compiled.getLatitude(last - 1), compiled.getLatitude(last), SAME);
+    assertEquals(compiled.getLongitude(last - 1), compiled.getLongitude(last), SAME);
+    assertEquals(100.0, start.getDistance(compiled.getWaypoint(last)), 0.5);
+  }
+}
@@ -0,0 +1,65 @@
+/**
+ * TestRouteOptimizer.java
+ * 19 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.core.test;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import com.synadek.core.GpsCoordinates;
+import com.synadek.smr.control.mission.RouteOptimizer;
+import com.synadek.smr.control.mission.RouteOptimizer.Objective;
+import com.synadek.smr.control.mission.RouteOptimizer.Passage;
+import com.synadek.smr.control.power.EnduranceForecast;
+import com.synadek.smr.control.weather.ConditionsForecast;
+import org.junit.Test;
+
+/**
+ * Test the costs the route optimizer gives to passages.
+ */
+public class TestRouteOptimizer {
+
+  /**
+   * Departure time: local midnight off New England, so the sun plays no part.
+   */
+  private static final long DEPART = 1791680400000L;
+
+  /**
+   * A passage into a headwind takes longer at the same power, so it costs
+   * more energy than the same passage in calm water.
+   */
+  @Test
+  public void testHeadwindCostsEnergy() {
+    final EnduranceForecast model = new EnduranceForecast(1000.0, 10.0, 100.0, 2.0, 0.0);
+    final ConditionsForecast calm = new ConditionsForecast() {
+    };
+    final ConditionsForecast northerly = new ConditionsForecast() {
+      @Override
+      public double getWindSpeed(final double lat, final double lon, final long millis) {
+        return 20.0;
+      }
+
+      @Override
+      public double getWindDirection(final double lat, final double lon, final long millis) {
+        return 0.0;
+      }
+    };
+    final GpsCoordinates from = new GpsCoordinates(41.0, -70.0);
+    final GpsCoordinates to = new GpsCoordinates(41.05, -70.0);
+
+    final RouteOptimizer still = new RouteOptimizer(model, 1.5, calm);
+    still.setObjective(Objective.ENERGY);
+    final Passage easy = still.optimizePassage(from, to, DEPART);
+    final RouteOptimizer windy = new RouteOptimizer(model, 1.5, northerly);
+    windy.setObjective(Objective.ENERGY);
+    final Passage hard = windy.optimizePassage(from, to, DEPART);
+
+    assertNotNull(easy);
+    assertNotNull(hard);
+    assertTrue(hard.getSeconds() > easy.getSeconds());
+    assertTrue(hard.getWattHours() > easy.getWattHours());
+  }
+}
@@ -0,0 +1,74 @@
+/**
+ * TestSensorFusion.java
+ * 19 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.core.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import com.synadek.smr.vessel.GnssReceiverImpl;
+import com.synadek.smr.vessel.SensorFusion;
+import com.synadek.smr.vessel.VesselStatus;
+import com.synadek.smr.vessel.physical.VesselPhysicalModel.PhysicalDeviceType;
+import org.junit.Test;
+
+/**
+ * Test that GNSS fixes and IMU readings reach the sensor fusion.
+ */
+public class TestSensorFusion {
+
+  /**
+   * Nanoseconds per fusion step at 20 Hz.
+   */
+  private static final long STEP_NANOS = 50_000_000L;
+
+  /**
+   * A latitude and longitude from the receiver become the fused position.
+   */
+  @Test
+  public void testGnssFix() {
+    final long[] now = { 0L };
+    final SensorFusion fusion = new SensorFusion(null, () -> now[0]);
+    final GnssReceiverImpl receiver = new GnssReceiverImpl("GNSS");
+    receiver.addGnssListener(fusion::onGnss);
+
+    // A longitude without a latitude is not a fix
+    receiver.physicalDeviceStateChange(PhysicalDeviceType.PHY_GNSS_LONGITUDE, -73.9);
+    assertNull(receiver.getLocation());
+
+    receiver.physicalDeviceStateChange(PhysicalDeviceType.PHY_GNSS_LATITUDE, 40.5);
+    receiver.physicalDeviceStateChange(PhysicalDeviceType.PHY_GNSS_LONGITUDE, -73.9);
+    now[0] += STEP_NANOS;
+    fusion.step(now[0]);
+
+    final VesselStatus status = fusion.getStatus();
+    assertEquals(40.5, status.getLatitude(), 1.0e-6);
+    assertEquals(-73.9, status.getLongitude(), 1.0e-6);
+    assertEquals(40.5, receiver.getLocation().getLatitude().degrees(), 1.0e-9);
+  }
+
+  /**
+   * The IMU yaw rate turns the fused heading between compass readings.
+   */
+  @Test
+  public void testImuYawRate() {
+    final long[] now = { 0L };
+    final SensorFusion fusion = new SensorFusion(null, () -> now[0]);
+    fusion.onCompass(0.0, now[0]);
+    fusion.step(now[0]);
+
+    // Turn to starboard at 0.1 rad/s for one second
+    for (int i = 0; i < 20; i++) {
+      fusion.physicalDeviceStateChange(PhysicalDeviceType.PHY_IMU_YAW_RATE, 0.1);
+      fusion.physicalDeviceStateChange(PhysicalDeviceType.PHY_IMU_HEAVE_ACCELERATION,
+          -9.80665);
+      now[0] += STEP_NANOS;
+      fusion.step(now[0]);
+    }
+
+    assertEquals(Math.toDegrees(0.1), fusion.getStatus().getHeading(), 0.1);
+  }
+}
@@ -0,0 +1,98 @@
+/**
+ * TestSolarEnergy.java
+ * 19 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.core.test;
+
+import static org.junit.Assert.assertEquals;
+import com.synadek.smr.control.weather.RollupBucket;
+import com.synadek.smr.control.weather.RollupResolution;
+import com.synadek.smr.control.weather.SunlightImpl;
+import com.synadek.smr.control.weather.WeatherChannel;
+import com.synadek.smr.control.weather.WeatherRollups;
+import com.synadek.smr.vessel.physical.VesselPhysicalModel.PhysicalDeviceType;
+import java.time.Duration;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Test the solar power ingest path and the solar energy integral.
+ */
+public class TestSolarEnergy {
+
+  /**
+   * Milliseconds per minute.
+   */
+  private static final long MINUTE = 60000L;
+
+  /**
+   * Solar energy is the sum of the one minute mean powers times one minute.
+   */
+  @Test
+  public void testIntegral() {
+    final WeatherRollups rollups = new WeatherRollups();
+    final SunlightImpl sunlight = new SunlightImpl();
+    sunlight.setRollups(rollups);
+
+    // Two readings in each of five whole minutes well inside the last ten
+    final long thisMinute = System.currentTimeMillis() / MINUTE * MINUTE;
+    for (int m = 0; m < 5; m++) {
+      final long start = thisMinute - (7 - m) * MINUTE;
+      final double mean = 100.0 * m;
+      rollups.record(WeatherChannel.SOLAR_POWER, mean - 50.0, start + 10000L);
+      rollups.record(WeatherChannel.SOLAR_POWER, mean + 50.0, start + 40000L);
+    }
+
+    // 60 s x (0 + 100 + 200 + 300 + 400) W
+    assertEquals(60000.0, sunlight.solarEnergy(Duration.ofMinutes(10)), 1.0e-3);
+    // None of the readings fall in the last minute
+    assertEquals(0.0, sunlight.solarEnergy(Duration.ofSeconds(30)), 0.0);
+  }
+
+  /**
+   * Readings from the solar power sensor are published and fed to the rollups.
+   */
+  @Test
+  public void testSensorIngest() {
+    final WeatherRollups rollups = new WeatherRollups();
+    final SunlightImpl sunlight = new SunlightImpl();
+    sunlight.setRollups(rollups);
+    final long before = System.currentTimeMillis();
+
+    sunlight.physicalDeviceStateChange(PhysicalDeviceType.PHY_SOLAR_POWER_SENSOR, 250.0);
+    sunlight.physicalDeviceStateChange(PhysicalDeviceType.PHY_WIND_SPEED_SENSOR, 12.0);
+    assertEquals(250.0, sunlight.solarPower(), 0.0);
+
+    final List<RollupBucket> buckets = rollups.query(WeatherChannel.SOLAR_POWER,
+        RollupResolution.MINUTE, before - MINUTE, System.currentTimeMillis() + MINUTE);
+    assertEquals(1, buckets.size());
+    assertEquals(1L, buckets.get(0).getCount());
+    assertEquals(250.0, buckets.get(0).getMean(), 0.0);
+  }
+
+  /**
+   * Readings are timestamped by the vessel's clock, e.g. simulated time, not
+   * the system clock.
+   */
+  @Test
+  public void testVesselClock() {
+    final long simulated = 1000L * MINUTE;
+    final long[] now = {simulated + 1000L};
+    final WeatherRollups rollups = new WeatherRollups();
+    final SunlightImpl sunlight = new SunlightImpl(null, () -> now[0]);
+    sunlight.setRollups(rollups);
+
+    sunlight.physicalDeviceStateChange(PhysicalDeviceType.PHY_SOLAR_POWER_SENSOR, 120.0);
+
+    final List<RollupBucket> buckets = rollups.query(WeatherChannel.SOLAR_POWER,
+        RollupResolution.MINUTE, simulated - MINUTE, simulated + MINUTE);
+    assertEquals(1, buckets.size());
+    assertEquals(120.0, buckets.get(0).getMean(), 0.0);
+    // A minute of 120 W, seen from two simulated minutes later
+    now[0] = simulated + 2L * MINUTE;
+    assertEquals(120.0 * 60.0, sunlight.solarEnergy(Duration.ofMinutes(2)), 1.0e-3);
+  }
+}
@@ -0,0 +1,184 @@
+/**
+ * TestTrafficPicture.java
+ * 19 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.core.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import com.synadek.smr.control.navigation.TrafficPicture;
+import com.synadek.smr.control.navigation.TrafficPicture.Avoidance;
+import com.synadek.smr.control.navigation.TrafficPicture.Encounter;
+import com.synadek.smr.control.navigation.TrafficPicture.Maneuver;
+import com.synadek.smr.vessel.IntershipCommunicationsImpl;
+import com.synadek.smr.vessel.SimulatedRadio;
+import com.synadek.smr.vessel.VesselStatus;
+import com.synadek.smr.vessel.VesselStatusPublisher;
+import org.junit.Test;
+
+/**
+ * Test the encounters and advice of the traffic picture, for a vessel at a
+ * fixed point making 5 m/s and a single contact about a kilometre away.
+ */
+public class TestTrafficPicture {
+
+  /**
+   * Latitude of this vessel in degrees.
+   */
+  private static final double LAT = 40.0;
+
+  /**
+   * Longitude of this vessel in degrees.
+   */
+  private static final double LON = -70.0;
+
+  /**
+   * Degrees of latitude in a kilometre.
+   */
+  private static final double KM_LAT = 1000.0 / 111195.0;
+
+  /**
+   * Degrees of longitude in a kilometre at LAT.
+   */
+  private static final double KM_LON = KM_LAT / Math.cos(Math.toRadians(LAT));
+
+  /**
+   * Speed of this vessel in m/s.
+   */
+  private static final double SPEED = 5.0;
+
+  /**
+   * Time of every report and tick (ms since epoch).
+   */
+  private static final long NOW = 1791680400000L;
+
+  /**
+   * Default safe distance of the picture in metres.
+   */
+  private static final double SAFE = 500.0;
+
+  /**
+   * A contact dead ahead on the reciprocal course is met head-on, and this
+   * vessel alters to starboard.
+   */
+  @Test
+  public void testHeadOn() {
+    final TrafficPicture picture = new TrafficPicture("Own");
+    picture.update("Other", LAT + 2.0 * KM_LAT, LON, SPEED, 180.0, NOW);
+    final Avoidance advice = picture.tick(LAT, LON, SPEED, 0.0, NOW);
+    assertEquals(Encounter.HeadOn, advice.getEncounter());
+    assertEquals(Maneuver.AlterCourse, advice.getManeuver());
+    assertEquals("Other", advice.getContact());
+    assertTrue(advice.getCourse() > 0.0 && advice.getCourse() <= 90.0);
+    assertEquals(200.0, advice.getTcpa(), 1.0);
+  }
+
+  /**
+   * A contact crossing from starboard must be given way to; one crossing
+   * from port is left to give way while this vessel stands on.
+   */
+  @Test
+  public void testCrossing() {
+    final TrafficPicture fromStarboard = new TrafficPicture("Own");
+    fromStarboard.update("Other", LAT + KM_LAT, LON + KM_LON, SPEED, 270.0, NOW);
+    final Avoidance giveWay = fromStarboard.tick(LAT, LON, SPEED, 0.0, NOW);
+    assertEquals(Encounter.CrossingGiveWay, giveWay.getEncounter());
+    assertEquals(Maneuver.AlterCourse, giveWay.getManeuver());
+
+    final TrafficPicture fromPort = new TrafficPicture("Own");
+    fromPort.update("Other", LAT + KM_LAT, LON - KM_LON, SPEED, 90.0, NOW);
+    final Avoidance standOn = fromPort.tick(LAT, LON, SPEED, 0.0, NOW);
+    assertEquals(Encounter.CrossingStandOn, standOn.getEncounter());
+    assertEquals(Maneuver.StandOn, standOn.getManeuver());
+    assertEquals(0.0, standOn.getCourse(), 0.0);
+    assertEquals(SPEED, standOn.getSpeed(), 0.0);
+  }
+
+  /**
+   * Coming up on a slower vessel from astern is overtaking, and the
+   * overtaking vessel keeps clear.
+   */
+  @Test
+  public void testOvertaking() {
+    final TrafficPicture picture = new TrafficPicture("Own");
+    picture.update("Slow", LAT + 0.3 * KM_LAT, LON, 1.0, 0.0, NOW);
+    final Avoidance advice = picture.tick(LAT, LON, SPEED, 0.0, NOW);
+    assertEquals(Encounter.Overtaking, advice.getEncounter());
+    assertTrue(advice.getManeuver() != Maneuver.None
+        && advice.getManeuver() != Maneuver.StandOn);
+
+    // Seen from the slower vessel, it is being overtaken and stands on
+    final TrafficPicture slow = new TrafficPicture("Slow");
+    slow.update("Own", LAT, LON, SPEED, 0.0, NOW);
+    final Avoidance overtaken = slow.tick(LAT + 0.3 * KM_LAT, LON, 1.0, 0.0, NOW);
+    assertEquals(Encounter.Overtaken, overtaken.getEncounter());
+  }
+
+  /**
+   * A contact drawing away is no threat, however close it passed.
+   */
+  @Test
+  public void testDiverging() {
+    final TrafficPicture picture = new TrafficPicture("Own");
+    picture.update("Ahead", LAT + 0.2 * KM_LAT, LON, 2.0 * SPEED, 0.0, NOW);
+    picture.update("Astern", LAT - 0.2 * KM_LAT, LON, SPEED, 180.0, NOW);
+    final Avoidance advice = picture.tick(LAT, LON, SPEED, 0.0, NOW);
+    assertEquals(Maneuver.None, advice.getManeuver());
+    assertEquals(Encounter.Clear, advice.getEncounter());
+    assertTrue(picture.getTcpa("Ahead") <= 0.0);
+    assertTrue(picture.getTcpa("Astern") <= 0.0);
+  }
+
+  /**
+   * The advised alteration of course clears the contact: steering it leaves
+   * nothing to avoid.
+   */
+  @Test
+  public void testAvoidAltersCourse() {
+    final TrafficPicture picture = new TrafficPicture("Own");
+    picture.update("Other", LAT + 2.0 * KM_LAT, LON, SPEED, 180.0, NOW);
+    final Avoidance advice = picture.tick(LAT, LON, SPEED, 0.0, NOW);
+    assertEquals(Maneuver.AlterCourse, advice.getManeuver());
+    assertTrue(advice.getCpa() < SAFE);
+
+    final Avoidance after = picture.tick(LAT, LON, advice.getSpeed(), advice.getCourse(), NOW);
+    assertEquals(Maneuver.None, after.getManeuver());
+    assertTrue(picture.getCpa("Other") >= SAFE);
+  }
+
+  /**
+   * A status broadcast over intership communications reaches the traffic
+   * picture of every other ship on the radio as a position report.
+   *
+   * @throws Exception
+   *           if a link cannot connect
+   */
+  @Test
+  public void testPositionReport() throws Exception {
+    final SimulatedRadio radio = new SimulatedRadio(Runnable::run);
+    final IntershipCommunicationsImpl sender = new IntershipCommunicationsImpl("comms",
+        "Reporter");
+    final IntershipCommunicationsImpl receiver = new IntershipCommunicationsImpl("comms",
+        "Listener");
+    final TrafficPicture picture = new TrafficPicture("Listener");
+    sender.setSimulatedRadio(radio);
+    sender.setClock(() -> NOW);
+    receiver.setSimulatedRadio(radio);
+    receiver.addListener(picture);
+    sender.connect(true);
+    receiver.connect(true);
+    try {
+      final VesselStatus status = new VesselStatusPublisher().update(bld -> bld
+          .setLatitude(LAT + 2.0 * KM_LAT).setLongitude(LON).setSpeed(SPEED).setHeading(180.0));
+      sender.broadcast(status);
+      assertEquals(1, picture.size());
+      assertEquals(Encounter.HeadOn, picture.tick(LAT, LON, SPEED, 0.0, NOW).getEncounter());
+    } finally {
+      sender.disconnect();
+      receiver.disconnect();
+    }
+  }
+}
@@ -0,0 +1,129 @@
+/**
+ * TestVesselStatus.java
+ * 19 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.core.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import com.synadek.core.InvalidValueException;
+import com.synadek.smr.vessel.IntershipCommunicationsImpl;
+import com.synadek.smr.vessel.VesselStatus;
+import com.synadek.smr.vessel.VesselStatusPublisher;
+import java.nio.ByteBuffer;
+import org.junit.Test;
+
+/**
+ * Test the binary form of vessel status snapshots and their exchange between
+ * ships.
+ */
+public class TestVesselStatus {
+
+  /**
+   * A snapshot survives encoding and decoding in ENCODED_SIZE bytes.
+   *
+   * @throws InvalidValueException
+   *           if the encoding cannot be decoded
+   */
+  @Test
+  public void testRoundTrip() throws InvalidValueException {
+    final VesselStatusPublisher publisher = new VesselStatusPublisher();
+    publisher.update(bld -> bld.setLatitude(40.5).setLongitude(-73.9));
+    final VesselStatus sent = publisher.update(bld -> bld.setBatteryVoltage(12.5));
+
+    final ByteBuffer buf = ByteBuffer.allocate(VesselStatus.ENCODED_SIZE);
+    sent.encode(buf);
+    assertEquals(VesselStatus.ENCODED_SIZE, buf.position());
+    buf.flip();
+
+    final VesselStatus received = VesselStatus.decode(buf);
+    assertEquals(publisher.getEpoch(), received.getEpoch());
+    assertEquals(2L, received.getVersion());
+    assertEquals(40.5, received.getLatitude(), 0.0);
+    assertEquals(-73.9, received.getLongitude(), 0.0);
+    assertEquals(12.5, received.getBatteryVoltage(), 1.0e-6);
+  }
+
+  /**
+   * A simulated ship keeps the newest status broadcast by each other ship.
+   *
+   * @throws Exception
+   *           if a link cannot connect
+   */
+  @Test
+  public void testPeerStatus() throws Exception {
+    final IntershipCommunicationsImpl sender = new IntershipCommunicationsImpl("comms",
+        "Test Sender");
+    final IntershipCommunicationsImpl receiver = new IntershipCommunicationsImpl("comms",
+        "Test Receiver");
+    sender.connect(true);
+    receiver.connect(true);
+    try {
+      assertNull(receiver.getPeerStatus("Test Sender"));
+
+      final VesselStatusPublisher publisher = new VesselStatusPublisher();
+      final VesselStatus older = publisher.update(bld -> bld.setBatteryVoltage(12.0));
+      final VesselStatus newer = publisher.update(bld -> bld.setBatteryVoltage(11.0));
+      sender.sendStatus(newer);
+      sender.sendStatus(older);
+
+      final VesselStatus peer = receiver.getPeerStatus("Test Sender");
+      assertEquals(newer.getVersion(), peer.getVersion());
+      assertEquals(11.0, peer.getBatteryVoltage(), 1.0e-6);
+    } finally {
+      sender.disconnect();
+      receiver.disconnect();
+    }
+  }
+
+  /**
+   * After a ship restarts, its versions start again from 1 under a later boot
+   * epoch; every other ship takes its new broadcasts and ignores late ones
+   * from before the restart.
+   *
+   * @throws Exception
+   *           if a link cannot connect
+   */
+  @Test
+  public void testPeerRestart() throws Exception {
+    final IntershipCommunicationsImpl sender = new IntershipCommunicationsImpl("comms",
+        "Restart Sender");
+    final IntershipCommunicationsImpl first = new IntershipCommunicationsImpl("comms",
+        "Restart Receiver 1");
+    final IntershipCommunicationsImpl second = new IntershipCommunicationsImpl("comms",
+        "Restart Receiver 2");
+    sender.connect(true);
+    first.connect(true);
+    second.connect(true);
+    try {
+      final VesselStatusPublisher beforeBoot = new VesselStatusPublisher(1000L);
+      beforeBoot.update(bld -> bld.setUpTime(1000L));
+      final VesselStatus late = beforeBoot.update(bld -> bld.setUpTime(2000L));
+      sender.sendStatus(late);
+
+      final VesselStatusPublisher afterBoot = new VesselStatusPublisher(5000L);
+      final VesselStatus rebooted = afterBoot.update(bld -> bld.setUpTime(10L));
+      assertTrue(rebooted.isNewerThan(late));
+      assertFalse(late.isNewerThan(rebooted));
+      sender.sendStatus(rebooted);
+      sender.sendStatus(late);
+
+      for (IntershipCommunicationsImpl receiver : new IntershipCommunicationsImpl[] {first,
+          second}) {
+        final VesselStatus peer = receiver.getPeerStatus("Restart Sender");
+        assertEquals(5000L, peer.getEpoch());
+        assertEquals(1L, peer.getVersion());
+        assertEquals(10L, peer.getUpTime());
+      }
+    } finally {
+      sender.disconnect();
+      first.disconnect();
+      second.disconnect();
+    }
+  }
+}
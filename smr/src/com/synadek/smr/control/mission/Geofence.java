@@ -0,0 +1,649 @@
+/**
+ * Geofence.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.control.mission;
+
+import com.synadek.core.GpsCoordinates;
+import com.synadek.smr.control.mission.GeofenceEvent.Event;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The keep-in and keep-out zones of a mission, checked against each fix.
+ *
+ * <p>
+ * Each zone is compiled once, when it is added, onto a flat-earth grid about
+ * its own centre. Its edges are bucketed into bands of latitude, so that a
+ * point-in-polygon test looks only at the few edges of the band holding the
+ * point, and the nearest edge is found by searching outward band by band. A
+ * fix is first compared with each zone's bounding box, widened by the
+ * approach distance, so that zones well away from the vessel cost four
+ * comparisons each. The distance to the nearest boundary point is the great
+ * circle distance.
+ * </p>
+ *
+ * <p>
+ * Listeners are told when the vessel enters or leaves a zone, and when it
+ * comes within the approach distance of a boundary from the permitted side:
+ * inside a keep-in zone or outside a keep-out zone. Zones also tell the route
+ * optimizer where the vessel may go.
+ * </p>
+ */
+public class Geofence implements RouteOptimizer.Navigable {
+
+  /**
+   * Whether the vessel must stay inside or outside a zone.
+   */
+  public enum Kind {
+    /**
+     * KeepIn - the vessel must stay inside the zone.
+     */
+    KeepIn,
+    /**
+     * KeepOut - the vessel must stay outside the zone.
+     */
+    KeepOut
+  }
+
+  /**
+   * Acquire a reference to the application logger.
+   */
+  private static Logger log = LogManager.getLogger(Geofence.class.getPackage().getName());
+
+  /**
+   * Default distance from a boundary at which the vessel is approaching it, in
+   * metres.
+   */
+  private static final double DEFAULT_APPROACH_DISTANCE = 200.0;
+
+  /**
+   * Most bands of latitude into which a zone's edges are bucketed.
+   */
+  private static final int MAX_BANDS = 1024;
+
+  /**
+   * Metres per degree of latitude.
+   */
+  private static final double METRES_PER_DEGREE = Math.toRadians(6371000.0);
+
+  // Which side of a zone's boundary the vessel was on at the last fix
+  private static final byte UNKNOWN = 0;
+  private static final byte OUTSIDE = 1;
+  private static final byte INSIDE = 2;
+
+  /**
+   * Listeners told of events.
+   */
+  private final List<GeofenceListener> listeners = new CopyOnWriteArrayList<>();
+
+  /**
+   * The zones. Replaced, never changed, so it may be read without locking.
+   */
+  private volatile Zone[] zones = new Zone[0];
+
+  /**
+   * Distance from a boundary at which the vessel is approaching it, in metres.
+   */
+  private double approachDistance = DEFAULT_APPROACH_DISTANCE;
+
+  // Per zone: the side of the boundary and whether it was near at the last fix
+  private byte[] side = new byte[0];
+  private boolean[] near = new boolean[0];
+
+  // Per zone: bounding box widened by the approach distance, in degrees
+  private double[] boxSouth = new double[0];
+  private double[] boxNorth = new double[0];
+  private double[] boxWest = new double[0];
+  private double[] boxEast = new double[0];
+
+  /**
+   * Add a listener to be told of events.
+   *
+   * @param listener
+   *          the listener
+   */
+  public void addListener(final GeofenceListener listener) {
+    listeners.add(listener);
+  }
+
+  /**
+   * Remove a listener.
+   *
+   * @param listener
+   *          the listener
+   */
+  public void removeListener(final GeofenceListener listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * Set the distance from a boundary at which the vessel is approaching it.
+   *
+   * @param metres
+   *          the approach distance
+   */
+  public synchronized void setApproachDistance(final double metres) {
+    approachDistance = metres;
+    for (int i = 0; i < zones.length; i++) {
+      widen(i);
+    }
+  }
+
+  /**
+   * Add a zone, replacing any zone of the same name.
+   *
+   * @param name
+   *          name of the zone
+   * @param kind
+   *          whether the vessel must stay inside or outside
+   * @param boundary
+   *          vertices of the boundary in order; the last joins the first
+   * @return the compiled zone
+   */
+  public synchronized Zone addZone(final String name, final Kind kind,
+      final List<GpsCoordinates> boundary) {
+    final Zone zone = new Zone(name, kind, boundary);
+    removeZone(name);
+    final int n = zones.length;
+    zones = Arrays.copyOf(zones, n + 1);
+    zones[n] = zone;
+    side = Arrays.copyOf(side, n + 1);
+    near = Arrays.copyOf(near, n + 1);
+    boxSouth = Arrays.copyOf(boxSouth, n + 1);
+    boxNorth = Arrays.copyOf(boxNorth, n + 1);
+    boxWest = Arrays.copyOf(boxWest, n + 1);
+    boxEast = Arrays.copyOf(boxEast, n + 1);
+    widen(n);
+    return zone;
+  }
+
+  /**
+   * Remove a zone.
+   *
+   * @param name
+   *          name of the zone
+   * @return true if there was such a zone
+   */
+  public synchronized boolean removeZone(final String name) {
+    for (int i = 0; i < zones.length; i++) {
+      if (zones[i].getName().equals(name)) {
+        zones = remove(zones, i);
+        final int n = zones.length;
+        System.arraycopy(side, i + 1, side, i, n - i);
+        System.arraycopy(near, i + 1, near, i, n - i);
+        System.arraycopy(boxSouth, i + 1, boxSouth, i, n - i);
+        System.arraycopy(boxNorth, i + 1, boxNorth, i, n - i);
+        System.arraycopy(boxWest, i + 1, boxWest, i, n - i);
+        System.arraycopy(boxEast, i + 1, boxEast, i, n - i);
+        side = Arrays.copyOf(side, n);
+        near = Arrays.copyOf(near, n);
+        boxSouth = Arrays.copyOf(boxSouth, n);
+        boxNorth = Arrays.copyOf(boxNorth, n);
+        boxWest = Arrays.copyOf(boxWest, n);
+        boxEast = Arrays.copyOf(boxEast, n);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Get the zones.
+   *
+   * @return the zones, in the order added
+   */
+  public List<Zone> getZones() {
+    return Collections.unmodifiableList(Arrays.asList(zones.clone()));
+  }
+
+  /**
+   * Determine whether there are any zones.
+   *
+   * @return true if there are none
+   */
+  public boolean isEmpty() {
+    return zones.length == 0;
+  }
+
+  /**
+   * Check a fix against every zone and tell the listeners of any boundary
+   * crossed or neared since the last fix. On the first fix, being where the
+   * vessel must not be counts as having crossed into it.
+   *
+   * @param lat
+   *          latitude in degrees
+   * @param lon
+   *          longitude in degrees
+   * @param millis
+   *          when the fix was taken (ms since epoch)
+   */
+  public synchronized void onFix(final double lat, final double lon, final long millis) {
+    final Zone[] all = zones;
+    for (int i = 0; i < all.length; i++) {
+      final Zone zone = all[i];
+      final boolean close = lat >= boxSouth[i] && lat <= boxNorth[i] && lon >= boxWest[i]
+          && lon <= boxEast[i];
+      final boolean inside = close && zone.contains(lat, lon);
+      double distance = close
+          ? zone.getDistanceToBoundary(lat, lon, approachDistance)
+          : Double.POSITIVE_INFINITY;
+      final boolean nowNear = distance < approachDistance;
+      final boolean permitted = inside == (zone.getKind() == Kind.KeepIn);
+
+      final byte was = side[i];
+      side[i] = inside ? INSIDE : OUTSIDE;
+      if (was != side[i] && (was != UNKNOWN || !permitted)) {
+        if (!nowNear) {
+          distance = zone.getDistanceToBoundary(lat, lon);
+        }
+        publish(new GeofenceEvent(inside ? Event.Entered : Event.Exited, zone.getName(),
+            zone.getKind(), distance, lat, lon, millis));
+      }
+      if (nowNear && !near[i] && permitted) {
+        publish(new GeofenceEvent(Event.Approaching, zone.getName(), zone.getKind(), distance,
+            lat, lon, millis));
+      }
+      near[i] = nowNear;
+    }
+  }
+
+  /**
+   * Determine whether the vessel may be at a point: inside at least one
+   * keep-in zone, if there are any, and outside every keep-out zone.
+   *
+   * @param lat
+   *          latitude in degrees
+   * @param lon
+   *          longitude in degrees
+   * @return true if the point is permitted
+   */
+  @Override
+  public boolean isNavigable(final double lat, final double lon) {
+    boolean keepIn = false;
+    boolean inside = false;
+    for (Zone zone : zones) {
+      if (zone.getKind() == Kind.KeepIn) {
+        keepIn = true;
+        inside = inside || zone.contains(lat, lon);
+      } else if (zone.contains(lat, lon)) {
+        return false;
+      }
+    }
+    return inside || !keepIn;
+  }
+
+  /**
+   * Widen a zone's bounding box by the approach distance.
+   *
+   * @param idx
+   *          index of the zone
+   */
+  private void widen(final int idx) {
+    final Zone zone = zones[idx];
+    final double dlat = approachDistance / METRES_PER_DEGREE;
+    final double cos = Math.cos(Math.toRadians(
+        Math.max(Math.abs(zone.getSouth()), Math.abs(zone.getNorth())) + dlat));
+    final double dlon = cos > 1e-6 ? dlat / cos : 360.0;
+    boxSouth[idx] = zone.getSouth() - dlat;
+    boxNorth[idx] = zone.getNorth() + dlat;
+    boxWest[idx] = zone.getWest() - dlon;
+    boxEast[idx] = zone.getEast() + dlon;
+  }
+
+  /**
+   * Tell the listeners of an event.
+   *
+   * @param event
+   *          what happened
+   */
+  private void publish(final GeofenceEvent event) {
+    if (event.isViolation()) {
+      log.warn("Geofence {}", event);
+    } else {
+      log.debug("Geofence {}", event);
+    }
+    for (GeofenceListener listener : listeners) {
+      try {
+        listener.geofenceEvent(event);
+      } catch (RuntimeException err) {
+        log.error("Geofence listener failed", err);
+      }
+    }
+  }
+
+  /**
+   * Copy an array of zones without one of them.
+   *
+   * @param from
+   *          the zones
+   * @param idx
+   *          index of the zone to leave out
+   * @return the remaining zones
+   */
+  private static Zone[] remove(final Zone[] from, final int idx) {
+    final Zone[] result = new Zone[from.length - 1];
+    System.arraycopy(from, 0, result, 0, idx);
+    System.arraycopy(from, idx + 1, result, idx, result.length - idx);
+    return result;
+  }
+
+  /**
+   * A zone compiled for fast containment and distance tests. Immutable.
+   */
+  public static final class Zone {
+
+    /**
+     * Name of the zone.
+     */
+    private final String name;
+
+    /**
+     * Whether the vessel must stay inside or outside.
+     */
+    private final Kind kind;
+
+    // Bounding box in degrees
+    private final double south;
+    private final double north;
+    private final double west;
+    private final double east;
+
+    // Local grid, in metres east and north of the centre of the zone
+    private final double originLat;
+    private final double originLon;
+    private final double metresPerLon;
+    private final double[] xs;
+    private final double[] ys;
+
+    // Edge i runs from vertex i to the next; edges bucketed by band of y
+    private final double bandBase;
+    private final double bandHeight;
+    private final int bands;
+    private final int[] bandStart;
+    private final int[] bandEdges;
+    private final double[] bandWest;
+    private final double[] bandEast;
+
+    /**
+     * Compile a zone.
+     *
+     * @param zoneName
+     *          name of the zone
+     * @param zoneKind
+     *          whether the vessel must stay inside or outside
+     * @param boundary
+     *          vertices of the boundary in order; the last joins the first
+     */
+    Zone(final String zoneName, final Kind zoneKind, final List<GpsCoordinates> boundary) {
+      if (zoneName == null || zoneKind == null) {
+        throw new NullPointerException();
+      }
+      if (boundary == null || boundary.size() < 3) {
+        throw new IllegalArgumentException("A zone needs at least three vertices");
+      }
+      name = zoneName;
+      kind = zoneKind;
+
+      final int n = boundary.size();
+      final double[] lats = new double[n];
+      final double[] lons = new double[n];
+      double lo = Double.POSITIVE_INFINITY;
+      double hi = Double.NEGATIVE_INFINITY;
+      double left = Double.POSITIVE_INFINITY;
+      double right = Double.NEGATIVE_INFINITY;
+      double sumLat = 0.0;
+      double sumLon = 0.0;
+      for (int i = 0; i < n; i++) {
+        lats[i] = boundary.get(i).getLatitude().degrees();
+        lons[i] = boundary.get(i).getLongitude().degrees();
+        lo = Math.min(lo, lats[i]);
+        hi = Math.max(hi, lats[i]);
+        left = Math.min(left, lons[i]);
+        right = Math.max(right, lons[i]);
+        sumLat += lats[i];
+        sumLon += lons[i];
+      }
+      south = lo;
+      north = hi;
+      west = left;
+      east = right;
+      originLat = sumLat / n;
+      originLon = sumLon / n;
+      metresPerLon = METRES_PER_DEGREE * Math.cos(Math.toRadians(originLat));
+      xs = new double[n];
+      ys = new double[n];
+      for (int i = 0; i < n; i++) {
+        xs[i] = (lons[i] - originLon) * metresPerLon;
+        ys[i] = (lats[i] - originLat) * METRES_PER_DEGREE;
+      }
+
+      // Bucket the edges by the bands of y they span
+      bands = Math.min(n, MAX_BANDS);
+      bandBase = (south - originLat) * METRES_PER_DEGREE;
+      bandHeight = Math.max((north - south) * METRES_PER_DEGREE / bands, 1e-9);
+      bandStart = new int[bands + 1];
+      for (int i = 0; i < n; i++) {
+        final int j = i + 1 < n ? i + 1 : 0;
+        for (int b = band(Math.min(ys[i], ys[j])); b <= band(Math.max(ys[i], ys[j])); b++) {
+          bandStart[b + 1]++;
+        }
+      }
+      for (int b = 0; b < bands; b++) {
+        bandStart[b + 1] += bandStart[b];
+      }
+      bandEdges = new int[bandStart[bands]];
+      final int[] fill = Arrays.copyOf(bandStart, bands);
+      bandWest = new double[bands];
+      bandEast = new double[bands];
+      Arrays.fill(bandWest, Double.POSITIVE_INFINITY);
+      Arrays.fill(bandEast, Double.NEGATIVE_INFINITY);
+      for (int i = 0; i < n; i++) {
+        final int j = i + 1 < n ? i + 1 : 0;
+        for (int b = band(Math.min(ys[i], ys[j])); b <= band(Math.max(ys[i], ys[j])); b++) {
+          bandEdges[fill[b]++] = i;
+          bandWest[b] = Math.min(bandWest[b], Math.min(xs[i], xs[j]));
+          bandEast[b] = Math.max(bandEast[b], Math.max(xs[i], xs[j]));
+        }
+      }
+    }
+
+    /**
+     * Get the name of the zone.
+     *
+     * @return the name
+     */
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * Get whether the vessel must stay inside or outside.
+     *
+     * @return the kind
+     */
+    public Kind getKind() {
+      return kind;
+    }
+
+    /**
+     * Get the southern edge of the bounding box.
+     *
+     * @return latitude in degrees
+     */
+    public double getSouth() {
+      return south;
+    }
+
+    /**
+     * Get the northern edge of the bounding box.
+     *
+     * @return latitude in degrees
+     */
+    public double getNorth() {
+      return north;
+    }
+
+    /**
+     * Get the western edge of the bounding box.
+     *
+     * @return longitude in degrees
+     */
+    public double getWest() {
+      return west;
+    }
+
+    /**
+     * Get the eastern edge of the bounding box.
+     *
+     * @return longitude in degrees
+     */
+    public double getEast() {
+      return east;
+    }
+
+    /**
+     * Get the number of vertices of the boundary.
+     *
+     * @return the count
+     */
+    public int getVertexCount() {
+      return xs.length;
+    }
+
+    /**
+     * Determine whether a point is inside the zone, by counting the edges of
+     * its band crossed by a ray from the point toward the east.
+     *
+     * @param lat
+     *          latitude in degrees
+     * @param lon
+     *          longitude in degrees
+     * @return true if the point is inside
+     */
+    public boolean contains(final double lat, final double lon) {
+      if (lat < south || lat > north || lon < west || lon > east) {
+        return false;
+      }
+      final double x = (lon - originLon) * metresPerLon;
+      final double y = (lat - originLat) * METRES_PER_DEGREE;
+      final int b = band(y);
+      final int n = xs.length;
+      boolean inside = false;
+      for (int k = bandStart[b]; k < bandStart[b + 1]; k++) {
+        final int i = bandEdges[k];
+        final int j = i + 1 < n ? i + 1 : 0;
+        if ((ys[i] > y) != (ys[j] > y)
+            && x < xs[i] + (y - ys[i]) * (xs[j] - xs[i]) / (ys[j] - ys[i])) {
+          inside = !inside;
+        }
+      }
+      return inside;
+    }
+
+    /**
+     * Get the distance from a point to the nearest point of the boundary.
+     *
+     * @param lat
+     *          latitude in degrees
+     * @param lon
+     *          longitude in degrees
+     * @return metres
+     */
+    public double getDistanceToBoundary(final double lat, final double lon) {
+      return getDistanceToBoundary(lat, lon, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Get the distance from a point to the nearest point of the boundary, if
+     * it is within a limit. The search works outward from the point's band,
+     * skipping bands whose edges all lie beyond the nearest found so far, and
+     * stops once no band can hold a nearer edge.
+     *
+     * @param lat
+     *          latitude in degrees
+     * @param lon
+     *          longitude in degrees
+     * @param limit
+     *          the limit in metres
+     * @return metres, or infinity if the boundary is further than the limit
+     */
+    double getDistanceToBoundary(final double lat, final double lon, final double limit) {
+      final double x = (lon - originLon) * metresPerLon;
+      final double y = (lat - originLat) * METRES_PER_DEGREE;
+      final int start = band(y);
+      final int n = xs.length;
+      double best = limit * limit;
+      double bestX = Double.NaN;
+      double bestY = Double.NaN;
+      for (int d = 0; d < bands; d++) {
+        final int below = start - d;
+        final int above = start + d;
+        final double gapBelow = below >= 0
+            ? Math.max(y - (bandBase + (below + 1) * bandHeight), 0.0)
+            : Double.POSITIVE_INFINITY;
+        final double gapAbove = above < bands
+            ? Math.max(bandBase + above * bandHeight - y, 0.0)
+            : Double.POSITIVE_INFINITY;
+        final double gap = Math.min(gapBelow, gapAbove);
+        if (gap == Double.POSITIVE_INFINITY || gap * gap > best) {
+          break;
+        }
+        // The band below and the band above, or the starting band alone
+        for (int b = below; b <= above; b += Math.max(2 * d, 1)) {
+          if (b < 0 || b >= bands) {
+            continue;
+          }
+          final double across = Math.max(Math.max(bandWest[b] - x, x - bandEast[b]), 0.0);
+          final double along = b == below ? gapBelow : gapAbove;
+          if (across * across + along * along > best) {
+            continue;
+          }
+          for (int k = bandStart[b]; k < bandStart[b + 1]; k++) {
+            final int i = bandEdges[k];
+            final int j = i + 1 < n ? i + 1 : 0;
+            final double ex = xs[j] - xs[i];
+            final double ey = ys[j] - ys[i];
+            final double len2 = ex * ex + ey * ey;
+            final double t = len2 > 0.0
+                ? Math.max(0.0, Math.min(1.0, ((x - xs[i]) * ex + (y - ys[i]) * ey) / len2))
+                : 0.0;
+            final double px = xs[i] + t * ex;
+            final double py = ys[i] + t * ey;
+            final double dist2 = (px - x) * (px - x) + (py - y) * (py - y);
+            if (dist2 <= best) {
+              best = dist2;
+              bestX = px;
+              bestY = py;
+            }
+          }
+        }
+      }
+      if (Double.isNaN(bestX)) {
+        return Double.POSITIVE_INFINITY;
+      }
+      return new GpsCoordinates(lat, lon).getDistance(new GpsCoordinates(
+          originLat + bestY / METRES_PER_DEGREE, originLon + bestX / metresPerLon));
+    }
+
+    /**
+     * Get the band holding a distance north of the centre, clamped to the
+     * zone.
+     *
+     * @param y
+     *          metres north of the centre
+     * @return index of the band
+     */
+    private int band(final double y) {
+      final int b = (int) Math.floor((y - bandBase) / bandHeight);
+      return b < 0 ? 0 : (b >= bands ? bands - 1 : b);
+    }
+  }
+}
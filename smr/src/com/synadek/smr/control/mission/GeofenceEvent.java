@@ -0,0 +1,202 @@
+/**
+ * GeofenceEvent.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.control.mission;
+
+import com.synadek.smr.control.mission.Geofence.Kind;
+import org.json.simple.JSONObject;
+
+/**
+ * An immutable report of the vessel crossing or nearing a zone boundary.
+ */
+public final class GeofenceEvent {
+
+  /**
+   * What happened.
+   */
+  public enum Event {
+    /**
+     * Entered - the vessel has moved inside the zone.
+     */
+    Entered,
+    /**
+     * Exited - the vessel has moved outside the zone.
+     */
+    Exited,
+    /**
+     * Approaching - the vessel has come within the approach distance of the
+     * boundary from the permitted side.
+     */
+    Approaching
+  }
+
+  /**
+   * What happened.
+   */
+  private final Event event;
+
+  /**
+   * Name of the zone.
+   */
+  private final String zone;
+
+  /**
+   * Whether the zone is keep-in or keep-out.
+   */
+  private final Kind kind;
+
+  /**
+   * Distance from the boundary in metres.
+   */
+  private final double distance;
+
+  /**
+   * Latitude of the fix in degrees.
+   */
+  private final double latitude;
+
+  /**
+   * Longitude of the fix in degrees.
+   */
+  private final double longitude;
+
+  /**
+   * When the fix was taken (ms since epoch).
+   */
+  private final long timestamp;
+
+  /**
+   * Explicit constructor.
+   *
+   * @param evt
+   *          what happened
+   * @param name
+   *          name of the zone
+   * @param zoneKind
+   *          whether the zone is keep-in or keep-out
+   * @param metres
+   *          distance from the boundary in metres
+   * @param lat
+   *          latitude of the fix in degrees
+   * @param lon
+   *          longitude of the fix in degrees
+   * @param time
+   *          when the fix was taken (ms since epoch)
+   */
+  public GeofenceEvent(final Event evt, final String name, final Kind zoneKind,
+      final double metres, final double lat, final double lon, final long time) {
+    event = evt;
+    zone = name;
+    kind = zoneKind;
+    distance = metres;
+    latitude = lat;
+    longitude = lon;
+    timestamp = time;
+  }
+
+  /**
+   * Get what happened.
+   *
+   * @return the event
+   */
+  public Event getEvent() {
+    return event;
+  }
+
+  /**
+   * Get the name of the zone.
+   *
+   * @return the name
+   */
+  public String getZone() {
+    return zone;
+  }
+
+  /**
+   * Get whether the zone is keep-in or keep-out.
+   *
+   * @return the kind
+   */
+  public Kind getKind() {
+    return kind;
+  }
+
+  /**
+   * Determine whether the vessel is where it must not be: outside a keep-in
+   * zone or inside a keep-out zone.
+   *
+   * @return true for a violation
+   */
+  public boolean isViolation() {
+    return kind == Kind.KeepIn ? event == Event.Exited : event == Event.Entered;
+  }
+
+  /**
+   * Get the distance from the boundary.
+   *
+   * @return metres
+   */
+  public double getDistance() {
+    return distance;
+  }
+
+  /**
+   * Get the latitude of the fix.
+   *
+   * @return degrees
+   */
+  public double getLatitude() {
+    return latitude;
+  }
+
+  /**
+   * Get the longitude of the fix.
+   *
+   * @return degrees
+   */
+  public double getLongitude() {
+    return longitude;
+  }
+
+  /**
+   * Get when the fix was taken.
+   *
+   * @return ms since epoch
+   */
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  /**
+   * Represent the event as JSON, e.g. for the black box.
+   *
+   * @return the JSON object
+   */
+  @SuppressWarnings("unchecked")
+  public JSONObject toJson() {
+    final JSONObject result = new JSONObject();
+    result.put("event", event.toString());
+    result.put("zone", zone);
+    result.put("kind", kind.toString());
+    result.put("violation", Boolean.valueOf(isViolation()));
+    result.put("distance", Double.valueOf(distance));
+    result.put("latitude", Double.valueOf(latitude));
+    result.put("longitude", Double.valueOf(longitude));
+    result.put("timestamp", Long.valueOf(timestamp));
+    return result;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    return toJson().toJSONString();
+  }
+}
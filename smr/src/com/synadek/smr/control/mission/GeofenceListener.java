@@ -0,0 +1,24 @@
+/**
+ * GeofenceListener.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.control.mission;
+
+/**
+ * A Geofence Listener is told as the vessel enters, leaves or approaches the
+ * boundary of a keep-in or keep-out zone.
+ */
+public interface GeofenceListener {
+
+  /**
+   * Respond to a geofence event. Called on the thread delivering the fix, so
+   * it must return promptly and must not block.
+   *
+   * @param event
+   *          what happened
+   */
+  void geofenceEvent(GeofenceEvent event);
+}
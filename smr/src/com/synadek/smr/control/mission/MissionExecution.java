@@ -8,22 +8,236 @@
 package com.synadek.smr.control.mission;
 
 import com.synadek.core.GpsCoordinates;
+import com.synadek.core.TaskExecutors;
+import com.synadek.smr.control.mission.MissionPlan.MissionStatus;
+import com.synadek.smr.control.mission.MissionProgress.Event;
+import com.synadek.smr.control.navigation.CompiledRoute;
+import com.synadek.smr.control.navigation.NavigationImpl;
+import com.synadek.smr.control.navigation.Route;
+import com.synadek.smr.control.navigation.RouteSegment;
+import com.synadek.smr.control.navigation.RouteSegment.SegmentType;
+import com.synadek.smr.control.navigation.TrafficPicture;
+import com.synadek.smr.control.power.EnduranceForecast;
+import com.synadek.smr.vessel.PowerManagement;
 import com.synadek.smr.vessel.Vessel;
+import com.synadek.smr.vessel.VesselStatus;
+import com.synadek.smr.vessel.VesselStatusPublisher;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
 
 /**
- * Mission Status.
+ * Executes a mission plan: follows the vessel along the compiled route, one
+ * position fix at a time, and steps through the route segments.
+ *
+ * <p>
+ * The execution is a state machine driven by position fixes. The vessel is
+ * first in transit to the start of the route, then moving, surveying (a grid
+ * or spiral) or holding according to the segment it is on, and finally
+ * completed, unless it is aborted. Listeners are told as each segment starts
+ * and completes, when a hold starts and periodically while underway. A hold
+ * ends on a timer as well as on the next fix, so a hold completes even when
+ * fixes are sparse.
+ * </p>
+ *
+ * <p>
+ * All the work is done on a single scheduler thread. Fixes may be offered
+ * from any thread; only the latest fix waiting is kept, so a burst of fixes
+ * never backs up the scheduler. If a checkpoint file is set, the position in
+ * the route is saved there at each segment change and periodically, written
+ * atomically on a background thread, so a vessel restarted mid-mission
+ * resumes where it left off. Given an energy model, the charge left for the
+ * rest of the route is forecast at the same times and the vessel's power
+ * management sheds load to match.
+ * </p>
  */
 public class MissionExecution {
 
+  /**
+   * States of a mission execution.
+   */
+  public enum State {
+    /**
+     * Ready - the mission has not started.
+     */
+    Ready,
+    /**
+     * Transit - the vessel is on its way to the start of the route.
+     */
+    Transit,
+    /**
+     * Moving - the vessel is on a move segment.
+     */
+    Moving,
+    /**
+     * Surveying - the vessel is on a grid or spiral segment.
+     */
+    Surveying,
+    /**
+     * Holding - the vessel is holding at a waypoint.
+     */
+    Holding,
+    /**
+     * Completed - the vessel has reached the end of the route.
+     */
+    Completed,
+    /**
+     * Aborted - the mission was abandoned.
+     */
+    Aborted
+  }
+
+  /**
+   * Acquire a reference to the application logger.
+   */
+  private static Logger log = LogManager.getLogger(MissionExecution.class.getPackage().getName());
+
+  /**
+   * Default interval between progress events (ms).
+   */
+  private static final long DEFAULT_PROGRESS_INTERVAL_MILLIS = 10000L;
+
+  /**
+   * Default interval between checkpoints while on a segment (ms).
+   */
+  private static final long DEFAULT_CHECKPOINT_INTERVAL_MILLIS = 30000L;
+
+  /**
+   * Nanoseconds per millisecond.
+   */
+  private static final long NANOS_PER_MILLI = 1000000L;
+
+  /**
+   * Pending checkpoint meaning the checkpoint file should be deleted.
+   */
+  private static final JSONObject CLEAR_CHECKPOINT = new JSONObject();
+
+  /**
+   * Scheduler shared by executions created without one.
+   */
+  private static ScheduledExecutorService defaultScheduler;
+
   private final Vessel myShip;
   private final Contract myContract;
   private final MissionPlan myMission;
 
+  /**
+   * Thread on which all execution work is done.
+   */
+  private final ScheduledExecutorService scheduler;
+
+  /**
+   * Source of monotonic timestamps in nanoseconds.
+   */
+  private final LongSupplier nanoClock;
+
+  /**
+   * Source of the time of day in milliseconds since the epoch.
+   */
+  private volatile LongSupplier wallClock = System::currentTimeMillis;
+
+  /**
+   * Listeners told of progress.
+   */
+  private final List<MissionProgressListener> listeners = new CopyOnWriteArrayList<>();
+
+  /**
+   * Latest fix not yet processed.
+   */
+  private final AtomicReference<Fix> pendingFix = new AtomicReference<>();
+
+  /**
+   * Set while a task to process the pending fix is queued.
+   */
+  private final AtomicBoolean fixQueued = new AtomicBoolean();
+
+  /**
+   * Latest checkpoint not yet written.
+   */
+  private final AtomicReference<JSONObject> pendingCheckpoint = new AtomicReference<>();
+
+  /**
+   * Set while checkpoints are being written.
+   */
+  private final AtomicBoolean checkpointWriting = new AtomicBoolean();
+
   // Mission parameters
   // private float distanceTraveled;
-  private long missionStartTime;
+  private volatile long missionStartTime;
   private GpsCoordinates missionStartLocation;
 
+  /**
+   * File in which checkpoints are kept, or null.
+   */
+  private Path checkpointFile;
+
+  /**
+   * Interval between progress events (ms).
+   */
+  private long progressIntervalMillis = DEFAULT_PROGRESS_INTERVAL_MILLIS;
+
+  /**
+   * Interval between checkpoints while on a segment (ms).
+   */
+  private long checkpointIntervalMillis = DEFAULT_CHECKPOINT_INTERVAL_MILLIS;
+
+  // Execution state, changed only on the scheduler thread
+  private volatile State state = State.Ready;
+  private volatile int segment = -1;
+  private volatile MissionProgress lastProgress;
+  private NavigationImpl navigation;
+  private CompiledRoute compiled;
+  private boolean hasFix;
+  private double fixLat;
+  private double fixLon;
+  private long lastProgressNanos;
+  private long lastCheckpointNanos;
+  private long lastStatusVersion = -1L;
+  private ScheduledFuture<?> holdTimer;
+  private ScheduledFuture<?> statusPoll;
+
+  /**
+   * Picture of other vessels to avoid, or null; the vessel's own by default.
+   */
+  private volatile TrafficPicture traffic;
+
+  /**
+   * Power management that sheds load to match the energy forecast, or null.
+   */
+  private volatile PowerManagement power;
+
+  /**
+   * Model used to forecast the charge left for the rest of the route, or null.
+   */
+  private volatile EnduranceForecast energyModel;
+
+  /**
+   * Planned speed through the water for the energy forecast (m/s).
+   */
+  private volatile double plannedSpeed;
+
   /**
    * Current MissionPlan step. With this information, can get previous waypoint
    * and next waypoint and calculate, for example distance from previous
@@ -38,24 +252,225 @@ public class MissionExecution {
    */
   public MissionExecution(final Vessel vessel, final Contract contract,
       final MissionPlan mission) {
+    this(vessel, contract, mission, getDefaultScheduler(), System::nanoTime);
+  }
+
+  /**
+   * Explicit constructor.
+   *
+   * @param vessel
+   *          the vessel to operate
+   * @param contract
+   *          the contract to fulfill
+   * @param mission
+   *          the mission
+   * @param exec
+   *          the single-threaded scheduler on which the execution runs
+   * @param clock
+   *          source of monotonic timestamps in nanoseconds, the same clock as
+   *          the fixes offered
+   */
+  public MissionExecution(final Vessel vessel, final Contract contract,
+      final MissionPlan mission, final ScheduledExecutorService exec, final LongSupplier clock) {
     myShip = vessel;
     myContract = contract;
     myMission = mission;
+    scheduler = exec;
+    nanoClock = clock;
+    traffic = vessel.getTrafficPicture();
+  }
+
+  /**
+   * Get the scheduler shared by executions created without one: a single
+   * daemon thread, since the work per fix is small.
+   *
+   * @return the scheduler
+   */
+  private static synchronized ScheduledExecutorService getDefaultScheduler() {
+    if (defaultScheduler == null) {
+      final ScheduledThreadPoolExecutor exec = new ScheduledThreadPoolExecutor(1, r -> {
+        final Thread t = new Thread(r, "smr-mission");
+        t.setDaemon(true);
+        return t;
+      });
+      exec.setRemoveOnCancelPolicy(true);
+      defaultScheduler = exec;
+    }
+    return defaultScheduler;
+  }
+
+  /**
+   * Add a progress listener.
+   *
+   * @param listener
+   *          the listener
+   */
+  public void addProgressListener(final MissionProgressListener listener) {
+    listeners.add(listener);
+  }
+
+  /**
+   * Remove a progress listener.
+   *
+   * @param listener
+   *          the listener
+   */
+  public void removeProgressListener(final MissionProgressListener listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * Set the file in which checkpoints are kept. Set before starting.
+   *
+   * @param file
+   *          the file, or null for no checkpoints
+   */
+  public void setCheckpointFile(final Path file) {
+    checkpointFile = file;
+  }
+
+  /**
+   * Set the interval between progress events. Set before starting.
+   *
+   * @param millis
+   *          the interval (ms)
+   */
+  public void setProgressInterval(final long millis) {
+    progressIntervalMillis = millis;
   }
 
   /**
-   * Start the mission.
+   * Set the interval between checkpoints while on a segment. Set before
+   * starting.
+   *
+   * @param millis
+   *          the interval (ms)
+   */
+  public void setCheckpointInterval(final long millis) {
+    checkpointIntervalMillis = millis;
+  }
+
+  /**
+   * Set the picture of other vessels to avoid, in place of the vessel's own.
+   * Each fix brings it up to date and passes its advice on to navigation.
+   *
+   * @param picture
+   *          the traffic picture, or null to ignore other vessels
+   */
+  public void setTrafficPicture(final TrafficPicture picture) {
+    traffic = picture;
+  }
+
+  /**
+   * Forecast the charge left for the rest of the route at each checkpoint,
+   * and have power management shed load when the forecast is short.
+   *
+   * @param powerManagement
+   *          the vessel's power management, or null to stop forecasting
+   * @param model
+   *          the vessel's energy model
+   * @param speed
+   *          planned speed through the water (m/s)
+   */
+  public void setEnergyForecast(final PowerManagement powerManagement,
+      final EnduranceForecast model, final double speed) {
+    plannedSpeed = speed;
+    energyModel = model;
+    power = powerManagement;
+  }
+
+  /**
+   * Set the source of the time of day used for the mission's start and finish,
+   * the geofence, traffic and progress, e.g. the clock of a simulation.
+   *
+   * @param clock
+   *          source of milliseconds since the epoch (default the system clock)
+   */
+  public void setWallClock(final LongSupplier clock) {
+    wallClock = clock;
+  }
+
+  /**
+   * Start the mission, resuming from the checkpoint file if it holds a
+   * checkpoint for this mission. The vessel first makes for the start of the
+   * route from wherever it is.
    */
   public void startMission() {
-    missionStartTime = System.currentTimeMillis();
+    missionStartTime = wallClock.getAsLong();
     missionStartLocation = myMission.getStartLocation();
-    // TODO define "inRange(50 meters) of a location rather than location !=
-    // location
-    if (myShip.getLocation() != missionStartLocation) {
-      // If ship not at start location, push a step onto the mission myRoute to
-      // go to the start
-      // location
+    final JSONObject checkpoint = readCheckpoint();
+    scheduler.execute(() -> begin(checkpoint));
+  }
+
+  /**
+   * Abort the mission.
+   *
+   * @param reason
+   *          why the mission is abandoned
+   */
+  public void abortMission(final String reason) {
+    scheduler.execute(() -> {
+      if (isFinished()) {
+        return;
+      }
+      finish(State.Aborted, Event.Aborted, reason);
+    });
+  }
+
+  /**
+   * Offer a position fix. May be called from any thread; the fix is processed
+   * on the scheduler thread. Fixes that are not finite are dropped.
+   *
+   * @param lat
+   *          latitude in degrees
+   * @param lon
+   *          longitude in degrees
+   * @param nanos
+   *          when the fix was taken, from the execution's clock
+   */
+  public void onFix(final double lat, final double lon, final long nanos) {
+    if (!isValidFix(lat, lon)) {
+      // Keep any good fix already waiting
+      return;
     }
+    pendingFix.set(new Fix(lat, lon, nanos));
+    if (fixQueued.compareAndSet(false, true)) {
+      scheduler.execute(this::processPendingFix);
+    }
+  }
+
+  /**
+   * Offer the position in a vessel status.
+   *
+   * @param sts
+   *          the status
+   */
+  public void onStatus(final VesselStatus sts) {
+    onFix(sts.getLatitude(), sts.getLongitude(), nanoClock.getAsLong());
+  }
+
+  /**
+   * Follow the position published for the vessel, checking for a new status
+   * at a fixed interval on the scheduler thread.
+   *
+   * @param publisher
+   *          the vessel status publisher
+   * @param periodMillis
+   *          interval between checks (ms)
+   */
+  public void follow(final VesselStatusPublisher publisher, final long periodMillis) {
+    scheduler.execute(() -> {
+      if (statusPoll != null) {
+        statusPoll.cancel(false);
+      }
+      statusPoll = scheduler.scheduleWithFixedDelay(() -> {
+        final VesselStatus sts = publisher.get();
+        if (sts.getVersion() != lastStatusVersion) {
+          lastStatusVersion = sts.getVersion();
+          process(sts.getLatitude(), sts.getLongitude(), nanoClock.getAsLong());
+        }
+      }, 0L, periodMillis, TimeUnit.MILLISECONDS);
+    });
   }
 
   public long getMissionStartTime() {
@@ -67,7 +482,45 @@ public class MissionExecution {
   }
 
   public long getMissionElapsedTime() {
-    return System.currentTimeMillis() - missionStartTime;
+    return wallClock.getAsLong() - missionStartTime;
+  }
+
+  /**
+   * Get the state of the execution.
+   *
+   * @return the state
+   */
+  public State getState() {
+    return state;
+  }
+
+  /**
+   * Get the route segment the vessel is on.
+   *
+   * @return index of the segment within the route, or -1 before the start
+   */
+  public int getSegmentIndex() {
+    return segment;
+  }
+
+  /**
+   * Get the navigation along the route. It belongs to the scheduler thread, so
+   * only code running there, e.g. a simulation stepping the execution on its
+   * own thread, may steer by it.
+   *
+   * @return the navigation, or null before the mission starts
+   */
+  public NavigationImpl getNavigation() {
+    return navigation;
+  }
+
+  /**
+   * Get the most recent progress reported.
+   *
+   * @return the progress, or null before the mission starts
+   */
+  public MissionProgress getProgress() {
+    return lastProgress;
   }
 
   /**
@@ -75,6 +528,13 @@ public class MissionExecution {
    */
   public void closeMission() {
 
+    // Stop following the vessel
+    scheduler.execute(() -> {
+      if (statusPoll != null) {
+        statusPoll.cancel(false);
+      }
+    });
+
     // Secure the boat
     myShip.secureVessel();
 
@@ -88,4 +548,427 @@ public class MissionExecution {
 
     // Await new contract
   }
+
+  /**
+   * Begin executing the route. Runs on the scheduler thread.
+   *
+   * @param checkpoint
+   *          checkpoint to resume from, or null to start from the beginning
+   */
+  private void begin(final JSONObject checkpoint) {
+    final Route route = myMission.getRoute();
+    if (route == null) {
+      finish(State.Aborted, Event.Aborted, "Mission has no route");
+      return;
+    }
+    navigation = new NavigationImpl(route);
+    compiled = navigation.getCompiledRoute();
+    myMission.setStatus(MissionStatus.Active);
+    state = State.Transit;
+
+    Event event = Event.Started;
+    if (checkpoint != null) {
+      navigation.resume(((Number) checkpoint.get("waypoint")).intValue(),
+          ((Number) checkpoint.get("heldMillis")).longValue());
+      segment = ((Number) checkpoint.get("segment")).intValue();
+      missionStartTime = ((Number) checkpoint.get("actualStart")).longValue();
+      if (segment >= 0) {
+        state = stateOf(segment);
+      }
+      event = Event.Resumed;
+      log.info("Resuming mission {} at segment {}", myMission.getId(), Integer.valueOf(segment));
+    }
+    myMission.setActualStart(missionStartTime);
+    lastProgressNanos = nanoClock.getAsLong();
+    lastCheckpointNanos = lastProgressNanos;
+    publish(event, segment, null);
+    if (compiled.size() == 0) {
+      finish(State.Completed, Event.Completed, null);
+    }
+  }
+
+  /**
+   * Process the latest fix offered. Runs on the scheduler thread.
+   */
+  private void processPendingFix() {
+    fixQueued.set(false);
+    final Fix fix = pendingFix.getAndSet(null);
+    if (fix != null) {
+      process(fix.latitude, fix.longitude, fix.nanos);
+    }
+  }
+
+  /**
+   * Advance the state machine with a fix. Runs on the scheduler thread.
+   *
+   * @param lat
+   *          latitude in degrees
+   * @param lon
+   *          longitude in degrees
+   * @param nanos
+   *          when the fix was taken
+   */
+  private void process(final double lat, final double lon, final long nanos) {
+    if (navigation == null || isFinished() || !isValidFix(lat, lon)) {
+      return;
+    }
+    hasFix = true;
+    fixLat = lat;
+    fixLon = lon;
+    navigation.onFix(lat, lon, nanos);
+    myMission.getGeofence().onFix(lat, lon, wallClock.getAsLong());
+    final TrafficPicture picture = traffic;
+    if (picture != null) {
+      picture.tick(navigation, lat, lon, wallClock.getAsLong());
+    }
+
+    if (navigation.isComplete()) {
+      for (int s = Math.max(segment, 0); s < segmentCount(); s++) {
+        publish(Event.SegmentCompleted, s, null);
+      }
+      finish(State.Completed, Event.Completed, null);
+      return;
+    }
+
+    // Which segment is the vessel on?
+    final int target = navigation.getTargetIndex();
+    final boolean holding = navigation.isHolding();
+    final int current = compiled.getSegmentIndex(target);
+    boolean changed = false;
+    if ((target > 0 || holding) && current > segment) {
+      if (segment >= 0) {
+        publish(Event.SegmentCompleted, segment, null);
+      }
+      // Segments passed without a fix on them
+      for (int s = segment + 1; s < current; s++) {
+        publish(Event.SegmentStarted, s, null);
+        publish(Event.SegmentCompleted, s, null);
+      }
+      segment = current;
+      state = stateOf(current);
+      publish(Event.SegmentStarted, current, null);
+      changed = true;
+    }
+
+    // Holding is a state within the segment
+    if (holding && state != State.Holding) {
+      state = State.Holding;
+      publish(Event.HoldStarted, segment, null);
+      scheduleHoldTimer(compiled.getHoldMillis(target) - navigation.getHoldElapsedMillis());
+      changed = true;
+    } else if (!holding && state == State.Holding) {
+      state = segment >= 0 ? stateOf(segment) : State.Transit;
+      changed = true;
+    }
+
+    if (changed || nanos - lastCheckpointNanos >= checkpointIntervalMillis * NANOS_PER_MILLI) {
+      lastCheckpointNanos = nanos;
+      saveCheckpoint();
+      forecastEnergy(lat, lon);
+    }
+    if (nanos - lastProgressNanos >= progressIntervalMillis * NANOS_PER_MILLI) {
+      lastProgressNanos = nanos;
+      publish(Event.Progress, segment, null);
+    }
+  }
+
+  /**
+   * Forecast the charge left for the rest of the route and shed load to match.
+   * Runs on the scheduler thread.
+   *
+   * @param lat
+   *          latitude of the vessel in degrees
+   * @param lon
+   *          longitude of the vessel in degrees
+   */
+  private void forecastEnergy(final double lat, final double lon) {
+    final PowerManagement target = power;
+    final EnduranceForecast model = energyModel;
+    if (target == null || model == null) {
+      return;
+    }
+    final OffsetDateTime now = OffsetDateTime.ofInstant(Instant.ofEpochMilli(wallClock
+        .getAsLong()), ZoneOffset.UTC);
+    model.forecastAndShed(target, myMission.getRoute(), navigation.getTargetIndex(),
+        new GpsCoordinates(lat, lon), now, plannedSpeed);
+  }
+
+  /**
+   * Wake at the end of a hold, in case no fix arrives to end it.
+   *
+   * @param millis
+   *          time left to hold (ms)
+   */
+  private void scheduleHoldTimer(final long millis) {
+    if (holdTimer != null) {
+      holdTimer.cancel(false);
+    }
+    holdTimer = scheduler.schedule(() -> {
+      if (state == State.Holding && hasFix) {
+        process(fixLat, fixLon, nanoClock.getAsLong());
+      }
+    }, Math.max(millis, 0L), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * End the execution. Runs on the scheduler thread.
+   *
+   * @param endState
+   *          Completed or Aborted
+   * @param event
+   *          the event to report
+   * @param reason
+   *          explanation, or null
+   */
+  private void finish(final State endState, final Event event, final String reason) {
+    state = endState;
+    if (holdTimer != null) {
+      holdTimer.cancel(false);
+    }
+    if (statusPoll != null) {
+      statusPoll.cancel(false);
+    }
+    myMission.setStatus(
+        endState == State.Completed ? MissionStatus.Completed : MissionStatus.Aborted);
+    myMission.setActualFinish(wallClock.getAsLong());
+    publish(event, segment, reason);
+    if (endState == State.Aborted) {
+      log.warn("Mission {} aborted: {}", myMission.getId(), reason);
+    }
+    // A finished mission is never resumed
+    queueCheckpoint(CLEAR_CHECKPOINT);
+  }
+
+  /**
+   * Determine whether the execution has ended.
+   *
+   * @return true if completed or aborted
+   */
+  private boolean isFinished() {
+    return state == State.Completed || state == State.Aborted;
+  }
+
+  /**
+   * Get the state for being on a segment. A hold segment is Moving until the
+   * vessel reaches the hold point and starts holding.
+   *
+   * @param idx
+   *          index of the segment
+   * @return the state
+   */
+  private State stateOf(final int idx) {
+    final RouteSegment seg = segmentAt(idx);
+    if (seg == null) {
+      return State.Moving;
+    }
+    switch (seg.getType()) {
+      case GRID_SEGMENT:
+      case SPIRAL_SEGMENT:
+        return State.Surveying;
+      default:
+        return State.Moving;
+    }
+  }
+
+  /**
+   * Get a segment of the route.
+   *
+   * @param idx
+   *          index of the segment
+   * @return the segment, or null
+   */
+  private RouteSegment segmentAt(final int idx) {
+    final Route route = myMission.getRoute();
+    return route != null && idx >= 0 && idx < route.getRoute().size() ? route.getSegment(idx)
+        : null;
+  }
+
+  /**
+   * Get the number of segments in the route.
+   *
+   * @return the number of segments
+   */
+  private int segmentCount() {
+    final Route route = myMission.getRoute();
+    return route == null ? 0 : route.getRoute().size();
+  }
+
+  /**
+   * Report progress to the listeners. Runs on the scheduler thread.
+   *
+   * @param event
+   *          what happened
+   * @param idx
+   *          index of the segment concerned
+   * @param reason
+   *          explanation, or null
+   */
+  private void publish(final Event event, final int idx, final String reason) {
+    final RouteSegment seg = segmentAt(idx);
+    final SegmentType type = seg == null ? null : seg.getType();
+    int waypoint = 0;
+    double remaining = 0.0;
+    double total = 0.0;
+    if (navigation != null) {
+      waypoint = navigation.getTargetIndex();
+      total = compiled.getTotalDistance();
+      if (state == State.Completed) {
+        remaining = 0.0;
+      } else if (hasFix) {
+        remaining = navigation.getDistanceToDestination();
+      } else {
+        // Not yet under way: everything from the waypoint before the target
+        remaining = waypoint > 0 ? total - compiled.getDistance(waypoint - 1) : total;
+      }
+    }
+    final MissionProgress progress = new MissionProgress(event, state, idx, type, waypoint,
+        Math.max(total - remaining, 0.0), remaining, wallClock.getAsLong(), reason);
+    lastProgress = progress;
+    for (MissionProgressListener listener : listeners) {
+      try {
+        listener.missionProgress(progress);
+      } catch (RuntimeException err) {
+        log.error("Mission progress listener failed", err);
+      }
+    }
+  }
+
+  /**
+   * Save the position in the route. Runs on the scheduler thread.
+   */
+  @SuppressWarnings("unchecked")
+  private void saveCheckpoint() {
+    if (checkpointFile == null) {
+      return;
+    }
+    final JSONObject obj = new JSONObject();
+    obj.put("missionId", myMission.getId());
+    obj.put("segment", Integer.valueOf(segment));
+    obj.put("waypoint", Integer.valueOf(navigation.getTargetIndex()));
+    obj.put("heldMillis", Long.valueOf(navigation.getHoldElapsedMillis()));
+    obj.put("actualStart", Long.valueOf(missionStartTime));
+    obj.put("savedMillis", Long.valueOf(wallClock.getAsLong()));
+    queueCheckpoint(obj);
+  }
+
+  /**
+   * Queue a checkpoint to be written on a background thread. Only the latest
+   * queued checkpoint is written.
+   *
+   * @param obj
+   *          the checkpoint, or CLEAR_CHECKPOINT to delete the file
+   */
+  private void queueCheckpoint(final JSONObject obj) {
+    if (checkpointFile == null) {
+      return;
+    }
+    pendingCheckpoint.set(obj);
+    if (checkpointWriting.compareAndSet(false, true)) {
+      TaskExecutors.getDefault().execute(this::writeCheckpoints);
+    }
+  }
+
+  /**
+   * Write queued checkpoints until none is left.
+   */
+  private void writeCheckpoints() {
+    while (true) {
+      final JSONObject obj = pendingCheckpoint.getAndSet(null);
+      if (obj == null) {
+        checkpointWriting.set(false);
+        // Another checkpoint may have been queued before the flag was cleared
+        if (pendingCheckpoint.get() == null || !checkpointWriting.compareAndSet(false, true)) {
+          return;
+        }
+        continue;
+      }
+      try {
+        if (obj == CLEAR_CHECKPOINT) {
+          Files.deleteIfExists(checkpointFile);
+        } else {
+          final Path temp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+          try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            obj.writeJSONString(out);
+          }
+          Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING,
+              StandardCopyOption.ATOMIC_MOVE);
+        }
+      } catch (IOException err) {
+        log.warn("Cannot write mission checkpoint {}: {}", checkpointFile, err.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Check that a fix is a real position. A status published before the first
+   * GNSS fix carries NaN, which would poison the navigation and geofence.
+   *
+   * @param lat
+   *          latitude in degrees
+   * @param lon
+   *          longitude in degrees
+   * @return true if both are finite
+   */
+  private static boolean isValidFix(final double lat, final double lon) {
+    return Double.isFinite(lat) && Double.isFinite(lon);
+  }
+
+  /**
+   * Read the checkpoint for this mission.
+   *
+   * @return the checkpoint, or null if there is none for this mission
+   */
+  private JSONObject readCheckpoint() {
+    if (checkpointFile == null || !Files.exists(checkpointFile)) {
+      return null;
+    }
+    try (Reader in = Files.newBufferedReader(checkpointFile, StandardCharsets.UTF_8)) {
+      final JSONObject obj = (JSONObject) new JSONParser().parse(in);
+      if (!Objects.equals(myMission.getId(), obj.get("missionId"))) {
+        log.info("Ignoring checkpoint for another mission: {}", obj.get("missionId"));
+        return null;
+      }
+      return obj;
+    } catch (IOException | ParseException | ClassCastException err) {
+      log.warn("Cannot read mission checkpoint {}: {}", checkpointFile, err.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * A position fix waiting to be processed.
+   */
+  private static final class Fix {
+
+    /**
+     * Latitude in degrees.
+     */
+    private final double latitude;
+
+    /**
+     * Longitude in degrees.
+     */
+    private final double longitude;
+
+    /**
+     * When the fix was taken.
+     */
+    private final long nanos;
+
+    /**
+     * Explicit constructor.
+     *
+     * @param lat
+     *          latitude in degrees
+     * @param lon
+     *          longitude in degrees
+     * @param time
+     *          when the fix was taken
+     */
+    Fix(final double lat, final double lon, final long time) {
+      latitude = lat;
+      longitude = lon;
+      nanos = time;
+    }
+  }
 }
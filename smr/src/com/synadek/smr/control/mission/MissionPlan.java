@@ -94,6 +94,10 @@ public class MissionPlan {
    * Route of travel.
    */
   private Route route;
+  /**
+   * Keep-in and keep-out zones.
+   */
+  private final Geofence geofence = new Geofence();
 
   /**
    * Default constructor.
@@ -201,6 +205,15 @@ public class MissionPlan {
     this.route = route;
   }
 
+  /**
+   * Get the keep-in and keep-out zones of the mission.
+   *
+   * @return the geofence
+   */
+  public Geofence getGeofence() {
+    return geofence;
+  }
+
   /**
    * Get mission description.
    *
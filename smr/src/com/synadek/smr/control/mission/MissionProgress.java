@@ -0,0 +1,262 @@
+/**
+ * MissionProgress.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.control.mission;
+
+import com.synadek.smr.control.mission.MissionExecution.State;
+import com.synadek.smr.control.navigation.RouteSegment.SegmentType;
+import org.json.simple.JSONObject;
+
+/**
+ * An immutable report of progress through a mission.
+ */
+public final class MissionProgress {
+
+  /**
+   * What happened.
+   */
+  public enum Event {
+    /**
+     * Started - the mission has started from the beginning of its route.
+     */
+    Started,
+    /**
+     * Resumed - the mission has resumed from a checkpoint.
+     */
+    Resumed,
+    /**
+     * SegmentStarted - the vessel has begun a route segment.
+     */
+    SegmentStarted,
+    /**
+     * SegmentCompleted - the vessel has finished a route segment.
+     */
+    SegmentCompleted,
+    /**
+     * HoldStarted - the vessel has begun holding at a waypoint.
+     */
+    HoldStarted,
+    /**
+     * Progress - periodic report while underway.
+     */
+    Progress,
+    /**
+     * Completed - the vessel has reached the end of the route.
+     */
+    Completed,
+    /**
+     * Aborted - the mission was abandoned.
+     */
+    Aborted
+  }
+
+  /**
+   * What happened.
+   */
+  private final Event event;
+
+  /**
+   * State of the execution after the event.
+   */
+  private final State state;
+
+  /**
+   * Index of the route segment concerned, or -1.
+   */
+  private final int segmentIndex;
+
+  /**
+   * Type of the route segment concerned, or null.
+   */
+  private final SegmentType segmentType;
+
+  /**
+   * Index of the waypoint being steered for.
+   */
+  private final int waypointIndex;
+
+  /**
+   * Distance made good along the route in metres.
+   */
+  private final double distanceMade;
+
+  /**
+   * Distance remaining along the route in metres.
+   */
+  private final double distanceRemaining;
+
+  /**
+   * When the event happened (ms since epoch).
+   */
+  private final long timestamp;
+
+  /**
+   * Explanation, e.g. why the mission was aborted, or null.
+   */
+  private final String message;
+
+  /**
+   * Explicit constructor.
+   *
+   * @param evt
+   *          what happened
+   * @param st
+   *          state of the execution after the event
+   * @param segment
+   *          index of the route segment concerned, or -1
+   * @param type
+   *          type of the route segment concerned, or null
+   * @param waypoint
+   *          index of the waypoint being steered for
+   * @param made
+   *          distance made good along the route in metres
+   * @param remaining
+   *          distance remaining along the route in metres
+   * @param time
+   *          when the event happened (ms since epoch)
+   * @param msg
+   *          explanation, or null
+   */
+  public MissionProgress(final Event evt, final State st, final int segment,
+      final SegmentType type, final int waypoint, final double made, final double remaining,
+      final long time, final String msg) {
+    event = evt;
+    state = st;
+    segmentIndex = segment;
+    segmentType = type;
+    waypointIndex = waypoint;
+    distanceMade = made;
+    distanceRemaining = remaining;
+    timestamp = time;
+    message = msg;
+  }
+
+  /**
+   * Get what happened.
+   *
+   * @return the event
+   */
+  public Event getEvent() {
+    return event;
+  }
+
+  /**
+   * Get the state of the execution after the event.
+   *
+   * @return the state
+   */
+  public State getState() {
+    return state;
+  }
+
+  /**
+   * Get the route segment concerned.
+   *
+   * @return index of the segment within the route, or -1
+   */
+  public int getSegmentIndex() {
+    return segmentIndex;
+  }
+
+  /**
+   * Get the type of the route segment concerned.
+   *
+   * @return the type, or null
+   */
+  public SegmentType getSegmentType() {
+    return segmentType;
+  }
+
+  /**
+   * Get the waypoint being steered for.
+   *
+   * @return index within the compiled route
+   */
+  public int getWaypointIndex() {
+    return waypointIndex;
+  }
+
+  /**
+   * Get the distance made good along the route.
+   *
+   * @return metres
+   */
+  public double getDistanceMade() {
+    return distanceMade;
+  }
+
+  /**
+   * Get the distance remaining along the route.
+   *
+   * @return metres
+   */
+  public double getDistanceRemaining() {
+    return distanceRemaining;
+  }
+
+  /**
+   * Get the fraction of the route completed.
+   *
+   * @return 0 to 1
+   */
+  public double getFractionComplete() {
+    final double total = distanceMade + distanceRemaining;
+    return total > 0.0 ? distanceMade / total : (state == State.Completed ? 1.0 : 0.0);
+  }
+
+  /**
+   * Get when the event happened.
+   *
+   * @return ms since epoch
+   */
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  /**
+   * Get the explanation.
+   *
+   * @return the message, or null
+   */
+  public String getMessage() {
+    return message;
+  }
+
+  /**
+   * Represent the progress as JSON, e.g. for the black box.
+   *
+   * @return the JSON object
+   */
+  @SuppressWarnings("unchecked")
+  public JSONObject toJson() {
+    final JSONObject result = new JSONObject();
+    result.put("event", event.toString());
+    result.put("state", state.toString());
+    result.put("segment", Integer.valueOf(segmentIndex));
+    if (segmentType != null) {
+      result.put("segmentType", segmentType.toString());
+    }
+    result.put("waypoint", Integer.valueOf(waypointIndex));
+    result.put("distanceMade", Double.valueOf(distanceMade));
+    result.put("distanceRemaining", Double.valueOf(distanceRemaining));
+    result.put("timestamp", Long.valueOf(timestamp));
+    if (message != null) {
+      result.put("message", message);
+    }
+    return result;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    return toJson().toJSONString();
+  }
+}
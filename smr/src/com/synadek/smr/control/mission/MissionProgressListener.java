@@ -0,0 +1,24 @@
+/**
+ * MissionProgressListener.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.control.mission;
+
+/**
+ * A Mission Progress Listener is told as a mission execution starts, moves
+ * from one route segment to the next, holds, completes or is aborted.
+ */
+public interface MissionProgressListener {
+
+  /**
+   * Respond to mission progress. Called on the mission's scheduler thread, so
+   * it must return promptly and must not block.
+   *
+   * @param progress
+   *          what happened
+   */
+  void missionProgress(MissionProgress progress);
+}
@@ -7,6 +7,8 @@
 
 package com.synadek.smr.control.mission;
 
+import java.util.Calendar;
+
 /**
  * A contract response, completing the contract terms and conditions with the
  * offer parameters.
@@ -18,6 +20,16 @@ public class Proposal {
    */
   private final MissionPlan myPlan;
 
+  /**
+   * Name of the vessel offered, or null if none has been assigned.
+   */
+  private final String vesselName;
+
+  /**
+   * Price offered, or NaN if the proposal has not been priced.
+   */
+  private final double price;
+
   /**
    * Generate a bid in response to an RFP.
    *
@@ -25,17 +37,69 @@ public class Proposal {
    *          the contract request for proposals.
    */
   public Proposal(final RequestForProposals rfp) {
+    this(rfp, null);
+  }
+
+  /**
+   * Generate a bid in response to an RFP, choosing the route with an
+   * optimizer.
+   *
+   * @param rfp
+   *          the contract request for proposals.
+   * @param optimizer
+   *          chooses the route, or null to keep the route requested
+   */
+  public Proposal(final RequestForProposals rfp, final RouteOptimizer optimizer) {
     // Construct a MissionPlan that achieves the objectives of the contract
-    myPlan = generateMissionPlan();
-    // Assign a vessel from the fleet
+    myPlan = generateMissionPlan(rfp, optimizer);
+    vesselName = null;
+    price = Double.NaN;
+  }
 
-    // TODO generate complete proposal based on RFP
+  /**
+   * Offer a vessel and a price for a mission already planned, e.g. by a
+   * proposal engine weighing the whole fleet.
+   *
+   * @param plan
+   *          the mission plan, with its planned start and finish
+   * @param vessel
+   *          name of the vessel offered
+   * @param offer
+   *          the price offered
+   */
+  public Proposal(final MissionPlan plan, final String vessel, final double offer) {
+    myPlan = plan;
+    vesselName = vessel;
+    price = offer;
   }
 
+  /**
+   * Get the mission plan.
+   *
+   * @return the mission plan
+   */
   public MissionPlan getMissionPlan() {
     return myPlan;
   }
 
+  /**
+   * Get the name of the vessel offered.
+   *
+   * @return the vessel name, or null if none has been assigned
+   */
+  public String getVesselName() {
+    return vesselName;
+  }
+
+  /**
+   * Get the price offered.
+   *
+   * @return the price, or NaN if the proposal has not been priced
+   */
+  public double getPrice() {
+    return price;
+  }
+
   /**
    * Contract awarded, proposal accepted.
    */
@@ -52,8 +116,31 @@ public class Proposal {
     // Archive the proposal
   }
 
-  private MissionPlan generateMissionPlan() {
-    return new MissionPlan("new name");
+  /**
+   * Plan the mission requested: from the departure location along the
+   * requested route, leaving at the earliest departure date.
+   *
+   * @param rfp
+   *          the contract request for proposals
+   * @param optimizer
+   *          chooses the route, or null to keep the route requested
+   * @return the mission plan
+   */
+  private MissionPlan generateMissionPlan(final RequestForProposals rfp,
+      final RouteOptimizer optimizer) {
+    final String name = rfp.getMissionId() != null ? rfp.getMissionId() : "new name";
+    final MissionPlan plan = new MissionPlan(name);
+    plan.setStartLocation(rfp.getDepartureLocation());
+    plan.setRoute(rfp.getPlan());
+
+    final Calendar departure = rfp.getEarliestDepartureDate();
+    final long departMillis = departure != null ? departure.getTimeInMillis()
+        : System.currentTimeMillis();
+    plan.setPlannedStart(departMillis);
+    if (optimizer != null && plan.getRoute() != null) {
+      optimizer.plan(plan, departMillis);
+    }
+    return plan;
   }
 
 }
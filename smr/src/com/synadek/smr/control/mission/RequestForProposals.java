@@ -358,10 +358,12 @@ public class RequestForProposals extends AbstractComponent {
   }
 
   /**
-   * Read RFP from a file.
+   * Read RFP from a file. Dates, cargo minimums and the departure location
+   * missing from the file keep their defaults.
    *
    * @param filename
    *          the name of the file containing the RFP.
+   * @return the RFP read, or one with default values if the file cannot be read
    */
   public RequestForProposals readRfp(final String filename) {
     final RequestForProposals result = new RequestForProposals();
@@ -370,27 +372,77 @@ public class RequestForProposals extends AbstractComponent {
       // Parse the file contents
       final JSONObject parsedInput = (JSONObject) parser.parse(input);
 
-      missionId = (String) parsedInput.get("missionId");
-      customer = (String) parsedInput.get("customer");
-      address = new PostalAddress((JSONObject) parsedInput.get("address"));
-      proposalDate.setTimeInMillis(((Long) parsedInput.get("proposalDate")).longValue());
-      departureLocation = new GpsCoordinates((JSONObject) parsedInput.get("departureLocation"));
-      earliestDepartureDate
-          .setTimeInMillis(((Long) parsedInput.get("earliestDeparture")).longValue());
-      latestDepartureDate.setTimeInMillis(((Long) parsedInput.get("latestDeparture")).longValue());
-      latestArrivalDate.setTimeInMillis(((Long) parsedInput.get("latestArrival")).longValue());
-      minimumCargoDepth = ((Double) parsedInput.get("minimumCargoDepth")).doubleValue();
-      minimumCargoWidth = ((Double) parsedInput.get("minimumCargoWidth")).doubleValue();
-      minimumCargoHeight = ((Double) parsedInput.get("minimumCargoHeight")).doubleValue();
-      plan = new RouteImpl((JSONObject) parsedInput.get("myRoute"));
-
-    } catch (IOException | ParseException err) {
+      result.missionId = (String) parsedInput.get("missionId");
+      result.customer = (String) parsedInput.get("customer");
+      final JSONObject addr = (JSONObject) parsedInput.get("address");
+      if (addr != null) {
+        result.address = new PostalAddress(addr);
+      }
+      result.proposalDate = toCalendar(parsedInput.get("proposalDate"), result.proposalDate);
+      final JSONObject loc = (JSONObject) parsedInput.get("departureLocation");
+      if (loc != null) {
+        result.departureLocation = new GpsCoordinates(loc);
+      }
+      result.earliestDepartureDate = toCalendar(parsedInput.get("earliestDeparture"),
+          result.earliestDepartureDate);
+      result.latestDepartureDate = toCalendar(parsedInput.get("latestDeparture"),
+          result.latestDepartureDate);
+      result.latestArrivalDate = toCalendar(parsedInput.get("latestArrival"),
+          result.latestArrivalDate);
+      result.minimumCargoDepth = toDouble(parsedInput.get("minimumCargoDepth"),
+          result.minimumCargoDepth);
+      result.minimumCargoWidth = toDouble(parsedInput.get("minimumCargoWidth"),
+          result.minimumCargoWidth);
+      // Files written before the key was corrected spell it with a lower case h
+      final Object height = parsedInput.containsKey("minimumCargoHeight")
+          ? parsedInput.get("minimumCargoHeight") : parsedInput.get("minimumCargoheight");
+      result.minimumCargoHeight = toDouble(height, result.minimumCargoHeight);
+      result.minimumCargoWeight = toDouble(parsedInput.get("minimumCargoWeight"),
+          result.minimumCargoWeight);
+      final JSONObject route = (JSONObject) parsedInput.get("myRoute");
+      if (route != null) {
+        result.plan = new RouteImpl(route);
+      }
+
+    } catch (IOException | ParseException | ClassCastException err) {
       log.error(err);
     }
 
     return result;
   }
 
+  /**
+   * Convert a JSON time in ms since the epoch to a calendar.
+   *
+   * @param value
+   *          the JSON value
+   * @param dflt
+   *          the calendar to return if the value is missing
+   * @return the calendar
+   */
+  private static Calendar toCalendar(final Object value, final Calendar dflt) {
+    if (!(value instanceof Number)) {
+      return dflt;
+    }
+    final Calendar result = Calendar.getInstance();
+    result.setTimeInMillis(((Number) value).longValue());
+    return result;
+  }
+
+  /**
+   * Convert a JSON number, which may have been written without a fraction, to
+   * a double.
+   *
+   * @param value
+   *          the JSON value
+   * @param dflt
+   *          the value to return if the value is missing
+   * @return the number
+   */
+  private static double toDouble(final Object value, final double dflt) {
+    return value instanceof Number ? ((Number) value).doubleValue() : dflt;
+  }
+
   /**
    * Write RFP to a file.
    *
@@ -417,16 +469,23 @@ public class RequestForProposals extends AbstractComponent {
 
     result.put("missionId", missionId);
     result.put("customer", customer);
-    result.put("address", address.toJson());
-    result.put("proposalDate", Long.valueOf(proposalDate.getTimeInMillis()));
+    if (address != null) {
+      result.put("address", address.toJson());
+    }
+    if (proposalDate != null) {
+      result.put("proposalDate", Long.valueOf(proposalDate.getTimeInMillis()));
+    }
     result.put("departureLocation", departureLocation.toJson());
     result.put("earliestDeparture", Long.valueOf(earliestDepartureDate.getTimeInMillis()));
     result.put("latestDeparture", Long.valueOf(latestDepartureDate.getTimeInMillis()));
     result.put("latestArrival", Long.valueOf(latestArrivalDate.getTimeInMillis()));
-    result.put("minimumCargoheight", Double.valueOf(minimumCargoHeight));
+    result.put("minimumCargoHeight", Double.valueOf(minimumCargoHeight));
     result.put("minimumCargoWidth", Double.valueOf(minimumCargoWidth));
     result.put("minimumCargoDepth", Double.valueOf(minimumCargoDepth));
-    result.put("myRoute", plan.toJson());
+    result.put("minimumCargoWeight", Double.valueOf(minimumCargoWeight));
+    if (plan != null) {
+      result.put("myRoute", plan.toJson());
+    }
 
     return result;
   }
@@ -0,0 +1,1120 @@
+/**
+ * RouteOptimizer.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.control.mission;
+
+import com.synadek.core.GpsCoordinates;
+import com.synadek.core.Solar;
+import com.synadek.smr.control.navigation.AbstractRouteSegmentImpl;
+import com.synadek.smr.control.navigation.CompiledRoute;
+import com.synadek.smr.control.navigation.MoveSegment;
+import com.synadek.smr.control.navigation.Route;
+import com.synadek.smr.control.navigation.RouteImpl;
+import com.synadek.smr.control.navigation.RouteSegment;
+import com.synadek.smr.control.power.EnduranceForecast;
+import com.synadek.smr.control.weather.ConditionsForecast;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Chooses the passage between waypoints that takes the least time or energy,
+ * given the forecast wind, current and sunshine.
+ *
+ * <p>
+ * Each passage is an A* search over a latitude/longitude grid around its two
+ * ends, moving to any of the 16 cells reachable by a king or knight move so
+ * that courses are resolved to 22.5 degrees. The cost of a move depends on
+ * when it is made: the vessel cruises at a set speed through the water, less
+ * a little for headwind, and crabs across the current to hold its course over
+ * the ground; it draws its hotel and propeller load and recovers what the sun
+ * gives at that place and hour. Move costs are memoized by cell, direction and
+ * hour, so later searches over the same water, such as re-planning a mission,
+ * reuse them; the memo is bounded and is cleared when it fills.
+ * </p>
+ *
+ * <p>
+ * The passages of a route are searched in parallel on a ForkJoin pool. The
+ * departure time of each is first estimated from the direct route, which is
+ * close enough for hourly weather; the totals are then accumulated in order.
+ * Holds, grids and spirals are kept as they are.
+ * </p>
+ */
+public final class RouteOptimizer {
+
+  /**
+   * What the optimizer minimizes.
+   */
+  public enum Objective {
+    /**
+     * Minimize the time under way.
+     */
+    TIME,
+    /**
+     * Minimize the energy drawn from the battery.
+     */
+    ENERGY
+  }
+
+  /**
+   * Reports whether the vessel may pass a point, e.g. excluding land or a
+   * geofence.
+   */
+  public interface Navigable {
+
+    /**
+     * Determine whether the vessel may pass a point.
+     *
+     * @param lat
+     *          latitude in degrees
+     * @param lon
+     *          longitude in degrees
+     * @return true if the point is open water
+     */
+    boolean isNavigable(double lat, double lon);
+  }
+
+  /**
+   * Acquire a reference to the application logger.
+   */
+  private static Logger log = LogManager.getLogger(RouteOptimizer.class.getPackage().getName());
+
+  /**
+   * Default edge of a grid cell in metres.
+   */
+  private static final double DEFAULT_CELL_METRES = 500.0;
+
+  /**
+   * Default allowance for the fastest favourable current, in m/s.
+   */
+  private static final double DEFAULT_CURRENT_ALLOWANCE = 1.0;
+
+  /**
+   * Speed through the water lost per m/s of headwind.
+   */
+  private static final double WINDAGE = 0.02;
+
+  /**
+   * Slowest useful speed over the ground in m/s.
+   */
+  private static final double MIN_GROUND_SPEED = 0.1;
+
+  /**
+   * Fraction of the passage length added around it to form the search area.
+   */
+  private static final double SEARCH_MARGIN = 0.25;
+
+  /**
+   * Fewest cells added around a passage to form the search area.
+   */
+  private static final int MIN_MARGIN_CELLS = 8;
+
+  /**
+   * Most cells in one search area; larger areas use coarser cells. Each cell
+   * costs 29 bytes of search state, so this keeps one search under 30 MB.
+   */
+  private static final int MAX_CELLS = 1000000;
+
+  /**
+   * Most memoized move costs kept; the memo is cleared when it grows past this.
+   */
+  private static final int MAX_EDGE_COSTS = 500000;
+
+  /**
+   * Most memoized sun elevations kept; the memo is cleared when it grows past
+   * this.
+   */
+  private static final int MAX_SUN_ENTRIES = 100000;
+
+  /**
+   * Conditions are taken as constant over this many milliseconds.
+   */
+  private static final long BUCKET_MILLIS = 3600000L;
+
+  /**
+   * Steps in the cosine of latitude used to size cells east-west.
+   */
+  private static final int COSINE_STEPS = 64;
+
+  /**
+   * Resolution of the memoized sun elevation, cells per degree.
+   */
+  private static final double SUN_CELLS_PER_DEGREE = 10.0;
+
+  /**
+   * Metres per degree of latitude.
+   */
+  private static final double METRES_PER_DEGREE = Math.toRadians(6371000.0);
+
+  /**
+   * Seconds per hour.
+   */
+  private static final double SECONDS_PER_HOUR = 3600.0;
+
+  /**
+   * Grid moves as {north, east} cell steps: eight neighbours, then eight knight
+   * moves.
+   */
+  private static final int[][] MOVES = {{1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1},
+      {0, -1}, {1, -1}, {2, 1}, {1, 2}, {-1, 2}, {-2, 1}, {-2, -1}, {-1, -2}, {1, -2}, {2, -1}};
+
+  /**
+   * Electrical model of the vessel.
+   */
+  private final EnduranceForecast vessel;
+
+  /**
+   * Cruising speed through the water in m/s.
+   */
+  private final double speed;
+
+  /**
+   * Expected wind, current and sunshine.
+   */
+  private final ConditionsForecast conditions;
+
+  /**
+   * Memoized move costs: seconds and watt hours.
+   */
+  private final ConcurrentHashMap<EdgeKey, double[]> edgeCosts = new ConcurrentHashMap<>();
+
+  /**
+   * Memoized sine of the sun's elevation by place and hour.
+   */
+  private final ConcurrentHashMap<Long, Double> sunCache = new ConcurrentHashMap<>();
+
+  /**
+   * What to minimize.
+   */
+  private volatile Objective objective = Objective.TIME;
+
+  /**
+   * Edge of a grid cell in metres.
+   */
+  private volatile double cellMetres = DEFAULT_CELL_METRES;
+
+  /**
+   * Fastest favourable current expected, in m/s.
+   */
+  private volatile double currentAllowance = DEFAULT_CURRENT_ALLOWANCE;
+
+  /**
+   * Where the vessel may go.
+   */
+  private volatile Navigable navigable = (lat, lon) -> true;
+
+  /**
+   * Pool on which passages are searched.
+   */
+  private volatile ForkJoinPool pool = ForkJoinPool.commonPool();
+
+  /**
+   * Explicit constructor.
+   *
+   * @param model
+   *          electrical model of the vessel
+   * @param cruiseSpeed
+   *          cruising speed through the water in m/s
+   * @param forecast
+   *          expected wind, current and sunshine
+   */
+  public RouteOptimizer(final EnduranceForecast model, final double cruiseSpeed,
+      final ConditionsForecast forecast) {
+    vessel = model;
+    speed = cruiseSpeed;
+    conditions = forecast;
+  }
+
+  /**
+   * Set what to minimize.
+   *
+   * @param goal
+   *          time or energy
+   */
+  public void setObjective(final Objective goal) {
+    objective = goal;
+  }
+
+  /**
+   * Set the edge of a grid cell. Memoized costs are discarded.
+   *
+   * @param metres
+   *          the cell size
+   */
+  public void setCellSize(final double metres) {
+    cellMetres = metres;
+    edgeCosts.clear();
+  }
+
+  /**
+   * Set the fastest favourable current expected. The search is guaranteed to
+   * find the quickest passage only if no current is faster than this.
+   *
+   * @param metresPerSecond
+   *          the allowance
+   */
+  public void setCurrentAllowance(final double metresPerSecond) {
+    currentAllowance = metresPerSecond;
+  }
+
+  /**
+   * Set where the vessel may go. Memoized costs are discarded.
+   *
+   * @param water
+   *          reports whether a point is open water
+   */
+  public void setNavigable(final Navigable water) {
+    navigable = water;
+    edgeCosts.clear();
+  }
+
+  /**
+   * Set the pool on which passages are searched.
+   *
+   * @param forkJoinPool
+   *          the pool
+   */
+  public void setPool(final ForkJoinPool forkJoinPool) {
+    pool = forkJoinPool;
+  }
+
+  /**
+   * Get the number of memoized move costs. The memo is bounded and is cleared
+   * when it fills.
+   *
+   * @return the number of moves
+   */
+  public int getCacheSize() {
+    return edgeCosts.size();
+  }
+
+  /**
+   * Find the best passage between two points.
+   *
+   * @param from
+   *          where the passage starts
+   * @param to
+   *          where the passage ends
+   * @param departMillis
+   *          departure time in millis since the epoch
+   * @return the passage, or null if the destination cannot be reached
+   */
+  public Passage optimizePassage(final GpsCoordinates from, final GpsCoordinates to,
+      final long departMillis) {
+    return new Search(from, to, departMillis).run();
+  }
+
+  /**
+   * Replace every move of a route with its best passage.
+   *
+   * @param route
+   *          the route
+   * @param departMillis
+   *          departure time in millis since the epoch
+   * @return the optimized route, with its duration and energy
+   */
+  public Result optimize(final Route route, final long departMillis) {
+    final List<RouteSegment> segments = route.getRoute();
+    final CompiledRoute compiled = route.getCompiledRoute();
+
+    // Estimate when each segment starts from the direct route
+    final long[] holdsBefore = new long[compiled.size() + 1];
+    for (int i = 0; i < compiled.size(); i++) {
+      holdsBefore[i + 1] = holdsBefore[i] + compiled.getHoldMillis(i);
+    }
+    final List<PassageTask> tasks = new ArrayList<>();
+    final PassageTask[] bySegment = new PassageTask[segments.size()];
+    for (int k = 0; k < segments.size(); k++) {
+      final RouteSegment segment = segments.get(k);
+      if (segment instanceof MoveSegment && segment.getStartLocation() != null) {
+        final int first = Math.max(compiled.indexOfSegment(k), 0);
+        final long depart = departMillis + holdsBefore[first]
+            + (long) (compiled.getDistance(first) / speed * 1000.0);
+        bySegment[k] = new PassageTask(segment.getStartLocation(), segment.getDestination(),
+            depart);
+        tasks.add(bySegment[k]);
+      }
+    }
+    pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+
+    // Assemble the route and its totals in order
+    final RouteImpl result = new RouteImpl();
+    double seconds = 0.0;
+    double wattHours = 0.0;
+    for (int k = 0; k < segments.size(); k++) {
+      final RouteSegment segment = segments.get(k);
+      final Passage passage = bySegment[k] == null ? null : bySegment[k].join();
+      if (passage != null) {
+        final List<GpsCoordinates> path = passage.getPath();
+        for (int i = 1; i < path.size(); i++) {
+          result.addSegment(new MoveSegment(path.get(i - 1), path.get(i)));
+        }
+        seconds += passage.getSeconds();
+        wattHours += passage.getWattHours();
+        continue;
+      }
+      if (bySegment[k] != null) {
+        log.warn("No passage found for segment {}; keeping the direct route", k);
+      }
+      if (segment instanceof AbstractRouteSegmentImpl) {
+        result.addSegment((AbstractRouteSegmentImpl) segment);
+      }
+
+      // Anything else is done at cruising speed, as planned
+      final int first = compiled.indexOfSegment(k);
+      if (first >= 0) {
+        int last = first;
+        while (last + 1 < compiled.size() && compiled.getSegmentIndex(last + 1) == k) {
+          last++;
+        }
+        final double under = (compiled.getDistance(last) - compiled.getDistance(first)) / speed;
+        final double held = (holdsBefore[last + 1] - holdsBefore[first]) / 1000.0;
+        seconds += under + held;
+        wattHours += (under * (vessel.getHotelLoad() + vessel.propulsionLoad(speed))
+            + held * vessel.getHotelLoad()) / SECONDS_PER_HOUR;
+      }
+    }
+    return new Result(result, seconds, wattHours);
+  }
+
+  /**
+   * Choose the route of a mission plan: the plan's own route with every move
+   * optimized or, if it has none, the best passage from its start to its
+   * finish. The planned start and finish are set to match.
+   *
+   * @param plan
+   *          the mission plan
+   * @param departMillis
+   *          departure time in millis since the epoch
+   * @return the optimized route, with its duration and energy, or null if the
+   *         plan has no route and no start and finish
+   */
+  public Result plan(final MissionPlan plan, final long departMillis) {
+    Route route = plan.getRoute();
+    if (route == null) {
+      if (plan.getStartLocation() == null || plan.getFinishLocation() == null) {
+        return null;
+      }
+      final RouteImpl direct = new RouteImpl();
+      direct.addSegment(new MoveSegment(plan.getStartLocation(), plan.getFinishLocation()));
+      route = direct;
+    }
+    final Result result = optimize(route, departMillis);
+    plan.setRoute(result.getRoute());
+    plan.setPlannedStart(departMillis);
+    plan.setPlannedFinish(departMillis + (long) (result.getSeconds() * 1000.0));
+    return result;
+  }
+
+  /**
+   * Cost of one move, memoized.
+   *
+   * @param key
+   *          the move
+   * @param lat
+   *          latitude of the start of the move in degrees
+   * @param lon
+   *          longitude of the start of the move in degrees
+   * @param dlat
+   *          change of latitude in degrees
+   * @param dlon
+   *          change of longitude in degrees
+   * @return seconds and watt hours, or null if the move is impossible
+   */
+  private double[] edgeCost(final EdgeKey key, final double lat, final double lon,
+      final double dlat, final double dlon) {
+    double[] cost = edgeCosts.get(key);
+    if (cost == null) {
+      cost = computeEdge(key.bucket * BUCKET_MILLIS + BUCKET_MILLIS / 2, lat, lon, dlat, dlon);
+      if (edgeCosts.size() >= MAX_EDGE_COSTS) {
+        edgeCosts.clear();
+      }
+      edgeCosts.putIfAbsent(key, cost);
+    }
+    return cost.length == 0 ? null : cost;
+  }
+
+  /**
+   * Compute the cost of one move.
+   *
+   * @param millis
+   *          time at which conditions are taken
+   * @param lat
+   *          latitude of the start of the move in degrees
+   * @param lon
+   *          longitude of the start of the move in degrees
+   * @param dlat
+   *          change of latitude in degrees
+   * @param dlon
+   *          change of longitude in degrees
+   * @return seconds and watt hours, or an empty array if the move is
+   *         impossible
+   */
+  private double[] computeEdge(final long millis, final double lat, final double lon,
+      final double dlat, final double dlon) {
+    final double midLat = lat + dlat / 2.0;
+    final double midLon = lon + dlon / 2.0;
+    if (!navigable.isNavigable(lat + dlat, lon + dlon) || !navigable.isNavigable(midLat,
+        midLon)) {
+      return new double[0];
+    }
+
+    final double north = dlat * METRES_PER_DEGREE;
+    final double east = dlon * METRES_PER_DEGREE * Math.cos(Math.toRadians(midLat));
+    final double length = Math.hypot(east, north);
+    final double ue = east / length;
+    final double un = north / length;
+
+    // Headwind slows the vessel through the water
+    final double windFrom = Math.toRadians(conditions.getWindDirection(midLat, midLon, millis));
+    final double headwind = conditions.getWindSpeed(midLat, midLon, millis)
+        * (Math.sin(windFrom) * ue + Math.cos(windFrom) * un);
+    final double water = speed - WINDAGE * Math.max(headwind, 0.0);
+
+    // Crab across the current to hold the course over the ground
+    final double ce = conditions.getCurrentEast(midLat, midLon, millis);
+    final double cn = conditions.getCurrentNorth(midLat, midLon, millis);
+    final double across = ce * un - cn * ue;
+    final double along = ce * ue + cn * un;
+    if (Math.abs(across) >= water) {
+      return new double[0];
+    }
+    final double ground = Math.sqrt(water * water - across * across) + along;
+    if (ground < MIN_GROUND_SPEED) {
+      return new double[0];
+    }
+    final double seconds = length / ground;
+
+    // Energy drawn less what the sun returns; the motor is driven for the
+    // commanded speed, so headwind costs time at the same power
+    final double solar = vessel.getSolarPeakPower() * sunFraction(midLat, midLon, millis)
+        * Math.min(Math.max(conditions.getIrradiance(midLat, midLon, millis), 0.0), 1.0);
+    final double load = vessel.getHotelLoad() + vessel.propulsionLoad(speed);
+    final double wattHours = Math.max(load - solar, 0.0) * seconds / SECONDS_PER_HOUR;
+    return new double[] {seconds, wattHours};
+  }
+
+  /**
+   * Sine of the sun's elevation, memoized by tenth of a degree and hour.
+   *
+   * @param lat
+   *          latitude in degrees
+   * @param lon
+   *          longitude in degrees
+   * @param millis
+   *          time in millis since the epoch
+   * @return the sine, or zero when the sun is down
+   */
+  private double sunFraction(final double lat, final double lon, final long millis) {
+    final long row = Math.round(lat * SUN_CELLS_PER_DEGREE);
+    final long col = Math.round(lon * SUN_CELLS_PER_DEGREE);
+    final long hour = Math.floorDiv(millis, BUCKET_MILLIS);
+    final Long key = Long.valueOf(((hour * 2048L) + row + 1024L) * 4096L + col + 2048L);
+    if (sunCache.size() >= MAX_SUN_ENTRIES && !sunCache.containsKey(key)) {
+      sunCache.clear();
+    }
+    return sunCache.computeIfAbsent(key, k -> {
+      double elevation;
+      try {
+        elevation = Solar.getSolarElevationCorrected(row / SUN_CELLS_PER_DEGREE,
+            col / SUN_CELLS_PER_DEGREE, OffsetDateTime.ofInstant(Instant.ofEpochMilli(hour
+                * BUCKET_MILLIS + BUCKET_MILLIS / 2), ZoneOffset.UTC));
+      } catch (IllegalArgumentException err) {
+        elevation = 0.0;
+      }
+      return Double.valueOf(elevation > 0.0 ? Math.sin(Math.toRadians(elevation)) : 0.0);
+    }).doubleValue();
+  }
+
+  /**
+   * A memoized move: from a cell, in a direction, within an hour.
+   */
+  private static final class EdgeKey {
+
+    /**
+     * Cell row (latitude index).
+     */
+    private final int row;
+
+    /**
+     * Cell column (longitude index).
+     */
+    private final int col;
+
+    /**
+     * Index into MOVES.
+     */
+    private final int move;
+
+    /**
+     * Step in the cosine of latitude used to size cells east-west.
+     */
+    private final int scale;
+
+    /**
+     * Edge of a cell in metres.
+     */
+    private final int cellSize;
+
+    /**
+     * Hour since the epoch.
+     */
+    private final long bucket;
+
+    /**
+     * Explicit constructor.
+     *
+     * @param cellRow
+     *          cell row
+     * @param cellCol
+     *          cell column
+     * @param moveIdx
+     *          index into MOVES
+     * @param lonScale
+     *          east-west cell size step
+     * @param metres
+     *          edge of a cell in metres
+     * @param hour
+     *          hour since the epoch
+     */
+    EdgeKey(final int cellRow, final int cellCol, final int moveIdx, final int lonScale,
+        final int metres, final long hour) {
+      row = cellRow;
+      col = cellCol;
+      move = moveIdx;
+      scale = lonScale;
+      cellSize = metres;
+      bucket = hour;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+      int hash = row;
+      hash = 31 * hash + col;
+      hash = 31 * hash + move;
+      hash = 31 * hash + scale;
+      hash = 31 * hash + cellSize;
+      return 31 * hash + Long.hashCode(bucket);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(final Object obj) {
+      if (!(obj instanceof EdgeKey)) {
+        return false;
+      }
+      final EdgeKey other = (EdgeKey) obj;
+      return row == other.row && col == other.col && move == other.move
+          && scale == other.scale && cellSize == other.cellSize && bucket == other.bucket;
+    }
+  }
+
+  /**
+   * One A* search.
+   */
+  private final class Search {
+
+    /**
+     * Where the passage starts.
+     */
+    private final GpsCoordinates from;
+
+    /**
+     * Where the passage ends.
+     */
+    private final GpsCoordinates to;
+
+    /**
+     * Departure time in millis since the epoch.
+     */
+    private final long departMillis;
+
+    /**
+     * What to minimize, fixed for the search.
+     */
+    private final Objective goal = objective;
+
+    /**
+     * Explicit constructor.
+     *
+     * @param start
+     *          where the passage starts
+     * @param finish
+     *          where the passage ends
+     * @param depart
+     *          departure time in millis since the epoch
+     */
+    Search(final GpsCoordinates start, final GpsCoordinates finish, final long depart) {
+      from = start;
+      to = finish;
+      departMillis = depart;
+    }
+
+    /**
+     * Run the search.
+     *
+     * @return the passage, or null if there is none
+     */
+    Passage run() {
+      final double lat0 = from.getLatitude().degrees();
+      final double lon0 = from.getLongitude().degrees();
+      final double lat1 = to.getLatitude().degrees();
+      final double lon1 = to.getLongitude().degrees();
+      final double direct = from.getDistance(to);
+
+      // Size the cells, coarsening them if the area would be too large
+      final double midLat = (lat0 + lat1) / 2.0;
+      final int scale = Math.max(1, (int) Math.ceil(Math.cos(Math.toRadians(midLat))
+          * COSINE_STEPS));
+      double cell = cellMetres;
+      double dlat;
+      double dlon;
+      int rows;
+      int cols;
+      int row0;
+      int col0;
+      while (true) {
+        dlat = cell / METRES_PER_DEGREE;
+        dlon = dlat * COSINE_STEPS / scale;
+        final int margin = Math.max(MIN_MARGIN_CELLS, (int) (direct * SEARCH_MARGIN / cell));
+        row0 = (int) Math.floor(Math.min(lat0, lat1) / dlat) - margin;
+        col0 = (int) Math.floor(Math.min(lon0, lon1) / dlon) - margin;
+        rows = (int) Math.floor(Math.max(lat0, lat1) / dlat) + margin - row0 + 1;
+        cols = (int) Math.floor(Math.max(lon0, lon1) / dlon) + margin - col0 + 1;
+        if ((long) rows * cols <= MAX_CELLS) {
+          break;
+        }
+        cell *= 2.0;
+      }
+      if (cell != cellMetres) {
+        log.info("Passage of {} km searched with {} m cells", Math.round(direct / 1000.0),
+            Math.round(cell));
+      }
+
+      final int size = rows * cols;
+      final int metres = (int) Math.round(cell);
+      final int start = (int) Math.floor(lat0 / dlat) - row0
+          + ((int) Math.floor(lon0 / dlon) - col0) * rows;
+      final int finish = (int) Math.floor(lat1 / dlat) - row0
+          + ((int) Math.floor(lon1 / dlon) - col0) * rows;
+
+      final double[] cost = new double[size];
+      final double[] elapsed = new double[size];
+      final double[] energy = new double[size];
+      final int[] parent = new int[size];
+      final boolean[] closed = new boolean[size];
+      Arrays.fill(cost, Double.POSITIVE_INFINITY);
+      cost[start] = 0.0;
+      parent[start] = -1;
+
+      // Heuristic: straight line at the fastest plausible speed
+      final double fastest = speed + currentAllowance;
+      final double minPower = Math.max(vessel.getHotelLoad() + vessel.propulsionLoad(speed)
+          - vessel.getSolarPeakPower(), 0.0);
+      final double perMetre = goal == Objective.TIME ? 1.0 / fastest
+          : minPower / fastest / SECONDS_PER_HOUR;
+
+      final Heap open = new Heap();
+      open.push(perMetre * direct, start);
+      int expanded = 0;
+      while (!open.isEmpty()) {
+        final int node = open.pop();
+        if (closed[node]) {
+          continue;
+        }
+        closed[node] = true;
+        expanded++;
+        if (node == finish) {
+          break;
+        }
+        final int row = node % rows;
+        final int col = node / rows;
+        final double lat = (row0 + row + 0.5) * dlat;
+        final double lon = (col0 + col + 0.5) * dlon;
+        final long now = departMillis + (long) (elapsed[node] * 1000.0);
+        final long bucket = Math.floorDiv(now, BUCKET_MILLIS);
+
+        for (int m = 0; m < MOVES.length; m++) {
+          final int nr = row + MOVES[m][0];
+          final int nc = col + MOVES[m][1];
+          if (nr < 0 || nr >= rows || nc < 0 || nc >= cols) {
+            continue;
+          }
+          final int next = nr + nc * rows;
+          if (closed[next]) {
+            continue;
+          }
+          final EdgeKey key = new EdgeKey(row0 + row, col0 + col, m, scale, metres, bucket);
+          final double[] edge = edgeCost(key, lat, lon, MOVES[m][0] * dlat, MOVES[m][1] * dlon);
+          if (edge == null) {
+            continue;
+          }
+          final double step = goal == Objective.TIME ? edge[0] : edge[1];
+          final double candidate = cost[node] + step;
+          if (candidate < cost[next]) {
+            cost[next] = candidate;
+            elapsed[next] = elapsed[node] + edge[0];
+            energy[next] = energy[node] + edge[1];
+            parent[next] = node;
+            final double nlat = (row0 + nr + 0.5) * dlat;
+            final double nlon = (col0 + nc + 0.5) * dlon;
+            open.push(candidate + perMetre * distance(nlat, nlon, lat1, lon1), next);
+          }
+        }
+      }
+      if (!closed[finish]) {
+        return null;
+      }
+
+      // Walk back, keeping only the cells where the course changes
+      final List<GpsCoordinates> path = new ArrayList<>();
+      path.add(to);
+      int prev = finish;
+      int node = parent[finish];
+      int lastMove = Integer.MIN_VALUE;
+      while (node >= 0) {
+        final int move = (prev % rows - node % rows) * rows + (prev / rows - node / rows);
+        if (lastMove != Integer.MIN_VALUE && move != lastMove) {
+          path.add(new GpsCoordinates((row0 + prev % rows + 0.5) * dlat,
+              (col0 + prev / rows + 0.5) * dlon));
+        }
+        lastMove = move;
+        prev = node;
+        node = parent[node];
+      }
+      path.add(from);
+      Collections.reverse(path);
+      return new Passage(path, elapsed[finish], energy[finish], expanded);
+    }
+  }
+
+  /**
+   * Great circle distance between two points.
+   *
+   * @param lat1
+   *          latitude of the first point in degrees
+   * @param lon1
+   *          longitude of the first point in degrees
+   * @param lat2
+   *          latitude of the second point in degrees
+   * @param lon2
+   *          longitude of the second point in degrees
+   * @return metres
+   */
+  private static double distance(final double lat1, final double lon1, final double lat2,
+      final double lon2) {
+    final double sinLat = Math.sin(Math.toRadians(lat2 - lat1) / 2.0);
+    final double sinLon = Math.sin(Math.toRadians(lon2 - lon1) / 2.0);
+    final double hav = sinLat * sinLat
+        + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * sinLon * sinLon;
+    return 2.0 * METRES_PER_DEGREE * Math.toDegrees(Math.asin(Math.min(1.0, Math.sqrt(hav))));
+  }
+
+  /**
+   * Binary min-heap of nodes keyed by estimated total cost.
+   */
+  private static final class Heap {
+
+    /**
+     * Estimated total cost of each entry.
+     */
+    private double[] keys = new double[1024];
+
+    /**
+     * Node of each entry.
+     */
+    private int[] nodes = new int[1024];
+
+    /**
+     * Number of entries.
+     */
+    private int size;
+
+    /**
+     * Determine whether the heap is empty.
+     *
+     * @return true if empty
+     */
+    boolean isEmpty() {
+      return size == 0;
+    }
+
+    /**
+     * Add a node.
+     *
+     * @param key
+     *          estimated total cost
+     * @param node
+     *          the node
+     */
+    void push(final double key, final int node) {
+      if (size == keys.length) {
+        keys = Arrays.copyOf(keys, size * 2);
+        nodes = Arrays.copyOf(nodes, size * 2);
+      }
+      int idx = size++;
+      while (idx > 0) {
+        final int up = (idx - 1) >>> 1;
+        if (keys[up] <= key) {
+          break;
+        }
+        keys[idx] = keys[up];
+        nodes[idx] = nodes[up];
+        idx = up;
+      }
+      keys[idx] = key;
+      nodes[idx] = node;
+    }
+
+    /**
+     * Remove the node with the least key.
+     *
+     * @return the node
+     */
+    int pop() {
+      final int top = nodes[0];
+      final double key = keys[--size];
+      final int node = nodes[size];
+      int idx = 0;
+      while (true) {
+        int child = 2 * idx + 1;
+        if (child >= size) {
+          break;
+        }
+        if (child + 1 < size && keys[child + 1] < keys[child]) {
+          child++;
+        }
+        if (keys[child] >= key) {
+          break;
+        }
+        keys[idx] = keys[child];
+        nodes[idx] = nodes[child];
+        idx = child;
+      }
+      keys[idx] = key;
+      nodes[idx] = node;
+      return top;
+    }
+  }
+
+  /**
+   * Searches one passage as a ForkJoin task.
+   */
+  private final class PassageTask extends RecursiveTask<Passage> {
+
+    /**
+     * Serialization version.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Where the passage starts.
+     */
+    private final transient GpsCoordinates from;
+
+    /**
+     * Where the passage ends.
+     */
+    private final transient GpsCoordinates to;
+
+    /**
+     * Estimated departure time in millis since the epoch.
+     */
+    private final long departMillis;
+
+    /**
+     * Explicit constructor.
+     *
+     * @param start
+     *          where the passage starts
+     * @param finish
+     *          where the passage ends
+     * @param depart
+     *          estimated departure time in millis since the epoch
+     */
+    PassageTask(final GpsCoordinates start, final GpsCoordinates finish, final long depart) {
+      from = start;
+      to = finish;
+      departMillis = depart;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.util.concurrent.RecursiveTask#compute()
+     */
+    @Override
+    protected Passage compute() {
+      return optimizePassage(from, to, departMillis);
+    }
+  }
+
+  /**
+   * The best passage between two points.
+   */
+  public static final class Passage {
+
+    /**
+     * Turning points from start to finish.
+     */
+    private final List<GpsCoordinates> path;
+
+    /**
+     * Seconds under way.
+     */
+    private final double seconds;
+
+    /**
+     * Watt hours drawn from the battery.
+     */
+    private final double wattHours;
+
+    /**
+     * Number of cells the search expanded.
+     */
+    private final int expanded;
+
+    /**
+     * Explicit constructor.
+     *
+     * @param points
+     *          turning points from start to finish
+     * @param time
+     *          seconds under way
+     * @param energy
+     *          watt hours drawn from the battery
+     * @param cells
+     *          number of cells the search expanded
+     */
+    Passage(final List<GpsCoordinates> points, final double time, final double energy,
+        final int cells) {
+      path = points;
+      seconds = time;
+      wattHours = energy;
+      expanded = cells;
+    }
+
+    /**
+     * Get the turning points.
+     *
+     * @return the points from start to finish
+     */
+    public List<GpsCoordinates> getPath() {
+      return path;
+    }
+
+    /**
+     * Get the time under way.
+     *
+     * @return seconds
+     */
+    public double getSeconds() {
+      return seconds;
+    }
+
+    /**
+     * Get the energy drawn from the battery.
+     *
+     * @return watt hours
+     */
+    public double getWattHours() {
+      return wattHours;
+    }
+
+    /**
+     * Get the number of cells the search expanded.
+     *
+     * @return the number of cells
+     */
+    public int getExpanded() {
+      return expanded;
+    }
+  }
+
+  /**
+   * An optimized route.
+   */
+  public static final class Result {
+
+    /**
+     * The optimized route.
+     */
+    private final Route route;
+
+    /**
+     * Seconds to complete the route.
+     */
+    private final double seconds;
+
+    /**
+     * Watt hours drawn from the battery.
+     */
+    private final double wattHours;
+
+    /**
+     * Explicit constructor.
+     *
+     * @param optimized
+     *          the route
+     * @param time
+     *          seconds to complete it
+     * @param energy
+     *          watt hours drawn from the battery
+     */
+    Result(final Route optimized, final double time, final double energy) {
+      route = optimized;
+      seconds = time;
+      wattHours = energy;
+    }
+
+    /**
+     * Get the route.
+     *
+     * @return the route
+     */
+    public Route getRoute() {
+      return route;
+    }
+
+    /**
+     * Get the time to complete the route.
+     *
+     * @return seconds
+     */
+    public double getSeconds() {
+      return seconds;
+    }
+
+    /**
+     * Get the energy drawn from the battery.
+     *
+     * @return watt hours
+     */
+    public double getWattHours() {
+      return wattHours;
+    }
+  }
+}
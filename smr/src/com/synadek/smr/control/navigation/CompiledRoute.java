@@ -0,0 +1,305 @@
+/**
+ * CompiledRoute.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.control.navigation;
+
+import com.synadek.core.GpsCoordinates;
+import java.util.Arrays;
+
+/**
+ * A route expanded into a flat list of waypoints, each with the distance along
+ * the route at which it is reached.
+ *
+ * <p>
+ * Waypoints are held in parallel primitive arrays, so a survey grid of
+ * thousands of strips costs a few bytes per turn rather than an object each.
+ * Because the distances only increase, finding where a given distance along
+ * the route falls is a binary search. Instances are immutable and are created
+ * by RouteCompiler.
+ * </p>
+ */
+public final class CompiledRoute {
+
+  /**
+   * Mean radius of the earth in metres.
+   */
+  static final double EARTH_RADIUS = 6371000.0;
+
+  /**
+   * A route with no waypoints.
+   */
+  public static final CompiledRoute EMPTY = new CompiledRoute(new double[0], new double[0],
+      new long[0], new int[0], 0);
+
+  /**
+   * Latitude of each waypoint in degrees.
+   */
+  private final double[] latitudes;
+
+  /**
+   * Longitude of each waypoint in degrees.
+   */
+  private final double[] longitudes;
+
+  /**
+   * Milliseconds to hold at each waypoint.
+   */
+  private final long[] holdMillis;
+
+  /**
+   * Index within the route of the segment that produced each waypoint.
+   */
+  private final int[] segments;
+
+  /**
+   * Distance along the route to each waypoint in metres.
+   */
+  private final double[] distances;
+
+  /**
+   * Number of waypoints.
+   */
+  private final int count;
+
+  /**
+   * Total of the hold times in milliseconds.
+   */
+  private final long totalHoldMillis;
+
+  /**
+   * Constructor used by the compiler. The arrays are adopted, not copied.
+   *
+   * @param lat
+   *          latitude of each waypoint in degrees
+   * @param lon
+   *          longitude of each waypoint in degrees
+   * @param hold
+   *          milliseconds to hold at each waypoint
+   * @param segment
+   *          index of the segment that produced each waypoint
+   * @param size
+   *          number of waypoints in use
+   */
+  CompiledRoute(final double[] lat, final double[] lon, final long[] hold, final int[] segment,
+      final int size) {
+    latitudes = lat;
+    longitudes = lon;
+    holdMillis = hold;
+    segments = segment;
+    count = size;
+    distances = new double[size];
+
+    long holdTotal = 0;
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        distances[i] = distances[i - 1] + distance(lat[i - 1], lon[i - 1], lat[i], lon[i]);
+      }
+      holdTotal += hold[i];
+    }
+    totalHoldMillis = holdTotal;
+  }
+
+  /**
+   * Get the number of waypoints.
+   *
+   * @return the number of waypoints
+   */
+  public int size() {
+    return count;
+  }
+
+  /**
+   * Get the latitude of a waypoint.
+   *
+   * @param idx
+   *          index of the waypoint
+   * @return latitude in degrees
+   */
+  public double getLatitude(final int idx) {
+    checkIndex(idx);
+    return latitudes[idx];
+  }
+
+  /**
+   * Get the longitude of a waypoint.
+   *
+   * @param idx
+   *          index of the waypoint
+   * @return longitude in degrees
+   */
+  public double getLongitude(final int idx) {
+    checkIndex(idx);
+    return longitudes[idx];
+  }
+
+  /**
+   * Get the time to hold at a waypoint.
+   *
+   * @param idx
+   *          index of the waypoint
+   * @return milliseconds, zero if the vessel proceeds at once
+   */
+  public long getHoldMillis(final int idx) {
+    checkIndex(idx);
+    return holdMillis[idx];
+  }
+
+  /**
+   * Get the segment that produced a waypoint.
+   *
+   * @param idx
+   *          index of the waypoint
+   * @return index of the segment within the route
+   */
+  public int getSegmentIndex(final int idx) {
+    checkIndex(idx);
+    return segments[idx];
+  }
+
+  /**
+   * Get the distance along the route to a waypoint.
+   *
+   * @param idx
+   *          index of the waypoint
+   * @return metres from the first waypoint
+   */
+  public double getDistance(final int idx) {
+    checkIndex(idx);
+    return distances[idx];
+  }
+
+  /**
+   * Get a waypoint.
+   *
+   * @param idx
+   *          index of the waypoint
+   * @return the location of the waypoint
+   */
+  public GpsCoordinates getWaypoint(final int idx) {
+    checkIndex(idx);
+    return new GpsCoordinates(latitudes[idx], longitudes[idx]);
+  }
+
+  /**
+   * Get the length of the route.
+   *
+   * @return metres from the first waypoint to the last
+   */
+  public double getTotalDistance() {
+    return count == 0 ? 0.0 : distances[count - 1];
+  }
+
+  /**
+   * Get the total time spent holding.
+   *
+   * @return milliseconds
+   */
+  public long getTotalHoldMillis() {
+    return totalHoldMillis;
+  }
+
+  /**
+   * Find the waypoint most recently passed at a distance along the route.
+   *
+   * @param distance
+   *          metres from the first waypoint
+   * @return index of the last waypoint whose distance does not exceed the
+   *         given distance, or -1 if the route is empty
+   */
+  public int indexAtDistance(final double distance) {
+    if (count == 0) {
+      return -1;
+    }
+    int idx = Arrays.binarySearch(distances, 0, count, distance);
+    if (idx < 0) {
+      // Insertion point is the first waypoint beyond the distance
+      idx = Math.max(0, -idx - 2);
+    }
+    // Holds and repeated points share a distance; take the last of them
+    while (idx + 1 < count && distances[idx + 1] <= distance) {
+      idx++;
+    }
+    return idx;
+  }
+
+  /**
+   * Find the first waypoint produced by a segment.
+   *
+   * @param segment
+   *          index of the segment within the route
+   * @return index of the waypoint, or -1 if the segment produced none
+   */
+  public int indexOfSegment(final int segment) {
+    int idx = Arrays.binarySearch(segments, 0, count, segment);
+    if (idx < 0) {
+      return -1;
+    }
+    while (idx > 0 && segments[idx - 1] == segment) {
+      idx--;
+    }
+    return idx;
+  }
+
+  /**
+   * Get the position at a distance along the route.
+   *
+   * @param distance
+   *          metres from the first waypoint
+   * @return the position, interpolated between waypoints, or null if the route
+   *         is empty
+   */
+  public GpsCoordinates positionAt(final double distance) {
+    final int idx = indexAtDistance(distance);
+    if (idx < 0) {
+      return null;
+    }
+    if (idx + 1 >= count) {
+      return new GpsCoordinates(latitudes[idx], longitudes[idx]);
+    }
+    final double span = distances[idx + 1] - distances[idx];
+    final double fraction = span > 0.0
+        ? Math.min(Math.max((distance - distances[idx]) / span, 0.0), 1.0) : 0.0;
+    return new GpsCoordinates(latitudes[idx] + fraction * (latitudes[idx + 1] - latitudes[idx]),
+        longitudes[idx] + fraction * (longitudes[idx + 1] - longitudes[idx]));
+  }
+
+  /**
+   * Great circle distance between two points.
+   *
+   * @param lat1
+   *          latitude of the first point in degrees
+   * @param lon1
+   *          longitude of the first point in degrees
+   * @param lat2
+   *          latitude of the second point in degrees
+   * @param lon2
+   *          longitude of the second point in degrees
+   * @return metres
+   */
+  static double distance(final double lat1, final double lon1, final double lat2,
+      final double lon2) {
+    final double dlat = Math.toRadians(lat2 - lat1);
+    final double dlon = Math.toRadians(lon2 - lon1);
+    final double sinLat = Math.sin(dlat / 2.0);
+    final double sinLon = Math.sin(dlon / 2.0);
+    final double hav = sinLat * sinLat
+        + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * sinLon * sinLon;
+    return 2.0 * EARTH_RADIUS * Math.atan2(Math.sqrt(hav), Math.sqrt(1.0 - hav));
+  }
+
+  /**
+   * Validate a waypoint index.
+   *
+   * @param idx
+   *          index of the waypoint
+   */
+  private void checkIndex(final int idx) {
+    if (idx < 0 || idx >= count) {
+      throw new IndexOutOfBoundsException("Waypoint " + idx + " of " + count);
+    }
+  }
+}
@@ -0,0 +1,1280 @@
+/**
+ * CoveragePlanner.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.control.navigation;
+
+import com.synadek.core.GpsCoordinates;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.DoubleStream;
+
+/**
+ * Plans routes that sweep a survey area with a sensor of a given swath width.
+ *
+ * <p>
+ * The area is a polygon, with optional holes the vessel must not survey (an
+ * island, a shipping channel). A boustrophedon pattern runs parallel passes
+ * no more than a swath apart, alternating direction. Every turn at the end of
+ * a pass is time not surveying, so unless a sweep bearing is given, the
+ * bearing of each boundary edge is tried (the narrowest width of a polygon is
+ * always across one of its edges) and the one needing fewest passes is used.
+ * Where holes split a pass, the area is covered cell by cell. A spiral
+ * pattern runs outward from the middle of the area, one swath between loops.
+ * </p>
+ *
+ * <p>
+ * A large area can be split between several vessels: the passes are divided
+ * into bands of equal survey length, one band per vessel, or for a spiral,
+ * the vessels run interleaved arms. A plain rectangle swept east-west becomes
+ * a single GridSegment and an area without holes a single SpiralSegment;
+ * anything else becomes MoveSegments. Transits between cells run straight
+ * where they can and otherwise around the holes, by way of the corners of the
+ * holes and the boundary, so no transit crosses an excluded area.
+ * </p>
+ */
+public final class CoveragePlanner {
+
+  /**
+   * Coverage patterns.
+   */
+  public enum Pattern {
+    /** Parallel passes, alternating direction. */
+    BOUSTROPHEDON,
+    /** An outward spiral. */
+    SPIRAL
+  }
+
+  /**
+   * Distances below this (metres) are treated as zero.
+   */
+  private static final double EPSILON = 0.01;
+
+  /**
+   * Passes may be this fraction of a swath further apart than the swath
+   * rather than add a pass.
+   */
+  private static final double SWATH_TOLERANCE = 0.01;
+
+  /**
+   * Candidate sweep bearings closer than this (degrees) are tried once.
+   */
+  private static final double BEARING_RESOLUTION = 0.1;
+
+  /**
+   * Latitude of the projection origin in degrees.
+   */
+  private final double originLat;
+
+  /**
+   * Longitude of the projection origin in degrees.
+   */
+  private final double originLon;
+
+  /**
+   * Metres per degree of latitude.
+   */
+  private final double metresPerLat;
+
+  /**
+   * Metres per degree of longitude at the origin.
+   */
+  private final double metresPerLon;
+
+  /**
+   * The boundary followed by the holes, each as x, y pairs in metres east and
+   * north of the origin.
+   */
+  private final List<double[]> rings = new ArrayList<>();
+
+  /**
+   * Width of the strip surveyed on each pass (metres).
+   */
+  private final double swath;
+
+  /**
+   * The coverage pattern.
+   */
+  private Pattern pattern = Pattern.BOUSTROPHEDON;
+
+  /**
+   * Bearing of the passes in degrees, or NaN to choose the best.
+   */
+  private double sweepBearing = Double.NaN;
+
+  /**
+   * Where the vessel arrives from, or null.
+   */
+  private GpsCoordinates startLocation;
+
+  /**
+   * Explicit constructor.
+   *
+   * @param boundary
+   *          vertices of the survey area, in order around it
+   * @param swathWidth
+   *          width of the strip surveyed on each pass (metres)
+   * @throws IllegalArgumentException
+   *           if the area has fewer than three vertices or the swath is not
+   *           positive
+   */
+  public CoveragePlanner(final List<GpsCoordinates> boundary, final double swathWidth) {
+    if (boundary == null || boundary.size() < 3) {
+      throw new IllegalArgumentException("Survey area needs at least three vertices");
+    }
+    if (!(swathWidth > 0.0)) {
+      throw new IllegalArgumentException("Swath width must be positive: " + swathWidth);
+    }
+    swath = swathWidth;
+
+    double lat = 0.0;
+    double lon = 0.0;
+    for (GpsCoordinates vertex : boundary) {
+      lat += vertex.getLatitude().degrees();
+      lon += vertex.getLongitude().degrees();
+    }
+    originLat = lat / boundary.size();
+    originLon = lon / boundary.size();
+    metresPerLat = Math.toRadians(CompiledRoute.EARTH_RADIUS);
+    metresPerLon = metresPerLat * Math.cos(Math.toRadians(originLat));
+    rings.add(project(boundary));
+  }
+
+  /**
+   * Exclude an area from the survey.
+   *
+   * @param hole
+   *          vertices of the excluded area, in order around it
+   * @throws IllegalArgumentException
+   *           if the hole has fewer than three vertices
+   */
+  public void addHole(final List<GpsCoordinates> hole) {
+    if (hole == null || hole.size() < 3) {
+      throw new IllegalArgumentException("Excluded area needs at least three vertices");
+    }
+    rings.add(project(hole));
+  }
+
+  /**
+   * Set the coverage pattern.
+   *
+   * @param pat
+   *          the pattern (default boustrophedon)
+   */
+  public void setPattern(final Pattern pat) {
+    pattern = pat;
+  }
+
+  /**
+   * Set the bearing of the passes.
+   *
+   * @param degrees
+   *          bearing in degrees, or NaN (the default) to choose the bearing
+   *          needing fewest passes; for a spiral, the bearing it starts on
+   */
+  public void setSweepBearing(final double degrees) {
+    sweepBearing = degrees;
+  }
+
+  /**
+   * Set where the vessel arrives from, so the survey starts at the nearest
+   * side of the area.
+   *
+   * @param loc
+   *          the location, or null to start anywhere
+   */
+  public void setStartLocation(final GpsCoordinates loc) {
+    startLocation = loc;
+  }
+
+  /**
+   * Get the area to be surveyed.
+   *
+   * @return square metres inside the boundary and outside the holes
+   */
+  public double getArea() {
+    double area = Math.abs(shoelace(rings.get(0)));
+    for (int i = 1; i < rings.size(); i++) {
+      area -= Math.abs(shoelace(rings.get(i)));
+    }
+    return Math.max(area, 0.0);
+  }
+
+  /**
+   * Plan coverage of the area by one vessel.
+   *
+   * @return the coverage
+   */
+  public Coverage plan() {
+    return plan(1).get(0);
+  }
+
+  /**
+   * Plan coverage of the area split between vessels working in parallel.
+   *
+   * @param vessels
+   *          number of vessels
+   * @return one coverage per vessel; fewer than asked if the area has fewer
+   *         passes than vessels
+   * @throws IllegalArgumentException
+   *           if there are no vessels
+   */
+  public List<Coverage> plan(final int vessels) {
+    if (vessels < 1) {
+      throw new IllegalArgumentException("Need at least one vessel: " + vessels);
+    }
+    if (pattern == Pattern.SPIRAL) {
+      return planSpiral(vessels);
+    }
+
+    final Sweep sweep = Double.isNaN(sweepBearing) ? bestSweep() : sweep(sweepBearing);
+
+    // Start from whichever side of the area is nearer the vessel
+    boolean reverse = false;
+    if (startLocation != null && sweep.lines > 1) {
+      final double[] xy = project(startLocation);
+      final double across = xy[0] * sweep.vx + xy[1] * sweep.vy;
+      reverse = Math.abs(across - sweep.offsets[sweep.lines - 1])
+          < Math.abs(across - sweep.offsets[0]);
+    }
+
+    // Divide the passes into bands of equal survey length
+    final int bands = Math.min(vessels, Math.max(sweep.lines, 1));
+    final double[] prefix = new double[sweep.lines + 1];
+    for (int i = 0; i < sweep.lines; i++) {
+      double length = 0.0;
+      for (int j = 0; j < sweep.intervals[i].length; j += 2) {
+        length += sweep.intervals[i][j + 1] - sweep.intervals[i][j];
+      }
+      prefix[i + 1] = prefix[i] + length;
+    }
+    final int[] cuts = new int[bands + 1];
+    cuts[bands] = sweep.lines;
+    for (int k = 1; k < bands; k++) {
+      final double target = prefix[sweep.lines] * k / bands;
+      int line = cuts[k - 1] + 1;
+      while (line < sweep.lines - (bands - k) && prefix[line] < target) {
+        line++;
+      }
+      cuts[k] = line;
+    }
+
+    final List<Coverage> result = new ArrayList<>(bands);
+    for (int k = 0; k < bands; k++) {
+      result.add(boustrophedon(sweep, cuts[k], cuts[k + 1], reverse, bands == 1));
+    }
+    return result;
+  }
+
+  /**
+   * Try the bearing of each edge of the convex hull of the boundary and keep
+   * the one needing fewest passes.
+   *
+   * @return the best sweep
+   */
+  private Sweep bestSweep() {
+    final double[] hull = convexHull(rings.get(0));
+    final int vertices = hull.length / 2;
+    final double[] candidates = new double[vertices + 2];
+    for (int i = 0; i < vertices; i++) {
+      final int j = (i + 1) % vertices;
+      final double bearing = Math.toDegrees(Math.atan2(hull[2 * j] - hull[2 * i],
+          hull[2 * j + 1] - hull[2 * i + 1]));
+      candidates[i] = Math.round(((bearing % 180.0) + 180.0) % 180.0 / BEARING_RESOLUTION)
+          * BEARING_RESOLUTION;
+    }
+    candidates[vertices] = 0.0;
+    candidates[vertices + 1] = 90.0;
+
+    return DoubleStream.of(candidates).distinct().parallel().mapToObj(this::sweep)
+        .min(Comparator.comparingInt((Sweep s) -> s.passes).thenComparingInt(s -> s.lines)
+            .thenComparingDouble(s -> s.bearing))
+        .get();
+  }
+
+  /**
+   * Intersect passes at a bearing with the area.
+   *
+   * <p>
+   * Edges are sorted by where they start across the passes and swept with an
+   * active list, so each pass only looks at the edges it crosses.
+   * </p>
+   *
+   * @param degrees
+   *          bearing of the passes
+   * @return the passes
+   */
+  private Sweep sweep(final double degrees) {
+    final Sweep sweep = new Sweep(degrees);
+
+    // Edges in pass coordinates: along (a) and across (b)
+    int edgeCount = 0;
+    for (double[] ring : rings) {
+      edgeCount += ring.length / 2;
+    }
+    final double[] low = new double[edgeCount];
+    final double[] high = new double[edgeCount];
+    final double[] alongAtLow = new double[edgeCount];
+    final double[] slope = new double[edgeCount];
+    int edges = 0;
+    double minB = Double.POSITIVE_INFINITY;
+    double maxB = Double.NEGATIVE_INFINITY;
+    for (int r = 0; r < rings.size(); r++) {
+      final double[] ring = rings.get(r);
+      final int n = ring.length / 2;
+      for (int i = 0; i < n; i++) {
+        final int j = (i + 1) % n;
+        final double a1 = sweep.along(ring[2 * i], ring[2 * i + 1]);
+        final double b1 = sweep.across(ring[2 * i], ring[2 * i + 1]);
+        final double a2 = sweep.along(ring[2 * j], ring[2 * j + 1]);
+        final double b2 = sweep.across(ring[2 * j], ring[2 * j + 1]);
+        if (r == 0) {
+          minB = Math.min(minB, b1);
+          maxB = Math.max(maxB, b1);
+        }
+        if (b1 == b2) {
+          continue;
+        }
+        low[edges] = Math.min(b1, b2);
+        high[edges] = Math.max(b1, b2);
+        alongAtLow[edges] = b1 < b2 ? a1 : a2;
+        slope[edges] = (a2 - a1) / (b2 - b1);
+        edges++;
+      }
+    }
+
+    // Spread the passes evenly, each centred in its strip
+    final double width = maxB - minB;
+    sweep.lines = Math.max(1, (int) Math.ceil(width / swath - SWATH_TOLERANCE));
+    sweep.offsets = new double[sweep.lines];
+    sweep.intervals = new double[sweep.lines][];
+    final double spacing = width / sweep.lines;
+    for (int k = 0; k < sweep.lines; k++) {
+      sweep.offsets[k] = minB + spacing * (k + 0.5);
+    }
+
+    final Integer[] order = new Integer[edges];
+    for (int i = 0; i < edges; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, Comparator.comparingDouble(i -> low[i]));
+
+    final int[] active = new int[edges];
+    int activeCount = 0;
+    int next = 0;
+    double[] crossings = new double[16];
+    for (int k = 0; k < sweep.lines; k++) {
+      final double b = sweep.offsets[k];
+      while (next < edges && low[order[next]] <= b) {
+        active[activeCount++] = order[next++];
+      }
+      int crossingCount = 0;
+      for (int i = 0; i < activeCount; i++) {
+        final int e = active[i];
+        if (high[e] <= b) {
+          // Finished with this edge; drop it
+          active[i--] = active[--activeCount];
+          continue;
+        }
+        if (crossingCount == crossings.length) {
+          crossings = Arrays.copyOf(crossings, crossingCount * 2);
+        }
+        crossings[crossingCount++] = alongAtLow[e] + (b - low[e]) * slope[e];
+      }
+      Arrays.sort(crossings, 0, crossingCount);
+
+      // Inside between each odd and even crossing
+      final double[] intervals = new double[crossingCount - crossingCount % 2];
+      int size = 0;
+      for (int i = 0; i + 1 < crossingCount; i += 2) {
+        if (crossings[i + 1] - crossings[i] > EPSILON) {
+          intervals[size++] = crossings[i];
+          intervals[size++] = crossings[i + 1];
+        }
+      }
+      sweep.intervals[k] = Arrays.copyOf(intervals, size);
+      sweep.passes += size / 2;
+    }
+    return sweep;
+  }
+
+  /**
+   * Order the passes of a band into a route, cell by cell.
+   *
+   * <p>
+   * A cell starts at the first pass not yet run and continues onto the next
+   * line for as long as a pass there overlaps the one before.
+   * </p>
+   *
+   * @param sweep
+   *          the passes
+   * @param first
+   *          first line of the band
+   * @param last
+   *          line after the band
+   * @param reverse
+   *          true to work through the lines from the last
+   * @param allowGrid
+   *          true if a rectangle may become a GridSegment
+   * @return the coverage
+   */
+  private Coverage boustrophedon(final Sweep sweep, final int first, final int last,
+      final boolean reverse, final boolean allowGrid) {
+    final int lines = last - first;
+    final boolean[][] done = new boolean[lines][];
+    int remaining = 0;
+    for (int k = 0; k < lines; k++) {
+      done[k] = new boolean[sweep.intervals[first + k].length / 2];
+      remaining += done[k].length;
+    }
+
+    // Each pass as across, from, to
+    final double[] passes = new double[3 * remaining];
+    int count = 0;
+    double posA = Double.NaN;
+    if (startLocation != null) {
+      final double[] xy = project(startLocation);
+      posA = sweep.along(xy[0], xy[1]);
+    }
+    int line = 0;
+    while (remaining > 0) {
+      // Start a cell at the first line with a pass still to run
+      while (line < lines && allDone(done[reverse ? lines - 1 - line : line])) {
+        line++;
+      }
+      int k = line;
+      int idx = -1;
+      boolean forward = true;
+      double lo = 0.0;
+      double hi = 0.0;
+      while (k < lines) {
+        final int row = reverse ? lines - 1 - k : k;
+        final double[] intervals = sweep.intervals[first + row];
+        if (idx < 0) {
+          // First pass of the cell: the one starting nearest the vessel
+          double best = Double.POSITIVE_INFINITY;
+          for (int j = 0; j < done[row].length; j++) {
+            final double dist = Double.isNaN(posA) ? j
+                : Math.min(Math.abs(intervals[2 * j] - posA),
+                    Math.abs(intervals[2 * j + 1] - posA));
+            if (!done[row][j] && dist < best) {
+              best = dist;
+              idx = j;
+            }
+          }
+          forward = Double.isNaN(posA) || Math.abs(intervals[2 * idx] - posA) <= Math
+              .abs(intervals[2 * idx + 1] - posA);
+        } else {
+          // Continue onto the pass that most overlaps the last one
+          idx = -1;
+          double best = EPSILON;
+          for (int j = 0; j < done[row].length; j++) {
+            final double overlap = Math.min(hi, intervals[2 * j + 1])
+                - Math.max(lo, intervals[2 * j]);
+            if (!done[row][j] && overlap > best) {
+              best = overlap;
+              idx = j;
+            }
+          }
+          if (idx < 0) {
+            break;
+          }
+          forward = !forward;
+        }
+        lo = intervals[2 * idx];
+        hi = intervals[2 * idx + 1];
+        done[row][idx] = true;
+        remaining--;
+        passes[3 * count] = sweep.offsets[first + row];
+        passes[3 * count + 1] = forward ? lo : hi;
+        passes[3 * count + 2] = forward ? hi : lo;
+        posA = passes[3 * count + 2];
+        count++;
+        k++;
+      }
+    }
+
+    // Build the route, with a transit between passes
+    final RouteImpl route = new RouteImpl();
+    double swept = 0.0;
+    double track = 0.0;
+    GpsCoordinates previous = null;
+    for (int p = 0; p < count; p++) {
+      final double b = passes[3 * p];
+      final GpsCoordinates from = sweep.toGps(passes[3 * p + 1], b);
+      final GpsCoordinates to = sweep.toGps(passes[3 * p + 2], b);
+      if (previous != null) {
+        track += addTransit(route, previous, from);
+      }
+      route.addSegment(new MoveSegment(from, to));
+      final double length = Math.abs(passes[3 * p + 2] - passes[3 * p + 1]);
+      swept += length;
+      track += length;
+      previous = to;
+    }
+
+    final Route result = allowGrid && isGrid(sweep, passes, count) ? grid(sweep, passes, count)
+        : route;
+    return new Coverage(result, sweep.bearing, count, swept, track);
+  }
+
+  /**
+   * Check whether passes form a plain east-west grid.
+   *
+   * @param sweep
+   *          the sweep
+   * @param passes
+   *          the passes in order
+   * @param count
+   *          number of passes
+   * @return true if a GridSegment runs the same passes
+   */
+  private boolean isGrid(final Sweep sweep, final double[] passes, final int count) {
+    if (rings.size() > 1 || count != sweep.lines || Math.abs(sweep.bearing - 90.0) > EPSILON) {
+      return false;
+    }
+    // Every pass the full width, alternating direction
+    for (int p = 0; p < count; p++) {
+      final int from = p % 2 == 0 ? 1 : 2;
+      if (Math.abs(passes[3 * p + 1] - passes[from]) > EPSILON
+          || Math.abs(passes[3 * p + 2] - passes[3 - from]) > EPSILON) {
+        return false;
+      }
+    }
+    if (count < 2) {
+      return true;
+    }
+    final int spacing = (int) Math.ceil(Math.abs(passes[3] - passes[0]) - EPSILON);
+    final double height = Math.abs(passes[3 * (count - 1)] - passes[0]);
+    return spacing > 0 && (int) Math.ceil(height / spacing - 0.01) == count - 1;
+  }
+
+  /**
+   * Express east-west passes as a GridSegment.
+   *
+   * @param sweep
+   *          the sweep
+   * @param passes
+   *          the passes in order
+   * @param count
+   *          number of passes
+   * @return a route of one GridSegment
+   */
+  private Route grid(final Sweep sweep, final double[] passes, final int count) {
+    final int spacing = count < 2 ? (int) Math.max(Math.round(swath), 1)
+        : (int) Math.ceil(Math.abs(passes[3] - passes[0]) - EPSILON);
+    final RouteImpl route = new RouteImpl();
+    route.addSegment(new GridSegment(sweep.toGps(passes[1], passes[0]), spacing,
+        sweep.toGps(passes[2], passes[3 * (count - 1)])));
+    return route;
+  }
+
+  /**
+   * Plan spirals out from the middle of the area, one arm per vessel.
+   *
+   * @param vessels
+   *          number of vessels
+   * @return one coverage per vessel
+   */
+  private List<Coverage> planSpiral(final int vessels) {
+    final double[] outer = rings.get(0);
+    double minX = Double.POSITIVE_INFINITY;
+    double maxX = Double.NEGATIVE_INFINITY;
+    double minY = Double.POSITIVE_INFINITY;
+    double maxY = Double.NEGATIVE_INFINITY;
+    for (int i = 0; i < outer.length; i += 2) {
+      minX = Math.min(minX, outer[i]);
+      maxX = Math.max(maxX, outer[i]);
+      minY = Math.min(minY, outer[i + 1]);
+      maxY = Math.max(maxY, outer[i + 1]);
+    }
+    final double cx = (minX + maxX) / 2.0;
+    final double cy = (minY + maxY) / 2.0;
+    double radius = 0.0;
+    for (int i = 0; i < outer.length; i += 2) {
+      radius = Math.max(radius, Math.hypot(outer[i] - cx, outer[i + 1] - cy));
+    }
+
+    // Interleaved arms, each a swath from its neighbours
+    final int spacing = (int) Math.max(Math.round(swath * vessels), 1);
+    final int degrees = (int) Math.ceil(radius / spacing * 360.0);
+    final double base = Double.isNaN(sweepBearing) ? 0.0 : sweepBearing;
+    final GpsCoordinates centre = toGps(cx, cy);
+
+    final List<Coverage> result = new ArrayList<>(vessels);
+    for (int k = 0; k < vessels; k++) {
+      final int bearing = (int) Math.round(((base + 360.0 * k / vessels) % 360.0 + 360.0) % 360.0);
+      final RouteImpl spiral = new RouteImpl();
+      spiral.addSegment(new SpiralSegment(centre, bearing, spacing, degrees));
+      final CompiledRoute compiled = spiral.getCompiledRoute();
+      if (rings.size() == 1) {
+        result.add(new Coverage(spiral, bearing, 1, compiled.getTotalDistance(),
+            compiled.getTotalDistance()));
+      } else {
+        result.add(clip(compiled, bearing));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Keep the parts of a compiled route inside the area.
+   *
+   * @param compiled
+   *          the route
+   * @param bearing
+   *          bearing the route starts on
+   * @return the coverage
+   */
+  private Coverage clip(final CompiledRoute compiled, final int bearing) {
+    final RouteImpl route = new RouteImpl();
+    double swept = 0.0;
+    double track = 0.0;
+    int runs = 0;
+    GpsCoordinates previous = null;
+    boolean wasInside = false;
+    for (int i = 0; i < compiled.size(); i++) {
+      final GpsCoordinates point = compiled.getWaypoint(i);
+      final double[] xy = project(point);
+      final boolean inside = contains(xy[0], xy[1]);
+      if (inside) {
+        if (previous != null) {
+          final double length = addTransit(route, previous, point);
+          track += length;
+          if (wasInside) {
+            swept += length;
+          }
+        }
+        if (!wasInside) {
+          runs++;
+        }
+        previous = point;
+      }
+      wasInside = inside;
+    }
+    return new Coverage(route, bearing, runs, swept, track);
+  }
+
+  /**
+   * Add the shortest transit between two points of the area that stays out of
+   * the holes.
+   *
+   * @param route
+   *          the route to add to
+   * @param from
+   *          where the transit starts
+   * @param to
+   *          where the transit ends
+   * @return metres run
+   * @throws IllegalStateException
+   *           if every way between the points crosses a hole
+   */
+  private double addTransit(final RouteImpl route, final GpsCoordinates from,
+      final GpsCoordinates to) {
+    final double[] start = project(from);
+    final double[] finish = project(to);
+    final double[] path = transit(start[0], start[1], finish[0], finish[1]);
+    GpsCoordinates previous = from;
+    double length = 0.0;
+    double x = start[0];
+    double y = start[1];
+    for (int i = 0; i < path.length; i += 2) {
+      final GpsCoordinates next = i + 2 == path.length ? to : toGps(path[i], path[i + 1]);
+      route.addSegment(new MoveSegment(previous, next));
+      length += Math.hypot(path[i] - x, path[i + 1] - y);
+      previous = next;
+      x = path[i];
+      y = path[i + 1];
+    }
+    return length;
+  }
+
+  /**
+   * Find the shortest way between two points of the area that stays out of
+   * the holes: straight if it can, otherwise by way of the vertices of the
+   * holes and the boundary (Dijkstra over the vertices in sight of each
+   * other).
+   *
+   * @param x0
+   *          metres east of the origin of the start
+   * @param y0
+   *          metres north of the origin of the start
+   * @param x1
+   *          metres east of the origin of the end
+   * @param y1
+   *          metres north of the origin of the end
+   * @return x, y pairs of each turn and then the end
+   * @throws IllegalStateException
+   *           if every way between the points crosses a hole
+   */
+  private double[] transit(final double x0, final double y0, final double x1,
+      final double y1) {
+    if (isClear(x0, y0, x1, y1)) {
+      return new double[] { x1, y1 };
+    }
+
+    // The start, the end, then every vertex
+    int n = 2;
+    for (double[] ring : rings) {
+      n += ring.length / 2;
+    }
+    final double[] xs = new double[n];
+    final double[] ys = new double[n];
+    xs[0] = x0;
+    ys[0] = y0;
+    xs[1] = x1;
+    ys[1] = y1;
+    int v = 2;
+    for (double[] ring : rings) {
+      for (int i = 0; i < ring.length; i += 2) {
+        xs[v] = ring[i];
+        ys[v++] = ring[i + 1];
+      }
+    }
+
+    final double[] dist = new double[n];
+    final int[] parent = new int[n];
+    final boolean[] settled = new boolean[n];
+    Arrays.fill(dist, Double.POSITIVE_INFINITY);
+    dist[0] = 0.0;
+    while (true) {
+      int u = -1;
+      for (int i = 0; i < n; i++) {
+        if (!settled[i] && (u < 0 || dist[i] < dist[u])) {
+          u = i;
+        }
+      }
+      if (u < 0 || dist[u] == Double.POSITIVE_INFINITY) {
+        throw new IllegalStateException("No transit clear of the excluded areas");
+      }
+      if (u == 1) {
+        break;
+      }
+      settled[u] = true;
+      for (int i = 1; i < n; i++) {
+        final double d = dist[u] + Math.hypot(xs[i] - xs[u], ys[i] - ys[u]);
+        if (!settled[i] && d < dist[i] && isClear(xs[u], ys[u], xs[i], ys[i])) {
+          dist[i] = d;
+          parent[i] = u;
+        }
+      }
+    }
+
+    int turns = 0;
+    for (int i = 1; i != 0; i = parent[i]) {
+      turns++;
+    }
+    final double[] path = new double[2 * turns];
+    for (int i = 1, k = turns - 1; i != 0; i = parent[i], k--) {
+      path[2 * k] = xs[i];
+      path[2 * k + 1] = ys[i];
+    }
+    return path;
+  }
+
+  /**
+   * Check whether a straight line stays in the area. It may run along an edge
+   * or touch a vertex, but not cross into a hole or out of the boundary.
+   *
+   * @param x0
+   *          metres east of the origin of the start
+   * @param y0
+   *          metres north of the origin of the start
+   * @param x1
+   *          metres east of the origin of the end
+   * @param y1
+   *          metres north of the origin of the end
+   * @return true if the line stays in the area
+   */
+  private boolean isClear(final double x0, final double y0, final double x1,
+      final double y1) {
+    for (double[] ring : rings) {
+      final int n = ring.length / 2;
+      for (int i = 0, j = n - 1; i < n; j = i++) {
+        if (crosses(x0, y0, x1, y1, ring[2 * j], ring[2 * j + 1], ring[2 * i],
+            ring[2 * i + 1])) {
+          return false;
+        }
+      }
+    }
+    // A line through two vertices crosses no edge, so look along it too
+    for (int s = 1; s < 4; s++) {
+      final double x = x0 + (x1 - x0) * s / 4.0;
+      final double y = y0 + (y1 - y0) * s / 4.0;
+      if (!contains(x, y) && !isOnEdge(x, y)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Check whether a point is on an edge of the boundary or a hole.
+   *
+   * @param x
+   *          metres east of the origin
+   * @param y
+   *          metres north of the origin
+   * @return true if within EPSILON of an edge
+   */
+  private boolean isOnEdge(final double x, final double y) {
+    for (double[] ring : rings) {
+      final int n = ring.length / 2;
+      for (int i = 0, j = n - 1; i < n; j = i++) {
+        final double ex = ring[2 * i] - ring[2 * j];
+        final double ey = ring[2 * i + 1] - ring[2 * j + 1];
+        final double len2 = ex * ex + ey * ey;
+        final double t = len2 > 0.0 ? Math.min(Math.max(((x - ring[2 * j]) * ex
+            + (y - ring[2 * j + 1]) * ey) / len2, 0.0), 1.0) : 0.0;
+        if (Math.hypot(ring[2 * j] + t * ex - x, ring[2 * j + 1] + t * ey - y) < EPSILON) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Check whether two lines cross, each passing strictly between the ends of
+   * the other.
+   *
+   * @param ax
+   *          east of the start of the first line
+   * @param ay
+   *          north of the start of the first line
+   * @param bx
+   *          east of the end of the first line
+   * @param by
+   *          north of the end of the first line
+   * @param cx
+   *          east of the start of the second line
+   * @param cy
+   *          north of the start of the second line
+   * @param dx
+   *          east of the end of the second line
+   * @param dy
+   *          north of the end of the second line
+   * @return true if they cross
+   */
+  private static boolean crosses(final double ax, final double ay, final double bx,
+      final double by, final double cx, final double cy, final double dx, final double dy) {
+    return opposite(side(cx, cy, dx, dy, ax, ay), side(cx, cy, dx, dy, bx, by))
+        && opposite(side(ax, ay, bx, by, cx, cy), side(ax, ay, bx, by, dx, dy));
+  }
+
+  /**
+   * Check whether two distances from a line are clearly on opposite sides.
+   *
+   * @param d1
+   *          signed distance of one point
+   * @param d2
+   *          signed distance of the other
+   * @return true if they are more than EPSILON either side
+   */
+  private static boolean opposite(final double d1, final double d2) {
+    return d1 > EPSILON && d2 < -EPSILON || d1 < -EPSILON && d2 > EPSILON;
+  }
+
+  /**
+   * Signed distance of a point from a line.
+   *
+   * @param ax
+   *          east of the start of the line
+   * @param ay
+   *          north of the start of the line
+   * @param bx
+   *          east of the end of the line
+   * @param by
+   *          north of the end of the line
+   * @param px
+   *          east of the point
+   * @param py
+   *          north of the point
+   * @return metres, positive to the left of the line
+   */
+  private static double side(final double ax, final double ay, final double bx,
+      final double by, final double px, final double py) {
+    final double len = Math.hypot(bx - ax, by - ay);
+    return len > 0.0 ? ((bx - ax) * (py - ay) - (by - ay) * (px - ax)) / len : 0.0;
+  }
+
+  /**
+   * Test whether a point is in the area.
+   *
+   * @param x
+   *          metres east of the origin
+   * @param y
+   *          metres north of the origin
+   * @return true if inside the boundary and outside every hole
+   */
+  private boolean contains(final double x, final double y) {
+    boolean inside = false;
+    for (double[] ring : rings) {
+      final int n = ring.length / 2;
+      for (int i = 0, j = n - 1; i < n; j = i++) {
+        final double yi = ring[2 * i + 1];
+        final double yj = ring[2 * j + 1];
+        if ((yi > y) != (yj > y)
+            && x < ring[2 * j] + (y - yj) / (yi - yj) * (ring[2 * i] - ring[2 * j])) {
+          inside = !inside;
+        }
+      }
+    }
+    return inside;
+  }
+
+  /**
+   * Find the convex hull of a ring (monotone chain).
+   *
+   * @param ring
+   *          x, y pairs
+   * @return x, y pairs of the hull, anticlockwise
+   */
+  private static double[] convexHull(final double[] ring) {
+    final int n = ring.length / 2;
+    final Integer[] order = new Integer[n];
+    for (int i = 0; i < n; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, Comparator.comparingDouble((Integer i) -> ring[2 * i])
+        .thenComparingDouble(i -> ring[2 * i + 1]));
+
+    final int[] hull = new int[2 * n];
+    int size = 0;
+    for (int pass = 0; pass < 2; pass++) {
+      final int floor = size;
+      for (int k = 0; k < n; k++) {
+        final int p = order[pass == 0 ? k : n - 1 - k];
+        while (size >= floor + 2 && cross(ring, hull[size - 2], hull[size - 1], p) <= 0.0) {
+          size--;
+        }
+        hull[size++] = p;
+      }
+      // The last point starts the other chain
+      size--;
+    }
+    final double[] result = new double[2 * Math.max(size, 1)];
+    for (int i = 0; i < result.length / 2; i++) {
+      result[2 * i] = ring[2 * hull[i]];
+      result[2 * i + 1] = ring[2 * hull[i] + 1];
+    }
+    return result;
+  }
+
+  /**
+   * Cross product of the turn o to a to b.
+   *
+   * @param ring
+   *          x, y pairs
+   * @param o
+   *          index of the first point
+   * @param a
+   *          index of the second point
+   * @param b
+   *          index of the third point
+   * @return positive for an anticlockwise turn
+   */
+  private static double cross(final double[] ring, final int o, final int a, final int b) {
+    return (ring[2 * a] - ring[2 * o]) * (ring[2 * b + 1] - ring[2 * o + 1])
+        - (ring[2 * a + 1] - ring[2 * o + 1]) * (ring[2 * b] - ring[2 * o]);
+  }
+
+  /**
+   * Check whether every pass of a line has been run.
+   *
+   * @param done
+   *          the passes of the line
+   * @return true if all have been run
+   */
+  private static boolean allDone(final boolean[] done) {
+    for (boolean d : done) {
+      if (!d) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Twice the signed area of a ring.
+   *
+   * @param ring
+   *          x, y pairs
+   * @return the signed area in square metres
+   */
+  private static double shoelace(final double[] ring) {
+    final int n = ring.length / 2;
+    double sum = 0.0;
+    for (int i = 0, j = n - 1; i < n; j = i++) {
+      sum += ring[2 * j] * ring[2 * i + 1] - ring[2 * i] * ring[2 * j + 1];
+    }
+    return sum / 2.0;
+  }
+
+  /**
+   * Project vertices into metres about the origin.
+   *
+   * @param vertices
+   *          the vertices
+   * @return x, y pairs
+   */
+  private double[] project(final List<GpsCoordinates> vertices) {
+    final double[] ring = new double[2 * vertices.size()];
+    for (int i = 0; i < vertices.size(); i++) {
+      final double[] xy = project(vertices.get(i));
+      ring[2 * i] = xy[0];
+      ring[2 * i + 1] = xy[1];
+    }
+    return ring;
+  }
+
+  /**
+   * Project a location into metres about the origin.
+   *
+   * @param loc
+   *          the location
+   * @return metres east and north of the origin
+   */
+  private double[] project(final GpsCoordinates loc) {
+    double dlon = loc.getLongitude().degrees() - originLon;
+    if (dlon > 180.0) {
+      dlon -= 360.0;
+    } else if (dlon < -180.0) {
+      dlon += 360.0;
+    }
+    return new double[] { dlon * metresPerLon,
+        (loc.getLatitude().degrees() - originLat) * metresPerLat };
+  }
+
+  /**
+   * Convert metres about the origin to a location.
+   *
+   * @param x
+   *          metres east of the origin
+   * @param y
+   *          metres north of the origin
+   * @return the location
+   */
+  private GpsCoordinates toGps(final double x, final double y) {
+    return new GpsCoordinates(originLat + y / metresPerLat, originLon + x / metresPerLon);
+  }
+
+  /**
+   * The passes across the area at one bearing.
+   */
+  private final class Sweep {
+
+    /**
+     * Bearing of the passes in degrees.
+     */
+    private final double bearing;
+
+    /**
+     * East component of the along-pass direction.
+     */
+    private final double ux;
+
+    /**
+     * North component of the along-pass direction.
+     */
+    private final double uy;
+
+    /**
+     * East component of the across-pass direction.
+     */
+    private final double vx;
+
+    /**
+     * North component of the across-pass direction.
+     */
+    private final double vy;
+
+    /**
+     * Number of lines.
+     */
+    private int lines;
+
+    /**
+     * Across-pass position of each line.
+     */
+    private double[] offsets;
+
+    /**
+     * Along-pass start and end of each pass on each line.
+     */
+    private double[][] intervals;
+
+    /**
+     * Total number of passes.
+     */
+    private int passes;
+
+    /**
+     * Explicit constructor.
+     *
+     * @param degrees
+     *          bearing of the passes
+     */
+    Sweep(final double degrees) {
+      bearing = ((degrees % 180.0) + 180.0) % 180.0;
+      final double rad = Math.toRadians(bearing);
+      ux = Math.sin(rad);
+      uy = Math.cos(rad);
+      vx = uy;
+      vy = -ux;
+    }
+
+    /**
+     * Distance along the passes.
+     *
+     * @param x
+     *          metres east of the origin
+     * @param y
+     *          metres north of the origin
+     * @return metres
+     */
+    double along(final double x, final double y) {
+      return x * ux + y * uy;
+    }
+
+    /**
+     * Distance across the passes.
+     *
+     * @param x
+     *          metres east of the origin
+     * @param y
+     *          metres north of the origin
+     * @return metres
+     */
+    double across(final double x, final double y) {
+      return x * vx + y * vy;
+    }
+
+    /**
+     * Convert pass coordinates to a location.
+     *
+     * @param a
+     *          metres along the passes
+     * @param b
+     *          metres across the passes
+     * @return the location
+     */
+    GpsCoordinates toGps(final double a, final double b) {
+      return CoveragePlanner.this.toGps(a * ux + b * vx, a * uy + b * vy);
+    }
+  }
+
+  /**
+   * A planned coverage of (part of) the area.
+   */
+  public static final class Coverage {
+
+    /**
+     * The route.
+     */
+    private final Route route;
+
+    /**
+     * Bearing of the passes in degrees.
+     */
+    private final double bearing;
+
+    /**
+     * Number of passes.
+     */
+    private final int passes;
+
+    /**
+     * Metres run while surveying.
+     */
+    private final double sweptLength;
+
+    /**
+     * Metres run in total.
+     */
+    private final double trackLength;
+
+    /**
+     * Explicit constructor.
+     *
+     * @param rte
+     *          the route
+     * @param degrees
+     *          bearing of the passes
+     * @param count
+     *          number of passes
+     * @param swept
+     *          metres run while surveying
+     * @param track
+     *          metres run in total
+     */
+    Coverage(final Route rte, final double degrees, final int count, final double swept,
+        final double track) {
+      route = rte;
+      bearing = degrees;
+      passes = count;
+      sweptLength = swept;
+      trackLength = track;
+    }
+
+    /**
+     * Get the route.
+     *
+     * @return the route
+     */
+    public Route getRoute() {
+      return route;
+    }
+
+    /**
+     * Get the bearing of the passes.
+     *
+     * @return degrees, in [0, 180) for a boustrophedon; the starting bearing
+     *         for a spiral
+     */
+    public double getSweepBearing() {
+      return bearing;
+    }
+
+    /**
+     * Get the number of passes. Each pass after the first costs a turn.
+     *
+     * @return number of passes
+     */
+    public int getPasses() {
+      return passes;
+    }
+
+    /**
+     * Get the distance run while surveying.
+     *
+     * @return metres
+     */
+    public double getSweptLength() {
+      return sweptLength;
+    }
+
+    /**
+     * Get the distance run in total, including turns and transits.
+     *
+     * @return metres
+     */
+    public double getTrackLength() {
+      return trackLength;
+    }
+
+    /**
+     * Get the fraction of the track spent surveying.
+     *
+     * @return swept length over track length
+     */
+    public double getEfficiency() {
+      return trackLength > 0.0 ? sweptLength / trackLength : 0.0;
+    }
+  }
+}
@@ -46,7 +46,7 @@ public class GridSegment extends AbstractRouteSegmentImpl {
    */
   public GridSegment(final JSONObject obj) {
     super(obj);
-    spacing = ((Integer) obj.get("spacing")).intValue();
+    spacing = ((Number) obj.get("spacing")).intValue();
   }
 
   /**
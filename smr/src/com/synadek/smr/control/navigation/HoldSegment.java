@@ -39,7 +39,7 @@ public class HoldSegment extends AbstractRouteSegmentImpl {
    */
   public HoldSegment(final JSONObject obj) {
     super(obj);
-    holdTimeMillis = ((Long) obj.get("durationMillis")).longValue();
+    holdTimeMillis = ((Number) obj.get("durationMillis")).longValue();
   }
 
   /**
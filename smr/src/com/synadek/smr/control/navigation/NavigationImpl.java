@@ -0,0 +1,598 @@
+/**
+ * NavigationImpl.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.control.navigation;
+
+/**
+ * Track the vessel's progress along a compiled route, one GNSS fix at a time.
+ *
+ * <p>
+ * The vessel is always on a leg from one waypoint (or, for the first leg,
+ * from where it was when navigation began) to the next, its target. Each fix
+ * is projected onto the current leg on a local flat-earth grid to give the
+ * cross-track error and the progress along the leg. The target advances when
+ * the vessel comes within the arrival radius or passes abeam of it, after any
+ * hold time there has elapsed. Because the search resumes from the previous
+ * leg, a fix costs constant time however long the route, apart from the legs
+ * actually passed.
+ * </p>
+ *
+ * <p>
+ * Speed and course over ground are derived from successive fixes and lightly
+ * smoothed. Distances are in metres and speeds in m/s except where the
+ * Navigation interface calls for kilometres and km/h.
+ * </p>
+ */
+public class NavigationImpl implements Navigation {
+
+  /**
+   * Default distance from a waypoint at which it counts as reached, in metres.
+   */
+  private static final double DEFAULT_ARRIVAL_RADIUS = 10.0;
+
+  /**
+   * Time constant for smoothing speed and course, in seconds.
+   */
+  private static final double SMOOTHING_SECONDS = 2.0;
+
+  /**
+   * Metres per degree of latitude.
+   */
+  private static final double METRES_PER_DEGREE = Math.toRadians(CompiledRoute.EARTH_RADIUS);
+
+  /**
+   * Conversion from m/s to km/h.
+   */
+  private static final double MPS_TO_KPH = 3.6;
+
+  /**
+   * The route.
+   */
+  private final Route route;
+
+  /**
+   * The route expanded into waypoints.
+   */
+  private final CompiledRoute compiled;
+
+  /**
+   * Distance from a waypoint at which it counts as reached, in metres.
+   */
+  private double arrivalRadius = DEFAULT_ARRIVAL_RADIUS;
+
+  // Current leg, from the origin to the target waypoint
+  private int target;
+  private double originLat;
+  private double originLon;
+  private double legEast;
+  private double legNorth;
+  private double legLength;
+  private double metresPerLon;
+
+  // Hold at the target
+  private boolean holding;
+  private long holdStartNanos;
+
+  // Where to start, and hold time already served there, when resuming
+  private int resumeTarget;
+  private long resumeHeldMillis;
+
+  // Set when the last waypoint has been reached
+  private boolean complete;
+
+  // Latest fix
+  private boolean fixed;
+  private double fixLat;
+  private double fixLon;
+  private long fixNanos;
+
+  // Results for the latest fix
+  private double crossTrack;
+  private double alongTrack;
+  private double toWaypoint;
+  private double bearingToWaypoint;
+  private double speed;
+  private double course;
+
+  /**
+   * Advice for avoiding other vessels, or null to follow the route.
+   */
+  private TrafficPicture.Avoidance avoidance;
+
+  /**
+   * Explicit constructor.
+   *
+   * @param navRoute
+   *          the route to follow
+   */
+  public NavigationImpl(final Route navRoute) {
+    route = navRoute;
+    compiled = navRoute.getCompiledRoute();
+  }
+
+  /**
+   * Set the distance from a waypoint at which it counts as reached.
+   *
+   * @param metres
+   *          the arrival radius
+   */
+  public synchronized void setArrivalRadius(final double metres) {
+    arrivalRadius = metres;
+  }
+
+  /**
+   * Update the navigation state with a GNSS fix.
+   *
+   * @param lat
+   *          latitude in degrees
+   * @param lon
+   *          longitude in degrees
+   * @param nanos
+   *          when the fix was taken
+   */
+  public synchronized void onFix(final double lat, final double lon, final long nanos) {
+    updateMotion(lat, lon, nanos);
+    if (!fixed) {
+      fixed = true;
+      target = Math.min(resumeTarget, Math.max(compiled.size() - 1, 0));
+      setLeg(lat, lon);
+    }
+    fixLat = lat;
+    fixLon = lon;
+    fixNanos = nanos;
+
+    if (compiled.size() == 0) {
+      complete = true;
+      return;
+    }
+
+    // Advance past every waypoint reached since the last fix
+    while (true) {
+      measure();
+      if (complete) {
+        return;
+      }
+      final long hold = compiled.getHoldMillis(target);
+      if (holding) {
+        if ((nanos - holdStartNanos) / 1000000L < hold) {
+          return;
+        }
+        holding = false;
+      } else {
+        final boolean reached = toWaypoint <= arrivalRadius
+            || (legLength > 0.0 && alongTrack >= legLength);
+        if (!reached) {
+          return;
+        }
+        if (hold > 0L) {
+          holding = true;
+          holdStartNanos = nanos - resumeHeldMillis * 1000000L;
+          resumeHeldMillis = 0L;
+          if ((nanos - holdStartNanos) / 1000000L < hold) {
+            return;
+          }
+          holding = false;
+        }
+      }
+      if (target + 1 >= compiled.size()) {
+        complete = true;
+        return;
+      }
+      target++;
+      setLeg(compiled.getLatitude(target - 1), compiled.getLongitude(target - 1));
+    }
+  }
+
+  /**
+   * Resume navigation from the leg nearest a position, e.g. after the vessel
+   * has been blown off course. This examines every leg, so it costs time in
+   * proportion to the length of the route.
+   *
+   * @param lat
+   *          latitude in degrees
+   * @param lon
+   *          longitude in degrees
+   */
+  public synchronized void rejoin(final double lat, final double lon) {
+    final int size = compiled.size();
+    if (size == 0) {
+      return;
+    }
+    int best = 0;
+    double bestDistance = CompiledRoute.distance(lat, lon, compiled.getLatitude(0),
+        compiled.getLongitude(0));
+    for (int i = 1; i < size; i++) {
+      final double d = distanceToLeg(lat, lon, i);
+      if (d < bestDistance) {
+        bestDistance = d;
+        best = i;
+      }
+    }
+    target = best;
+    holding = false;
+    complete = false;
+    fixed = true;
+    if (best == 0) {
+      setLeg(lat, lon);
+    } else {
+      setLeg(compiled.getLatitude(best - 1), compiled.getLongitude(best - 1));
+    }
+  }
+
+  /**
+   * Resume the route part way through, e.g. after a restart. The first fix
+   * after this starts a leg from the vessel's position to the given waypoint.
+   *
+   * @param index
+   *          index of the waypoint to steer for
+   * @param heldMillis
+   *          time already spent holding at that waypoint
+   */
+  public synchronized void resume(final int index, final long heldMillis) {
+    resumeTarget = Math.max(index, 0);
+    resumeHeldMillis = Math.max(heldMillis, 0L);
+    target = Math.min(resumeTarget, Math.max(compiled.size() - 1, 0));
+    fixed = false;
+    holding = false;
+    complete = false;
+  }
+
+  /**
+   * Determine whether the vessel is holding at its target.
+   *
+   * @return true while a hold is being served
+   */
+  public synchronized boolean isHolding() {
+    return holding;
+  }
+
+  /**
+   * Get how long the vessel has held at its target, as of the latest fix.
+   *
+   * @return milliseconds, zero if not holding
+   */
+  public synchronized long getHoldElapsedMillis() {
+    return holding ? (fixNanos - holdStartNanos) / 1000000L : 0L;
+  }
+
+  /**
+   * Get the route expanded into waypoints.
+   *
+   * @return the compiled route
+   */
+  public CompiledRoute getCompiledRoute() {
+    return compiled;
+  }
+
+  /**
+   * Get the index of the waypoint being steered for.
+   *
+   * @return index within the compiled route
+   */
+  public synchronized int getTargetIndex() {
+    return target;
+  }
+
+  /**
+   * Get the cross-track error.
+   *
+   * @return metres from the leg, positive to starboard of it
+   */
+  public synchronized double getCrossTrackError() {
+    return crossTrack;
+  }
+
+  /**
+   * Get the progress along the current leg.
+   *
+   * @return metres from the start of the leg, measured along it
+   */
+  public synchronized double getAlongTrack() {
+    return alongTrack;
+  }
+
+  /**
+   * Get the distance to the waypoint being steered for.
+   *
+   * @return metres
+   */
+  public synchronized double getDistanceToWaypoint() {
+    return toWaypoint;
+  }
+
+  /**
+   * Get the distance to the end of the route along the planned track.
+   *
+   * @return metres
+   */
+  public synchronized double getDistanceToDestination() {
+    if (compiled.size() == 0) {
+      return 0.0;
+    }
+    return toWaypoint + compiled.getTotalDistance() - compiled.getDistance(target);
+  }
+
+  /**
+   * Get the bearing of the current leg, the course the vessel should make
+   * good.
+   *
+   * @return degrees true, 0 to 360
+   */
+  public synchronized double getTrackBearing() {
+    return bearing(legEast, legNorth);
+  }
+
+  /**
+   * Get the bearing to the waypoint being steered for.
+   *
+   * @return degrees true, 0 to 360
+   */
+  public synchronized double getBearingToWaypoint() {
+    return bearingToWaypoint;
+  }
+
+  /**
+   * Set the advice for avoiding other vessels.
+   *
+   * @param advice
+   *          the advice, or null to follow the route
+   */
+  public synchronized void setAvoidance(final TrafficPicture.Avoidance advice) {
+    avoidance = advice;
+  }
+
+  /**
+   * Get the advice for avoiding other vessels.
+   *
+   * @return the advice, or null when following the route
+   */
+  public synchronized TrafficPicture.Avoidance getAvoidance() {
+    return avoidance;
+  }
+
+  /**
+   * Get the course to steer: the bearing to the waypoint unless another
+   * vessel must be avoided by altering course.
+   *
+   * @return degrees true, 0 to 360
+   */
+  public synchronized double getSteeringBearing() {
+    if (avoidance != null && avoidance.getManeuver() == TrafficPicture.Maneuver.AlterCourse) {
+      return avoidance.getCourse();
+    }
+    return bearingToWaypoint;
+  }
+
+  /**
+   * Get the speed over ground.
+   *
+   * @return m/s
+   */
+  public synchronized double getSpeedOverGround() {
+    return speed;
+  }
+
+  /**
+   * Get the course over ground.
+   *
+   * @return degrees true, 0 to 360
+   */
+  public synchronized double getCourseOverGround() {
+    return course;
+  }
+
+  /**
+   * Get the speed made good toward the waypoint being steered for.
+   *
+   * @return m/s, negative when moving away
+   */
+  public synchronized double getVelocityMadeGood() {
+    return speed * Math.cos(Math.toRadians(course - bearingToWaypoint));
+  }
+
+  /**
+   * Get the action to be taken at the waypoint being steered for.
+   *
+   * @return holdAt while holding at a waypoint or after the last one, else
+   *         proceedTo
+   */
+  public synchronized RoutingAction getAction() {
+    return holding || complete ? RoutingAction.holdAt : RoutingAction.proceedTo;
+  }
+
+  /**
+   * Determine whether the last waypoint has been reached.
+   *
+   * @return true if the route is complete
+   */
+  public synchronized boolean isComplete() {
+    return complete;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.smr.control.navigation.Navigation#getRoute()
+   */
+  @Override
+  public Route getRoute() {
+    return route;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.smr.control.navigation.Navigation#getSog()
+   */
+  @Override
+  public float getSog() {
+    return (float) (getSpeedOverGround() * MPS_TO_KPH);
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.smr.control.navigation.Navigation#getVmg()
+   */
+  @Override
+  public float getVmg() {
+    return (float) (getVelocityMadeGood() * MPS_TO_KPH);
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.smr.control.navigation.Navigation#getDtD()
+   */
+  @Override
+  public float getDtD() {
+    return (float) (getDistanceToDestination() / 1000.0);
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.smr.control.navigation.Navigation#getDtW()
+   */
+  @Override
+  public float getDtW() {
+    return (float) (getDistanceToWaypoint() / 1000.0);
+  }
+
+  /**
+   * Start a new leg toward the target waypoint.
+   *
+   * @param lat
+   *          latitude of the start of the leg in degrees
+   * @param lon
+   *          longitude of the start of the leg in degrees
+   */
+  private void setLeg(final double lat, final double lon) {
+    originLat = lat;
+    originLon = lon;
+    metresPerLon = METRES_PER_DEGREE * Math.cos(Math.toRadians(lat));
+    if (compiled.size() == 0) {
+      legEast = 0.0;
+      legNorth = 0.0;
+      legLength = 0.0;
+      return;
+    }
+    legEast = east(compiled.getLongitude(target));
+    legNorth = (compiled.getLatitude(target) - originLat) * METRES_PER_DEGREE;
+    legLength = Math.hypot(legEast, legNorth);
+  }
+
+  /**
+   * Measure the latest fix against the current leg.
+   */
+  private void measure() {
+    final double east = east(fixLon);
+    final double north = (fixLat - originLat) * METRES_PER_DEGREE;
+    if (legLength > 0.0) {
+      final double ue = legEast / legLength;
+      final double un = legNorth / legLength;
+      alongTrack = east * ue + north * un;
+      crossTrack = east * un - north * ue;
+    } else {
+      alongTrack = 0.0;
+      crossTrack = 0.0;
+    }
+
+    final double lat = compiled.getLatitude(target);
+    final double lon = compiled.getLongitude(target);
+    toWaypoint = CompiledRoute.distance(fixLat, fixLon, lat, lon);
+    bearingToWaypoint = bearing((lon - fixLon) * METRES_PER_DEGREE
+        * Math.cos(Math.toRadians(fixLat)), (lat - fixLat) * METRES_PER_DEGREE);
+  }
+
+  /**
+   * Update speed and course over ground from a new fix.
+   *
+   * @param lat
+   *          latitude in degrees
+   * @param lon
+   *          longitude in degrees
+   * @param nanos
+   *          when the fix was taken
+   */
+  private void updateMotion(final double lat, final double lon, final long nanos) {
+    if (!fixed) {
+      return;
+    }
+    final double dt = (nanos - fixNanos) / 1.0e9;
+    if (dt <= 0.0) {
+      return;
+    }
+    final double east = (lon - fixLon) * METRES_PER_DEGREE * Math.cos(Math.toRadians(lat));
+    final double north = (lat - fixLat) * METRES_PER_DEGREE;
+    final double alpha = dt / (SMOOTHING_SECONDS + dt);
+
+    // Smooth the velocity vector, not speed and course, so course wraps cleanly
+    final double ve = speed * Math.sin(Math.toRadians(course));
+    final double vn = speed * Math.cos(Math.toRadians(course));
+    final double se = ve + alpha * (east / dt - ve);
+    final double sn = vn + alpha * (north / dt - vn);
+    speed = Math.hypot(se, sn);
+    course = bearing(se, sn);
+  }
+
+  /**
+   * Distance from a position to a leg of the compiled route.
+   *
+   * @param lat
+   *          latitude in degrees
+   * @param lon
+   *          longitude in degrees
+   * @param idx
+   *          index of the waypoint at the end of the leg
+   * @return metres
+   */
+  private double distanceToLeg(final double lat, final double lon, final int idx) {
+    final double lat0 = compiled.getLatitude(idx - 1);
+    final double lon0 = compiled.getLongitude(idx - 1);
+    final double scale = METRES_PER_DEGREE * Math.cos(Math.toRadians(lat0));
+    final double ex = (compiled.getLongitude(idx) - lon0) * scale;
+    final double ey = (compiled.getLatitude(idx) - lat0) * METRES_PER_DEGREE;
+    final double px = (lon - lon0) * scale;
+    final double py = (lat - lat0) * METRES_PER_DEGREE;
+    final double len2 = ex * ex + ey * ey;
+    final double t = len2 > 0.0 ? Math.min(Math.max((px * ex + py * ey) / len2, 0.0), 1.0)
+        : 0.0;
+    return Math.hypot(px - t * ex, py - t * ey);
+  }
+
+  /**
+   * Metres east of the start of the leg of a longitude.
+   *
+   * @param lon
+   *          longitude in degrees
+   * @return metres
+   */
+  private double east(final double lon) {
+    double dlon = lon - originLon;
+    if (dlon > 180.0) {
+      dlon -= 360.0;
+    } else if (dlon < -180.0) {
+      dlon += 360.0;
+    }
+    return dlon * metresPerLon;
+  }
+
+  /**
+   * Bearing of a vector.
+   *
+   * @param east
+   *          east component
+   * @param north
+   *          north component
+   * @return degrees true, 0 to 360
+   */
+  private static double bearing(final double east, final double north) {
+    final double deg = Math.toDegrees(Math.atan2(east, north));
+    return deg < 0.0 ? deg + 360.0 : deg;
+  }
+}
@@ -40,6 +40,14 @@ public interface Route {
    */
   List<RouteSegment> getRoute();
 
+  /**
+   * Get the route expanded into waypoints. The expansion is made when first
+   * needed and kept until a segment is added.
+   *
+   * @return the compiled route
+   */
+  CompiledRoute getCompiledRoute();
+
   /**
    * Get the route myRoute as a JSON object.
    *
@@ -0,0 +1,908 @@
+/**
+ * RouteCodec.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.control.navigation;
+
+import com.synadek.core.GpsCoordinates;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.ContentHandler;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+/**
+ * Reads and writes routes without building a JSON object tree for the whole
+ * route.
+ *
+ * <p>
+ * The binary format is for the satellite link. Layout: MAGIC and VERSION
+ * (big-endian), then one record per segment, a kind byte followed by its
+ * start and end locations and the segment's own fields, then a kind of zero,
+ * the number of segments and a CRC-32 of everything before it. Locations are
+ * stored in units of 1e-7 degree (about a centimetre) and elevations in
+ * centimetres, each as the difference from the location before, zigzag
+ * encoded into a variable number of bytes. A move from where the last segment
+ * ended therefore costs a few bytes where the JSON costs a few hundred.
+ * </p>
+ *
+ * <p>
+ * The streaming JSON form is the one RouteImpl parses: an object whose
+ * "steps" array holds a type and contents for each segment. The writer emits
+ * it segment by segment; the reader builds one small object per segment and
+ * hands the segment on, so a route can be read in constant memory. Bare
+ * segments, as written by RouteImpl.toJson, are also accepted.
+ * </p>
+ */
+public final class RouteCodec {
+
+  /**
+   * Identifies a binary route ("SMRR").
+   */
+  static final int MAGIC = 0x534D5252;
+
+  /**
+   * Version of the binary layout.
+   */
+  static final short VERSION = 1;
+
+  /**
+   * Record kind marking the end of the segments.
+   */
+  private static final int KIND_END = 0;
+
+  /**
+   * Record kind for a grid segment.
+   */
+  private static final int KIND_GRID = 1;
+
+  /**
+   * Record kind for a hold segment.
+   */
+  private static final int KIND_HOLD = 2;
+
+  /**
+   * Record kind for a move segment.
+   */
+  private static final int KIND_MOVE = 3;
+
+  /**
+   * Record kind for a spiral segment.
+   */
+  private static final int KIND_SPIRAL = 4;
+
+  /**
+   * Record kind for a segment that could not be parsed.
+   */
+  private static final int KIND_NONE = 5;
+
+  /**
+   * Stored units per degree of latitude or longitude.
+   */
+  private static final double UNITS_PER_DEGREE = 1.0e7;
+
+  /**
+   * Stored units per metre of elevation.
+   */
+  private static final double UNITS_PER_METRE = 100.0;
+
+  /**
+   * All methods are static so there is no need to expose a constructor.
+   */
+  private RouteCodec() {
+
+  }
+
+  /**
+   * Write a route in the binary format.
+   *
+   * @param route
+   *          the route
+   * @param out
+   *          the stream, left open
+   * @throws IOException
+   *           if the stream cannot be written
+   */
+  public static void writeBinary(final Route route, final OutputStream out) throws IOException {
+    final BinaryWriter writer = new BinaryWriter(new BufferedOutputStream(out));
+    writer.writeInt(MAGIC);
+    writer.writeShort(VERSION);
+    int count = 0;
+    for (RouteSegment segment : route.getRoute()) {
+      writer.writeSegment(segment);
+      count++;
+    }
+    writer.writeVarLong(KIND_END);
+    writer.writeVarLong(count);
+    writer.writeChecksum();
+    writer.out.flush();
+  }
+
+  /**
+   * Read a route in the binary format.
+   *
+   * @param in
+   *          the stream, positioned at the start of the route; reading is a
+   *          byte at a time, so a buffered stream is best
+   * @return the route
+   * @throws IOException
+   *           if the stream cannot be read or does not hold a valid route
+   */
+  public static RouteImpl readBinary(final InputStream in) throws IOException {
+    final RouteImpl route = new RouteImpl();
+    readBinary(in, route.myRoute::add);
+    return route;
+  }
+
+  /**
+   * Read a route in the binary format, segment by segment.
+   *
+   * @param in
+   *          the stream, positioned at the start of the route; reading is a
+   *          byte at a time, so a buffered stream is best
+   * @param sink
+   *          receives each segment as it is read (null if a segment was not
+   *          recognized when the route was written)
+   * @return the number of segments read
+   * @throws IOException
+   *           if the stream cannot be read or does not hold a valid route
+   */
+  public static int readBinary(final InputStream in, final Consumer<RouteSegment> sink)
+      throws IOException {
+    final BinaryReader reader = new BinaryReader(in);
+    if (reader.readInt() != MAGIC) {
+      throw new IOException("Not a binary route");
+    }
+    final int version = reader.readShort();
+    if (version != VERSION) {
+      throw new IOException("Unsupported binary route version " + version);
+    }
+    int count = 0;
+    while (true) {
+      final int kind = (int) reader.readVarLong();
+      if (kind == KIND_END) {
+        break;
+      }
+      sink.accept(reader.readSegment(kind));
+      count++;
+    }
+    final long expected = reader.readVarLong();
+    final long checksum = reader.crc.getValue();
+    if (expected != count || (reader.readInt() & 0xFFFFFFFFL) != checksum) {
+      throw new IOException("Binary route is corrupt");
+    }
+    return count;
+  }
+
+  /**
+   * Write a route as JSON without building a JSON object tree.
+   *
+   * @param route
+   *          the route
+   * @param out
+   *          the writer, left open
+   * @throws IOException
+   *           if the writer fails
+   */
+  public static void writeJson(final Route route, final Writer out) throws IOException {
+    out.write("{\"steps\":[");
+    boolean first = true;
+    for (RouteSegment segment : route.getRoute()) {
+      if (!first) {
+        out.write(',');
+      }
+      first = false;
+      if (segment == null) {
+        out.write("{\"type\":\"none\"}");
+        continue;
+      }
+
+      final String type;
+      switch (segment.getType()) {
+        case GRID_SEGMENT:
+          type = "grid";
+          break;
+        case HOLD_SEGMENT:
+          type = "hold";
+          break;
+        case SPIRAL_SEGMENT:
+          type = "spiral";
+          break;
+        default:
+          type = "move";
+          break;
+      }
+      out.write("{\"type\":\"");
+      out.write(type);
+      out.write("\",\"contents\":{\"type\":\"");
+      out.write(segment.getType().toString());
+      out.write("\",\"startLocation\":");
+      writeLocation(segment.getStartLocation(), out);
+      out.write(",\"endLocation\":");
+      writeLocation(segment.getDestination(), out);
+      if (segment instanceof GridSegment) {
+        writeField("spacing", ((GridSegment) segment).getSpacing(), out);
+      } else if (segment instanceof HoldSegment) {
+        writeField("durationMillis", ((HoldSegment) segment).getHoldTimeMillis(), out);
+      } else if (segment instanceof SpiralSegment) {
+        final SpiralSegment spiral = (SpiralSegment) segment;
+        writeField("spacing", spiral.getSpacing(), out);
+        writeField("degrees", spiral.getDegrees(), out);
+        writeField("bearing", spiral.getBearing(), out);
+      }
+      out.write("}}");
+    }
+    out.write("]}");
+    out.flush();
+  }
+
+  /**
+   * Read a route from JSON without building a JSON object tree for the whole
+   * route.
+   *
+   * @param in
+   *          the reader
+   * @return the route
+   * @throws IOException
+   *           if the reader fails or does not hold a valid route
+   */
+  public static RouteImpl readJson(final Reader in) throws IOException {
+    final RouteImpl route = new RouteImpl();
+    readJson(in, route.myRoute::add);
+    return route;
+  }
+
+  /**
+   * Read a route from JSON, segment by segment.
+   *
+   * @param in
+   *          the reader
+   * @param sink
+   *          receives each segment as it is read (null if its type is not
+   *          recognized)
+   * @return the number of segments read
+   * @throws IOException
+   *           if the reader fails or does not hold a valid route
+   */
+  public static int readJson(final Reader in, final Consumer<RouteSegment> sink)
+      throws IOException {
+    final StepHandler handler = new StepHandler(sink);
+    try {
+      new JSONParser().parse(in, handler);
+    } catch (ParseException | ClassCastException | IllegalArgumentException
+        | NullPointerException err) {
+      throw new IOException("Invalid JSON route: " + err, err);
+    }
+    return handler.count;
+  }
+
+  /**
+   * Write a location as JSON.
+   *
+   * @param loc
+   *          the location
+   * @param out
+   *          the writer
+   * @throws IOException
+   *           if the writer fails
+   */
+  private static void writeLocation(final GpsCoordinates loc, final Writer out)
+      throws IOException {
+    out.write("{\"");
+    out.write(GpsCoordinates.JSON_KEY_LATITUDE);
+    out.write("\":");
+    out.write(Double.toString(loc.getLatitude().degrees()));
+    out.write(",\"");
+    out.write(GpsCoordinates.JSON_KEY_LONGITUDE);
+    out.write("\":");
+    out.write(Double.toString(loc.getLongitude().degrees()));
+    out.write(",\"");
+    out.write(GpsCoordinates.JSON_KEY_ELEVATION);
+    out.write("\":");
+    out.write(Double.toString(loc.getElevation()));
+    out.write('}');
+  }
+
+  /**
+   * Write a numeric field as JSON, preceded by a comma.
+   *
+   * @param key
+   *          the field name
+   * @param value
+   *          the value
+   * @param out
+   *          the writer
+   * @throws IOException
+   *           if the writer fails
+   */
+  private static void writeField(final String key, final long value, final Writer out)
+      throws IOException {
+    out.write(",\"");
+    out.write(key);
+    out.write("\":");
+    out.write(Long.toString(value));
+  }
+
+  /**
+   * Writes the binary format, keeping a running checksum.
+   */
+  private static final class BinaryWriter {
+
+    /**
+     * The stream.
+     */
+    private final OutputStream out;
+
+    /**
+     * Checksum of the bytes written.
+     */
+    private final CRC32 crc = new CRC32();
+
+    /**
+     * Last latitude written, in stored units.
+     */
+    private long lastLat;
+
+    /**
+     * Last longitude written, in stored units.
+     */
+    private long lastLon;
+
+    /**
+     * Last elevation written, in stored units.
+     */
+    private long lastElev;
+
+    /**
+     * Explicit constructor.
+     *
+     * @param stream
+     *          the stream
+     */
+    BinaryWriter(final OutputStream stream) {
+      out = stream;
+    }
+
+    /**
+     * Write a segment record.
+     *
+     * @param segment
+     *          the segment, or null
+     * @throws IOException
+     *           if the stream cannot be written
+     */
+    void writeSegment(final RouteSegment segment) throws IOException {
+      if (segment == null) {
+        writeVarLong(KIND_NONE);
+        return;
+      }
+      switch (segment.getType()) {
+        case GRID_SEGMENT:
+          writeVarLong(KIND_GRID);
+          break;
+        case HOLD_SEGMENT:
+          writeVarLong(KIND_HOLD);
+          break;
+        case SPIRAL_SEGMENT:
+          writeVarLong(KIND_SPIRAL);
+          break;
+        default:
+          writeVarLong(KIND_MOVE);
+          break;
+      }
+      writeLocation(segment.getStartLocation());
+      writeLocation(segment.getDestination());
+      if (segment instanceof GridSegment) {
+        writeVarLong(zigzag(((GridSegment) segment).getSpacing()));
+      } else if (segment instanceof HoldSegment) {
+        writeVarLong(zigzag(((HoldSegment) segment).getHoldTimeMillis()));
+      } else if (segment instanceof SpiralSegment) {
+        final SpiralSegment spiral = (SpiralSegment) segment;
+        writeVarLong(zigzag(spiral.getSpacing()));
+        writeVarLong(zigzag(spiral.getDegrees()));
+        writeVarLong(zigzag(spiral.getBearing()));
+      }
+    }
+
+    /**
+     * Write a location as the difference from the last one.
+     *
+     * @param loc
+     *          the location
+     * @throws IOException
+     *           if the stream cannot be written
+     */
+    void writeLocation(final GpsCoordinates loc) throws IOException {
+      final long lat = Math.round(loc.getLatitude().degrees() * UNITS_PER_DEGREE);
+      final long lon = Math.round(loc.getLongitude().degrees() * UNITS_PER_DEGREE);
+      final long elev = Math.round(loc.getElevation() * UNITS_PER_METRE);
+      writeVarLong(zigzag(lat - lastLat));
+      writeVarLong(zigzag(lon - lastLon));
+      writeVarLong(zigzag(elev - lastElev));
+      lastLat = lat;
+      lastLon = lon;
+      lastElev = elev;
+    }
+
+    /**
+     * Write an unsigned value seven bits at a time, low bits first.
+     *
+     * @param value
+     *          the value
+     * @throws IOException
+     *           if the stream cannot be written
+     */
+    void writeVarLong(final long value) throws IOException {
+      long rest = value;
+      while ((rest & ~0x7FL) != 0L) {
+        write((int) (rest & 0x7F) | 0x80);
+        rest >>>= 7;
+      }
+      write((int) rest);
+    }
+
+    /**
+     * Write a big-endian int.
+     *
+     * @param value
+     *          the value
+     * @throws IOException
+     *           if the stream cannot be written
+     */
+    void writeInt(final int value) throws IOException {
+      writeShort((short) (value >>> 16));
+      writeShort((short) value);
+    }
+
+    /**
+     * Write a big-endian short.
+     *
+     * @param value
+     *          the value
+     * @throws IOException
+     *           if the stream cannot be written
+     */
+    void writeShort(final short value) throws IOException {
+      write((value >>> 8) & 0xFF);
+      write(value & 0xFF);
+    }
+
+    /**
+     * Write the checksum of everything written so far.
+     *
+     * @throws IOException
+     *           if the stream cannot be written
+     */
+    void writeChecksum() throws IOException {
+      writeInt((int) crc.getValue());
+    }
+
+    /**
+     * Write a byte.
+     *
+     * @param value
+     *          the byte
+     * @throws IOException
+     *           if the stream cannot be written
+     */
+    private void write(final int value) throws IOException {
+      out.write(value);
+      crc.update(value);
+    }
+
+    /**
+     * Map signed values to unsigned so small magnitudes encode short.
+     *
+     * @param value
+     *          the value
+     * @return the zigzag encoding
+     */
+    private static long zigzag(final long value) {
+      return (value << 1) ^ (value >> 63);
+    }
+  }
+
+  /**
+   * Reads the binary format, keeping a running checksum.
+   */
+  private static final class BinaryReader {
+
+    /**
+     * The stream.
+     */
+    private final InputStream in;
+
+    /**
+     * Checksum of the bytes read.
+     */
+    private final CRC32 crc = new CRC32();
+
+    /**
+     * Last latitude read, in stored units.
+     */
+    private long lastLat;
+
+    /**
+     * Last longitude read, in stored units.
+     */
+    private long lastLon;
+
+    /**
+     * Last elevation read, in stored units.
+     */
+    private long lastElev;
+
+    /**
+     * Explicit constructor.
+     *
+     * @param stream
+     *          the stream
+     */
+    BinaryReader(final InputStream stream) {
+      in = stream;
+    }
+
+    /**
+     * Read a segment record.
+     *
+     * @param kind
+     *          the record kind, already read
+     * @return the segment, or null for KIND_NONE
+     * @throws IOException
+     *           if the stream cannot be read or the kind is unknown
+     */
+    RouteSegment readSegment(final int kind) throws IOException {
+      if (kind == KIND_NONE) {
+        return null;
+      }
+      final GpsCoordinates start = readLocation();
+      final GpsCoordinates end = readLocation();
+      final AbstractRouteSegmentImpl segment;
+      switch (kind) {
+        case KIND_GRID:
+          segment = new GridSegment(start, (int) unzigzag(readVarLong()), end);
+          break;
+        case KIND_HOLD:
+          segment = new HoldSegment(start, unzigzag(readVarLong()));
+          break;
+        case KIND_MOVE:
+          segment = new MoveSegment(start, end);
+          break;
+        case KIND_SPIRAL:
+          final int spacing = (int) unzigzag(readVarLong());
+          final int degrees = (int) unzigzag(readVarLong());
+          final int bearing = (int) unzigzag(readVarLong());
+          segment = new SpiralSegment(start, bearing, spacing, degrees);
+          break;
+        default:
+          throw new IOException("Unknown route segment kind " + kind);
+      }
+      // Keep the destination as written rather than as recomputed
+      segment.setDestination(end);
+      return segment;
+    }
+
+    /**
+     * Read a location stored as the difference from the last one.
+     *
+     * @return the location
+     * @throws IOException
+     *           if the stream cannot be read
+     */
+    GpsCoordinates readLocation() throws IOException {
+      lastLat += unzigzag(readVarLong());
+      lastLon += unzigzag(readVarLong());
+      lastElev += unzigzag(readVarLong());
+      return new GpsCoordinates(lastLat / UNITS_PER_DEGREE, lastLon / UNITS_PER_DEGREE,
+          lastElev / UNITS_PER_METRE);
+    }
+
+    /**
+     * Read an unsigned value written seven bits at a time.
+     *
+     * @return the value
+     * @throws IOException
+     *           if the stream cannot be read or the value is too long
+     */
+    long readVarLong() throws IOException {
+      long value = 0L;
+      for (int shift = 0; shift < Long.SIZE; shift += 7) {
+        final int b = read();
+        value |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return value;
+        }
+      }
+      throw new IOException("Binary route value too long");
+    }
+
+    /**
+     * Read a big-endian int.
+     *
+     * @return the value
+     * @throws IOException
+     *           if the stream cannot be read
+     */
+    int readInt() throws IOException {
+      return (readShort() << 16) | (readShort() & 0xFFFF);
+    }
+
+    /**
+     * Read a big-endian short.
+     *
+     * @return the value
+     * @throws IOException
+     *           if the stream cannot be read
+     */
+    int readShort() throws IOException {
+      return (short) ((read() << 8) | read());
+    }
+
+    /**
+     * Read a byte, adding it to the checksum.
+     *
+     * @return the byte
+     * @throws IOException
+     *           if the stream cannot be read
+     */
+    private int read() throws IOException {
+      final int b = in.read();
+      if (b < 0) {
+        throw new EOFException("Binary route is truncated");
+      }
+      crc.update(b);
+      return b;
+    }
+
+    /**
+     * Reverse the zigzag encoding.
+     *
+     * @param value
+     *          the zigzag encoding
+     * @return the signed value
+     */
+    private static long unzigzag(final long value) {
+      return (value >>> 1) ^ -(value & 1L);
+    }
+  }
+
+  /**
+   * Builds one step of a route at a time from parser events.
+   */
+  private static final class StepHandler implements ContentHandler {
+
+    /**
+     * Receives each segment.
+     */
+    private final Consumer<RouteSegment> sink;
+
+    /**
+     * Containers of the step being built, innermost first.
+     */
+    private final Deque<Object> stack = new ArrayDeque<>();
+
+    /**
+     * Number of containers open.
+     */
+    private int depth;
+
+    /**
+     * Depth of the steps array while inside it, otherwise zero.
+     */
+    private int stepsDepth;
+
+    /**
+     * Key of the entry being read.
+     */
+    private String key;
+
+    /**
+     * Key of the entry of the outermost object being read.
+     */
+    private String rootKey;
+
+    /**
+     * Number of segments read.
+     */
+    private int count;
+
+    /**
+     * Explicit constructor.
+     *
+     * @param consumer
+     *          receives each segment
+     */
+    StepHandler(final Consumer<RouteSegment> consumer) {
+      sink = consumer;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.json.simple.parser.ContentHandler#startJSON()
+     */
+    @Override
+    public void startJSON() {
+      depth = 0;
+      stepsDepth = 0;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.json.simple.parser.ContentHandler#endJSON()
+     */
+    @Override
+    public void endJSON() {
+      // Nothing to finish
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.json.simple.parser.ContentHandler#startObject()
+     */
+    @Override
+    public boolean startObject() {
+      depth++;
+      if (!stack.isEmpty() || (stepsDepth > 0 && depth == stepsDepth + 1)) {
+        push(new JSONObject());
+      }
+      return true;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.json.simple.parser.ContentHandler#endObject()
+     */
+    @Override
+    public boolean endObject() {
+      depth--;
+      if (!stack.isEmpty()) {
+        final JSONObject obj = (JSONObject) stack.pop();
+        if (stack.isEmpty()) {
+          sink.accept(toSegment(obj));
+          count++;
+        }
+      }
+      return true;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.json.simple.parser.ContentHandler#startObjectEntry(java.lang.String)
+     */
+    @Override
+    public boolean startObjectEntry(final String entry) {
+      key = entry;
+      if (depth == 1) {
+        rootKey = entry;
+      }
+      return true;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.json.simple.parser.ContentHandler#endObjectEntry()
+     */
+    @Override
+    public boolean endObjectEntry() {
+      return true;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.json.simple.parser.ContentHandler#startArray()
+     */
+    @Override
+    public boolean startArray() {
+      depth++;
+      if (!stack.isEmpty()) {
+        push(new JSONArray());
+      } else if (depth == 2 && "steps".equals(rootKey)) {
+        stepsDepth = depth;
+      }
+      return true;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.json.simple.parser.ContentHandler#endArray()
+     */
+    @Override
+    public boolean endArray() {
+      if (!stack.isEmpty()) {
+        stack.pop();
+      } else if (depth == stepsDepth) {
+        stepsDepth = 0;
+      }
+      depth--;
+      return true;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.json.simple.parser.ContentHandler#primitive(java.lang.Object)
+     */
+    @Override
+    public boolean primitive(final Object value) {
+      if (!stack.isEmpty()) {
+        add(value);
+      }
+      return true;
+    }
+
+    /**
+     * Add a container to the step and make it current.
+     *
+     * @param container
+     *          the container
+     */
+    private void push(final Object container) {
+      if (!stack.isEmpty()) {
+        add(container);
+      }
+      stack.push(container);
+    }
+
+    /**
+     * Add a value to the current container.
+     *
+     * @param value
+     *          the value
+     */
+    @SuppressWarnings("unchecked")
+    private void add(final Object value) {
+      final Object parent = stack.peek();
+      if (parent instanceof JSONObject) {
+        ((JSONObject) parent).put(key, value);
+      } else {
+        ((JSONArray) parent).add(value);
+      }
+    }
+
+    /**
+     * Make a segment of a step.
+     *
+     * @param step
+     *          the step, either a type and contents or a bare segment
+     * @return the segment, or null if its type is not recognized
+     */
+    private static RouteSegment toSegment(final JSONObject step) {
+      if (step.get("contents") != null) {
+        return RouteImpl.parseStep(step);
+      }
+      final Object type = step.get("type");
+      if (RouteSegment.SegmentType.GRID_SEGMENT.toString().equals(type)) {
+        return new GridSegment(step);
+      } else if (RouteSegment.SegmentType.HOLD_SEGMENT.toString().equals(type)) {
+        return new HoldSegment(step);
+      } else if (RouteSegment.SegmentType.MOVE_SEGMENT.toString().equals(type)) {
+        return new MoveSegment(step);
+      } else if (RouteSegment.SegmentType.SPIRAL_SEGMENT.toString().equals(type)) {
+        return new SpiralSegment(step);
+      }
+      return null;
+    }
+  }
+}
@@ -0,0 +1,364 @@
+/**
+ * RouteCompiler.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.control.navigation;
+
+import com.synadek.core.GpsCoordinates;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Expands the segments of a route into the waypoints the vessel actually
+ * steers between.
+ *
+ * <p>
+ * A move is its start and destination. A hold is one waypoint with a hold
+ * time. A grid becomes a lawnmower pattern of east-west strips, at most one
+ * spacing apart, from the start corner to the opposite corner. A spiral
+ * becomes an Archimedean spiral outward from its start, one spacing between
+ * loops, with waypoints about an eighth of a spacing apart. Segments are
+ * expanded in parallel, then joined, dropping the start of each segment where
+ * it repeats the end of the one before.
+ * </p>
+ *
+ * <p>
+ * A segment without a start location starts where the one before it ends.
+ * That is the destination of a move, but a grid with an even number of strips
+ * ends on the side it started from and a spiral ends on its last loop, so a
+ * grid or spiral followed by such a segment is expanded first and its last
+ * waypoint used.
+ * </p>
+ */
+public final class RouteCompiler {
+
+  /**
+   * Points closer than this (metres) are treated as the same point.
+   */
+  private static final double SAME_POINT = 0.01;
+
+  /**
+   * Grid strips may be this fraction of the spacing further apart than asked
+   * rather than add a strip.
+   */
+  private static final double GRID_TOLERANCE = 0.01;
+
+  /**
+   * Spiral waypoints are this fraction of the loop spacing apart.
+   */
+  private static final double SPIRAL_STEP = 0.125;
+
+  /**
+   * Shortest distance between spiral waypoints in metres.
+   */
+  private static final double MIN_SPIRAL_STEP = 1.0;
+
+  /**
+   * Largest turn between spiral waypoints in radians.
+   */
+  private static final double MAX_SPIRAL_TURN = Math.toRadians(15.0);
+
+  /**
+   * All methods are static so there is no need to expose a constructor.
+   */
+  private RouteCompiler() {
+
+  }
+
+  /**
+   * Compile a route.
+   *
+   * @param route
+   *          the route
+   * @return the compiled route
+   * @throws IllegalArgumentException
+   *           if the first segment has no start location
+   */
+  public static CompiledRoute compile(final Route route) {
+    final List<RouteSegment> list = route.getRoute();
+    final RouteSegment[] segments = list.toArray(new RouteSegment[0]);
+    final int size = segments.length;
+
+    // Resolve missing start locations from where the segment before ends
+    final GpsCoordinates[] starts = new GpsCoordinates[size];
+    final Points[] expanded = new Points[size];
+    int before = -1;
+    for (int i = 0; i < size; i++) {
+      final RouteSegment segment = segments[i];
+      if (segment == null) {
+        continue;
+      }
+      starts[i] = segment.getStartLocation();
+      if (starts[i] == null && before >= 0) {
+        starts[i] = endOf(segments[before], starts[before], expanded, before);
+      }
+      if (starts[i] == null) {
+        throw new IllegalArgumentException("Segment " + i + " has no start location");
+      }
+      before = i;
+    }
+
+    // Expand the remaining segments independently
+    IntStream.range(0, size).parallel().forEach(i -> {
+      if (segments[i] != null && expanded[i] == null) {
+        expanded[i] = expand(segments[i], starts[i]);
+      }
+    });
+
+    // Join the expansions
+    int total = 0;
+    for (Points pts : expanded) {
+      total += pts == null ? 0 : pts.size;
+    }
+    final double[] lat = new double[total];
+    final double[] lon = new double[total];
+    final long[] hold = new long[total];
+    final int[] seg = new int[total];
+    int count = 0;
+    for (int i = 0; i < size; i++) {
+      final Points pts = expanded[i];
+      if (pts == null) {
+        continue;
+      }
+      for (int j = 0; j < pts.size; j++) {
+        if (j == 0 && count > 0 && pts.hold[0] == 0L && CompiledRoute.distance(lat[count - 1],
+            lon[count - 1], pts.lat[0], pts.lon[0]) < SAME_POINT) {
+          continue;
+        }
+        lat[count] = pts.lat[j];
+        lon[count] = pts.lon[j];
+        hold[count] = pts.hold[j];
+        seg[count] = i;
+        count++;
+      }
+    }
+    return new CompiledRoute(lat, lon, hold, seg, count);
+  }
+
+  /**
+   * Find where a segment ends. A grid or spiral is expanded to find its last
+   * waypoint, and the expansion kept.
+   *
+   * @param segment
+   *          the segment
+   * @param start
+   *          where the segment starts
+   * @param expanded
+   *          expansions by segment index
+   * @param idx
+   *          index of the segment
+   * @return the end of the segment
+   */
+  private static GpsCoordinates endOf(final RouteSegment segment, final GpsCoordinates start,
+      final Points[] expanded, final int idx) {
+    if (segment instanceof GridSegment || segment instanceof SpiralSegment) {
+      final Points pts = expand(segment, start);
+      expanded[idx] = pts;
+      return new GpsCoordinates(pts.lat[pts.size - 1], pts.lon[pts.size - 1]);
+    }
+    if (segment instanceof HoldSegment) {
+      return start;
+    }
+    return segment.getDestination() != null ? segment.getDestination() : start;
+  }
+
+  /**
+   * Expand one segment.
+   *
+   * @param segment
+   *          the segment
+   * @param start
+   *          where the segment starts
+   * @return the waypoints
+   */
+  private static Points expand(final RouteSegment segment, final GpsCoordinates start) {
+    final GpsCoordinates end = segment.getDestination() != null ? segment.getDestination()
+        : start;
+    final double lat0 = start.getLatitude().degrees();
+    final double lon0 = start.getLongitude().degrees();
+
+    if (segment instanceof HoldSegment) {
+      final Points pts = new Points(1, lat0, lon0);
+      pts.add(0.0, 0.0);
+      pts.hold[0] = ((HoldSegment) segment).getHoldTimeMillis();
+      return pts;
+    }
+
+    if (segment instanceof GridSegment) {
+      final int spacing = ((GridSegment) segment).getSpacing();
+      final Points corner = new Points(1, lat0, lon0);
+      final double width = corner.east(end.getLongitude().degrees());
+      final double height = corner.north(end.getLatitude().degrees());
+      // Spread the strips evenly so the last one is not a sliver
+      final int gaps = spacing > 0
+          ? (int) Math.ceil(Math.abs(height) / spacing - GRID_TOLERANCE) : 0;
+      final int strips = Math.max(gaps, 0) + 1;
+      final Points pts = new Points(2 * strips, lat0, lon0);
+      for (int k = 0; k < strips; k++) {
+        final double north = gaps > 0 ? height * k / gaps : 0.0;
+        if (k % 2 == 0) {
+          pts.add(0.0, north);
+          pts.add(width, north);
+        } else {
+          pts.add(width, north);
+          pts.add(0.0, north);
+        }
+      }
+      return pts;
+    }
+
+    if (segment instanceof SpiralSegment) {
+      final SpiralSegment spiral = (SpiralSegment) segment;
+      final double spacing = spiral.getSpacing();
+      final double sweep = Math.toRadians(Math.max(spiral.getDegrees(), 0));
+      final double bearing = Math.toRadians(spiral.getBearing());
+      if (spacing <= 0.0 || sweep <= 0.0) {
+        final Points pts = new Points(1, lat0, lon0);
+        pts.add(0.0, 0.0);
+        return pts;
+      }
+
+      // r = a * theta; arc length per radian is sqrt(r^2 + a^2)
+      final double pitch = spacing / (2.0 * Math.PI);
+      final double step = Math.max(spacing * SPIRAL_STEP, MIN_SPIRAL_STEP);
+      final double length = pitch / 2.0 * (sweep * Math.sqrt(1.0 + sweep * sweep)
+          + Math.log(sweep + Math.sqrt(1.0 + sweep * sweep)));
+      final Points pts = new Points((int) (length / step) + (int) (sweep / MAX_SPIRAL_TURN) + 2,
+          lat0, lon0);
+      double theta = 0.0;
+      while (true) {
+        final double radius = pitch * theta;
+        pts.add(radius * Math.sin(bearing + theta), radius * Math.cos(bearing + theta));
+        if (theta >= sweep) {
+          break;
+        }
+        final double turn = Math.min(step / Math.hypot(radius, pitch), MAX_SPIRAL_TURN);
+        theta = Math.min(theta + turn, sweep);
+      }
+      return pts;
+    }
+
+    // Move, or any other segment: straight from start to destination
+    final Points pts = new Points(2, lat0, lon0);
+    pts.add(0.0, 0.0);
+    pts.add(pts.east(end.getLongitude().degrees()), pts.north(end.getLatitude().degrees()));
+    return pts;
+  }
+
+  /**
+   * Waypoints of one segment, placed by metres east and north of an origin.
+   */
+  private static final class Points {
+
+    /**
+     * Latitude of the origin in degrees.
+     */
+    private final double originLat;
+
+    /**
+     * Longitude of the origin in degrees.
+     */
+    private final double originLon;
+
+    /**
+     * Metres per degree of latitude.
+     */
+    private final double metresPerLat;
+
+    /**
+     * Metres per degree of longitude at the origin.
+     */
+    private final double metresPerLon;
+
+    /**
+     * Latitude of each waypoint in degrees.
+     */
+    private double[] lat;
+
+    /**
+     * Longitude of each waypoint in degrees.
+     */
+    private double[] lon;
+
+    /**
+     * Milliseconds to hold at each waypoint.
+     */
+    private long[] hold;
+
+    /**
+     * Number of waypoints.
+     */
+    private int size;
+
+    /**
+     * Explicit constructor.
+     *
+     * @param capacity
+     *          expected number of waypoints
+     * @param lat0
+     *          latitude of the origin in degrees
+     * @param lon0
+     *          longitude of the origin in degrees
+     */
+    Points(final int capacity, final double lat0, final double lon0) {
+      originLat = lat0;
+      originLon = lon0;
+      metresPerLat = Math.toRadians(CompiledRoute.EARTH_RADIUS);
+      metresPerLon = metresPerLat * Math.cos(Math.toRadians(lat0));
+      lat = new double[Math.max(capacity, 1)];
+      lon = new double[lat.length];
+      hold = new long[lat.length];
+    }
+
+    /**
+     * Add a waypoint.
+     *
+     * @param east
+     *          metres east of the origin
+     * @param north
+     *          metres north of the origin
+     */
+    void add(final double east, final double north) {
+      if (size == lat.length) {
+        lat = Arrays.copyOf(lat, size * 2);
+        lon = Arrays.copyOf(lon, size * 2);
+        hold = Arrays.copyOf(hold, size * 2);
+      }
+      lat[size] = originLat + north / metresPerLat;
+      lon[size] = metresPerLon > 0.0 ? originLon + east / metresPerLon : originLon;
+      size++;
+    }
+
+    /**
+     * Metres east of the origin of a longitude.
+     *
+     * @param longitude
+     *          longitude in degrees
+     * @return metres
+     */
+    double east(final double longitude) {
+      double dlon = longitude - originLon;
+      if (dlon > 180.0) {
+        dlon -= 360.0;
+      } else if (dlon < -180.0) {
+        dlon += 360.0;
+      }
+      return dlon * metresPerLon;
+    }
+
+    /**
+     * Metres north of the origin of a latitude.
+     *
+     * @param latitude
+     *          latitude in degrees
+     * @return metres
+     */
+    double north(final double latitude) {
+      return (latitude - originLat) * metresPerLat;
+    }
+  }
+}
@@ -7,7 +7,7 @@
 
 package com.synadek.smr.control.navigation;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
@@ -22,11 +22,21 @@ public class RouteImpl implements Route {
    */
   final List<RouteSegment> myRoute;
 
+  /**
+   * The route expanded into waypoints, or null until needed.
+   */
+  private volatile CompiledRoute compiled;
+
+  /**
+   * Number of segments when the route was compiled.
+   */
+  private volatile int compiledSize;
+
   /**
    * Default constructor.
    */
   public RouteImpl() {
-    myRoute = new LinkedList<>();
+    myRoute = new ArrayList<>();
   }
 
   /**
@@ -38,7 +48,7 @@ public class RouteImpl implements Route {
   public RouteImpl(final JSONObject jsonRoute) {
 
     // Initialize the route to an empty list of segments
-    myRoute = new LinkedList<>();
+    myRoute = new ArrayList<>();
 
     // Get the segments from the JSON object, jRoute
     final JSONArray steps = (JSONArray) jsonRoute.get("steps");
@@ -50,31 +60,32 @@ public class RouteImpl implements Route {
 
     // Parse each segment according to its type and add it to the myRoute
     for (int i = 0; i < steps.size(); i++) {
+      myRoute.add(parseStep((JSONObject) steps.get(i)));
+    }
+  }
 
-      RouteSegment segment;
-      final JSONObject step = (JSONObject) steps.get(i);
-      final String type = (String) step.get("type");
-      final JSONObject contents = (JSONObject) step.get("contents");
-
-      switch (type) {
-        case "grid":
-          segment = new GridSegment(contents);
-          break;
-        case "hold":
-          segment = new HoldSegment(contents);
-          break;
-        case "move":
-          segment = new MoveSegment(contents);
-          break;
-        case "spiral":
-          segment = new SpiralSegment(contents);
-          break;
-        default:
-          segment = null;
-          break;
-      }
-      // Add this segment to the route
-      myRoute.add(segment);
+  /**
+   * Parse one step of a route.
+   *
+   * @param step
+   *          the step, holding the segment type and its contents
+   * @return the segment, or null if the type is not recognized
+   */
+  static RouteSegment parseStep(final JSONObject step) {
+    final String type = (String) step.get("type");
+    final JSONObject contents = (JSONObject) step.get("contents");
+
+    switch (type) {
+      case "grid":
+        return new GridSegment(contents);
+      case "hold":
+        return new HoldSegment(contents);
+      case "move":
+        return new MoveSegment(contents);
+      case "spiral":
+        return new SpiralSegment(contents);
+      default:
+        return null;
     }
   }
 
@@ -98,6 +109,7 @@ public class RouteImpl implements Route {
   @Override
   public void addSegment(final AbstractRouteSegmentImpl segment) {
     myRoute.add(segment);
+    compiled = null;
   }
 
   /*
@@ -110,6 +122,27 @@ public class RouteImpl implements Route {
     return myRoute;
   }
 
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.smr.control.navigation.Route#getCompiledRoute()
+   */
+  @Override
+  public CompiledRoute getCompiledRoute() {
+    CompiledRoute result = compiled;
+    if (result == null || compiledSize != myRoute.size()) {
+      synchronized (this) {
+        result = compiled;
+        if (result == null || compiledSize != myRoute.size()) {
+          compiledSize = myRoute.size();
+          result = RouteCompiler.compile(this);
+          compiled = result;
+        }
+      }
+    }
+    return result;
+  }
+
   /*
    * (non-Javadoc)
    * 
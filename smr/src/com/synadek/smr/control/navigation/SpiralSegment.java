@@ -20,6 +20,12 @@ public class SpiralSegment extends AbstractRouteSegmentImpl {
    * the distance between loops of the spiral (meters).
    */
   private final int spacing;
+
+  /**
+   * the bearing from the start location at which the spiral begins.
+   */
+  private final int bearing;
+
   /**
    * the number of degrees to travel e.g., 720 => two complete circles around
    * the initial point.
@@ -43,6 +49,7 @@ public class SpiralSegment extends AbstractRouteSegmentImpl {
       final int totalDegrees) {
     super(SegmentType.SPIRAL_SEGMENT, start, start
         .getEndLocation((initialBearing + totalDegrees) % 360, loopSpacing / 360 * totalDegrees));
+    bearing = initialBearing;
     spacing = loopSpacing;
     degrees = totalDegrees;
   }
@@ -55,8 +62,19 @@ public class SpiralSegment extends AbstractRouteSegmentImpl {
    */
   public SpiralSegment(final JSONObject obj) {
     super(obj);
-    spacing = ((Integer) obj.get("spacing")).intValue();
-    degrees = ((Integer) obj.get("degrees")).intValue();
+    spacing = ((Number) obj.get("spacing")).intValue();
+    degrees = ((Number) obj.get("degrees")).intValue();
+    final Number initialBearing = (Number) obj.get("bearing");
+    bearing = initialBearing == null ? 0 : initialBearing.intValue();
+  }
+
+  /**
+   * Get the initial bearing.
+   *
+   * @return the bearing from the start location at which the spiral begins
+   */
+  public int getBearing() {
+    return bearing;
   }
 
   /**
@@ -88,6 +106,7 @@ public class SpiralSegment extends AbstractRouteSegmentImpl {
     final JSONObject result = super.toJson();
     result.put("spacing", Integer.valueOf(getSpacing()));
     result.put("degrees", Integer.valueOf(getDegrees()));
+    result.put("bearing", Integer.valueOf(getBearing()));
     return result;
   }
 }
@@ -0,0 +1,1023 @@
+/**
+ * TrafficPicture.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.control.navigation;
+
+import com.synadek.smr.vessel.CommunicationsListener;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.simple.JSONObject;
+
+/**
+ * The picture of other vessels nearby, built from the position reports they
+ * send over intership communications, and the collision-avoidance advice that
+ * follows from it.
+ *
+ * <p>
+ * Contacts are kept as parallel primitive arrays so that each tick computes
+ * the closest point of approach (CPA) and the time to it (TCPA) for every
+ * contact in one tight loop, on a local flat-earth grid centred on the
+ * vessel. Reports are dead-reckoned to the time of the tick. A hashed grid
+ * of cells answers which contacts are within a given distance of a point; it
+ * is rebuilt only when asked after the picture has changed.
+ * </p>
+ *
+ * <p>
+ * The most urgent contact that will pass closer than the safe distance is
+ * classed as head-on, crossing or overtaking under the collision regulations
+ * (COLREGs rules 13 to 17). If this vessel is to give way it is advised to
+ * make the smallest alteration to starboard, in 5 degree steps up to 90, that
+ * clears every contact, failing which to slow down or stop. If this vessel
+ * is to stand on it is advised to keep its course and speed until the
+ * contact is so close that it must act as well. Distances are in metres,
+ * speeds in m/s and courses in degrees true.
+ * </p>
+ */
+public class TrafficPicture implements CommunicationsListener {
+
+  /**
+   * Situation of this vessel relative to a contact, under the collision
+   * regulations.
+   */
+  public enum Encounter {
+    /**
+     * Clear - no risk of collision.
+     */
+    Clear,
+    /**
+     * HeadOn - vessels meeting on reciprocal courses; both alter to starboard.
+     */
+    HeadOn,
+    /**
+     * CrossingGiveWay - contact crossing from starboard; this vessel gives way.
+     */
+    CrossingGiveWay,
+    /**
+     * CrossingStandOn - contact crossing from port; this vessel stands on.
+     */
+    CrossingStandOn,
+    /**
+     * Overtaking - this vessel is overtaking the contact and gives way.
+     */
+    Overtaking,
+    /**
+     * Overtaken - the contact is overtaking this vessel, which stands on.
+     */
+    Overtaken
+  }
+
+  /**
+   * What this vessel should do.
+   */
+  public enum Maneuver {
+    /**
+     * None - proceed on the route.
+     */
+    None,
+    /**
+     * StandOn - keep course and speed while the contact gives way.
+     */
+    StandOn,
+    /**
+     * AlterCourse - steer the advised course.
+     */
+    AlterCourse,
+    /**
+     * ReduceSpeed - keep course at the advised speed.
+     */
+    ReduceSpeed,
+    /**
+     * Stop - take all way off.
+     */
+    Stop
+  }
+
+  /**
+   * Value of the "type" field of a position report.
+   */
+  public static final String POSITION_REPORT = "position";
+
+  /**
+   * Default distance inside which a contact must not pass, in metres.
+   */
+  private static final double DEFAULT_SAFE_DISTANCE = 500.0;
+
+  /**
+   * Default time ahead within which a close approach calls for action, in
+   * seconds.
+   */
+  private static final double DEFAULT_HORIZON_SECONDS = 900.0;
+
+  /**
+   * Default time to CPA inside which a stand-on vessel must act as well, in
+   * seconds.
+   */
+  private static final double DEFAULT_CRITICAL_SECONDS = 120.0;
+
+  /**
+   * Default age after which a contact is dropped, in ms.
+   */
+  private static final long DEFAULT_STALE_MILLIS = 10L * 60L * 1000L;
+
+  /**
+   * Largest alteration of course considered, in degrees.
+   */
+  private static final int MAX_ALTERATION = 90;
+
+  /**
+   * Step between the alterations of course considered, in degrees.
+   */
+  private static final int ALTERATION_STEP = 5;
+
+  /**
+   * Half-width of the arc ahead within which a contact is met head-on, in
+   * degrees.
+   */
+  private static final double HEAD_ON_ARC = 6.0;
+
+  /**
+   * Relative bearing abaft which a vessel is overtaking (22.5 degrees abaft
+   * the beam).
+   */
+  private static final double ABAFT_BEAM = 112.5;
+
+  /**
+   * Size of a spatial index cell in degrees, about 1 km of latitude.
+   */
+  private static final double CELL_DEGREES = 0.01;
+
+  /**
+   * Initial capacity of the contact arrays.
+   */
+  private static final int INITIAL_CAPACITY = 64;
+
+  /**
+   * Metres per degree of latitude.
+   */
+  private static final double METRES_PER_DEGREE = Math.toRadians(CompiledRoute.EARTH_RADIUS);
+
+  /**
+   * Logger for this class.
+   */
+  private static Logger log = LogManager.getLogger(TrafficPicture.class.getPackage().getName());
+
+  /**
+   * Name of this vessel, whose own reports are ignored, or null.
+   */
+  private final String ownName;
+
+  /**
+   * Index of each contact in the arrays, by name.
+   */
+  private final Map<String, Integer> indexOf = new HashMap<>();
+
+  /**
+   * Distance inside which a contact must not pass, in metres.
+   */
+  private double safeDistance = DEFAULT_SAFE_DISTANCE;
+
+  /**
+   * Time ahead within which a close approach calls for action, in seconds.
+   */
+  private double horizonSeconds = DEFAULT_HORIZON_SECONDS;
+
+  /**
+   * Time to CPA inside which a stand-on vessel must act as well, in seconds.
+   */
+  private double criticalSeconds = DEFAULT_CRITICAL_SECONDS;
+
+  /**
+   * Age after which a contact is dropped, in ms.
+   */
+  private long staleMillis = DEFAULT_STALE_MILLIS;
+
+  // Contacts, as reported
+  private int count;
+  private String[] names = new String[INITIAL_CAPACITY];
+  private double[] lats = new double[INITIAL_CAPACITY];
+  private double[] lons = new double[INITIAL_CAPACITY];
+  private double[] velEast = new double[INITIAL_CAPACITY];
+  private double[] velNorth = new double[INITIAL_CAPACITY];
+  private long[] reportMillis = new long[INITIAL_CAPACITY];
+
+  // Contacts relative to this vessel at the last tick
+  private double[] relEast = new double[INITIAL_CAPACITY];
+  private double[] relNorth = new double[INITIAL_CAPACITY];
+  private double[] cpa = new double[INITIAL_CAPACITY];
+  private double[] tcpa = new double[INITIAL_CAPACITY];
+
+  // Scratch for the approaches of a trial manoeuvre, reused every tick
+  private double[] trialCpa = new double[INITIAL_CAPACITY];
+  private double[] trialTcpa = new double[INITIAL_CAPACITY];
+
+  // Spatial index: chains of contacts through next[], headed by cell hash
+  private boolean indexed;
+  private int[] head = new int[0];
+  private int[] next = new int[INITIAL_CAPACITY];
+
+  /**
+   * Latest advice.
+   */
+  private Avoidance advice = Avoidance.CLEAR;
+
+  /**
+   * Default constructor.
+   */
+  public TrafficPicture() {
+    this(null);
+  }
+
+  /**
+   * Explicit constructor.
+   *
+   * @param ship
+   *          the name of this vessel, whose own reports are ignored
+   */
+  public TrafficPicture(final String ship) {
+    ownName = ship;
+  }
+
+  /**
+   * Build a position report to send to other vessels.
+   *
+   * @param lat
+   *          latitude in degrees
+   * @param lon
+   *          longitude in degrees
+   * @param sog
+   *          speed over ground in m/s
+   * @param cog
+   *          course over ground in degrees true
+   * @param millis
+   *          when the position was fixed (ms since epoch)
+   * @return the message
+   */
+  @SuppressWarnings("unchecked")
+  public static JSONObject positionReport(final double lat, final double lon, final double sog,
+      final double cog, final long millis) {
+    final JSONObject result = new JSONObject();
+    result.put("type", POSITION_REPORT);
+    result.put("lat", Double.valueOf(lat));
+    result.put("lon", Double.valueOf(lon));
+    result.put("sog", Double.valueOf(sog));
+    result.put("cog", Double.valueOf(cog));
+    result.put("timestamp", Long.valueOf(millis));
+    return result;
+  }
+
+  /**
+   * Set the distance inside which a contact must not pass.
+   *
+   * @param metres
+   *          the safe distance
+   */
+  public synchronized void setSafeDistance(final double metres) {
+    safeDistance = metres;
+  }
+
+  /**
+   * Set the time ahead within which a close approach calls for action.
+   *
+   * @param seconds
+   *          the horizon
+   */
+  public synchronized void setHorizon(final double seconds) {
+    horizonSeconds = seconds;
+  }
+
+  /**
+   * Set the time to CPA inside which a stand-on vessel must act as well.
+   *
+   * @param seconds
+   *          the critical time
+   */
+  public synchronized void setCriticalTime(final double seconds) {
+    criticalSeconds = seconds;
+  }
+
+  /**
+   * Set the age after which a contact is dropped.
+   *
+   * @param millis
+   *          the age (ms)
+   */
+  public synchronized void setStaleAge(final long millis) {
+    staleMillis = millis;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * com.synadek.smr.vessel.CommunicationsListener#receiveMessage(java.lang.
+   * String, org.json.simple.JSONObject)
+   */
+  @Override
+  public void receiveMessage(final String source, final JSONObject message) {
+    if (message == null || !POSITION_REPORT.equals(message.get("type"))) {
+      return;
+    }
+    final Object relayed = message.get("id");
+    final String name = relayed != null ? relayed.toString() : source;
+    try {
+      final Object time = message.get("timestamp");
+      update(name, ((Number) message.get("lat")).doubleValue(),
+          ((Number) message.get("lon")).doubleValue(), ((Number) message.get("sog")).doubleValue(),
+          ((Number) message.get("cog")).doubleValue(),
+          time != null ? ((Number) time).longValue() : System.currentTimeMillis());
+    } catch (ClassCastException | NullPointerException err) {
+      log.warn("Malformed position report from {}: {}", source, message.toJSONString());
+    }
+  }
+
+  /**
+   * Add or update a contact.
+   *
+   * @param name
+   *          the name of the contact
+   * @param lat
+   *          latitude in degrees
+   * @param lon
+   *          longitude in degrees
+   * @param sog
+   *          speed over ground in m/s
+   * @param cog
+   *          course over ground in degrees true
+   * @param millis
+   *          when the position was fixed (ms since epoch)
+   */
+  public synchronized void update(final String name, final double lat, final double lon,
+      final double sog, final double cog, final long millis) {
+    if (name == null || name.equals(ownName)) {
+      return;
+    }
+    final Integer known = indexOf.get(name);
+    final int idx;
+    if (known == null) {
+      if (count == names.length) {
+        grow();
+      }
+      idx = count++;
+      names[idx] = name;
+      indexOf.put(name, Integer.valueOf(idx));
+      reportMillis[idx] = Long.MIN_VALUE;
+      cpa[idx] = Double.POSITIVE_INFINITY;
+      tcpa[idx] = Double.NaN;
+    } else {
+      idx = known.intValue();
+      if (millis < reportMillis[idx]) {
+        return;
+      }
+    }
+    final double cogRad = Math.toRadians(cog);
+    lats[idx] = lat;
+    lons[idx] = lon;
+    velEast[idx] = sog * Math.sin(cogRad);
+    velNorth[idx] = sog * Math.cos(cogRad);
+    reportMillis[idx] = millis;
+    indexed = false;
+  }
+
+  /**
+   * Drop a contact.
+   *
+   * @param name
+   *          the name of the contact
+   */
+  public synchronized void remove(final String name) {
+    final Integer known = indexOf.get(name);
+    if (known != null) {
+      removeAt(known.intValue());
+    }
+  }
+
+  /**
+   * Get the number of contacts.
+   *
+   * @return the count
+   */
+  public synchronized int size() {
+    return count;
+  }
+
+  /**
+   * Get the names of the contacts within a distance of a point, by their last
+   * reported positions.
+   *
+   * @param lat
+   *          latitude in degrees
+   * @param lon
+   *          longitude in degrees
+   * @param metres
+   *          the distance
+   * @return the names, in no particular order
+   */
+  public synchronized String[] getContactsWithin(final double lat, final double lon,
+      final double metres) {
+    index();
+    final double metresPerLon = METRES_PER_DEGREE * Math.cos(Math.toRadians(lat));
+    final double dlat = metres / METRES_PER_DEGREE;
+    final double dlon = metresPerLon > 0.0 ? metres / metresPerLon : 360.0;
+    final long row0 = cell(lat - dlat);
+    final long row1 = cell(lat + dlat);
+    final long col0 = cell(lon - dlon);
+    final long col1 = cell(lon + dlon);
+    final double limit = metres * metres;
+    String[] found = new String[8];
+    int hits = 0;
+    if ((row1 - row0 + 1) * (col1 - col0 + 1) > count) {
+      // More cells than contacts: quicker to look at every contact
+      for (int i = 0; i < count; i++) {
+        if (isWithin(i, lat, lon, metresPerLon, limit)) {
+          if (hits == found.length) {
+            found = Arrays.copyOf(found, hits * 2);
+          }
+          found[hits++] = names[i];
+        }
+      }
+      return Arrays.copyOf(found, hits);
+    }
+    for (long row = row0; row <= row1; row++) {
+      for (long col = col0; col <= col1; col++) {
+        for (int i = head[slot(row, col)]; i >= 0; i = next[i]) {
+          // Skip contacts in other cells that share the slot
+          if (cell(lats[i]) == row && cell(lons[i]) == col
+              && isWithin(i, lat, lon, metresPerLon, limit)) {
+            if (hits == found.length) {
+              found = Arrays.copyOf(found, hits * 2);
+            }
+            found[hits++] = names[i];
+          }
+        }
+      }
+    }
+    return Arrays.copyOf(found, hits);
+  }
+
+  /**
+   * Determine whether a contact's last reported position is within a distance
+   * of a point.
+   *
+   * @param idx
+   *          index of the contact
+   * @param lat
+   *          latitude of the point in degrees
+   * @param lon
+   *          longitude of the point in degrees
+   * @param metresPerLon
+   *          metres per degree of longitude at the point
+   * @param limit
+   *          the square of the distance in metres
+   * @return true if it is within the distance
+   */
+  private boolean isWithin(final int idx, final double lat, final double lon,
+      final double metresPerLon, final double limit) {
+    final double north = (lats[idx] - lat) * METRES_PER_DEGREE;
+    final double east = (lons[idx] - lon) * metresPerLon;
+    return north * north + east * east <= limit;
+  }
+
+  /**
+   * Bring the picture up to date for this vessel's position and motion, and
+   * advise the vessel accordingly.
+   *
+   * @param lat
+   *          latitude in degrees
+   * @param lon
+   *          longitude in degrees
+   * @param sog
+   *          speed over ground in m/s
+   * @param cog
+   *          course over ground in degrees true
+   * @param nowMillis
+   *          the time (ms since epoch)
+   * @return the advice
+   */
+  public synchronized Avoidance tick(final double lat, final double lon, final double sog,
+      final double cog, final long nowMillis) {
+    dropStale(nowMillis);
+    final double metresPerLon = METRES_PER_DEGREE * Math.cos(Math.toRadians(lat));
+    final double cogRad = Math.toRadians(cog);
+    final double ownEast = sog * Math.sin(cogRad);
+    final double ownNorth = sog * Math.cos(cogRad);
+    for (int i = 0; i < count; i++) {
+      final double age = (nowMillis - reportMillis[i]) / 1000.0;
+      relEast[i] = (lons[i] - lon) * metresPerLon + velEast[i] * age;
+      relNorth[i] = (lats[i] - lat) * METRES_PER_DEGREE + velNorth[i] * age;
+    }
+    approach(ownEast, ownNorth, cpa, tcpa);
+
+    // Most urgent contact that will pass too close within the horizon
+    int threat = -1;
+    for (int i = 0; i < count; i++) {
+      if (isThreat(cpa[i], tcpa[i]) && (threat < 0 || tcpa[i] < tcpa[threat])) {
+        threat = i;
+      }
+    }
+    if (threat < 0) {
+      advice = Avoidance.CLEAR;
+      return advice;
+    }
+
+    final Encounter encounter = classify(threat, ownEast, ownNorth, sog, cog);
+    final boolean standOn =
+        encounter == Encounter.CrossingStandOn || encounter == Encounter.Overtaken;
+    if (standOn && tcpa[threat] > criticalSeconds) {
+      advice = new Avoidance(Maneuver.StandOn, encounter, names[threat], cog, sog, cpa[threat],
+          tcpa[threat]);
+      return advice;
+    }
+    advice = avoid(threat, encounter, sog, cog);
+    return advice;
+  }
+
+  /**
+   * Bring the picture up to date for the vessel being navigated and pass the
+   * advice on to its navigation.
+   *
+   * @param nav
+   *          the navigation, giving speed and course over ground
+   * @param lat
+   *          latitude in degrees
+   * @param lon
+   *          longitude in degrees
+   * @param nowMillis
+   *          the time (ms since epoch)
+   * @return the advice
+   */
+  public Avoidance tick(final NavigationImpl nav, final double lat, final double lon,
+      final long nowMillis) {
+    final Avoidance result = tick(lat, lon, nav.getSpeedOverGround(),
+        nav.getCourseOverGround(), nowMillis);
+    nav.setAvoidance(result.getManeuver() == Maneuver.None ? null : result);
+    return result;
+  }
+
+  /**
+   * Get the latest advice.
+   *
+   * @return the advice
+   */
+  public synchronized Avoidance getAdvice() {
+    return advice;
+  }
+
+  /**
+   * Get the closest point of approach of a contact at the last tick.
+   *
+   * @param name
+   *          the name of the contact
+   * @return metres, or NaN if the contact is unknown
+   */
+  public synchronized double getCpa(final String name) {
+    final Integer known = indexOf.get(name);
+    return known != null ? cpa[known.intValue()] : Double.NaN;
+  }
+
+  /**
+   * Get the time to the closest point of approach of a contact at the last
+   * tick.
+   *
+   * @param name
+   *          the name of the contact
+   * @return seconds, negative if it is past, or NaN if the contact is unknown
+   */
+  public synchronized double getTcpa(final String name) {
+    final Integer known = indexOf.get(name);
+    return known != null ? tcpa[known.intValue()] : Double.NaN;
+  }
+
+  /**
+   * Compute the closest point of approach to every contact, from their
+   * positions relative to this vessel, were this vessel to move with the
+   * given velocity.
+   *
+   * @param ownEast
+   *          this vessel's velocity east in m/s
+   * @param ownNorth
+   *          this vessel's velocity north in m/s
+   * @param cpaOut
+   *          receives the CPA of each contact in metres
+   * @param tcpaOut
+   *          receives the time to CPA of each contact in seconds
+   */
+  private void approach(final double ownEast, final double ownNorth, final double[] cpaOut,
+      final double[] tcpaOut) {
+    for (int i = 0; i < count; i++) {
+      final double ve = velEast[i] - ownEast;
+      final double vn = velNorth[i] - ownNorth;
+      final double v2 = ve * ve + vn * vn;
+      final double t = v2 > 1e-9 ? -(relEast[i] * ve + relNorth[i] * vn) / v2 : 0.0;
+      final double ahead = Math.max(t, 0.0);
+      final double e = relEast[i] + ve * ahead;
+      final double n = relNorth[i] + vn * ahead;
+      cpaOut[i] = Math.sqrt(e * e + n * n);
+      tcpaOut[i] = t;
+    }
+  }
+
+  /**
+   * Find the closest approach of any threatening contact were this vessel to
+   * move with the given velocity.
+   *
+   * @param ownEast
+   *          this vessel's velocity east in m/s
+   * @param ownNorth
+   *          this vessel's velocity north in m/s
+   * @return the least CPA of a contact still closing within the horizon in
+   *         metres
+   */
+  private double worstApproach(final double ownEast, final double ownNorth) {
+    approach(ownEast, ownNorth, trialCpa, trialTcpa);
+    double worst = Double.POSITIVE_INFINITY;
+    for (int i = 0; i < count; i++) {
+      if (trialTcpa[i] > 0.0 && trialTcpa[i] < horizonSeconds && trialCpa[i] < worst) {
+        worst = trialCpa[i];
+      }
+    }
+    return worst;
+  }
+
+  /**
+   * Find the least change to this vessel's motion that keeps every contact
+   * outside the safe distance.
+   *
+   * @param threat
+   *          index of the most urgent contact
+   * @param encounter
+   *          the situation with that contact
+   * @param sog
+   *          this vessel's speed over ground in m/s
+   * @param cog
+   *          this vessel's course over ground in degrees true
+   * @return the advice
+   */
+  private Avoidance avoid(final int threat, final Encounter encounter, final double sog,
+      final double cog) {
+    final double speed = Math.max(sog, 0.5);
+    for (int alter = ALTERATION_STEP; alter <= MAX_ALTERATION; alter += ALTERATION_STEP) {
+      final double course = normalize(cog + alter);
+      final double rad = Math.toRadians(course);
+      if (worstApproach(speed * Math.sin(rad), speed * Math.cos(rad)) >= safeDistance) {
+        return new Avoidance(Maneuver.AlterCourse, encounter, names[threat], course, speed,
+            cpa[threat], tcpa[threat]);
+      }
+    }
+    final double rad = Math.toRadians(cog);
+    final double half = sog / 2.0;
+    if (worstApproach(half * Math.sin(rad), half * Math.cos(rad)) >= safeDistance) {
+      return new Avoidance(Maneuver.ReduceSpeed, encounter, names[threat], cog, half,
+          cpa[threat], tcpa[threat]);
+    }
+    return new Avoidance(Maneuver.Stop, encounter, names[threat], cog, 0.0, cpa[threat],
+        tcpa[threat]);
+  }
+
+  /**
+   * Class the situation with a contact under the collision regulations.
+   *
+   * @param idx
+   *          index of the contact
+   * @param ownEast
+   *          this vessel's velocity east in m/s
+   * @param ownNorth
+   *          this vessel's velocity north in m/s
+   * @param sog
+   *          this vessel's speed over ground in m/s
+   * @param cog
+   *          this vessel's course over ground in degrees true
+   * @return the encounter
+   */
+  private Encounter classify(final int idx, final double ownEast, final double ownNorth,
+      final double sog, final double cog) {
+    final double bearing = bearing(relEast[idx], relNorth[idx]);
+    final double relative = normalize(bearing - cog);
+    final double theirSpeed = Math.hypot(velEast[idx], velNorth[idx]);
+    final double theirCourse = bearing(velEast[idx], velNorth[idx]);
+    final double aspect = normalize(bearing + 180.0 - theirCourse);
+
+    // Rule 13: coming up from more than 22.5 degrees abaft the other's beam
+    if (theirSpeed > 0.1 && aspect > ABAFT_BEAM && aspect < 360.0 - ABAFT_BEAM
+        && sog > theirSpeed) {
+      return Encounter.Overtaking;
+    }
+    if (relative > ABAFT_BEAM && relative < 360.0 - ABAFT_BEAM) {
+      return Encounter.Overtaken;
+    }
+    // Rule 14: each ahead of the other on nearly reciprocal courses
+    if ((relative < HEAD_ON_ARC || relative > 360.0 - HEAD_ON_ARC)
+        && (aspect < HEAD_ON_ARC || aspect > 360.0 - HEAD_ON_ARC)) {
+      return Encounter.HeadOn;
+    }
+    // Rule 15: give way to a vessel on the starboard side
+    return relative < 180.0 ? Encounter.CrossingGiveWay : Encounter.CrossingStandOn;
+  }
+
+  /**
+   * Determine whether a close approach calls for action.
+   *
+   * @param closest
+   *          the CPA in metres
+   * @param time
+   *          the time to CPA in seconds
+   * @return true if the contact is closing and will pass too close within the
+   *         horizon
+   */
+  private boolean isThreat(final double closest, final double time) {
+    return closest < safeDistance && time > 0.0 && time < horizonSeconds;
+  }
+
+  /**
+   * Drop contacts not heard from for too long.
+   *
+   * @param nowMillis
+   *          the time (ms since epoch)
+   */
+  private void dropStale(final long nowMillis) {
+    for (int i = count - 1; i >= 0; i--) {
+      if (nowMillis - reportMillis[i] > staleMillis) {
+        log.debug("Dropping stale contact {}", names[i]);
+        removeAt(i);
+      }
+    }
+  }
+
+  /**
+   * Drop a contact by moving the last contact into its place.
+   *
+   * @param idx
+   *          index of the contact
+   */
+  private void removeAt(final int idx) {
+    indexOf.remove(names[idx]);
+    final int last = --count;
+    if (idx != last) {
+      names[idx] = names[last];
+      lats[idx] = lats[last];
+      lons[idx] = lons[last];
+      velEast[idx] = velEast[last];
+      velNorth[idx] = velNorth[last];
+      reportMillis[idx] = reportMillis[last];
+      relEast[idx] = relEast[last];
+      relNorth[idx] = relNorth[last];
+      cpa[idx] = cpa[last];
+      tcpa[idx] = tcpa[last];
+      indexOf.put(names[idx], Integer.valueOf(idx));
+    }
+    names[last] = null;
+    indexed = false;
+  }
+
+  /**
+   * Double the capacity of the contact arrays.
+   */
+  private void grow() {
+    final int size = names.length * 2;
+    names = Arrays.copyOf(names, size);
+    lats = Arrays.copyOf(lats, size);
+    lons = Arrays.copyOf(lons, size);
+    velEast = Arrays.copyOf(velEast, size);
+    velNorth = Arrays.copyOf(velNorth, size);
+    reportMillis = Arrays.copyOf(reportMillis, size);
+    relEast = Arrays.copyOf(relEast, size);
+    relNorth = Arrays.copyOf(relNorth, size);
+    cpa = Arrays.copyOf(cpa, size);
+    tcpa = Arrays.copyOf(tcpa, size);
+    trialCpa = new double[size];
+    trialTcpa = new double[size];
+    next = new int[size];
+  }
+
+  /**
+   * Rebuild the spatial index if the picture has changed since it was built.
+   */
+  private void index() {
+    if (indexed) {
+      return;
+    }
+    final int slots = Integer.highestOneBit(Math.max(count, 8) * 2 - 1) << 1;
+    if (head.length != slots) {
+      head = new int[slots];
+    }
+    Arrays.fill(head, -1);
+    for (int i = 0; i < count; i++) {
+      final int s = slot(cell(lats[i]), cell(lons[i]));
+      next[i] = head[s];
+      head[s] = i;
+    }
+    indexed = true;
+  }
+
+  /**
+   * Get the slot in the index of a cell.
+   *
+   * @param row
+   *          the row of the cell
+   * @param col
+   *          the column of the cell
+   * @return index into head
+   */
+  private int slot(final long row, final long col) {
+    final long h = (row * 0x9E3779B97F4A7C15L) ^ (col * 0xC2B2AE3D27D4EB4FL);
+    return (int) (h ^ (h >>> 32)) & (head.length - 1);
+  }
+
+  /**
+   * Get the row or column of the cell holding a latitude or longitude.
+   *
+   * @param degrees
+   *          the latitude or longitude
+   * @return the row or column
+   */
+  private static long cell(final double degrees) {
+    return (long) Math.floor(degrees / CELL_DEGREES);
+  }
+
+  /**
+   * Get the bearing of a vector.
+   *
+   * @param east
+   *          east component
+   * @param north
+   *          north component
+   * @return degrees true, 0 to 360
+   */
+  private static double bearing(final double east, final double north) {
+    return normalize(Math.toDegrees(Math.atan2(east, north)));
+  }
+
+  /**
+   * Bring an angle into the range 0 to 360.
+   *
+   * @param degrees
+   *          the angle
+   * @return the same angle, 0 to 360
+   */
+  private static double normalize(final double degrees) {
+    final double result = degrees % 360.0;
+    return result < 0.0 ? result + 360.0 : result;
+  }
+
+  /**
+   * Advice to this vessel for avoiding collision with the most urgent
+   * contact.
+   */
+  public static final class Avoidance {
+
+    /**
+     * Advice when no contact is a threat.
+     */
+    static final Avoidance CLEAR = new Avoidance(Maneuver.None, Encounter.Clear, null,
+        Double.NaN, Double.NaN, Double.POSITIVE_INFINITY, Double.NaN);
+
+    /**
+     * What to do.
+     */
+    private final Maneuver maneuver;
+
+    /**
+     * The situation with the contact.
+     */
+    private final Encounter encounter;
+
+    /**
+     * The name of the contact, or null.
+     */
+    private final String contact;
+
+    /**
+     * Course to steer in degrees true.
+     */
+    private final double course;
+
+    /**
+     * Speed to make in m/s.
+     */
+    private final double speed;
+
+    /**
+     * CPA of the contact on the present course in metres.
+     */
+    private final double cpa;
+
+    /**
+     * Time to CPA of the contact on the present course in seconds.
+     */
+    private final double tcpa;
+
+    /**
+     * Explicit constructor.
+     *
+     * @param what
+     *          what to do
+     * @param situation
+     *          the situation with the contact
+     * @param name
+     *          the name of the contact, or null
+     * @param steer
+     *          course to steer in degrees true
+     * @param make
+     *          speed to make in m/s
+     * @param closest
+     *          CPA of the contact on the present course in metres
+     * @param time
+     *          time to CPA of the contact on the present course in seconds
+     */
+    Avoidance(final Maneuver what, final Encounter situation, final String name,
+        final double steer, final double make, final double closest, final double time) {
+      maneuver = what;
+      encounter = situation;
+      contact = name;
+      course = steer;
+      speed = make;
+      cpa = closest;
+      tcpa = time;
+    }
+
+    /**
+     * Get what to do.
+     *
+     * @return the maneuver
+     */
+    public Maneuver getManeuver() {
+      return maneuver;
+    }
+
+    /**
+     * Get the situation with the contact.
+     *
+     * @return the encounter
+     */
+    public Encounter getEncounter() {
+      return encounter;
+    }
+
+    /**
+     * Get the name of the contact.
+     *
+     * @return the name, or null when clear
+     */
+    public String getContact() {
+      return contact;
+    }
+
+    /**
+     * Get the course to steer.
+     *
+     * @return degrees true, or NaN when clear
+     */
+    public double getCourse() {
+      return course;
+    }
+
+    /**
+     * Get the speed to make.
+     *
+     * @return m/s, or NaN when clear
+     */
+    public double getSpeed() {
+      return speed;
+    }
+
+    /**
+     * Get the closest point of approach of the contact on the present course.
+     *
+     * @return metres
+     */
+    public double getCpa() {
+      return cpa;
+    }
+
+    /**
+     * Get the time to the closest point of approach of the contact on the
+     * present course.
+     *
+     * @return seconds
+     */
+    public double getTcpa() {
+      return tcpa;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+      if (maneuver == Maneuver.None) {
+        return maneuver.toString();
+      }
+      return maneuver + " (" + encounter + (contact != null ? " " + contact : "") + ", course "
+          + Math.round(course) + ", speed " + speed + ", CPA " + Math.round(cpa) + " m in "
+          + Math.round(tcpa) + " s)";
+    }
+  }
+}
@@ -0,0 +1,605 @@
+/**
+ * EnduranceForecast.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.control.power;
+
+import com.synadek.core.GpsCoordinates;
+import com.synadek.core.Solar;
+import com.synadek.smr.control.navigation.CompiledRoute;
+import com.synadek.smr.control.navigation.Route;
+import com.synadek.smr.vessel.PowerManagement;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+import org.json.simple.JSONObject;
+
+/**
+ * Forecasts battery charge along a route by stepping through it in simulated
+ * time, charging from the solar panels at the sun elevation of each place and
+ * hour and drawing the electronics load plus propeller load at the planned
+ * speed.
+ *
+ * <p>
+ * Propeller power is taken to grow with the cube of speed, reaching the rated
+ * propulsion power at hull speed. A cloud or irradiance forecast can scale the
+ * clear-sky solar output. After the route ends the vessel is assumed to hold
+ * position, so the endurance shows how long it can wait for recovery.
+ * </p>
+ */
+public final class EnduranceForecast {
+
+  /**
+   * Length of a simulation step in seconds.
+   */
+  private static final double STEP_SECONDS = 60.0;
+
+  /**
+   * Interval between sun elevation updates in seconds.
+   */
+  private static final double SOLAR_UPDATE_SECONDS = 600.0;
+
+  /**
+   * Longest time forecast in seconds.
+   */
+  private static final double HORIZON_SECONDS = 14.0 * 24.0 * 3600.0;
+
+  /**
+   * Fraction of full propeller power used to hold position.
+   */
+  private static final double HOLD_THROTTLE = 0.05;
+
+  /**
+   * Seconds per hour.
+   */
+  private static final double SECONDS_PER_HOUR = 3600.0;
+
+  /**
+   * Usable battery capacity in watt hours.
+   */
+  private final double capacity;
+
+  /**
+   * Continuous load of electronics and sensors in watts.
+   */
+  private final double hotelLoad;
+
+  /**
+   * Propeller power at hull speed in watts.
+   */
+  private final double propulsionPower;
+
+  /**
+   * Hull speed in m/s.
+   */
+  private final double hullSpeed;
+
+  /**
+   * Solar output with the sun overhead in watts.
+   */
+  private final double solarPeakPower;
+
+  /**
+   * Fraction (0 to 1) of clear-sky irradiance expected at a time.
+   */
+  private volatile ToDoubleFunction<OffsetDateTime> irradiance = when -> 1.0;
+
+  /**
+   * Explicit constructor.
+   *
+   * @param capacityWattHours
+   *          usable battery capacity in watt hours
+   * @param hotelWatts
+   *          continuous load of electronics and sensors in watts
+   * @param propulsionWatts
+   *          propeller power at hull speed in watts
+   * @param hullSpeedMps
+   *          hull speed in m/s
+   * @param solarPeakWatts
+   *          solar output with the sun overhead in watts
+   */
+  public EnduranceForecast(final double capacityWattHours, final double hotelWatts,
+      final double propulsionWatts, final double hullSpeedMps, final double solarPeakWatts) {
+    capacity = capacityWattHours;
+    hotelLoad = hotelWatts;
+    propulsionPower = propulsionWatts;
+    hullSpeed = hullSpeedMps;
+    solarPeakPower = solarPeakWatts;
+  }
+
+  /**
+   * Set the irradiance forecast.
+   *
+   * @param fraction
+   *          the fraction (0 to 1) of clear-sky irradiance expected at a time
+   */
+  public void setIrradiance(final ToDoubleFunction<OffsetDateTime> fraction) {
+    irradiance = fraction;
+  }
+
+  /**
+   * Get the continuous load of electronics and sensors.
+   *
+   * @return watts
+   */
+  public double getHotelLoad() {
+    return hotelLoad;
+  }
+
+  /**
+   * Get the hull speed.
+   *
+   * @return m/s
+   */
+  public double getHullSpeed() {
+    return hullSpeed;
+  }
+
+  /**
+   * Get the solar output with the sun overhead.
+   *
+   * @return watts
+   */
+  public double getSolarPeakPower() {
+    return solarPeakPower;
+  }
+
+  /**
+   * Get the electrical power drawn by the propeller at a speed.
+   *
+   * @param speed
+   *          speed through the water in m/s
+   * @return watts
+   */
+  public double propulsionLoad(final double speed) {
+    final double fraction = Math.min(speed / hullSpeed, 1.0);
+    return propulsionPower * fraction * fraction * fraction;
+  }
+
+  /**
+   * Forecast charge along a route.
+   *
+   * @param route
+   *          the route
+   * @param start
+   *          where the vessel is now
+   * @param departure
+   *          when the vessel sets out
+   * @param speed
+   *          planned speed through the water in m/s
+   * @param stateOfCharge
+   *          current state of charge, 0 to 1
+   * @param reserve
+   *          state of charge that must not be used, 0 to 1
+   * @return the forecast
+   */
+  public Result forecast(final Route route, final GpsCoordinates start,
+      final OffsetDateTime departure, final double speed, final double stateOfCharge,
+      final double reserve) {
+    return forecast(route, 0, start, departure, speed, stateOfCharge, reserve);
+  }
+
+  /**
+   * Forecast charge along the rest of a route.
+   *
+   * @param route
+   *          the route
+   * @param firstWaypoint
+   *          index of the compiled waypoint the vessel is making for
+   * @param start
+   *          where the vessel is now
+   * @param departure
+   *          when the vessel sets out
+   * @param speed
+   *          planned speed through the water in m/s
+   * @param stateOfCharge
+   *          current state of charge, 0 to 1
+   * @param reserve
+   *          state of charge that must not be used, 0 to 1
+   * @return the forecast
+   */
+  public Result forecast(final Route route, final int firstWaypoint, final GpsCoordinates start,
+      final OffsetDateTime departure, final double speed, final double stateOfCharge,
+      final double reserve) {
+    final List<Leg> legs = plan(route, firstWaypoint, start, speed);
+    final double reserveEnergy = reserve * capacity;
+    final double holdLoad = hotelLoad + HOLD_THROTTLE * propulsionPower;
+
+    double energy = stateOfCharge * capacity;
+    double minEnergy = energy;
+    double consumed = 0.0;
+    double harvested = 0.0;
+    double elapsed = 0.0;
+    double endurance = Double.POSITIVE_INFINITY;
+    double routeSeconds = 0.0;
+    double routeDistance = 0.0;
+    double endEnergy = energy;
+
+    double solarFraction = 0.0;
+    double nextSolarUpdate = 0.0;
+
+    int legIdx = 0;
+    double legElapsed = 0.0;
+    for (Leg leg : legs) {
+      routeSeconds += leg.seconds;
+      routeDistance += leg.distance;
+    }
+    final Leg last = legs.isEmpty() ? new Leg(start, start, 0.0, 0.0, 0.0) : legs.get(
+        legs.size() - 1);
+
+    while (elapsed < HORIZON_SECONDS) {
+      // Find where the vessel is and what it is doing
+      double lat;
+      double lon;
+      double load;
+      double dt = STEP_SECONDS;
+      if (legIdx < legs.size()) {
+        final Leg leg = legs.get(legIdx);
+        final double fraction = leg.seconds > 0.0 ? legElapsed / leg.seconds : 1.0;
+        lat = leg.from.getLatitude().degrees()
+            + fraction * (leg.to.getLatitude().degrees() - leg.from.getLatitude().degrees());
+        lon = leg.from.getLongitude().degrees()
+            + fraction * (leg.to.getLongitude().degrees() - leg.from.getLongitude().degrees());
+        load = leg.load;
+        dt = Math.min(dt, leg.seconds - legElapsed);
+      } else {
+        lat = last.to.getLatitude().degrees();
+        lon = last.to.getLongitude().degrees();
+        load = holdLoad;
+      }
+
+      if (elapsed >= nextSolarUpdate) {
+        solarFraction = solarFraction(lat, lon, departure.plusSeconds((long) elapsed));
+        nextSolarUpdate = elapsed + SOLAR_UPDATE_SECONDS;
+      }
+
+      if (dt > 0.0) {
+        final double solar = solarPeakPower * solarFraction;
+        final double hours = dt / SECONDS_PER_HOUR;
+        final double before = energy;
+        energy = Math.min(capacity, energy + (solar - load) * hours);
+        consumed += load * hours;
+        harvested += Math.max(0.0, energy - before + load * hours);
+
+        if (energy <= reserveEnergy && Double.isInfinite(endurance)) {
+          // Interpolate within the step
+          final double drop = before - energy;
+          final double over = drop > 0.0 ? (before - reserveEnergy) / drop : 0.0;
+          endurance = elapsed + Math.max(0.0, Math.min(1.0, over)) * dt;
+        }
+        energy = Math.max(energy, 0.0);
+        minEnergy = Math.min(minEnergy, energy);
+        elapsed += dt;
+        legElapsed += dt;
+      }
+
+      if (legIdx < legs.size() && legElapsed >= legs.get(legIdx).seconds) {
+        legIdx++;
+        legElapsed = 0.0;
+        if (legIdx == legs.size()) {
+          endEnergy = energy;
+        }
+      }
+
+      // Once past the route, stop when the reserve is reached
+      if (legIdx >= legs.size() && !Double.isInfinite(endurance)) {
+        break;
+      }
+    }
+    if (legIdx < legs.size()) {
+      endEnergy = energy;
+    }
+
+    return new Result(routeSeconds, routeDistance, endurance, endEnergy / capacity,
+        minEnergy / capacity, consumed, harvested);
+  }
+
+  /**
+   * Forecast charge along the rest of a route from the vessel's state of charge
+   * down to its reserve, and apply the matching load shedding.
+   *
+   * @param power
+   *          the vessel's power management
+   * @param route
+   *          the route
+   * @param firstWaypoint
+   *          index of the compiled waypoint the vessel is making for
+   * @param start
+   *          where the vessel is now
+   * @param departure
+   *          when the vessel sets out
+   * @param speed
+   *          planned speed through the water in m/s
+   * @return the forecast
+   */
+  public Result forecastAndShed(final PowerManagement power, final Route route,
+      final int firstWaypoint, final GpsCoordinates start, final OffsetDateTime departure,
+      final double speed) {
+    final Result result = forecast(route, firstWaypoint, start, departure, speed,
+        power.getStateOfCharge(), power.getReserve());
+    power.shedForForecast(result.getEnduranceSeconds(), result.getRouteSeconds());
+    return result;
+  }
+
+  /**
+   * Get the fraction of peak solar output at a place and time.
+   *
+   * @param lat
+   *          latitude in degrees
+   * @param lon
+   *          longitude in degrees
+   * @param when
+   *          the time
+   * @return the fraction, 0 to 1
+   */
+  private double solarFraction(final double lat, final double lon, final OffsetDateTime when) {
+    double elevation;
+    try {
+      elevation = Solar.getSolarElevationCorrected(lat, lon, when);
+    } catch (IllegalArgumentException err) {
+      elevation = 0.0;
+    }
+    if (elevation <= 0.0) {
+      return 0.0;
+    }
+    final double cloud = Math.min(Math.max(irradiance.applyAsDouble(when), 0.0), 1.0);
+    return Math.sin(Math.toRadians(elevation)) * cloud;
+  }
+
+  /**
+   * Break a route into legs with a distance, duration and load.
+   *
+   * @param route
+   *          the route
+   * @param firstWaypoint
+   *          index of the first compiled waypoint to visit
+   * @param start
+   *          where the vessel is now
+   * @param speed
+   *          planned speed in m/s
+   * @return the legs
+   */
+  private List<Leg> plan(final Route route, final int firstWaypoint, final GpsCoordinates start,
+      final double speed) {
+    final CompiledRoute compiled = route.getCompiledRoute();
+    final List<Leg> legs = new ArrayList<>(compiled.size() + 1);
+    final double underway = hotelLoad + propulsionLoad(speed);
+    final double holding = hotelLoad + HOLD_THROTTLE * propulsionPower;
+    GpsCoordinates here = start;
+    for (int i = Math.max(firstWaypoint, 0); i < compiled.size(); i++) {
+      final GpsCoordinates to = compiled.getWaypoint(i);
+      final double distance = here.getDistance(to);
+      if (distance > 0.0 && speed > 0.0) {
+        legs.add(new Leg(here, to, distance, distance / speed, underway));
+      }
+      final long hold = compiled.getHoldMillis(i);
+      if (hold > 0L) {
+        legs.add(new Leg(to, to, 0.0, hold / 1000.0, holding));
+      }
+      here = to;
+    }
+    return legs;
+  }
+
+  /**
+   * A stretch of the route at a constant load.
+   */
+  private static final class Leg {
+
+    /**
+     * Where the leg starts.
+     */
+    private final GpsCoordinates from;
+
+    /**
+     * Where the leg ends.
+     */
+    private final GpsCoordinates to;
+
+    /**
+     * Length of the leg in metres.
+     */
+    private final double distance;
+
+    /**
+     * Seconds to complete the leg.
+     */
+    private final double seconds;
+
+    /**
+     * Electrical load during the leg in watts.
+     */
+    private final double load;
+
+    /**
+     * Explicit constructor.
+     *
+     * @param start
+     *          where the leg starts
+     * @param end
+     *          where the leg ends
+     * @param metres
+     *          length of the leg
+     * @param duration
+     *          seconds to complete the leg
+     * @param watts
+     *          electrical load during the leg
+     */
+    Leg(final GpsCoordinates start, final GpsCoordinates end, final double metres,
+        final double duration, final double watts) {
+      from = start;
+      to = end;
+      distance = metres;
+      seconds = duration;
+      load = watts;
+    }
+  }
+
+  /**
+   * The outcome of a forecast.
+   */
+  public static final class Result {
+
+    /**
+     * Time to complete the route in seconds.
+     */
+    private final double routeSeconds;
+
+    /**
+     * Length of the route in metres.
+     */
+    private final double routeDistance;
+
+    /**
+     * Time until the reserve is reached in seconds.
+     */
+    private final double enduranceSeconds;
+
+    /**
+     * State of charge at the end of the route.
+     */
+    private final double finalStateOfCharge;
+
+    /**
+     * Lowest state of charge during the forecast.
+     */
+    private final double minimumStateOfCharge;
+
+    /**
+     * Energy drawn in watt hours.
+     */
+    private final double consumedWattHours;
+
+    /**
+     * Solar energy stored in watt hours.
+     */
+    private final double harvestedWattHours;
+
+    /**
+     * Explicit constructor.
+     *
+     * @param seconds
+     *          time to complete the route
+     * @param distance
+     *          length of the route in metres
+     * @param endurance
+     *          time until the reserve is reached
+     * @param finalSoc
+     *          state of charge at the end of the route
+     * @param minSoc
+     *          lowest state of charge
+     * @param consumed
+     *          energy drawn in watt hours
+     * @param harvested
+     *          solar energy stored in watt hours
+     */
+    Result(final double seconds, final double distance, final double endurance,
+        final double finalSoc, final double minSoc, final double consumed,
+        final double harvested) {
+      routeSeconds = seconds;
+      routeDistance = distance;
+      enduranceSeconds = endurance;
+      finalStateOfCharge = finalSoc;
+      minimumStateOfCharge = minSoc;
+      consumedWattHours = consumed;
+      harvestedWattHours = harvested;
+    }
+
+    /**
+     * Get the time to complete the route.
+     *
+     * @return seconds
+     */
+    public double getRouteSeconds() {
+      return routeSeconds;
+    }
+
+    /**
+     * Get the length of the route.
+     *
+     * @return metres
+     */
+    public double getRouteDistance() {
+      return routeDistance;
+    }
+
+    /**
+     * Get the time from departure until the battery reaches the reserve.
+     *
+     * @return seconds, or positive infinity if the reserve is not reached
+     *         within the forecast horizon
+     */
+    public double getEnduranceSeconds() {
+      return enduranceSeconds;
+    }
+
+    /**
+     * Get the state of charge at the end of the route.
+     *
+     * @return state of charge, 0 to 1
+     */
+    public double getFinalStateOfCharge() {
+      return finalStateOfCharge;
+    }
+
+    /**
+     * Get the lowest state of charge during the forecast.
+     *
+     * @return state of charge, 0 to 1
+     */
+    public double getMinimumStateOfCharge() {
+      return minimumStateOfCharge;
+    }
+
+    /**
+     * Get the energy drawn by the vessel.
+     *
+     * @return watt hours
+     */
+    public double getConsumedWattHours() {
+      return consumedWattHours;
+    }
+
+    /**
+     * Get the solar energy stored in the battery.
+     *
+     * @return watt hours
+     */
+    public double getHarvestedWattHours() {
+      return harvestedWattHours;
+    }
+
+    /**
+     * Determine whether the route can be completed without touching the
+     * reserve.
+     *
+     * @return true if the endurance covers the route
+     */
+    public boolean isFeasible() {
+      return enduranceSeconds >= routeSeconds;
+    }
+
+    /**
+     * Create a JSON object representation of the forecast.
+     *
+     * @return the forecast as a JSON object
+     */
+    @SuppressWarnings("unchecked")
+    public JSONObject toJson() {
+      final JSONObject result = new JSONObject();
+      result.put("routeSeconds", Double.valueOf(routeSeconds));
+      result.put("routeDistance", Double.valueOf(routeDistance));
+      result.put("enduranceSeconds", Double.valueOf(enduranceSeconds));
+      result.put("finalStateOfCharge", Double.valueOf(finalStateOfCharge));
+      result.put("minimumStateOfCharge", Double.valueOf(minimumStateOfCharge));
+      result.put("consumedWattHours", Double.valueOf(consumedWattHours));
+      result.put("harvestedWattHours", Double.valueOf(harvestedWattHours));
+      result.put("feasible", Boolean.valueOf(isFeasible()));
+      return result;
+    }
+  }
+}
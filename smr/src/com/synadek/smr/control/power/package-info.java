@@ -0,0 +1,10 @@
+/**
+ * package-info.java 18 October 2026
+ *
+ * @author Daniel McCue
+ * 
+ *         The Power package forecasts the energy the vessel will have along a
+ *         route.
+ */
+
+package com.synadek.smr.control.power;
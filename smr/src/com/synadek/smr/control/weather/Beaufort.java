@@ -7,7 +7,7 @@
 
 package com.synadek.smr.control.weather;
 
-import com.synadek.core.ResourceFormatter;
+import com.synadek.core.LabelCache;
 import java.util.Locale;
 
 /**
@@ -79,22 +79,98 @@ public final class Beaufort {
     return 2;
   }
 
+  /**
+   * Resolution of the direct-index table, in steps per m/s. Every limit is a
+   * multiple of 0.1 m/s.
+   */
+  private static final double TABLE_STEPS_PER_MPS = 10.0;
+
+  /**
+   * Beaufort number for each 0.1 m/s step of wind speed up to the top limit.
+   */
+  private static final byte[] indexTable = buildIndexTable();
+
+  /**
+   * Lower speed limit of each Beaufort number, with an open upper end.
+   */
+  private static final double[] lowerLimits = buildLowerLimits();
+
+  /**
+   * Localized Beaufort labels.
+   */
+  private static final LabelCache labels = new LabelCache(beaufortLabels);
+
+  /**
+   * Localized Beaufort descriptions.
+   */
+  private static final LabelCache descriptions = new LabelCache(beaufortDescriptions);
+
+  /**
+   * Fill the direct-index table from the limits.
+   *
+   * @return the table
+   */
+  private static byte[] buildIndexTable() {
+    final int size = (int) Math.round(beaufortLimits[beaufortLimits.length - 1]
+        * TABLE_STEPS_PER_MPS) + 1;
+    final byte[] table = new byte[size];
+    int bf = 0;
+    for (int i = 0; i < size; i++) {
+      while (bf < beaufortLimits.length
+          && i >= Math.round(beaufortLimits[bf] * TABLE_STEPS_PER_MPS)) {
+        bf++;
+      }
+      table[i] = (byte) bf;
+    }
+    return table;
+  }
+
+  /**
+   * Compute the lower limit of each Beaufort number.
+   *
+   * @return the limits, with negative infinity below level 1 and positive
+   *         infinity above level 12
+   */
+  private static double[] buildLowerLimits() {
+    final double[] limits = new double[BEAUFORT_MAX + 2];
+    limits[0] = Double.NEGATIVE_INFINITY;
+    System.arraycopy(beaufortLimits, 0, limits, 1, beaufortLimits.length);
+    limits[BEAUFORT_MAX + 1] = Double.POSITIVE_INFINITY;
+    return limits;
+  }
+
   /**
    * Return speed in Beaufort scale (0-12). Note: negative speeds are invalid
-   * and always return zero.
+   * and always return zero. The speed is quantized to 0.1 m/s to index a
+   * precomputed table, and the result is checked against the neighbouring
+   * limits to correct rounding at a boundary, so the cost is the same for any
+   * speed.
    *
    * @param windSpeed
    *          in meters per second
    * @return speed in Beaufort scale.
    */
   public static final int index(final double windSpeed) {
-    for (int i = 0; i < beaufortLimits.length; i++) {
-      if (windSpeed < beaufortLimits[i]) {
-        return i;
-      }
+    final int step = (int) Math.min(windSpeed * TABLE_STEPS_PER_MPS, indexTable.length - 1);
+    int bf = indexTable[Math.max(step, 0)];
+    bf -= windSpeed < lowerLimits[bf] ? 1 : 0;
+    bf += windSpeed >= lowerLimits[bf + 1] ? 1 : 0;
+    return Math.min(bf, BEAUFORT_MAX);
+  }
+
+  /**
+   * Convert a series of wind speeds to the Beaufort scale.
+   *
+   * @param windSpeeds
+   *          speeds in meters per second
+   * @param result
+   *          receives the Beaufort number of each speed; at least as long as
+   *          windSpeeds
+   */
+  public static void index(final double[] windSpeeds, final int[] result) {
+    for (int i = 0; i < windSpeeds.length; i++) {
+      result[i] = index(windSpeeds[i]);
     }
-    // Default to last entry in the table
-    return BEAUFORT_MAX;
   }
 
   /**
@@ -110,7 +186,7 @@ public final class Beaufort {
     if (bf < 0 || bf >= beaufortLabels.length) {
       return null;
     }
-    return ResourceFormatter.getMessage(beaufortLabels[bf], locale);
+    return labels.get(bf, locale);
   }
 
   /**
@@ -126,6 +202,6 @@ public final class Beaufort {
     if (bf < 0 || bf >= beaufortLabels.length) {
       return null;
     }
-    return ResourceFormatter.getMessage(beaufortDescriptions[bf], locale);
+    return descriptions.get(bf, locale);
   }
 }
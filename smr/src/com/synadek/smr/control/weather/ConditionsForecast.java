@@ -0,0 +1,97 @@
+/**
+ * ConditionsForecast.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.control.weather;
+
+/**
+ * Expected wind, current and sunshine at a place and time, for planning.
+ * Implementations must be safe to call from several threads at once. Each
+ * method defaults to calm, slack water and clear skies.
+ */
+public interface ConditionsForecast {
+
+  /**
+   * Forecast of calm, slack water and clear skies everywhere.
+   */
+  ConditionsForecast CALM = new ConditionsForecast() {
+  };
+
+  /**
+   * Expected true wind speed.
+   *
+   * @param lat
+   *          latitude in degrees
+   * @param lon
+   *          longitude in degrees
+   * @param millis
+   *          time in millis since the epoch
+   * @return wind speed in m/s
+   */
+  default double getWindSpeed(final double lat, final double lon, final long millis) {
+    return 0.0;
+  }
+
+  /**
+   * Expected true wind direction.
+   *
+   * @param lat
+   *          latitude in degrees
+   * @param lon
+   *          longitude in degrees
+   * @param millis
+   *          time in millis since the epoch
+   * @return direction the wind blows from, degrees true
+   */
+  default double getWindDirection(final double lat, final double lon, final long millis) {
+    return 0.0;
+  }
+
+  /**
+   * Expected eastward component of the water current.
+   *
+   * @param lat
+   *          latitude in degrees
+   * @param lon
+   *          longitude in degrees
+   * @param millis
+   *          time in millis since the epoch
+   * @return m/s, positive toward the east
+   */
+  default double getCurrentEast(final double lat, final double lon, final long millis) {
+    return 0.0;
+  }
+
+  /**
+   * Expected northward component of the water current.
+   *
+   * @param lat
+   *          latitude in degrees
+   * @param lon
+   *          longitude in degrees
+   * @param millis
+   *          time in millis since the epoch
+   * @return m/s, positive toward the north
+   */
+  default double getCurrentNorth(final double lat, final double lon, final long millis) {
+    return 0.0;
+  }
+
+  /**
+   * Expected fraction of clear-sky sunshine, allowing for cloud.
+   *
+   * @param lat
+   *          latitude in degrees
+   * @param lon
+   *          longitude in degrees
+   * @param millis
+   *          time in millis since the epoch
+   * @return fraction, 0 to 1
+   */
+  default double getIrradiance(final double lat, final double lon, final long millis) {
+    return 1.0;
+  }
+}
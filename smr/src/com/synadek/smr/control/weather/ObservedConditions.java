@@ -0,0 +1,73 @@
+/**
+ * ObservedConditions.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.control.weather;
+
+/**
+ * A persistence forecast: the wind the vessel has recently measured is
+ * expected everywhere and for the rest of the plan. Values are captured when
+ * the forecast is created, so it can be shared freely between threads.
+ */
+public final class ObservedConditions implements ConditionsForecast {
+
+  /**
+   * Period of measurements averaged for the wind speed, in milliseconds.
+   */
+  private static final long WINDOW_MILLIS = RollupResolution.HOUR.getMillis();
+
+  /**
+   * Wind speed in m/s.
+   */
+  private final double windSpeed;
+
+  /**
+   * Direction the wind blows from, degrees.
+   */
+  private final double windDirection;
+
+  /**
+   * Explicit constructor.
+   *
+   * @param rollups
+   *          aggregates holding the WIND_SPEED channel
+   * @param wind
+   *          the wind instruments
+   * @param nowMillis
+   *          the current time in millis since the epoch
+   */
+  public ObservedConditions(final WeatherRollups rollups, final Wind wind,
+      final long nowMillis) {
+    final RollupBucket recent = rollups.summarize(WeatherChannel.WIND_SPEED,
+        RollupResolution.MINUTE, nowMillis - WINDOW_MILLIS, nowMillis);
+    final double mean = recent.getCount() > 0 ? recent.getMean() : wind.getWindSpeedAvg();
+    windSpeed = Double.isNaN(mean) ? 0.0 : mean;
+    windDirection = wind.getWindDirectionAvg();
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.smr.control.weather.ConditionsForecast#getWindSpeed(double,
+   * double, long)
+   */
+  @Override
+  public double getWindSpeed(final double lat, final double lon, final long millis) {
+    return windSpeed;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * com.synadek.smr.control.weather.ConditionsForecast#getWindDirection(double,
+   * double, long)
+   */
+  @Override
+  public double getWindDirection(final double lat, final double lon, final long millis) {
+    return windDirection;
+  }
+}
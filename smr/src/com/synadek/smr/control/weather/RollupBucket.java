@@ -0,0 +1,171 @@
+/**
+ * RollupBucket.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.control.weather;
+
+import org.json.simple.JSONObject;
+
+/**
+ * Aggregate of the samples of one weather channel over a period of time.
+ */
+public final class RollupBucket {
+
+  /**
+   * Start of the period in millis since the epoch.
+   */
+  private final long start;
+
+  /**
+   * Length of the period in milliseconds.
+   */
+  private final long duration;
+
+  /**
+   * Number of samples.
+   */
+  private final long count;
+
+  /**
+   * Smallest sample.
+   */
+  private final double min;
+
+  /**
+   * Largest sample.
+   */
+  private final double max;
+
+  /**
+   * Mean of the samples.
+   */
+  private final double mean;
+
+  /**
+   * Sample standard deviation.
+   */
+  private final double stdDev;
+
+  /**
+   * Explicit constructor.
+   *
+   * @param startMillis
+   *          start of the period in millis since the epoch
+   * @param durationMillis
+   *          length of the period in milliseconds
+   * @param samples
+   *          number of samples
+   * @param minimum
+   *          smallest sample
+   * @param maximum
+   *          largest sample
+   * @param average
+   *          mean of the samples
+   * @param sd
+   *          sample standard deviation
+   */
+  public RollupBucket(final long startMillis, final long durationMillis, final long samples,
+      final double minimum, final double maximum, final double average, final double sd) {
+    start = startMillis;
+    duration = durationMillis;
+    count = samples;
+    min = minimum;
+    max = maximum;
+    mean = average;
+    stdDev = sd;
+  }
+
+  /**
+   * Get the start of the period.
+   *
+   * @return millis since the epoch
+   */
+  public long getStart() {
+    return start;
+  }
+
+  /**
+   * Get the length of the period.
+   *
+   * @return the length in milliseconds
+   */
+  public long getDuration() {
+    return duration;
+  }
+
+  /**
+   * Get the number of samples.
+   *
+   * @return the count
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Get the smallest sample.
+   *
+   * @return the minimum or NaN if there were no samples
+   */
+  public double getMin() {
+    return min;
+  }
+
+  /**
+   * Get the largest sample.
+   *
+   * @return the maximum or NaN if there were no samples
+   */
+  public double getMax() {
+    return max;
+  }
+
+  /**
+   * Get the mean of the samples.
+   *
+   * @return the mean or NaN if there were no samples
+   */
+  public double getMean() {
+    return mean;
+  }
+
+  /**
+   * Get the sample standard deviation.
+   *
+   * @return the standard deviation or NaN with fewer than two samples
+   */
+  public double getStdDev() {
+    return stdDev;
+  }
+
+  /**
+   * Represent the bucket as JSON.
+   *
+   * @return the bucket
+   */
+  @SuppressWarnings("unchecked")
+  public JSONObject toJson() {
+    final JSONObject result = new JSONObject();
+    result.put("start", Long.valueOf(start));
+    result.put("duration", Long.valueOf(duration));
+    result.put("count", Long.valueOf(count));
+    result.put("min", Double.valueOf(min));
+    result.put("max", Double.valueOf(max));
+    result.put("mean", Double.valueOf(mean));
+    result.put("stdDev", Double.valueOf(stdDev));
+    return result;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    return toJson().toJSONString();
+  }
+}
@@ -0,0 +1,85 @@
+/**
+ * RollupResolution.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.control.weather;
+
+/**
+ * Resolutions at which weather data are aggregated, each with the number of
+ * buckets retained.
+ */
+public enum RollupResolution {
+
+  /**
+   * One second buckets retained for one hour.
+   */
+  SECOND(1000L, 3600),
+
+  /**
+   * One minute buckets retained for one day.
+   */
+  MINUTE(60000L, 1440),
+
+  /**
+   * Ten minute buckets retained for one week.
+   */
+  TEN_MINUTES(600000L, 1008),
+
+  /**
+   * One hour buckets retained for 31 days.
+   */
+  HOUR(3600000L, 744);
+
+  /**
+   * Length of a bucket in milliseconds.
+   */
+  private final long millis;
+
+  /**
+   * Number of buckets retained.
+   */
+  private final int buckets;
+
+  /**
+   * Constructor.
+   *
+   * @param bucketMillis
+   *          length of a bucket in milliseconds
+   * @param retained
+   *          number of buckets retained
+   */
+  RollupResolution(final long bucketMillis, final int retained) {
+    millis = bucketMillis;
+    buckets = retained;
+  }
+
+  /**
+   * Get the length of a bucket.
+   *
+   * @return the length in milliseconds
+   */
+  public long getMillis() {
+    return millis;
+  }
+
+  /**
+   * Get the number of buckets retained.
+   *
+   * @return the number of buckets
+   */
+  public int getBuckets() {
+    return buckets;
+  }
+
+  /**
+   * Get the period for which data are retained at this resolution.
+   *
+   * @return the period in milliseconds
+   */
+  public long getRetentionMillis() {
+    return millis * buckets;
+  }
+}
@@ -0,0 +1,194 @@
+/**
+ * RollupSeries.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.control.weather;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Multi-resolution aggregates of one weather channel. For every
+ * RollupResolution the series holds a preallocated circular array of buckets,
+ * each with count, min, max, mean and sum of squared differences (Welford).
+ * A sample updates one bucket per resolution, so ingest is constant time and
+ * allocates nothing; a bucket is reused once its slot comes round again.
+ *
+ * <p>
+ * Methods are synchronized: samples arrive on sensor threads while the UI and
+ * BlackBox query.
+ * </p>
+ */
+final class RollupSeries {
+
+  /**
+   * Start time of each bucket, indexed by resolution ordinal and slot.
+   */
+  private final long[][] starts;
+
+  /**
+   * Number of samples in each bucket.
+   */
+  private final long[][] counts;
+
+  /**
+   * Smallest sample in each bucket.
+   */
+  private final double[][] mins;
+
+  /**
+   * Largest sample in each bucket.
+   */
+  private final double[][] maxs;
+
+  /**
+   * Mean of each bucket.
+   */
+  private final double[][] means;
+
+  /**
+   * Sum of squared differences from the mean of each bucket.
+   */
+  private final double[][] m2s;
+
+  /**
+   * Default constructor.
+   */
+  RollupSeries() {
+    final RollupResolution[] resolutions = RollupResolution.values();
+    starts = new long[resolutions.length][];
+    counts = new long[resolutions.length][];
+    mins = new double[resolutions.length][];
+    maxs = new double[resolutions.length][];
+    means = new double[resolutions.length][];
+    m2s = new double[resolutions.length][];
+    for (RollupResolution r : resolutions) {
+      final int n = r.getBuckets();
+      starts[r.ordinal()] = new long[n];
+      counts[r.ordinal()] = new long[n];
+      mins[r.ordinal()] = new double[n];
+      maxs[r.ordinal()] = new double[n];
+      means[r.ordinal()] = new double[n];
+      m2s[r.ordinal()] = new double[n];
+    }
+  }
+
+  /**
+   * Add a sample to the bucket covering its timestamp at every resolution.
+   * Samples older than a slot's current bucket are ignored at that resolution.
+   *
+   * @param value
+   *          the sample
+   * @param timestamp
+   *          when the sample was taken in millis since the epoch
+   */
+  synchronized void add(final double value, final long timestamp) {
+    for (RollupResolution r : RollupResolution.values()) {
+      final int res = r.ordinal();
+      final long bucket = Math.floorDiv(timestamp, r.getMillis());
+      final long start = bucket * r.getMillis();
+      final int slot = (int) Math.floorMod(bucket, (long) r.getBuckets());
+
+      if (counts[res][slot] == 0 || starts[res][slot] < start) {
+        starts[res][slot] = start;
+        counts[res][slot] = 0;
+        mins[res][slot] = value;
+        maxs[res][slot] = value;
+        means[res][slot] = 0.0;
+        m2s[res][slot] = 0.0;
+      } else if (starts[res][slot] > start) {
+        continue;
+      }
+
+      final long n = counts[res][slot] + 1;
+      final double delta = value - means[res][slot];
+      counts[res][slot] = n;
+      means[res][slot] += delta / n;
+      m2s[res][slot] += delta * (value - means[res][slot]);
+      if (value < mins[res][slot]) {
+        mins[res][slot] = value;
+      }
+      if (value > maxs[res][slot]) {
+        maxs[res][slot] = value;
+      }
+    }
+  }
+
+  /**
+   * Get the buckets holding samples within a time range, oldest first. Only
+   * buckets still retained at the resolution are returned.
+   *
+   * @param r
+   *          the resolution
+   * @param from
+   *          start of the range in millis since the epoch (inclusive)
+   * @param to
+   *          end of the range in millis since the epoch (exclusive)
+   * @return the buckets
+   */
+  synchronized List<RollupBucket> query(final RollupResolution r, final long from,
+      final long to) {
+    final List<RollupBucket> result = new ArrayList<>();
+    final int res = r.ordinal();
+    final long last = Math.floorDiv(to - 1, r.getMillis());
+    final long first = Math.max(Math.floorDiv(from, r.getMillis()), last - r.getBuckets() + 1);
+
+    for (long bucket = first; bucket <= last; bucket++) {
+      final int slot = (int) Math.floorMod(bucket, (long) r.getBuckets());
+      final long n = counts[res][slot];
+      if (n > 0 && starts[res][slot] == bucket * r.getMillis()) {
+        result.add(new RollupBucket(starts[res][slot], r.getMillis(), n, mins[res][slot],
+            maxs[res][slot], means[res][slot],
+            n > 1 ? Math.sqrt(m2s[res][slot] / (n - 1)) : Double.NaN));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Combine the buckets within a time range into a single aggregate, merging
+   * means and variances with the parallel algorithm of Chan et al.
+   *
+   * @param r
+   *          the resolution whose buckets are combined
+   * @param from
+   *          start of the range in millis since the epoch (inclusive)
+   * @param to
+   *          end of the range in millis since the epoch (exclusive)
+   * @return the aggregate, with a count of zero if no samples were retained
+   */
+  synchronized RollupBucket summarize(final RollupResolution r, final long from,
+      final long to) {
+    final int res = r.ordinal();
+    final long last = Math.floorDiv(to - 1, r.getMillis());
+    final long first = Math.max(Math.floorDiv(from, r.getMillis()), last - r.getBuckets() + 1);
+
+    long count = 0;
+    double min = Double.NaN;
+    double max = Double.NaN;
+    double mean = 0.0;
+    double m2 = 0.0;
+
+    for (long bucket = first; bucket <= last; bucket++) {
+      final int slot = (int) Math.floorMod(bucket, (long) r.getBuckets());
+      final long n = counts[res][slot];
+      if (n == 0 || starts[res][slot] != bucket * r.getMillis()) {
+        continue;
+      }
+      final long total = count + n;
+      final double delta = means[res][slot] - mean;
+      mean += delta * n / total;
+      m2 += m2s[res][slot] + delta * delta * count * n / total;
+      min = count == 0 ? mins[res][slot] : Math.min(min, mins[res][slot]);
+      max = count == 0 ? maxs[res][slot] : Math.max(max, maxs[res][slot]);
+      count = total;
+    }
+
+    return new RollupBucket(first * r.getMillis(), (last - first + 1) * r.getMillis(), count,
+        min, max, count > 0 ? mean : Double.NaN,
+        count > 1 ? Math.sqrt(m2 / (count - 1)) : Double.NaN);
+  }
+}
@@ -0,0 +1,301 @@
+/**
+ * SampleWindow.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.control.weather;
+
+/**
+ * A fixed-capacity ring buffer of timestamped samples covering a sliding time
+ * window. Mean and variance are maintained incrementally (Welford's algorithm
+ * run forwards on add and backwards on removal), the sums of sin and cos are
+ * kept for circular statistics, and a monotonic queue of ring positions tracks
+ * the window maximum. Every operation is constant time, amortized over the
+ * evictions it triggers.
+ *
+ * <p>
+ * Removing samples from running sums slowly accumulates rounding error, so the
+ * statistics are recomputed from the buffer once for every capacity removals.
+ * </p>
+ *
+ * <p>
+ * Not thread safe; WindImpl synchronizes access.
+ * </p>
+ */
+final class SampleWindow {
+
+  /**
+   * Length of the window in milliseconds.
+   */
+  private final long spanMillis;
+
+  /**
+   * Sample values, oldest at position head.
+   */
+  private final double[] values;
+
+  /**
+   * Sample timestamps in milliseconds.
+   */
+  private final long[] times;
+
+  /**
+   * Ring positions of samples in decreasing order of value; the front is the
+   * position of the window maximum.
+   */
+  private final int[] maxQueue;
+
+  /**
+   * True if the values are angles in degrees whose sin and cos are summed.
+   */
+  private final boolean circular;
+
+  /**
+   * Position of the oldest sample.
+   */
+  private int head;
+
+  /**
+   * Number of samples in the window.
+   */
+  private int size;
+
+  /**
+   * Position in maxQueue of its front.
+   */
+  private int maxHead;
+
+  /**
+   * Number of entries in maxQueue.
+   */
+  private int maxSize;
+
+  /**
+   * Running mean.
+   */
+  private double mean;
+
+  /**
+   * Running sum of squared differences from the mean.
+   */
+  private double m2;
+
+  /**
+   * Running sum of the sin of the samples (circular windows only).
+   */
+  private double sumSin;
+
+  /**
+   * Running sum of the cos of the samples (circular windows only).
+   */
+  private double sumCos;
+
+  /**
+   * Removals since the statistics were last recomputed from the buffer.
+   */
+  private int removals;
+
+  /**
+   * Explicit constructor.
+   *
+   * @param span
+   *          length of the window in milliseconds
+   * @param capacity
+   *          maximum number of samples held
+   * @param angles
+   *          true if the values are angles in degrees
+   */
+  SampleWindow(final long span, final int capacity, final boolean angles) {
+    spanMillis = span;
+    values = new double[Math.max(1, capacity)];
+    times = new long[values.length];
+    maxQueue = new int[values.length];
+    circular = angles;
+  }
+
+  /**
+   * Add a sample, evicting samples that have aged out of the window or no
+   * longer fit in the buffer.
+   *
+   * @param value
+   *          the sample
+   * @param timestamp
+   *          when the sample was taken in milliseconds
+   */
+  void add(final double value, final long timestamp) {
+    expire(timestamp);
+    if (size == values.length) {
+      removeOldest();
+    }
+
+    final int pos = (head + size) % values.length;
+    values[pos] = value;
+    times[pos] = timestamp;
+    size += 1;
+
+    final double delta = value - mean;
+    mean += delta / size;
+    m2 += delta * (value - mean);
+
+    if (circular) {
+      final double radians = Math.toRadians(value);
+      sumSin += Math.sin(radians);
+      sumCos += Math.cos(radians);
+    }
+
+    // Smaller values ahead of this one can never again be the maximum
+    while (maxSize > 0 && values[maxQueue[(maxHead + maxSize - 1) % maxQueue.length]] <= value) {
+      maxSize -= 1;
+    }
+    maxQueue[(maxHead + maxSize) % maxQueue.length] = pos;
+    maxSize += 1;
+  }
+
+  /**
+   * Evict samples older than the window.
+   *
+   * @param now
+   *          the current time in milliseconds
+   */
+  void expire(final long now) {
+    final long cutoff = now - spanMillis;
+    while (size > 0 && times[head] <= cutoff) {
+      removeOldest();
+    }
+  }
+
+  /**
+   * Remove the oldest sample.
+   */
+  private void removeOldest() {
+    final double value = values[head];
+
+    if (maxSize > 0 && maxQueue[maxHead] == head) {
+      maxHead = (maxHead + 1) % maxQueue.length;
+      maxSize -= 1;
+    }
+
+    head = (head + 1) % values.length;
+    size -= 1;
+
+    if (size == 0) {
+      clearStatistics();
+      return;
+    }
+
+    final double oldMean = mean;
+    mean = (oldMean * (size + 1) - value) / size;
+    m2 = Math.max(0.0, m2 - (value - oldMean) * (value - mean));
+
+    if (circular) {
+      final double radians = Math.toRadians(value);
+      sumSin -= Math.sin(radians);
+      sumCos -= Math.cos(radians);
+    }
+
+    removals += 1;
+    if (removals >= values.length) {
+      recompute();
+    }
+  }
+
+  /**
+   * Reset the running statistics of an empty window.
+   */
+  private void clearStatistics() {
+    mean = 0.0;
+    m2 = 0.0;
+    sumSin = 0.0;
+    sumCos = 0.0;
+    removals = 0;
+  }
+
+  /**
+   * Recompute the running statistics from the buffer to discard accumulated
+   * rounding error.
+   */
+  private void recompute() {
+    final int count = size;
+    clearStatistics();
+    for (int i = 0; i < count; i++) {
+      final double value = values[(head + i) % values.length];
+      final double delta = value - mean;
+      mean += delta / (i + 1);
+      m2 += delta * (value - mean);
+      if (circular) {
+        final double radians = Math.toRadians(value);
+        sumSin += Math.sin(radians);
+        sumCos += Math.cos(radians);
+      }
+    }
+  }
+
+  /**
+   * Copy the samples of this window, oldest first, into another window.
+   *
+   * @param target
+   *          the window to fill
+   */
+  void copyTo(final SampleWindow target) {
+    for (int i = 0; i < size; i++) {
+      final int pos = (head + i) % values.length;
+      target.add(values[pos], times[pos]);
+    }
+  }
+
+  /**
+   * Get the number of samples in the window.
+   *
+   * @return the count
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Get the arithmetic mean of the samples.
+   *
+   * @return the mean or NaN if the window is empty
+   */
+  double getMean() {
+    return size > 0 ? mean : Double.NaN;
+  }
+
+  /**
+   * Get the sample standard deviation.
+   *
+   * @return the standard deviation or NaN with fewer than two samples
+   */
+  double getStdDev() {
+    return size > 1 ? Math.sqrt(m2 / (size - 1)) : Double.NaN;
+  }
+
+  /**
+   * Get the largest sample in the window.
+   *
+   * @return the maximum or NaN if the window is empty
+   */
+  double getMax() {
+    return maxSize > 0 ? values[maxQueue[maxHead]] : Double.NaN;
+  }
+
+  /**
+   * Get the mean of the sin of the samples.
+   *
+   * @return the mean sin or NaN if the window is empty
+   */
+  double getMeanSin() {
+    return size > 0 ? sumSin / size : Double.NaN;
+  }
+
+  /**
+   * Get the mean of the cos of the samples.
+   *
+   * @return the mean cos or NaN if the window is empty
+   */
+  double getMeanCos() {
+    return size > 0 ? sumCos / size : Double.NaN;
+  }
+}
@@ -0,0 +1,92 @@
+/**
+ * SeaState.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.control.weather;
+
+import com.synadek.core.LabelCache;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Sea state on the WMO (Douglas) scale, 0-9, from significant wave height or
+ * estimated from the Beaufort number of a fully developed sea.
+ */
+public final class SeaState {
+
+  /**
+   * The maximum sea state is 9.
+   */
+  public static final int SEA_STATE_MAX = 9;
+
+  /**
+   * Top significant wave height (meters) of each sea state below the maximum.
+   */
+  private static final double[] waveHeightLimits = {0.0, 0.1, 0.5, 1.25, 2.5, 4.0, 6.0, 9.0,
+      14.0 };
+
+  /**
+   * Sea state of a fully developed sea at each Beaufort number.
+   */
+  private static final byte[] beaufortSeaStates = {0, 1, 2, 3, 3, 4, 5, 6, 6, 7, 8, 8, 9 };
+
+  /**
+   * Standard names for each sea state.
+   */
+  private static final LabelCache labels = new LabelCache("label.seastate.glassy",
+      "label.seastate.rippled", "label.seastate.smooth", "label.seastate.slight",
+      "label.seastate.moderate", "label.seastate.rough", "label.seastate.veryrough",
+      "label.seastate.high", "label.seastate.veryhigh", "label.seastate.phenomenal");
+
+  /**
+   * Private constructor; all methods are static.
+   */
+  private SeaState() {
+  }
+
+  /**
+   * Return the sea state for a significant wave height by binary search of
+   * the scale. Glassy calm is reserved for a height of exactly zero.
+   *
+   * @param waveHeight
+   *          significant wave height in meters
+   * @return the sea state (0-9)
+   */
+  public static int fromWaveHeight(final double waveHeight) {
+    if (!(waveHeight > 0.0)) {
+      return 0;
+    }
+    final int i = Arrays.binarySearch(waveHeightLimits, waveHeight);
+    return i >= 0 ? i : -i - 1;
+  }
+
+  /**
+   * Estimate the sea state of a fully developed sea from the wind.
+   *
+   * @param bf
+   *          is the Beaufort number
+   * @return the sea state (0-9), or -1 if an invalid input is supplied
+   */
+  public static int fromBeaufort(final int bf) {
+    if (bf < 0 || bf >= beaufortSeaStates.length) {
+      return -1;
+    }
+    return beaufortSeaStates[bf];
+  }
+
+  /**
+   * Return the label of a sea state.
+   *
+   * @param seaState
+   *          the sea state
+   * @param locale
+   *          is the locale in which to translate the label
+   * @return the label or null if an invalid input is supplied
+   */
+  public static String label(final int seaState, final Locale locale) {
+    return labels.get(seaState, locale);
+  }
+}
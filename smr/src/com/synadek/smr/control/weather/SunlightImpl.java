@@ -8,21 +8,99 @@
 package com.synadek.smr.control.weather;
 
 import com.synadek.core.AbstractComponent;
+import com.synadek.core.CalibrationCurve;
 import com.synadek.core.ComponentException;
+import com.synadek.core.InvalidValueException;
+import com.synadek.core.JsonSchema;
+import com.synadek.core.SensorConfiguration;
+import com.synadek.smr.vessel.physical.PdlAnalogHandler;
+import com.synadek.smr.vessel.physical.VesselPhysicalModel;
+import com.synadek.smr.vessel.physical.VesselPhysicalModel.PhysicalDeviceType;
 import java.time.Duration;
+import java.util.function.LongSupplier;
 
 /**
  * Report the amount of sunlight reaching the vessel.
+ *
+ * <p>
+ * When connected to hardware, the component listens to the solar power sensor
+ * of the vessel's physical model. Each raw value is converted by a
+ * configurable calibration table and fed to the SOLAR_POWER channel of the
+ * weather rollups, from which solar energy is integrated.
+ * </p>
  */
-public class SunlightImpl extends AbstractComponent implements Sunlight {
+public class SunlightImpl extends AbstractComponent implements Sunlight, PdlAnalogHandler {
+
+  /**
+   * Configuration key for the solar power calibration table.
+   */
+  public static final String JSON_KEY_CALIBRATION = "calibration";
 
   private static final double MINUTES_PER_DAY = 1440;
 
   /**
-   * Default constructor.
+   * Number of milliseconds in one second.
+   */
+  private static final double MILLIS_PER_SECOND = 1000.0;
+
+  /**
+   * Long-horizon aggregates of solar power from which energy is computed:
+   * the vessel's own, or the shared rollups when used standalone.
+   */
+  private volatile WeatherRollups rollups = WeatherRollups.getDefault();
+
+  /**
+   * Physical model supplying the solar power sensor, or null if there is none.
+   */
+  private final VesselPhysicalModel model;
+
+  /**
+   * Source of sample timestamps in milliseconds.
+   */
+  private final LongSupplier clock;
+
+  /**
+   * Conversion of raw sensor values to solar power.
+   */
+  private volatile CalibrationCurve calibration = CalibrationCurve.IDENTITY;
+
+  /**
+   * Latest solar power reading.
+   */
+  private volatile float latestPower;
+
+  /**
+   * Default constructor, for a component that is only ever simulated.
    */
   public SunlightImpl() {
+    this(null);
+  }
+
+  /**
+   * Constructor for a component that reads the solar power sensor of a
+   * physical model.
+   *
+   * @param physicalModel
+   *          the vessel's physical model
+   */
+  public SunlightImpl(final VesselPhysicalModel physicalModel) {
+    this(physicalModel, physicalModel != null ? physicalModel::currentTimeMillis
+        : System::currentTimeMillis);
+  }
+
+  /**
+   * Constructor with an explicit clock, for replay and simulation.
+   *
+   * @param physicalModel
+   *          the vessel's physical model, or null
+   * @param clockMillis
+   *          supplies the current time in milliseconds
+   */
+  public SunlightImpl(final VesselPhysicalModel physicalModel, final LongSupplier clockMillis) {
     super("Sunlight");
+    model = physicalModel;
+    clock = clockMillis;
+    resetConfiguration();
   }
 
   /*
@@ -32,8 +110,38 @@ public class SunlightImpl extends AbstractComponent implements Sunlight {
    */
   @Override
   public float solarPower() {
-    // TODO Implement sunlight sensing
-    return 0;
+    return latestPower;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.smr.vessel.physical.PdlAnalogHandler#physicalDeviceStateChange
+   */
+  @Override
+  public void physicalDeviceStateChange(final PhysicalDeviceType idx, final double val) {
+    if (idx == PhysicalDeviceType.PHY_SOLAR_POWER_SENSOR) {
+      recordSolarPower(calibration.apply(val), clock.getAsLong());
+    }
+  }
+
+  /**
+   * Take a solar power reading, e.g. from a simulated sensor.
+   *
+   * @param power
+   *          the solar power
+   * @param timestamp
+   *          when the reading was taken in millis since the epoch
+   */
+  public void recordSolarPower(final double power, final long timestamp) {
+    if (Double.isNaN(power)) {
+      return;
+    }
+    latestPower = (float) power;
+    final WeatherRollups target = rollups;
+    if (target != null) {
+      target.record(WeatherChannel.SOLAR_POWER, power, timestamp);
+    }
   }
 
   /*
@@ -43,9 +151,30 @@ public class SunlightImpl extends AbstractComponent implements Sunlight {
    */
   @Override
   public float solarEnergy(Duration duration) {
-    // TODO implement reporting of aggregate sunlight received over a period of
-    // time
-    return 0.0f;
+    // Integrate the one minute means of solar power; minutes without samples
+    // contribute nothing
+    final long now = clock.getAsLong();
+    double joules = 0.0;
+    final WeatherRollups source = rollups;
+    if (source == null) {
+      return 0.0f;
+    }
+    for (RollupBucket bucket : source.query(WeatherChannel.SOLAR_POWER,
+        RollupResolution.MINUTE, now - duration.toMillis(), now)) {
+      joules += bucket.getMean() * bucket.getDuration() / MILLIS_PER_SECOND;
+    }
+    return (float) joules;
+  }
+
+  /**
+   * Set the rollups from which solar energy is computed.
+   *
+   * @param source
+   *          the rollups holding the SOLAR_POWER channel, or null to keep
+   *          no long-horizon aggregates
+   */
+  public void setRollups(final WeatherRollups source) {
+    rollups = source;
   }
 
   public double getJulianCentury(double julianDay) {
@@ -256,10 +385,54 @@ public class SunlightImpl extends AbstractComponent implements Sunlight {
       this.connected = true;
       return true;
     }
-    // TODO Confirm the availability of sunlight sensing HW
+
+    // Listen to the sensor if there is a physical model to read
+    if (model != null) {
+      model.addAnalogInputListener(PhysicalDeviceType.PHY_SOLAR_POWER_SENSOR, this);
+    }
+
     this.simulated = false;
     this.connected = true;
     return true;
   }
 
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.core.AbstractComponent#disconnect()
+   */
+  @Override
+  public void disconnect() throws ComponentException {
+    if (connected && !simulated && model != null) {
+      model.removeAnalogInputListener(this);
+    }
+    super.disconnect();
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.core.AbstractComponent#resetConfiguration()
+   */
+  @Override
+  public void resetConfiguration() {
+    myConfiguration.setProperty(JSON_KEY_CALIBRATION, CalibrationCurve.IDENTITY.toString());
+
+    final JsonSchema mySchema = this.myConfiguration.getConfigurationSchema();
+    mySchema.setProperty(JSON_KEY_CALIBRATION, JsonSchema.schemaString(
+        "Solar power sensor calibration as comma-separated raw:W/m2 pairs."), true);
+
+    applyConfiguration();
+  }
+
+  /**
+   * Apply the current configuration properties to the sensor.
+   */
+  public void applyConfiguration() {
+    try {
+      calibration = SensorConfiguration.calibration(myConfiguration, JSON_KEY_CALIBRATION);
+    } catch (InvalidValueException err) {
+      log.error("Invalid sunlight configuration: {}", err.getMessage());
+    }
+  }
 }
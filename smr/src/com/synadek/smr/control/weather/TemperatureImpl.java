@@ -9,11 +9,35 @@ package com.synadek.smr.control.weather;
 
 import com.synadek.core.AbstractComponent;
 import com.synadek.core.ComponentException;
+import com.synadek.core.InvalidValueException;
+import com.synadek.core.SensorChannel;
+import com.synadek.core.SensorConfiguration;
+import com.synadek.smr.vessel.physical.PdlAnalogHandler;
+import com.synadek.smr.vessel.physical.VesselPhysicalModel;
+import com.synadek.smr.vessel.physical.VesselPhysicalModel.PhysicalDeviceType;
+import java.util.function.LongSupplier;
 
 /**
  * Reports air and water temperature around the vessel.
+ *
+ * <p>
+ * When connected to hardware, the component listens to the air and water
+ * temperature sensors of the vessel's physical model. Each raw value is
+ * converted by a configurable calibration table, filtered and published, so
+ * readers get the latest temperature without waiting on the sensors.
+ * </p>
  */
-public class TemperatureImpl extends AbstractComponent implements Temperature {
+public class TemperatureImpl extends AbstractComponent implements Temperature, PdlAnalogHandler {
+
+  /**
+   * Configuration key for the air temperature calibration table.
+   */
+  public static final String JSON_KEY_AIR_CALIBRATION = "airCalibration";
+
+  /**
+   * Configuration key for the surface temperature calibration table.
+   */
+  public static final String JSON_KEY_SURFACE_CALIBRATION = "surfaceCalibration";
 
   private static final float DEFAULT_AIR_TEMPERATURE = 35.0f;
   private static final float DEFAULT_SURFACE_TEMPERATURE = 10.0f;
@@ -23,12 +47,74 @@ public class TemperatureImpl extends AbstractComponent implements Temperature {
   private float simulatedSurfaceTemperature;
 
   /**
-   * Default constructor.
+   * Physical model supplying the sensors, or null if there is none.
+   */
+  private final VesselPhysicalModel model;
+
+  /**
+   * Calibration and filter settings of both sensors.
+   */
+  private final SensorConfiguration sensors = new SensorConfiguration();
+
+  /**
+   * Air temperature processing chain.
+   */
+  private final SensorChannel air;
+
+  /**
+   * Water surface temperature processing chain.
+   */
+  private final SensorChannel surface;
+
+  /**
+   * Source of sample timestamps in milliseconds.
+   */
+  private final LongSupplier clock;
+
+  /**
+   * Long-horizon aggregates fed with every temperature reading. A vessel sets
+   * its own; the shared rollups are the fallback.
+   */
+  private volatile WeatherRollups rollups = WeatherRollups.getDefault();
+
+  /**
+   * Default constructor, for a component that is only ever simulated.
    */
   public TemperatureImpl() {
+    this(null);
+  }
+
+  /**
+   * Constructor for a component that reads the sensors of a physical model.
+   *
+   * @param physicalModel
+   *          the vessel's physical model
+   */
+  public TemperatureImpl(final VesselPhysicalModel physicalModel) {
+    this(physicalModel, physicalModel != null ? physicalModel::currentTimeMillis
+        : System::currentTimeMillis);
+  }
+
+  /**
+   * Constructor with an explicit clock, for replay and simulation.
+   *
+   * @param physicalModel
+   *          the vessel's physical model, or null
+   * @param clockMillis
+   *          supplies the current time in milliseconds
+   */
+  public TemperatureImpl(final VesselPhysicalModel physicalModel,
+      final LongSupplier clockMillis) {
     super("temperature");
+    model = physicalModel;
+    clock = clockMillis;
     simulatedAirTemperature = DEFAULT_AIR_TEMPERATURE;
     simulatedSurfaceTemperature = DEFAULT_SURFACE_TEMPERATURE;
+    air = sensors.addChannel(JSON_KEY_AIR_CALIBRATION,
+        "Air sensor calibration as comma-separated raw:celsius pairs.");
+    surface = sensors.addChannel(JSON_KEY_SURFACE_CALIBRATION,
+        "Water sensor calibration as comma-separated raw:celsius pairs.");
+    resetConfiguration();
   }
 
   /*
@@ -47,8 +133,7 @@ public class TemperatureImpl extends AbstractComponent implements Temperature {
       return this.simulatedAirTemperature;
     }
 
-    // TODO implement air temperature sensing
-    return 0.0f;
+    return valueOrZero(air);
   }
 
   /*
@@ -64,11 +149,73 @@ public class TemperatureImpl extends AbstractComponent implements Temperature {
       return true;
     }
 
-    // Confirm availability of HW to implement sensing
+    // Listen to the sensors if there is a physical model to read
+    if (model != null) {
+      model.addAnalogInputListener(PhysicalDeviceType.PHY_AIR_TEMPERATURE_SENSOR, this);
+      model.addAnalogInputListener(PhysicalDeviceType.PHY_WATER_TEMPERATURE_SENSOR, this);
+    }
+
+    this.simulated = false;
     this.connected = true;
     return true;
   }
 
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.core.AbstractComponent#disconnect()
+   */
+  @Override
+  public void disconnect() throws ComponentException {
+    if (connected && !simulated && model != null) {
+      model.removeAnalogInputListener(this);
+    }
+    super.disconnect();
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.smr.vessel.physical.PdlAnalogHandler#physicalDeviceStateChange
+   */
+  @Override
+  public void physicalDeviceStateChange(final PhysicalDeviceType idx, final double val) {
+    final long now = clock.getAsLong();
+    if (idx == PhysicalDeviceType.PHY_AIR_TEMPERATURE_SENSOR) {
+      recordReading(WeatherChannel.AIR_TEMPERATURE, air.update(val, now), now);
+    } else if (idx == PhysicalDeviceType.PHY_WATER_TEMPERATURE_SENSOR) {
+      recordReading(WeatherChannel.SURFACE_TEMPERATURE, surface.update(val, now), now);
+    }
+  }
+
+  /**
+   * Set the rollups to which temperature readings are fed.
+   *
+   * @param target
+   *          the rollups, or null to keep no long-horizon aggregates
+   */
+  public void setRollups(final WeatherRollups target) {
+    rollups = target;
+  }
+
+  /**
+   * Feed a temperature reading to the rollups.
+   *
+   * @param channel
+   *          the temperature channel
+   * @param degreesCelsius
+   *          the reading
+   * @param timestamp
+   *          when the reading was taken in millis since the epoch
+   */
+  private void recordReading(final WeatherChannel channel, final double degreesCelsius,
+      final long timestamp) {
+    final WeatherRollups target = rollups;
+    if (target != null) {
+      target.record(channel, degreesCelsius, timestamp);
+    }
+  }
+
   /**
    * For simulated temperature sensors, set the simulated air temperature.
    *
@@ -78,6 +225,7 @@ public class TemperatureImpl extends AbstractComponent implements Temperature {
   public void setAirTemperature(float degreesCelsius) {
     if (this.connected && this.simulated) {
       this.simulatedAirTemperature = degreesCelsius;
+      recordReading(WeatherChannel.AIR_TEMPERATURE, degreesCelsius, clock.getAsLong());
     }
   }
 
@@ -91,6 +239,8 @@ public class TemperatureImpl extends AbstractComponent implements Temperature {
   public void setSurfaceTemperature(float degreesCelsius) {
     if (this.connected && this.simulated) {
       this.simulatedSurfaceTemperature = degreesCelsius;
+      recordReading(WeatherChannel.SURFACE_TEMPERATURE, degreesCelsius,
+          clock.getAsLong());
     }
   }
 
@@ -110,7 +260,41 @@ public class TemperatureImpl extends AbstractComponent implements Temperature {
       return this.simulatedSurfaceTemperature;
     }
 
-    // TODO implement surface temperature sensing
-    return 0.0f;
+    return valueOrZero(surface);
+  }
+
+  /**
+   * Get the latest value of a channel, or 0 until the first reading arrives,
+   * as before sensing was added.
+   *
+   * @param channel
+   *          the channel
+   * @return degrees Celsius
+   */
+  private static float valueOrZero(final SensorChannel channel) {
+    final double value = channel.getValue();
+    return Double.isNaN(value) ? 0.0f : (float) value;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.core.AbstractComponent#resetConfiguration()
+   */
+  @Override
+  public void resetConfiguration() {
+    sensors.reset(myConfiguration);
+    applyConfiguration();
+  }
+
+  /**
+   * Apply the current configuration properties to the sensor channels.
+   */
+  public void applyConfiguration() {
+    try {
+      sensors.apply(myConfiguration);
+    } catch (InvalidValueException err) {
+      log.error("Invalid temperature configuration: {}", err.getMessage());
+    }
   }
 }
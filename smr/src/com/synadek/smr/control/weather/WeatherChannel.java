@@ -0,0 +1,34 @@
+/**
+ * WeatherChannel.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.control.weather;
+
+/**
+ * Weather measurements for which rollups are kept.
+ */
+public enum WeatherChannel {
+
+  /**
+   * Wind speed in m/s.
+   */
+  WIND_SPEED,
+
+  /**
+   * Air temperature in degrees Celsius.
+   */
+  AIR_TEMPERATURE,
+
+  /**
+   * Surface water temperature in degrees Celsius.
+   */
+  SURFACE_TEMPERATURE,
+
+  /**
+   * Solar power in W/m2.
+   */
+  SOLAR_POWER;
+}
@@ -0,0 +1,196 @@
+/**
+ * WeatherRollups.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.control.weather;
+
+import com.synadek.smr.control.mission.BlackBox;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+/**
+ * Keeps 1 second, 1 minute, 10 minute and 1 hour aggregates (min, max, mean,
+ * standard deviation and count) of every weather channel, so that long-horizon
+ * summaries are available without storing raw samples. Each completed hour is
+ * written to the BlackBox.
+ *
+ * <p>
+ * Example of use:
+ * </p>
+ * <p>
+ * WeatherRollups.getDefault().query(WeatherChannel.WIND_SPEED,
+ * RollupResolution.HOUR, dayStart, dayEnd);
+ * </p>
+ */
+public class WeatherRollups {
+
+  /**
+   * The rollups shared by the weather components by default.
+   */
+  private static WeatherRollups defaultRollups;
+
+  /**
+   * Aggregates for each channel.
+   */
+  private final Map<WeatherChannel, RollupSeries> series = new EnumMap<>(WeatherChannel.class);
+
+  /**
+   * Start of the latest hour seen on each channel, indexed by channel ordinal.
+   */
+  private final long[] currentHour = new long[WeatherChannel.values().length];
+
+  /**
+   * True if completed hours are written to the BlackBox.
+   */
+  private volatile boolean hourlyBlackBox = true;
+
+  /**
+   * Default constructor.
+   */
+  public WeatherRollups() {
+    for (WeatherChannel channel : WeatherChannel.values()) {
+      series.put(channel, new RollupSeries());
+      currentHour[channel.ordinal()] = Long.MIN_VALUE;
+    }
+  }
+
+  /**
+   * Get the rollups shared by the weather components.
+   *
+   * @return the rollups
+   */
+  public static synchronized WeatherRollups getDefault() {
+    if (defaultRollups == null) {
+      defaultRollups = new WeatherRollups();
+    }
+    return defaultRollups;
+  }
+
+  /**
+   * Enable or disable writing a summary of each completed hour to the
+   * BlackBox.
+   *
+   * @param enable
+   *          true to write hourly summaries
+   */
+  public void setHourlyBlackBox(final boolean enable) {
+    hourlyBlackBox = enable;
+  }
+
+  /**
+   * Record a sample.
+   *
+   * @param channel
+   *          the weather channel
+   * @param value
+   *          the sample
+   * @param timestamp
+   *          when the sample was taken in millis since the epoch
+   */
+  public void record(final WeatherChannel channel, final double value, final long timestamp) {
+    if (Double.isNaN(value)) {
+      return;
+    }
+    series.get(channel).add(value, timestamp);
+
+    final long hour = Math.floorDiv(timestamp, RollupResolution.HOUR.getMillis())
+        * RollupResolution.HOUR.getMillis();
+    final long previous;
+    synchronized (currentHour) {
+      previous = currentHour[channel.ordinal()];
+      if (hour <= previous) {
+        return;
+      }
+      currentHour[channel.ordinal()] = hour;
+    }
+    if (previous != Long.MIN_VALUE && hourlyBlackBox) {
+      BlackBox.addData(toJson(channel,
+          summarize(channel, RollupResolution.HOUR, previous, previous + 1)));
+    }
+  }
+
+  /**
+   * Get the buckets of a channel within a time range, oldest first.
+   *
+   * @param channel
+   *          the weather channel
+   * @param resolution
+   *          the bucket size
+   * @param from
+   *          start of the range in millis since the epoch (inclusive)
+   * @param to
+   *          end of the range in millis since the epoch (exclusive)
+   * @return the buckets still retained at that resolution
+   */
+  public List<RollupBucket> query(final WeatherChannel channel,
+      final RollupResolution resolution, final long from, final long to) {
+    return series.get(channel).query(resolution, from, to);
+  }
+
+  /**
+   * Summarize a channel over a time range by combining its buckets.
+   *
+   * @param channel
+   *          the weather channel
+   * @param resolution
+   *          the bucket size to combine; the range is widened to whole buckets
+   * @param from
+   *          start of the range in millis since the epoch (inclusive)
+   * @param to
+   *          end of the range in millis since the epoch (exclusive)
+   * @return the aggregate
+   */
+  public RollupBucket summarize(final WeatherChannel channel, final RollupResolution resolution,
+      final long from, final long to) {
+    return series.get(channel).summarize(resolution, from, to);
+  }
+
+  /**
+   * Report the buckets of a channel within a time range, for the UI.
+   *
+   * @param channel
+   *          the weather channel
+   * @param resolution
+   *          the bucket size
+   * @param from
+   *          start of the range in millis since the epoch (inclusive)
+   * @param to
+   *          end of the range in millis since the epoch (exclusive)
+   * @return the channel, resolution and buckets
+   */
+  @SuppressWarnings("unchecked")
+  public JSONObject getStatus(final WeatherChannel channel, final RollupResolution resolution,
+      final long from, final long to) {
+    final JSONArray buckets = new JSONArray();
+    for (RollupBucket bucket : query(channel, resolution, from, to)) {
+      buckets.add(bucket.toJson());
+    }
+    final JSONObject result = new JSONObject();
+    result.put("channel", channel.name());
+    result.put("resolution", resolution.name());
+    result.put("buckets", buckets);
+    return result;
+  }
+
+  /**
+   * Represent a summary of a channel as JSON.
+   *
+   * @param channel
+   *          the weather channel
+   * @param bucket
+   *          the summary
+   * @return the summary labelled with its channel
+   */
+  @SuppressWarnings("unchecked")
+  private static JSONObject toJson(final WeatherChannel channel, final RollupBucket bucket) {
+    final JSONObject result = bucket.toJson();
+    result.put("channel", channel.name());
+    return result;
+  }
+}
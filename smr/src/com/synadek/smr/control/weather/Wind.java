@@ -24,7 +24,7 @@ public interface Wind {
   /**
    * Standard deviation on wind direction samples.
    *
-   * @return the standard deviation
+   * @return the standard deviation in degrees
    */
   double getWindDirectionStdDev();
 
@@ -42,6 +42,20 @@ public interface Wind {
    */
   double getWindSpeedStdDev();
 
+  /**
+   * Peak wind speed: the highest 3-second mean speed within the sample time.
+   *
+   * @return gust speed in m/s.
+   */
+  double getWindGust();
+
+  /**
+   * Whether the gust exceeds the mean wind speed by 10 knots or more.
+   *
+   * @return true if the wind is gusting
+   */
+  boolean isGusting();
+
   /**
    * Wind speed range according to Beaufort scale.
    *
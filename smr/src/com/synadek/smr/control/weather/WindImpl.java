@@ -7,92 +7,150 @@
 
 package com.synadek.smr.control.weather;
 
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Locale;
+import java.util.function.LongSupplier;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 /**
  * Implement interface to wind measuring instruments.
+ *
+ * <p>
+ * Samples are kept in fixed-capacity ring buffers covering the wind sample
+ * time, and statistics are updated incrementally, so adding a sample or
+ * reading a statistic costs constant time however long the window. Wind
+ * direction is averaged on the circle from running sums of sin and cos, so
+ * 359 and 1 average to 0 rather than 180.
+ * </p>
+ *
+ * <p>
+ * Gusts follow the WMO convention: the gust is the highest 3-second mean speed
+ * within the sample time, and the wind is gusting when the gust exceeds the
+ * mean speed by at least 10 knots.
+ * </p>
  */
 public class WindImpl implements Wind {
 
   /**
-   * Establish a default size of the sample set over which wind measurements
-   * will be averaged.
+   * Default period over which wind measurements are averaged, in seconds
+   * (the WMO ten minute mean).
    */
-  private static final int DEFAULT_SAMPLE_SIZE = 10;
+  private static final int DEFAULT_SAMPLE_TIME = 600;
 
   /**
-   * Define the control variable for heading sample size and initialize to the
-   * default.
+   * Highest sample rate for which buffer space is reserved, in Hz. Samples
+   * arriving faster than this shorten the effective window.
    */
-  private int maxHeadingSamples = DEFAULT_SAMPLE_SIZE;
+  private static final int MAX_SAMPLE_RATE = 10;
 
   /**
-   * Define the control variable for speed sample size and initialize to the
-   * default.
+   * Period over which speed is averaged to measure a gust, in milliseconds.
    */
-  private int maxSpeedSamples = DEFAULT_SAMPLE_SIZE;
+  private static final long GUST_PERIOD_MILLIS = 3000;
+
   /**
-   * Keep a list of recent wind direction data.
+   * Excess of gust over mean speed that constitutes gusting, in m/s (10
+   * knots).
    */
-  private final List<WindDirectionSample> wdSamples = new LinkedList<>();
+  private static final double GUST_THRESHOLD = 5.144;
 
   /**
-   * Keep a list of recent wind speed data.
+   * Number of milliseconds in one second.
    */
-  private final List<WindSpeedSample> wsSamples = new LinkedList<>();
+  private static final long MILLIS_PER_SECOND = 1000;
 
   /**
-   * Average wind direction (degrees) over the sample period.
+   * Acquire a reference to the application logger.
    */
-  private double headingAvg;
+  private static Logger log = LogManager.getLogger(WindImpl.class.getPackage().getName());
 
   /**
-   * Standard deviation of wind direction over the sample period.
+   * Source of sample timestamps in milliseconds.
    */
-  private double headingSd;
+  private final LongSupplier clock;
 
   /**
-   * Average wind speed (m/s) over the sample period.
+   * Desired period over which to collect and average samples for wind
+   * measurements.
    */
-  private double speedAvg;
+  private int sampleTimeSeconds;
 
   /**
-   * Standard deviation of wind speed over the sample period.
+   * Recent wind direction samples in degrees.
    */
-  private double speedSd;
+  private SampleWindow directions;
 
   /**
-   * Desired period over which to collect and average samples for wind
-   * measurements.
+   * Recent wind speed samples in m/s.
    */
-  private int sampleTimeSeconds;
+  private SampleWindow speeds;
 
   /**
-   * Track average sample arrival interval for wind headings in milliseconds.
+   * Wind speed samples over the gust period.
    */
-  private long headingIntersampleTime = 1000;
+  private final SampleWindow gustSpeeds;
 
   /**
-   * Track average sample arrival interval for wind speed milliseconds.
+   * Gust period mean speeds over the sample period, whose maximum is the
+   * gust.
    */
-  private long speedIntersampleTime = 1000;
+  private SampleWindow gustMeans;
 
   /**
-   * Acquire a reference to the application logger.
+   * True while the wind is gusting.
    */
-  private static Logger log = LogManager.getLogger(WindImpl.class.getPackage().getName());
+  private boolean gusting;
+
+  /**
+   * Long-horizon aggregates fed with every speed sample, by default the shared
+   * rollups.
+   */
+  private volatile WeatherRollups rollups = WeatherRollups.getDefault();
 
   /**
    * Default constructor.
    */
   public WindImpl() {
-    /*
-     * No initialization required.
-     */
+    this(System::currentTimeMillis);
+  }
+
+  /**
+   * Constructor with an explicit clock, for replay and simulation.
+   *
+   * @param clockMillis
+   *          supplies the current time in milliseconds
+   */
+  public WindImpl(final LongSupplier clockMillis) {
+    clock = clockMillis;
+    gustSpeeds = newWindow(GUST_PERIOD_MILLIS, false);
+    sampleTimeSeconds = DEFAULT_SAMPLE_TIME;
+    directions = newWindow(sampleTimeSeconds * MILLIS_PER_SECOND, true);
+    speeds = newWindow(sampleTimeSeconds * MILLIS_PER_SECOND, false);
+    gustMeans = newWindow(sampleTimeSeconds * MILLIS_PER_SECOND, false);
+  }
+
+  /**
+   * Set the rollups to which speed samples are fed.
+   *
+   * @param target
+   *          the rollups, or null to keep no long-horizon aggregates
+   */
+  public void setRollups(final WeatherRollups target) {
+    rollups = target;
+  }
+
+  /**
+   * Create a window sized for the highest expected sample rate.
+   *
+   * @param spanMillis
+   *          length of the window in milliseconds
+   * @param angles
+   *          true if the samples are angles in degrees
+   * @return the window
+   */
+  private static SampleWindow newWindow(final long spanMillis, final boolean angles) {
+    final long capacity = spanMillis * MAX_SAMPLE_RATE / MILLIS_PER_SECOND;
+    return new SampleWindow(spanMillis, (int) Math.min(Integer.MAX_VALUE - 8, capacity), angles);
   }
 
   /*
@@ -101,18 +159,35 @@ public class WindImpl implements Wind {
    * @see com.smr.control.weather.Wind#getWindDirectionAvg()
    */
   @Override
-  public double getWindDirectionAvg() {
-    return headingAvg;
+  public synchronized double getWindDirectionAvg() {
+    directions.expire(clock.getAsLong());
+    final double degrees = Math.toDegrees(
+        Math.atan2(directions.getMeanSin(), directions.getMeanCos()));
+    return (degrees + 360.0) % 360.0;
   }
 
-  /*
-   * (non-Javadoc)
-   * 
+  /**
+   * Standard deviation of wind direction in degrees, by the Yamartino method.
+   * See http://en.wikipedia.org/wiki/Yamartino_method
+   *
    * @see com.smr.control.weather.Wind#getWindDirectionStdDev()
    */
   @Override
-  public double getWindDirectionStdDev() {
-    return headingSd;
+  public synchronized double getWindDirectionStdDev() {
+    directions.expire(clock.getAsLong());
+    if (directions.size() < 1) {
+      return Double.NaN;
+    }
+    final double ssAlpha = directions.getMeanSin();
+    final double ccAlpha = directions.getMeanCos();
+
+    double epsilon = Math.sqrt(1.0 - (ssAlpha * ssAlpha + ccAlpha * ccAlpha));
+    if (Double.isNaN(epsilon)) {
+      epsilon = 0.0;
+    }
+
+    return Math.toDegrees(
+        Math.asin(epsilon) * (1.0 + (2.0 / Math.sqrt(3.0) - 1.0) * Math.pow(epsilon, 3.0)));
   }
 
   /*
@@ -121,7 +196,7 @@ public class WindImpl implements Wind {
    * @see com.smr.control.weather.Wind#getWindSampleTime()
    */
   @Override
-  public int getWindSampleTime() {
+  public synchronized int getWindSampleTime() {
     return sampleTimeSeconds;
   }
 
@@ -131,17 +206,25 @@ public class WindImpl implements Wind {
    * @see com.smr.control.weather.Wind#setWindDirectionSampleTime(int)
    */
   @Override
-  public void setWindSampleTime(int samplePeriodSeconds) {
+  public synchronized void setWindSampleTime(int samplePeriodSeconds) {
     // Error check inputs
     if (samplePeriodSeconds < 1) {
       log.error("Invalid sample period: " + samplePeriodSeconds + "-- ignored");
       return;
     }
     sampleTimeSeconds = samplePeriodSeconds;
-    final long desiredSampleTimeMillis = samplePeriodSeconds * 1000;
-    maxHeadingSamples = (int) Math
-        .round(desiredSampleTimeMillis / (double) headingIntersampleTime);
-    maxSpeedSamples = (int) Math.round(desiredSampleTimeMillis / (double) speedIntersampleTime);
+    final long spanMillis = samplePeriodSeconds * MILLIS_PER_SECOND;
+
+    // Carry the samples still inside the new window into new buffers
+    final SampleWindow newDirections = newWindow(spanMillis, true);
+    final SampleWindow newSpeeds = newWindow(spanMillis, false);
+    final SampleWindow newGustMeans = newWindow(spanMillis, false);
+    directions.copyTo(newDirections);
+    speeds.copyTo(newSpeeds);
+    gustMeans.copyTo(newGustMeans);
+    directions = newDirections;
+    speeds = newSpeeds;
+    gustMeans = newGustMeans;
   }
 
   /*
@@ -150,8 +233,9 @@ public class WindImpl implements Wind {
    * @see com.smr.control.weather.Wind#getWindSpeedAvg()
    */
   @Override
-  public double getWindSpeedAvg() {
-    return speedAvg;
+  public synchronized double getWindSpeedAvg() {
+    speeds.expire(clock.getAsLong());
+    return speeds.getMean();
   }
 
   /*
@@ -160,8 +244,30 @@ public class WindImpl implements Wind {
    * @see com.smr.control.weather.Wind#getWindSpeedStdDev()
    */
   @Override
-  public double getWindSpeedStdDev() {
-    return speedSd;
+  public synchronized double getWindSpeedStdDev() {
+    speeds.expire(clock.getAsLong());
+    return speeds.getStdDev();
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.smr.control.weather.Wind#getWindGust()
+   */
+  @Override
+  public synchronized double getWindGust() {
+    gustMeans.expire(clock.getAsLong());
+    return gustMeans.getMax();
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.smr.control.weather.Wind#isGusting()
+   */
+  @Override
+  public synchronized boolean isGusting() {
+    return getWindGust() - getWindSpeedAvg() >= GUST_THRESHOLD;
   }
 
   /*
@@ -171,7 +277,7 @@ public class WindImpl implements Wind {
    */
   @Override
   public int getWindSpeedBeaufort() {
-    return Beaufort.index(this.speedAvg);
+    return Beaufort.index(getWindSpeedAvg());
   }
 
   /*
@@ -181,7 +287,7 @@ public class WindImpl implements Wind {
    */
   @Override
   public String getWindSpeedLabel(final Locale locale) {
-    final int beaufortNumber = Beaufort.index(this.speedAvg);
+    final int beaufortNumber = Beaufort.index(getWindSpeedAvg());
     return Beaufort.label(beaufortNumber, locale);
   }
 
@@ -192,7 +298,7 @@ public class WindImpl implements Wind {
    */
   @Override
   public String getWindSpeedDescription(final Locale locale) {
-    final int beaufortNumber = Beaufort.index(this.speedAvg);
+    final int beaufortNumber = Beaufort.index(getWindSpeedAvg());
     return Beaufort.description(beaufortNumber, locale);
   }
 
@@ -203,29 +309,19 @@ public class WindImpl implements Wind {
    *          is the current direction heading in degrees
    */
   public void addDirectionSample(int heading) {
-    WindDirectionSample newSample = new WindDirectionSample(heading);
-
-    // Add the new sample the the head of the list
-    wdSamples.add(newSample);
-
-    // Keep list to the desired size
-    if (wdSamples.size() > maxHeadingSamples) {
-      wdSamples.remove(wdSamples.size() - 1);
-    }
-
-    // Note the size of the sample set after any necessary adjustment
-    final int sampleCount = wdSamples.size();
-
-    // Update calculated average and standard deviation for wind direction
-    calculateAvgDirection();
+    addDirectionSample(heading, clock.getAsLong());
+  }
 
-    // If enough samples have been collected, update the average intersample
-    // arrival rate
-    if (sampleCount > 1) {
-      final long tsLatest = wdSamples.get(0).getTimestamp();
-      final long tsOldest = wdSamples.get(sampleCount - 1).getTimestamp();
-      headingIntersampleTime = (tsLatest - tsOldest) / sampleCount;
-    }
+  /**
+   * Capture a new sample taken at a given time.
+   *
+   * @param heading
+   *          is the direction heading in degrees
+   * @param timestamp
+   *          is when the sample was taken in milliseconds
+   */
+  public synchronized void addDirectionSample(int heading, long timestamp) {
+    directions.add(heading, timestamp);
   }
 
   /**
@@ -235,97 +331,32 @@ public class WindImpl implements Wind {
    *          is the current speed in meters per second
    */
   public void addSpeedSample(double speed) {
-    WindSpeedSample newSample = new WindSpeedSample(speed);
-
-    // Add the new sample the the head of the list
-    wsSamples.add(newSample);
-
-    // Keep list to the desired size
-    if (wsSamples.size() > maxSpeedSamples) {
-      wsSamples.remove(wsSamples.size() - 1);
-    }
-
-    // Note the size of the sample set after any necessary adjustment
-    final int sampleCount = wsSamples.size();
-
-    // Update calculated average and standard deviation for wind speed
-    calculateAvgSpeed();
-
-    // If enough samples have been collected, update the average intersample
-    // arrival rate
-    if (sampleCount > 1) {
-      final long tsLatest = wsSamples.get(0).getTimestamp();
-      final long tsOldest = wsSamples.get(sampleCount - 1).getTimestamp();
-      speedIntersampleTime = (tsLatest - tsOldest) / sampleCount;
-    }
-  }
-
-  /**
-   * Update average and standard deviation for wind speed. Per Wikipedia, this
-   * algorithm is due to Knuth, who cites Welford.
-   */
-  private final void calculateAvgSpeed() {
-
-    int count = 0;
-    double mean = 0.0;
-    double mean2 = 0.0;
-    double sum = 0.0;
-
-    for (WindSpeedSample sample : wsSamples) {
-      final double speed = sample.getSpeed();
-      count += 1;
-      sum += speed;
-      double delta = speed - mean;
-      mean += delta / count;
-      mean2 += delta * (speed - mean);
-    }
-
-    this.speedAvg = sum / count;
-
-    if (count < 2) {
-      this.speedSd = Double.NaN;
-    } else {
-      this.speedSd = mean2 / (count - 1);
-    }
+    addSpeedSample(speed, clock.getAsLong());
   }
 
   /**
-   * Update the average and standard deviation for wind direction from a set of
-   * samples. Uses Yamartino method as described in Wikipedia. See
-   * http://en.wikipedia.org/wiki/Yamartino_method
-   */
-  private void calculateAvgDirection() {
-    // Compute updated average direction using Yamartino algorithm
-    double ssSum = 0;
-    double ccSum = 0;
-
-    // Sum the sin and cos of the samples
-    for (WindDirectionSample sample : wdSamples) {
-      ssSum += sample.getSin();
-      ccSum += sample.getCos();
-    }
-
-    double ccAlpha = ccSum / wdSamples.size();
-    double ssAlpha = ssSum / wdSamples.size();
-
-    // calculate the average heading
-    double tangent = Math.atan2(ccAlpha, ssAlpha);
-    if (tangent <= 0) {
-      headingAvg = tangent + 2.0 * Math.PI;
-    } else {
-      headingAvg = tangent;
+   * Capture a new sample taken at a given time and update the gust.
+   *
+   * @param speed
+   *          is the speed in meters per second
+   * @param timestamp
+   *          is when the sample was taken in milliseconds
+   */
+  public synchronized void addSpeedSample(double speed, long timestamp) {
+    speeds.add(speed, timestamp);
+    gustSpeeds.add(speed, timestamp);
+    gustMeans.add(gustSpeeds.getMean(), timestamp);
+
+    final WeatherRollups target = rollups;
+    if (target != null) {
+      target.record(WeatherChannel.WIND_SPEED, speed, timestamp);
     }
 
-    // calculate the standard deviation
-    double ssAlphaSquared = ssAlpha * ssAlpha;
-    double ccAlphaSquared = ccAlpha * ccAlpha;
-    double epsilon = Math.sqrt(1.0 - (ssAlphaSquared + ccAlphaSquared));
-
-    // See http://en.wikipedia.org/wiki/Yamartino_method
-    if (Double.isNaN(epsilon)) {
-      epsilon = 0.0;
+    final boolean nowGusting = gustMeans.getMax() - speeds.getMean() >= GUST_THRESHOLD;
+    if (nowGusting != gusting) {
+      gusting = nowGusting;
+      log.info("Wind {} gusting: mean {} m/s, gust {} m/s", gusting ? "is" : "no longer",
+          Double.valueOf(speeds.getMean()), Double.valueOf(gustMeans.getMax()));
     }
-
-    headingSd = Math.asin(epsilon) * (1.0 + (2.0 / Math.sqrt(3.0) - 1.0) * Math.pow(epsilon, 3.0));
   }
 }
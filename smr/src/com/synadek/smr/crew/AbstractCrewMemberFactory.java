@@ -7,15 +7,16 @@
 
 package com.synadek.smr.crew;
 
+import com.synadek.core.SerialDispatcher;
+import com.synadek.core.TaskExecutors;
 import com.synadek.smr.control.mission.BlackBox;
-import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.TimeUnit;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.json.simple.JSONObject;
@@ -23,7 +24,7 @@ import org.json.simple.JSONObject;
 /**
  * Abstract class implementing general crew member functions.
  */
-public abstract class AbstractCrewMemberFactory implements CrewMember, Runnable {
+public abstract class AbstractCrewMemberFactory implements CrewMember {
 
   /**
    * All available roles for crew members.
@@ -43,18 +44,19 @@ public abstract class AbstractCrewMemberFactory implements CrewMember, Runnable
   /**
    * Maintain an inbound message queue for each crew member.
    */
-  private static final Map<CrewMember, BlockingQueue<CrewMessage>> crewQueues = new HashMap<>();
+  private static final Map<CrewMember, BlockingQueue<CrewMessage>> crewQueues =
+      new ConcurrentHashMap<>();
 
   /**
-   * Maximum number of milliseconds to wait for a Crew Member thread to
-   * terminate.
+   * Maximum number of milliseconds to wait for a Crew Member to finish the
+   * message in progress when going off duty.
    */
   private static final long MAX_THREAD_TERMINATION_WAIT = 3000;
 
   /**
-   * Thread implementing the functions of this crew member.
+   * Dispatcher delivering messages to this crew member while on duty.
    */
-  private Thread myThread;
+  private volatile SerialDispatcher<CrewMessage> myDispatcher;
 
   /**
    * Name of this crew member.
@@ -66,11 +68,6 @@ public abstract class AbstractCrewMemberFactory implements CrewMember, Runnable
    */
   private final String myRole;
 
-  /**
-   * Signal a thread to terminate for a specific crew member.
-   */
-  protected boolean isTerminateRequested;
-
   /**
    * Acquire a reference to the application logger.
    */
@@ -92,48 +89,94 @@ public abstract class AbstractCrewMemberFactory implements CrewMember, Runnable
     myName = crewName;
     // Remember my role
     myRole = rolename;
-    // Clear the termination flag
-    isTerminateRequested = false;
   }
 
   /**
-   * Start the thread that animates this crew role.
+   * Start delivering messages to this crew member. Messages are processed one
+   * at a time, in order, on a task of the shared executor; no thread is held
+   * while the crew member waits for a message.
    */
-  public void goOnDuty() {
-
-    // Clear the termination flag
-    isTerminateRequested = false;
+  public synchronized void goOnDuty() {
 
-    // Create a thread to implement this role.
-    myThread = new Thread(this);
+    // Ignore repeated requests
+    if (myDispatcher != null) {
+      return;
+    }
 
-    // Start the thread.
-    myThread.start();
+    myDispatcher = new SerialDispatcher<CrewMessage>("Crew member " + myName,
+        crewQueues.get(this), TaskExecutors.getDefault()) {
+      @Override
+      protected void process(final CrewMessage msg) {
+        receive(msg);
+      }
+    };
+    myDispatcher.start();
+    log.debug("Crew member " + this.getCrewName() + " is on duty.");
   }
 
   /**
-   * Stop the thread that animates this crew role.
+   * Stop delivering messages to this crew member, waiting for the message in
+   * progress (if any) to be processed. Messages that arrive while off duty
+   * are kept until the crew member goes on duty again.
    */
   public void goOffDuty() {
+    final SerialDispatcher<CrewMessage> dispatcher;
+    synchronized (this) {
+      dispatcher = myDispatcher;
+      myDispatcher = null;
+    }
+
+    // No further action if already off duty
+    if (dispatcher == null) {
+      return;
+    }
+
+    dispatcher.stop(MAX_THREAD_TERMINATION_WAIT);
+    log.debug("Crew member " + this.getCrewName() + " is off duty");
+  }
+
+  /**
+   * Validate a message and pass it to the crew member to process.
+   *
+   * @param msg
+   *          the message
+   */
+  private void receive(final CrewMessage msg) {
 
-    // Signal request to terminate
-    isTerminateRequested = true;
+    // Handle special case of null message (should never occur).
+    if (msg == null) {
+      log.error("processMessage invoked with null message");
+      return;
+    }
 
-    // No further action if thread is already gone
-    if (myThread == null) {
+    // Get the contents of the message
+    final JSONObject contents = msg.getMessage();
+
+    // Confirm that message is not null
+    if (contents == null) {
+      log.error("processMessage invoked with a message that contains no contents.");
       return;
     }
 
-    // Interrupt the thread and await termination
-    try {
-      myThread.interrupt();
-      myThread.join(MAX_THREAD_TERMINATION_WAIT);
-    } catch (InterruptedException err) {
-      // If this thread interrupted during join, report the error
-      err.printStackTrace();
+    // Confirm that the message contents are well-formed
+    if (!contents.containsKey("cmd")) {
+      log.error("processMessage invoked with a message that contains no command: "
+          + contents.toJSONString());
+      return;
+    }
+
+    // Message is valid, pass it to the crew member to process
+    processMessage(msg);
+  }
+
+  /**
+   * Wake this crew member to process newly queued messages.
+   */
+  private void wake() {
+    final SerialDispatcher<CrewMessage> dispatcher = myDispatcher;
+    if (dispatcher != null) {
+      dispatcher.signal();
     }
-    myThread = null;
-    log.debug("Crew member " + this.getCrewName() + " is off duty");
   }
 
   /**
@@ -173,69 +216,6 @@ public abstract class AbstractCrewMemberFactory implements CrewMember, Runnable
     return myRole;
   }
 
-  /*
-   * (non-Javadoc)
-   * 
-   * @see java.lang.Runnable#run()
-   */
-  @Override
-  public final void run() {
-    // For debugging convenience, set the name of the thread to the name of the
-    // crew member.
-    Thread.currentThread().setName(myName);
-
-    // Initialize
-    log.debug("Crew member " + this.getCrewName() + " is on duty.");
-
-    // Operate
-    while (!this.isTerminateRequested) {
-      try {
-        final CrewMessage msg = listen(0);
-
-        // Handle special case of null message (should never occur).
-        if (msg == null) {
-          log.error("processMessage invoked with null message");
-          break;
-        }
-
-        // Get the contents of the message
-        final JSONObject contents = msg.getMessage();
-
-        // Confirm that message is not null
-        if (contents == null) {
-          log.error("processMessage invoked with a message that contains no contents.");
-          break;
-        }
-
-        // Confirm that the message contents are well-formed
-        if (!contents.containsKey("cmd")) {
-          log.error("processMessage invoked with a message that contains no command: "
-              + contents.toJSONString());
-          break;
-        }
-
-        // Message is valid, pass it to the crew member to process
-        processMessage(msg);
-
-      } catch (InterruptedException err) {
-        log.warn("Crew member " + this.getCrewName() + " interrupted while awaiting a message.");
-        try {
-          throw err;
-        } catch (InterruptedException e) {
-          e.printStackTrace();
-        }
-      }
-    }
-
-    // Shutdown
-
-    // Remove the message queue for this Crew Member
-    crewQueues.remove(this);
-
-    // Terminate the thread for this Crew Member
-    goOffDuty();
-  }
-
   /**
    * Tell a message to a specific crew member.
    *
@@ -249,8 +229,16 @@ public abstract class AbstractCrewMemberFactory implements CrewMember, Runnable
     final BlockingQueue<CrewMessage> queue = crewQueues.get(member);
     // Formulate the message
     final CrewMessage cm = new CrewMessage(this, member, msg);
-    // Queue the message
+    // Ignore messages to unknown crew members
+    if (queue == null) {
+      log.warn("Crew member " + member.getCrewName() + " is not accepting messages");
+      return;
+    }
+    // Queue the message and wake the recipient
     queue.add(cm);
+    if (member instanceof AbstractCrewMemberFactory) {
+      ((AbstractCrewMemberFactory) member).wake();
+    }
     // Record the message in the black box
     BlackBox.addMessage(cm.toString());
   }
@@ -279,22 +267,4 @@ public abstract class AbstractCrewMemberFactory implements CrewMember, Runnable
   protected final void announce(final JSONObject msg) {
     tell(crewList(), msg);
   }
-
-  /**
-   * Listen for a message.
-   *
-   * @param timeoutMillis
-   *          maximum time to wait (milliseconds). If timeoutMillis is zero,
-   *          listen until a message arrives.
-   * @return the message
-   * @throws InterruptedException
-   *           if interrupted or no response after a short time.
-   */
-  protected final CrewMessage listen(final long timeoutMillis) throws InterruptedException {
-    final BlockingQueue<CrewMessage> myQueue = crewQueues.get(this);
-    if (timeoutMillis > 0) {
-      return myQueue.poll(timeoutMillis, TimeUnit.MILLISECONDS);
-    }
-    return myQueue.take();
-  }
 }
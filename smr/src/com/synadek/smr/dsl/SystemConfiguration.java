@@ -7,6 +7,7 @@
 
 package com.synadek.smr.dsl;
 
+import com.synadek.core.PidTuning;
 import com.synadek.smr.database.Database;
 import java.io.IOException;
 import java.io.StringReader;
@@ -46,6 +47,11 @@ public final class SystemConfiguration {
    */
   private static final int MAX_VALUE_SIZE = 2048;
 
+  /**
+   * prefix of the elements holding control loop gains.
+   */
+  private static final String PID_PREFIX = "pid.";
+
   /**
    * System appropriate new line indicator.
    */
@@ -341,6 +347,43 @@ public final class SystemConfiguration {
     setElement(key, String.valueOf(value));
   }
 
+  /**
+   * Save the gains of a tuned control loop. The gains are stored as the
+   * elements pid.&lt;loop&gt;.kp, .ki, .kd, .ku and .tu.
+   *
+   * @param loopName
+   *          is the name of the control loop
+   * @param tuning
+   *          is the tuning to save
+   */
+  public static void savePidTuning(final String loopName, final PidTuning tuning) {
+    final String prefix = PID_PREFIX + loopName + ".";
+    setElement(prefix + "kp", tuning.getKp());
+    setElement(prefix + "ki", tuning.getKi());
+    setElement(prefix + "kd", tuning.getKd());
+    setElement(prefix + "ku", tuning.getUltimateGain());
+    setElement(prefix + "tu", tuning.getUltimatePeriod());
+  }
+
+  /**
+   * Load the gains of a tuned control loop.
+   *
+   * @param loopName
+   *          is the name of the control loop
+   * @return the saved tuning or null if the loop has not been tuned
+   */
+  public static PidTuning loadPidTuning(final String loopName) {
+    final String prefix = PID_PREFIX + loopName + ".";
+    try {
+      return new PidTuning(getDoubleElement(prefix + "kp"), getDoubleElement(prefix + "ki"),
+          getDoubleElement(prefix + "kd"), getDoubleElement(prefix + "ku"),
+          getDoubleElement(prefix + "tu"));
+    } catch (NoSuchElementException e) {
+      log.debug("No saved tuning for control loop " + loopName);
+      return null;
+    }
+  }
+
   /**
    * Create a new configuration element.
    *
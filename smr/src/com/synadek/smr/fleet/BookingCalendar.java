@@ -8,25 +8,39 @@
 package com.synadek.smr.fleet;
 
 import com.synadek.smr.vessel.Vessel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * A booking calendar for the fleet indicating when each vessel is
- * booked/available.
+ * booked/available. The shared calendar lists Golden Moon and Silver Moon
+ * unless another fleet is set, e.g. the vessels of a FleetSimulator.
  */
 public class BookingCalendar {
 
-  private final Vessel[] fleet = {GoldenMoon.getInstance(), SilverMoon.getInstance() };
+  private final List<Vessel> fleet;
 
   private final Map<String, BookingParameter> bookingData = new HashMap<>();
 
   private static BookingCalendar instance;
 
   /**
-   * Default constructor.
+   * Vessels listed by the shared calendar, or null for the two named hulls.
    */
-  private BookingCalendar() {
+  private static List<? extends Vessel> configuredFleet;
+
+  /**
+   * Explicit constructor.
+   *
+   * @param vessels
+   *          the vessels of the fleet
+   */
+  public BookingCalendar(final List<? extends Vessel> vessels) {
+    fleet = new ArrayList<>(vessels);
 
     // Construct the booking data by querying each vessel in the fleet.
     for (Vessel vessel : fleet) {
@@ -36,22 +50,55 @@ public class BookingCalendar {
 
   /**
    * Get a reference to the booking calendar.
+   *
+   * @return the shared booking calendar
    */
-  public static BookingCalendar getInstance() {
+  public static synchronized BookingCalendar getInstance() {
     if (instance == null) {
-      instance = new BookingCalendar();
+      instance = new BookingCalendar(configuredFleet != null ? configuredFleet
+          : Arrays.asList(GoldenMoon.getInstance(), SilverMoon.getInstance()));
       return instance;
     }
     return instance;
   }
 
+  /**
+   * Set the vessels listed by the shared booking calendar, e.g. the vessels of
+   * a FleetSimulator. The current instance is discarded.
+   *
+   * @param vessels
+   *          the vessels, or null for Golden Moon and Silver Moon
+   */
+  public static synchronized void setFleet(final List<? extends Vessel> vessels) {
+    configuredFleet = vessels == null ? null : new ArrayList<>(vessels);
+    instance = null;
+  }
+
   /**
    * Discard the booking calendar instance.
    */
-  public static void discardInstance() {
+  public static synchronized void discardInstance() {
     instance = null;
   }
 
+  /**
+   * Get the vessels of the fleet.
+   *
+   * @return the vessels
+   */
+  public List<Vessel> getFleet() {
+    return Collections.unmodifiableList(fleet);
+  }
+
+  /**
+   * Get the booking data of the fleet.
+   *
+   * @return the booking data by vessel name
+   */
+  public Map<String, BookingParameter> getBookingData() {
+    return Collections.unmodifiableMap(bookingData);
+  }
+
   /**
    * Get booking data from a vessel.
    *
@@ -0,0 +1,272 @@
+/**
+ * FleetMetrics.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.fleet;
+
+import org.json.simple.JSONObject;
+
+/**
+ * An immutable summary of a fleet simulation run.
+ */
+public final class FleetMetrics {
+
+  /**
+   * Nanoseconds per second.
+   */
+  private static final double NANOS_PER_SECOND = 1.0e9;
+
+  /**
+   * Number of vessels in the fleet.
+   */
+  private final int vessels;
+
+  /**
+   * Number of missions offered to the fleet.
+   */
+  private final int missions;
+
+  /**
+   * Number of missions completed.
+   */
+  private final int completed;
+
+  /**
+   * Simulated time run, in seconds.
+   */
+  private final double simulatedSeconds;
+
+  /**
+   * Real time taken, in nanoseconds.
+   */
+  private final long wallNanos;
+
+  /**
+   * Real time spent simulating vessels, summed over threads, in nanoseconds.
+   */
+  private final long busyNanos;
+
+  /**
+   * Route distance completed, in metres.
+   */
+  private final double covered;
+
+  /**
+   * Route distance of all missions, in metres.
+   */
+  private final double routeLength;
+
+  /**
+   * Net energy drawn from the batteries of the fleet, in watt hours.
+   */
+  private final double energy;
+
+  /**
+   * Number of times two vessels came closer than the conflict distance.
+   */
+  private final int conflicts;
+
+  /**
+   * Least distance between any two vessels, in metres.
+   */
+  private final double minSeparation;
+
+  /**
+   * Explicit constructor.
+   *
+   * @param fleetSize
+   *          number of vessels in the fleet
+   * @param offered
+   *          number of missions offered to the fleet
+   * @param done
+   *          number of missions completed
+   * @param simSeconds
+   *          simulated time run, in seconds
+   * @param wall
+   *          real time taken, in nanoseconds
+   * @param busy
+   *          real time spent simulating vessels, summed over threads, in
+   *          nanoseconds
+   * @param made
+   *          route distance completed, in metres
+   * @param total
+   *          route distance of all missions, in metres
+   * @param wattHours
+   *          net energy drawn from the batteries, in watt hours
+   * @param closeCalls
+   *          number of times two vessels came closer than the conflict
+   *          distance
+   * @param closest
+   *          least distance between any two vessels, in metres
+   */
+  public FleetMetrics(final int fleetSize, final int offered, final int done,
+      final double simSeconds, final long wall, final long busy, final double made,
+      final double total, final double wattHours, final int closeCalls, final double closest) {
+    vessels = fleetSize;
+    missions = offered;
+    completed = done;
+    simulatedSeconds = simSeconds;
+    wallNanos = wall;
+    busyNanos = busy;
+    covered = made;
+    routeLength = total;
+    energy = wattHours;
+    conflicts = closeCalls;
+    minSeparation = closest;
+  }
+
+  /**
+   * Get the number of vessels in the fleet.
+   *
+   * @return the count
+   */
+  public int getVesselCount() {
+    return vessels;
+  }
+
+  /**
+   * Get the number of missions offered to the fleet.
+   *
+   * @return the count
+   */
+  public int getMissionCount() {
+    return missions;
+  }
+
+  /**
+   * Get the number of missions completed.
+   *
+   * @return the count
+   */
+  public int getMissionsCompleted() {
+    return completed;
+  }
+
+  /**
+   * Get the simulated time run.
+   *
+   * @return seconds
+   */
+  public double getSimulatedSeconds() {
+    return simulatedSeconds;
+  }
+
+  /**
+   * Get the real time taken.
+   *
+   * @return seconds
+   */
+  public double getWallSeconds() {
+    return wallNanos / NANOS_PER_SECOND;
+  }
+
+  /**
+   * Get how much faster than real time the simulation ran.
+   *
+   * @return simulated seconds per real second
+   */
+  public double getRealTimeFactor() {
+    return wallNanos > 0L ? simulatedSeconds / getWallSeconds() : 0.0;
+  }
+
+  /**
+   * Get the speedup from simulating vessels in parallel: the time the
+   * vessels would have taken one after another over the time taken.
+   *
+   * @return the speedup
+   */
+  public double getParallelSpeedup() {
+    return wallNanos > 0L ? (double) busyNanos / wallNanos : 0.0;
+  }
+
+  /**
+   * Get the route distance completed.
+   *
+   * @return metres
+   */
+  public double getCoveredDistance() {
+    return covered;
+  }
+
+  /**
+   * Get the fraction of the route distance of all missions completed.
+   *
+   * @return 0 to 1
+   */
+  public double getCoverage() {
+    return routeLength > 0.0 ? covered / routeLength : 0.0;
+  }
+
+  /**
+   * Get the net energy drawn from the batteries of the fleet.
+   *
+   * @return watt hours
+   */
+  public double getEnergy() {
+    return energy;
+  }
+
+  /**
+   * Get the energy drawn per kilometre of route completed.
+   *
+   * @return watt hours per km, or NaN if no distance was covered
+   */
+  public double getEnergyPerKilometre() {
+    return covered > 0.0 ? energy / (covered / 1000.0) : Double.NaN;
+  }
+
+  /**
+   * Get the number of times two vessels came closer than the conflict
+   * distance.
+   *
+   * @return the count
+   */
+  public int getConflicts() {
+    return conflicts;
+  }
+
+  /**
+   * Get the least distance between any two vessels.
+   *
+   * @return metres
+   */
+  public double getMinimumSeparation() {
+    return minSeparation;
+  }
+
+  /**
+   * Represent the metrics as JSON.
+   *
+   * @return the JSON object
+   */
+  @SuppressWarnings("unchecked")
+  public JSONObject toJson() {
+    final JSONObject result = new JSONObject();
+    result.put("vessels", Integer.valueOf(vessels));
+    result.put("missions", Integer.valueOf(missions));
+    result.put("completed", Integer.valueOf(completed));
+    result.put("simulatedSeconds", Double.valueOf(simulatedSeconds));
+    result.put("wallSeconds", Double.valueOf(getWallSeconds()));
+    result.put("realTimeFactor", Double.valueOf(getRealTimeFactor()));
+    result.put("parallelSpeedup", Double.valueOf(getParallelSpeedup()));
+    result.put("coveredMetres", Double.valueOf(covered));
+    result.put("coverage", Double.valueOf(getCoverage()));
+    result.put("energyWh", Double.valueOf(energy));
+    result.put("conflicts", Integer.valueOf(conflicts));
+    result.put("minimumSeparation", Double.valueOf(minSeparation));
+    return result;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    return toJson().toJSONString();
+  }
+}
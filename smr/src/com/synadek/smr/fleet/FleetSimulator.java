@@ -0,0 +1,712 @@
+/**
+ * FleetSimulator.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.fleet;
+
+import com.synadek.core.ComponentException;
+import com.synadek.core.Conversions;
+import com.synadek.core.GpsCoordinates;
+import com.synadek.smr.control.mission.Contract;
+import com.synadek.smr.control.mission.MissionExecution;
+import com.synadek.smr.control.mission.MissionExecution.State;
+import com.synadek.smr.control.mission.MissionPlan;
+import com.synadek.smr.control.mission.MissionPlan.MissionStatus;
+import com.synadek.smr.control.navigation.CompiledRoute;
+import com.synadek.smr.control.navigation.NavigationImpl;
+import com.synadek.smr.control.navigation.TrafficPicture;
+import com.synadek.smr.control.navigation.TrafficPicture.Avoidance;
+import com.synadek.smr.vessel.IntershipCommunicationsImpl;
+import com.synadek.smr.vessel.SimulatedRadio;
+import com.synadek.smr.vessel.physical.SimulationClock;
+import com.synadek.smr.vessel.physical.VesselDynamics;
+import com.synadek.smr.vessel.physical.VesselPhysicalModel.PhysicalDeviceType;
+import com.synadek.smr.vessel.physical.VesselSimulation;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Simulate a fleet of vessels flying missions together, e.g. to compare
+ * policies for assigning missions before the hulls are bought.
+ *
+ * <p>
+ * Every vessel is a SimulatedVessel with its own VesselSimulation, all on
+ * one SimulationClock. The simulator advances the clock by a synchronization
+ * interval at a time; the vessels then catch up in parallel on a ForkJoin
+ * pool. Each vessel flies its mission through a MissionExecution, stepped on
+ * the vessel's own thread in simulated time, and a simple autopilot
+ * (heading-hold rudder and a fixed propeller setting) steers by the
+ * execution's navigation once per control interval. Between
+ * synchronizations, one thread checks the separation of every pair of vessels
+ * and hands pending missions to idle vessels according to the scheduling
+ * policy. If collision avoidance is on, it also has each vessel broadcast its
+ * status and position over intership communications, as a real vessel does on
+ * its status tick. The fleet has a simulated radio of its own that delivers
+ * each broadcast at once, so that the other vessels' traffic pictures hear
+ * it before the next interval. A run is repeatable for a given fleet,
+ * missions and policy.
+ * </p>
+ */
+public class FleetSimulator {
+
+  /**
+   * Chooses the next mission for an idle vessel.
+   */
+  public interface Policy {
+
+    /**
+     * Choose the next mission for a vessel.
+     *
+     * @param vessel
+     *          the idle vessel
+     * @param pending
+     *          missions not yet started, in the order they were added
+     * @return the mission to start, which must be one of the pending ones, or
+     *         null to leave the vessel idle for now
+     */
+    MissionPlan next(SimulatedVessel vessel, List<MissionPlan> pending);
+  }
+
+  /**
+   * Policy of starting missions in the order they were added.
+   */
+  public static final Policy FIRST_COME = (vessel, pending) -> pending.get(0);
+
+  /**
+   * Policy of starting the mission whose route begins nearest the vessel.
+   */
+  public static final Policy NEAREST_START = (vessel, pending) -> {
+    final GpsCoordinates here = vessel.getLocation();
+    MissionPlan best = null;
+    double bestDistance = Double.POSITIVE_INFINITY;
+    for (MissionPlan plan : pending) {
+      final CompiledRoute route = plan.getRoute().getCompiledRoute();
+      final double distance = route.size() > 0 ? here.getDistance(route.getWaypoint(0)) : 0.0;
+      if (distance < bestDistance) {
+        best = plan;
+        bestDistance = distance;
+      }
+    }
+    return best;
+  };
+
+  /**
+   * Acquire a reference to the application logger.
+   */
+  private static Logger log = LogManager.getLogger(FleetSimulator.class.getPackage().getName());
+
+  /**
+   * Hull speed of the simulated vessels at full propeller (knots).
+   */
+  private static final double HULL_SPEED_KNOTS = 8.0;
+
+  /**
+   * Rudder angle (degrees) per degree of heading error.
+   */
+  private static final double RUDDER_GAIN = 0.5;
+
+  /**
+   * Largest rudder angle the autopilot uses (degrees).
+   */
+  private static final double MAX_RUDDER = 30.0;
+
+  /**
+   * Rudder angle error (degrees) at which the rudder motor runs at full speed.
+   */
+  private static final double RUDDER_FULL_SPEED_ERROR = 10.0;
+
+  /**
+   * Default interval between autopilot updates.
+   */
+  private static final Duration DEFAULT_CONTROL_INTERVAL = Duration.ofMillis(200);
+
+  /**
+   * Default interval between fleet-wide synchronizations.
+   */
+  private static final Duration DEFAULT_SYNC_INTERVAL = Duration.ofSeconds(2);
+
+  /**
+   * Default distance between vessels counted as a conflict (metres).
+   */
+  private static final double DEFAULT_CONFLICT_DISTANCE = 50.0;
+
+  /**
+   * Safe distance for collision avoidance, as a multiple of the conflict
+   * distance.
+   */
+  private static final double SAFE_DISTANCE_FACTOR = 2.0;
+
+  /**
+   * Time ahead within which vessels avoid each other (seconds).
+   */
+  private static final double AVOIDANCE_HORIZON_SECONDS = 120.0;
+
+  /**
+   * Mean radius of the earth in metres.
+   */
+  private static final double EARTH_RADIUS = 6371000.0;
+
+  /**
+   * Seconds per hour.
+   */
+  private static final double SECONDS_PER_HOUR = 3600.0;
+
+  /**
+   * Nanoseconds per millisecond.
+   */
+  private static final long NANOS_PER_MILLI = 1000000L;
+
+  /**
+   * Virtual clock shared by every vessel.
+   */
+  private final SimulationClock clock;
+
+  /**
+   * Radio on which the vessels hear each other, delivering on the sending
+   * thread.
+   */
+  private final SimulatedRadio radio = new SimulatedRadio(Runnable::run);
+
+  /**
+   * The vessels, in the order added.
+   */
+  private final List<Boat> boats = new ArrayList<>();
+
+  /**
+   * Every mission added, in the order added.
+   */
+  private final List<MissionPlan> missions = new ArrayList<>();
+
+  /**
+   * Missions not yet started, in the order added.
+   */
+  private final List<MissionPlan> pending = new LinkedList<>();
+
+  /**
+   * Chooses the next mission for an idle vessel.
+   */
+  private Policy policy = FIRST_COME;
+
+  /**
+   * Pool on which vessels are simulated.
+   */
+  private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+  /**
+   * Interval between autopilot updates (ns).
+   */
+  private long controlNanos = DEFAULT_CONTROL_INTERVAL.toNanos();
+
+  /**
+   * Interval between fleet-wide synchronizations (ns).
+   */
+  private long syncNanos = DEFAULT_SYNC_INTERVAL.toNanos();
+
+  /**
+   * Distance between vessels counted as a conflict (metres).
+   */
+  private double conflictDistance = DEFAULT_CONFLICT_DISTANCE;
+
+  /**
+   * Whether vessels avoid each other.
+   */
+  private boolean avoidance;
+
+  /**
+   * Default constructor starts the shared clock at the current date and time.
+   */
+  public FleetSimulator() {
+    this(new SimulationClock());
+  }
+
+  /**
+   * Explicit constructor.
+   *
+   * @param simClock
+   *          the clock shared by every vessel
+   */
+  public FleetSimulator(final SimulationClock simClock) {
+    clock = simClock;
+  }
+
+  /**
+   * Get the clock shared by every vessel.
+   *
+   * @return the clock
+   */
+  public SimulationClock getClock() {
+    return clock;
+  }
+
+  /**
+   * Add a vessel to the fleet. Its simulation is seeded with its position in
+   * the fleet, so that runs are repeatable.
+   *
+   * @param name
+   *          the name of the vessel
+   * @param lat
+   *          initial latitude in degrees
+   * @param lon
+   *          initial longitude in degrees
+   * @return the vessel
+   */
+  public SimulatedVessel addVessel(final String name, final double lat, final double lon) {
+    final VesselSimulation sim = new VesselSimulation(clock, boats.size(), lat, lon);
+    sim.getDynamics().setMaxHullSpeed(Conversions.knotsToMps(HULL_SPEED_KNOTS));
+    final SimulatedVessel vessel =
+        new SimulatedVessel(name, String.format("SIM-%03d", Integer.valueOf(boats.size())), sim);
+    boats.add(new Boat(vessel));
+    return vessel;
+  }
+
+  /**
+   * Get the vessels.
+   *
+   * @return the vessels, in the order added
+   */
+  public List<SimulatedVessel> getVessels() {
+    final List<SimulatedVessel> result = new ArrayList<>(boats.size());
+    for (Boat boat : boats) {
+      result.add(boat.vessel);
+    }
+    return Collections.unmodifiableList(result);
+  }
+
+  /**
+   * Get a booking calendar listing the vessels of the fleet as they are now.
+   *
+   * @return the booking calendar
+   */
+  public BookingCalendar getBookingCalendar() {
+    return new BookingCalendar(getVessels());
+  }
+
+  /**
+   * Offer a mission to the fleet.
+   *
+   * @param plan
+   *          the mission, which must have a route
+   */
+  public void addMission(final MissionPlan plan) {
+    if (plan.getRoute() == null) {
+      throw new IllegalArgumentException("Mission " + plan.getName() + " has no route");
+    }
+    missions.add(plan);
+    pending.add(plan);
+  }
+
+  /**
+   * Set the policy for choosing the next mission for an idle vessel.
+   *
+   * @param next
+   *          the policy
+   */
+  public void setPolicy(final Policy next) {
+    policy = next;
+  }
+
+  /**
+   * Set the pool on which vessels are simulated.
+   *
+   * @param forkJoinPool
+   *          the pool
+   */
+  public void setPool(final ForkJoinPool forkJoinPool) {
+    pool = forkJoinPool;
+  }
+
+  /**
+   * Set the interval between autopilot updates.
+   *
+   * @param interval
+   *          the interval in simulated time
+   */
+  public void setControlInterval(final Duration interval) {
+    controlNanos = interval.toNanos();
+  }
+
+  /**
+   * Set the interval between fleet-wide synchronizations. Longer intervals
+   * give the pool more work between barriers but check separation and share
+   * positions less often.
+   *
+   * @param interval
+   *          the interval in simulated time
+   */
+  public void setSyncInterval(final Duration interval) {
+    syncNanos = interval.toNanos();
+  }
+
+  /**
+   * Set the distance between vessels counted as a conflict.
+   *
+   * @param metres
+   *          the distance
+   */
+  public void setConflictDistance(final double metres) {
+    conflictDistance = metres;
+  }
+
+  /**
+   * Set whether vessels avoid each other, each following the advice of a
+   * traffic picture built from the positions of the others.
+   *
+   * @param on
+   *          true to avoid collisions
+   */
+  public void setCollisionAvoidance(final boolean on) {
+    avoidance = on;
+  }
+
+  /**
+   * Run the fleet until every mission is complete or a period of simulated
+   * time has elapsed.
+   *
+   * @param limit
+   *          the most simulated time to run
+   * @return the metrics of the run
+   */
+  public FleetMetrics run(final Duration limit) {
+    final long wallStart = System.nanoTime();
+    final long simStart = clock.nanoTime();
+    final long end = simStart + limit.toNanos();
+    final List<ForkJoinTask<?>> tasks = new ArrayList<>(boats.size());
+    for (Boat boat : boats) {
+      tasks.add(ForkJoinTask.adapt(boat::catchUp));
+      if (avoidance) {
+        final TrafficPicture traffic = boat.vessel.getTrafficPicture();
+        traffic.setSafeDistance(conflictDistance * SAFE_DISTANCE_FACTOR);
+        traffic.setHorizon(AVOIDANCE_HORIZON_SECONDS);
+      }
+    }
+    final int size = boats.size();
+    final boolean[] close = new boolean[size * size];
+    int conflicts = 0;
+    double minSeparation = Double.POSITIVE_INFINITY;
+
+    assignMissions();
+    while (clock.nanoTime() < end && !isFinished()) {
+      clock.advance(Math.min(syncNanos, end - clock.nanoTime()));
+      for (ForkJoinTask<?> task : tasks) {
+        task.reinitialize();
+      }
+      pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+
+      // Separation of every pair, counting each close approach once
+      for (int i = 0; i < size; i++) {
+        final Boat a = boats.get(i);
+        for (int j = i + 1; j < size; j++) {
+          final Boat b = boats.get(j);
+          final double separation = a.distanceTo(b);
+          minSeparation = Math.min(minSeparation, separation);
+          final boolean now = separation < conflictDistance;
+          if (now && !close[i * size + j]) {
+            conflicts++;
+            log.debug("Conflict between {} and {} at {} m", a.vessel.getName(),
+                b.vessel.getName(), Double.valueOf(separation));
+          }
+          close[i * size + j] = now;
+        }
+      }
+      if (avoidance) {
+        for (Boat boat : boats) {
+          boat.report();
+        }
+      }
+
+      for (Boat boat : boats) {
+        boat.finishMission();
+      }
+      assignMissions();
+    }
+
+    // Gather the metrics
+    long busy = 0L;
+    double energy = 0.0;
+    for (Boat boat : boats) {
+      busy += boat.busyNanos;
+      energy += boat.energy;
+      boat.busyNanos = 0L;
+      boat.energy = 0.0;
+    }
+    int completed = 0;
+    double covered = 0.0;
+    double total = 0.0;
+    for (MissionPlan plan : missions) {
+      final double length = plan.getRoute().getCompiledRoute().getTotalDistance();
+      total += length;
+      if (plan.getStatus() == MissionStatus.Completed) {
+        completed++;
+        covered += length;
+      }
+    }
+    for (Boat boat : boats) {
+      if (boat.navigation != null) {
+        covered += Math.max(0.0, boat.navigation.getCompiledRoute().getTotalDistance()
+            - boat.navigation.getDistanceToDestination());
+      }
+    }
+    final FleetMetrics result = new FleetMetrics(size, missions.size(), completed,
+        (clock.nanoTime() - simStart) / 1.0e9, System.nanoTime() - wallStart, busy, covered,
+        total, energy, conflicts, minSeparation);
+    log.info("Fleet simulation {}", result);
+    return result;
+  }
+
+  /**
+   * Determine whether every mission is complete.
+   *
+   * @return true if no mission is pending or underway
+   */
+  private boolean isFinished() {
+    if (!pending.isEmpty()) {
+      return false;
+    }
+    for (Boat boat : boats) {
+      if (boat.mission != null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Offer pending missions to idle vessels, in fleet order.
+   */
+  private void assignMissions() {
+    for (Boat boat : boats) {
+      if (pending.isEmpty()) {
+        return;
+      }
+      if (boat.mission == null) {
+        final MissionPlan plan = policy.next(boat.vessel, Collections.unmodifiableList(pending));
+        if (plan != null && pending.remove(plan)) {
+          boat.start(plan);
+        }
+      }
+    }
+  }
+
+  /**
+   * A vessel in the fleet with its autopilot. Its fields other than the
+   * mission are touched only by the thread simulating it, or between
+   * synchronizations.
+   */
+  private final class Boat {
+
+    /**
+     * The vessel.
+     */
+    private final SimulatedVessel vessel;
+
+    /**
+     * The simulation backing the vessel.
+     */
+    private final VesselSimulation sim;
+
+    /**
+     * Propeller setting at cruising speed.
+     */
+    private double cruise;
+
+    /**
+     * Start of the simulated time (ms since epoch).
+     */
+    private final long epochMillis = clock.getEpoch().toInstant().toEpochMilli();
+
+    /**
+     * Scheduler on which the mission execution runs, in simulated time.
+     */
+    private final SimulatedScheduler scheduler;
+
+    /**
+     * Current mission, or null when idle.
+     */
+    private MissionPlan mission;
+
+    /**
+     * Execution of the current mission, or null when idle.
+     */
+    private MissionExecution execution;
+
+    /**
+     * Navigation along the current mission's route, or null when idle.
+     */
+    private NavigationImpl navigation;
+
+    /**
+     * Intership link on the fleet's radio, feeding the vessel's traffic
+     * picture.
+     */
+    private final IntershipCommunicationsImpl comms;
+
+    /**
+     * Simulated time up to which the autopilot has run (ns).
+     */
+    private long controlledNanos;
+
+    /**
+     * Net energy drawn from the battery (Wh).
+     */
+    private double energy;
+
+    /**
+     * Real time spent simulating this vessel (ns).
+     */
+    private long busyNanos;
+
+    /**
+     * Explicit constructor.
+     *
+     * @param simVessel
+     *          the vessel
+     */
+    Boat(final SimulatedVessel simVessel) {
+      vessel = simVessel;
+      sim = simVessel.getSimulation();
+      controlledNanos = clock.nanoTime();
+      scheduler = new SimulatedScheduler(controlledNanos);
+      comms = new IntershipCommunicationsImpl("ship-to-ship communications",
+          vessel.getName());
+      comms.setSimulatedRadio(radio);
+      comms.setClock(() -> epochMillis + clock.nanoTime() / NANOS_PER_MILLI);
+      comms.addListener(vessel.getTrafficPicture());
+      try {
+        sim.setDigitalOutputState(PhysicalDeviceType.PHY_MASTER_RELAY_CONTROL, true);
+        comms.connect(true);
+      } catch (ComponentException err) {
+        log.error("Cannot power up {}", vessel.getName(), err);
+      }
+    }
+
+    /**
+     * Begin a mission from wherever the vessel is.
+     *
+     * @param plan
+     *          the mission
+     */
+    void start(final MissionPlan plan) {
+      mission = plan;
+      cruise = Math.pow(Math.min(vessel.getCruisingSpeed() / HULL_SPEED_KNOTS, 1.0), 3.0);
+      execution = new MissionExecution(vessel, new Contract(), plan, scheduler,
+          scheduler::nanoTime);
+      execution.setWallClock(() -> epochMillis + scheduler.nanoTime() / NANOS_PER_MILLI);
+      execution.setTrafficPicture(avoidance ? vessel.getTrafficPicture() : null);
+      execution.startMission();
+      navigation = execution.getNavigation();
+      log.debug("{} starting mission {}", vessel.getName(), plan.getName());
+    }
+
+    /**
+     * Close the mission once its execution has ended.
+     */
+    void finishMission() {
+      if (execution != null && (execution.getState() == State.Completed
+          || execution.getState() == State.Aborted)) {
+        log.debug("{} {} mission {}", vessel.getName(),
+            mission.getStatus() == MissionStatus.Completed ? "completed" : "aborted",
+            mission.getName());
+        mission = null;
+        execution = null;
+        navigation = null;
+      }
+    }
+
+    /**
+     * Catch up with the shared clock, running the autopilot once per control
+     * interval.
+     */
+    void catchUp() {
+      final long started = System.nanoTime();
+      final long now = clock.nanoTime();
+      final double controlSeconds = controlNanos / 1.0e9;
+      while (controlledNanos + controlNanos <= now) {
+        controlledNanos += controlNanos;
+        sim.stepTo(controlledNanos);
+        scheduler.advanceTo(controlledNanos);
+        control(controlSeconds);
+      }
+      sim.stepTo(now);
+      busyNanos += System.nanoTime() - started;
+    }
+
+    /**
+     * Run the autopilot once.
+     *
+     * @param seconds
+     *          the control interval in seconds
+     */
+    private void control(final double seconds) {
+      final VesselDynamics dynamics = sim.getDynamics();
+      energy += dynamics.getBatteryCurrent() * dynamics.getBatteryVoltage() * seconds
+          / SECONDS_PER_HOUR;
+      double propeller = 0.0;
+      double course = dynamics.getHeading();
+      if (execution != null && navigation != null) {
+        // Processed at once: the execution runs on this thread
+        execution.onFix(dynamics.getLatitude(), dynamics.getLongitude(), controlledNanos);
+        if (execution.getState() != State.Completed && execution.getState() != State.Aborted
+            && !navigation.isHolding()) {
+          course = navigation.getSteeringBearing();
+          propeller = cruise;
+          final Avoidance advice = navigation.getAvoidance();
+          if (advice != null && advice.getManeuver() == TrafficPicture.Maneuver.ReduceSpeed) {
+            propeller = cruise / 8.0;
+          } else if (advice != null && advice.getManeuver() == TrafficPicture.Maneuver.Stop) {
+            propeller = 0.0;
+          }
+        }
+      }
+
+      // Heading hold: rudder in proportion to the heading error
+      final double error = ((course - dynamics.getHeading()) % 360.0 + 540.0) % 360.0 - 180.0;
+      final double rudder = Math.max(-MAX_RUDDER, Math.min(MAX_RUDDER, RUDDER_GAIN * error));
+      final double slew = rudder - dynamics.getRudderAngle();
+      try {
+        sim.setDigitalOutputState(PhysicalDeviceType.PHY_RUDDER_MOTOR_DIRECTION, slew > 0.0);
+        sim.setAnalogOutputValue(PhysicalDeviceType.PHY_RUDDER_MOTOR_SPEED,
+            Math.min(Math.abs(slew) / RUDDER_FULL_SPEED_ERROR, 1.0));
+        sim.setAnalogOutputValue(PhysicalDeviceType.PHY_PROPELLER_MOTOR_SPEED, propeller);
+      } catch (ComponentException err) {
+        log.error("Autopilot failed on {}", vessel.getName(), err);
+      }
+    }
+
+    /**
+     * Publish where the vessel is and how it is moving, and broadcast it to
+     * the rest of the fleet.
+     */
+    void report() {
+      final VesselDynamics dynamics = sim.getDynamics();
+      comms.broadcast(vessel.getStatusPublisher().update(bld -> bld
+          .setLatitude(dynamics.getLatitude()).setLongitude(dynamics.getLongitude())
+          .setSpeed(dynamics.getSpeed()).setHeading(dynamics.getHeading())));
+    }
+
+    /**
+     * Get the distance to another vessel.
+     *
+     * @param other
+     *          the other vessel
+     * @return metres
+     */
+    double distanceTo(final Boat other) {
+      final VesselDynamics a = sim.getDynamics();
+      final VesselDynamics b = other.sim.getDynamics();
+      final double north = Math.toRadians(b.getLatitude() - a.getLatitude());
+      final double east = Math.toRadians(b.getLongitude() - a.getLongitude())
+          * Math.cos(Math.toRadians(a.getLatitude()));
+      return Math.hypot(north, east) * EARTH_RADIUS;
+    }
+  }
+}
@@ -0,0 +1,540 @@
+/**
+ * ProposalEngine.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.fleet;
+
+import com.synadek.core.Conversions;
+import com.synadek.core.GpsCoordinates;
+import com.synadek.smr.control.mission.MissionPlan;
+import com.synadek.smr.control.mission.Proposal;
+import com.synadek.smr.control.mission.RequestForProposals;
+import com.synadek.smr.control.mission.RouteOptimizer;
+import com.synadek.smr.control.mission.RouteOptimizer.Navigable;
+import com.synadek.smr.control.navigation.CompiledRoute;
+import com.synadek.smr.control.navigation.Route;
+import com.synadek.smr.control.power.EnduranceForecast;
+import com.synadek.smr.control.weather.ConditionsForecast;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Answers a request for proposals with a priced proposal from every vessel of
+ * the fleet that can carry out the mission, cheapest first.
+ *
+ * <p>
+ * Each vessel is first screened with cheap tests: its cargo area and weight
+ * limit, whether it knows where it is, and bounds on when it can depart and
+ * arrive. It is ready to depart once it has sailed from where it is to the
+ * departure location at cruising speed, and no sooner than the earliest
+ * departure date. The mission cannot take less than the route length at
+ * cruising speed plus the fastest favourable current, plus any holds; the
+ * departure is put off past any booked day the mission would overlap. A vessel
+ * that cannot depart by the latest departure date or arrive by the latest
+ * arrival date on these bounds is dropped without planning its route.
+ * </p>
+ *
+ * <p>
+ * The route is then optimized once for each cruising speed and departure time
+ * among the vessels left, in parallel on a ForkJoin pool. Departures are
+ * rounded up to the quarter hour so that vessels ready at much the same time
+ * share a plan. Proposals that still meet the dates are priced by a fixed fee,
+ * the hours under way and the energy drawn, both including positioning.
+ * Positioning energy is the hotel and propeller load at cruising speed, with
+ * no allowance for the sun.
+ * </p>
+ */
+public final class ProposalEngine {
+
+  /**
+   * Acquire a reference to the application logger.
+   */
+  private static Logger log = LogManager.getLogger(ProposalEngine.class.getPackage().getName());
+
+  /**
+   * Milliseconds per second.
+   */
+  private static final double MILLIS_PER_SECOND = 1000.0;
+
+  /**
+   * Seconds per hour.
+   */
+  private static final double SECONDS_PER_HOUR = 3600.0;
+
+  /**
+   * Watt hours per kilowatt hour.
+   */
+  private static final double WATT_HOURS_PER_KWH = 1000.0;
+
+  /**
+   * Departures are offered on multiples of this interval.
+   */
+  private static final long DEPARTURE_STEP_MILLIS = 15L * 60L * 1000L;
+
+  /**
+   * Default fixed fee per proposal.
+   */
+  private static final double DEFAULT_BASE_FEE = 100.0;
+
+  /**
+   * Default charge per hour under way.
+   */
+  private static final double DEFAULT_HOURLY_RATE = 25.0;
+
+  /**
+   * Default charge per kilowatt hour drawn from the battery.
+   */
+  private static final double DEFAULT_ENERGY_RATE = 0.5;
+
+  /**
+   * Most route optimizers kept; all are dropped when another is needed.
+   */
+  private static final int MAX_OPTIMIZERS = 16;
+
+  /**
+   * Default fastest favourable current expected, in m/s.
+   */
+  private static final double DEFAULT_CURRENT_ALLOWANCE = 1.0;
+
+  /**
+   * Electrical model of the vessels.
+   */
+  private final EnduranceForecast vessel;
+
+  /**
+   * Expected wind, current and sunshine.
+   */
+  private final ConditionsForecast conditions;
+
+  /**
+   * Route optimizers by cruising speed in m/s, kept so that their memoized
+   * move costs serve later requests; at most MAX_OPTIMIZERS are kept.
+   */
+  private final ConcurrentHashMap<Double, RouteOptimizer> optimizers =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Booking calendar of the fleet, or null for the shared calendar.
+   */
+  private volatile BookingCalendar calendar;
+
+  /**
+   * Pool on which routes are optimized.
+   */
+  private volatile ForkJoinPool pool = ForkJoinPool.commonPool();
+
+  /**
+   * Where the vessels may go.
+   */
+  private volatile Navigable navigable = (lat, lon) -> true;
+
+  /**
+   * Fastest favourable current expected, in m/s.
+   */
+  private volatile double currentAllowance = DEFAULT_CURRENT_ALLOWANCE;
+
+  /**
+   * Fixed fee per proposal.
+   */
+  private volatile double baseFee = DEFAULT_BASE_FEE;
+
+  /**
+   * Charge per hour under way.
+   */
+  private volatile double hourlyRate = DEFAULT_HOURLY_RATE;
+
+  /**
+   * Charge per kilowatt hour drawn from the battery.
+   */
+  private volatile double energyRate = DEFAULT_ENERGY_RATE;
+
+  /**
+   * Explicit constructor.
+   *
+   * @param model
+   *          electrical model of the vessels
+   * @param forecast
+   *          expected wind, current and sunshine
+   */
+  public ProposalEngine(final EnduranceForecast model, final ConditionsForecast forecast) {
+    vessel = model;
+    conditions = forecast;
+  }
+
+  /**
+   * Set the booking calendar of the fleet to propose, e.g. that of a
+   * FleetSimulator.
+   *
+   * @param bookings
+   *          the booking calendar, or null (the default) for the shared
+   *          calendar
+   */
+  public void setBookingCalendar(final BookingCalendar bookings) {
+    calendar = bookings;
+  }
+
+  /**
+   * Set the pool on which routes are optimized.
+   *
+   * @param forkJoinPool
+   *          the pool
+   */
+  public void setPool(final ForkJoinPool forkJoinPool) {
+    pool = forkJoinPool;
+    optimizers.clear();
+  }
+
+  /**
+   * Set where the vessels may go, e.g. the mission geofence.
+   *
+   * @param water
+   *          the navigable water
+   */
+  public void setNavigable(final Navigable water) {
+    navigable = water;
+    optimizers.clear();
+  }
+
+  /**
+   * Set the fastest favourable current expected, which bounds how quickly a
+   * route can be sailed.
+   *
+   * @param metresPerSecond
+   *          the current
+   */
+  public void setCurrentAllowance(final double metresPerSecond) {
+    currentAllowance = metresPerSecond;
+    optimizers.clear();
+  }
+
+  /**
+   * Set the prices charged.
+   *
+   * @param fee
+   *          fixed fee per proposal
+   * @param perHour
+   *          charge per hour under way, including positioning
+   * @param perKilowattHour
+   *          charge per kilowatt hour drawn from the battery, including
+   *          positioning
+   */
+  public void setRates(final double fee, final double perHour, final double perKilowattHour) {
+    baseFee = fee;
+    hourlyRate = perHour;
+    energyRate = perKilowattHour;
+  }
+
+  /**
+   * Propose the vessels of the booking calendar for a mission.
+   *
+   * @param rfp
+   *          the request for proposals
+   * @return the proposals, cheapest first
+   */
+  public List<Proposal> propose(final RequestForProposals rfp) {
+    final BookingCalendar bookings = calendar;
+    return propose(rfp,
+        (bookings != null ? bookings : BookingCalendar.getInstance()).getBookingData());
+  }
+
+  /**
+   * Propose vessels for a mission.
+   *
+   * @param rfp
+   *          the request for proposals
+   * @param fleet
+   *          booking data by vessel name
+   * @return the proposals, cheapest first; empty if no vessel can meet the
+   *         request or the request has no route
+   */
+  public List<Proposal> propose(final RequestForProposals rfp,
+      final Map<String, BookingParameter> fleet) {
+    final long started = System.nanoTime();
+    final Route route = rfp.getPlan();
+    final GpsCoordinates departure = rfp.getDepartureLocation();
+    if (route == null || departure == null) {
+      log.warn("RFP {} has no route or departure location", rfp.getMissionId());
+      return Collections.emptyList();
+    }
+    final CompiledRoute compiled = route.getCompiledRoute();
+    final double length = compiled.getTotalDistance();
+    final long holds = compiled.getTotalHoldMillis();
+    final long now = System.currentTimeMillis();
+    final long earliest = rfp.getEarliestDepartureDate() != null
+        ? rfp.getEarliestDepartureDate().getTimeInMillis() : now;
+    final long latestDeparture = rfp.getLatestDepartureDate() != null
+        ? rfp.getLatestDepartureDate().getTimeInMillis() : Long.MAX_VALUE;
+    final long latestArrival = rfp.getLatestArrivalDate() != null
+        ? rfp.getLatestArrivalDate().getTimeInMillis() : Long.MAX_VALUE;
+
+    // Screen every vessel with cheap bounds
+    final List<Candidate> candidates = new ArrayList<>();
+    for (Map.Entry<String, BookingParameter> entry : fleet.entrySet()) {
+      final BookingParameter booking = entry.getValue();
+      final double speed = Conversions.knotsToMps(booking.getCruisingSpeed());
+      final GpsCoordinates location = booking.getCurrentLocation();
+      if (!canCarry(booking, rfp) || speed <= 0.0 || location == null) {
+        continue;
+      }
+      final double positioning = location.getDistance(departure) / speed;
+      final long ready = Math.max(earliest, now + (long) (positioning * MILLIS_PER_SECOND));
+      final long fastest = holds + (long) (length / (speed + currentAllowance)
+          * MILLIS_PER_SECOND);
+      final long[] booked = bookedDays(booking.getBookedDates());
+      final long depart = firstFree(booked, roundUp(ready), fastest);
+      if (depart > latestDeparture || depart > latestArrival - fastest) {
+        continue;
+      }
+      candidates.add(new Candidate(entry.getKey(), speed, positioning, depart, booked));
+    }
+
+    // Optimize the route once per cruising speed and departure, in parallel
+    candidates.sort(Comparator.comparingDouble((Candidate c) -> c.speed)
+        .thenComparingLong(c -> c.depart));
+    final List<ForkJoinTask<RouteOptimizer.Result>> tasks = new ArrayList<>();
+    Candidate previous = null;
+    for (Candidate candidate : candidates) {
+      if (previous != null && previous.speed == candidate.speed
+          && previous.depart == candidate.depart) {
+        candidate.plan = previous.plan;
+      } else {
+        final RouteOptimizer optimizer = optimizerFor(candidate.speed);
+        final long depart = candidate.depart;
+        candidate.plan = ForkJoinTask.adapt(() -> optimizer.optimize(route, depart));
+        tasks.add(candidate.plan);
+      }
+      previous = candidate;
+    }
+    pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+
+    // Price the proposals that still meet the dates
+    final List<Proposal> result = new ArrayList<>();
+    for (Candidate candidate : candidates) {
+      final RouteOptimizer.Result optimized = candidate.plan.join();
+      final long duration = (long) (optimized.getSeconds() * MILLIS_PER_SECOND);
+      final long arrival = candidate.depart + duration;
+      if (Double.isInfinite(optimized.getSeconds()) || arrival > latestArrival
+          || firstFree(candidate.booked, candidate.depart, duration) != candidate.depart) {
+        continue;
+      }
+      final MissionPlan plan = new MissionPlan(
+          rfp.getMissionId() != null ? rfp.getMissionId() : "new name");
+      plan.setDescription("Proposed for " + candidate.name);
+      plan.setStartLocation(departure);
+      plan.setRoute(optimized.getRoute());
+      plan.setPlannedStart(candidate.depart);
+      plan.setPlannedFinish(arrival);
+      final double positioningWattHours = candidate.positioning * (vessel.getHotelLoad()
+          + vessel.propulsionLoad(candidate.speed)) / SECONDS_PER_HOUR;
+      result.add(new Proposal(plan, candidate.name,
+          price(candidate.positioning + optimized.getSeconds(),
+              positioningWattHours + optimized.getWattHours())));
+    }
+    result.sort(Comparator.comparingDouble(Proposal::getPrice)
+        .thenComparingLong(p -> p.getMissionPlan().getPlannedFinish()));
+
+    log.info("RFP {}: {} of {} vessels screened in, {} routes optimized, {} proposals in {} ms",
+        rfp.getMissionId(), Integer.valueOf(candidates.size()), Integer.valueOf(fleet.size()),
+        Integer.valueOf(tasks.size()), Integer.valueOf(result.size()),
+        Long.valueOf((System.nanoTime() - started) / 1000000L));
+    return result;
+  }
+
+  /**
+   * Determine whether a vessel's cargo area meets the request.
+   *
+   * @param booking
+   *          booking data of the vessel
+   * @param rfp
+   *          the request for proposals
+   * @return true if the cargo fits
+   */
+  private static boolean canCarry(final BookingParameter booking,
+      final RequestForProposals rfp) {
+    return booking.getCargoWidth() >= rfp.getMinimumCargoWidth()
+        && booking.getCargoHeight() >= rfp.getMinimumCargoHeight()
+        && booking.getCargoDepth() >= rfp.getMinimumCargoDepth()
+        && booking.getMaximumCargoWeight() >= rfp.getMinimumCargoWeight();
+  }
+
+  /**
+   * Price a proposal.
+   *
+   * @param seconds
+   *          time under way, including positioning
+   * @param wattHours
+   *          energy drawn from the battery, including positioning
+   * @return the price, to the cent
+   */
+  private double price(final double seconds, final double wattHours) {
+    final double amount = baseFee + hourlyRate * seconds / SECONDS_PER_HOUR
+        + energyRate * Math.max(0.0, wattHours) / WATT_HOURS_PER_KWH;
+    return Math.round(amount * 100.0) / 100.0;
+  }
+
+  /**
+   * Get the route optimizer for a cruising speed.
+   *
+   * @param speed
+   *          cruising speed in m/s
+   * @return the optimizer
+   */
+  private RouteOptimizer optimizerFor(final double speed) {
+    final Double key = Double.valueOf(speed);
+    if (optimizers.size() >= MAX_OPTIMIZERS && !optimizers.containsKey(key)) {
+      optimizers.clear();
+    }
+    return optimizers.computeIfAbsent(key, s -> {
+      final RouteOptimizer optimizer = new RouteOptimizer(vessel, s.doubleValue(), conditions);
+      optimizer.setPool(pool);
+      optimizer.setNavigable(navigable);
+      optimizer.setCurrentAllowance(currentAllowance);
+      return optimizer;
+    });
+  }
+
+  /**
+   * Round a time up to the next departure step.
+   *
+   * @param millis
+   *          ms since the epoch
+   * @return ms since the epoch
+   */
+  private static long roundUp(final long millis) {
+    return Math.floorDiv(millis + DEPARTURE_STEP_MILLIS - 1, DEPARTURE_STEP_MILLIS)
+        * DEPARTURE_STEP_MILLIS;
+  }
+
+  /**
+   * Expand booked dates to the whole local days they fall on.
+   *
+   * @param dates
+   *          the booked dates, or null
+   * @return start and end of each booked day in ms since the epoch, in pairs,
+   *         in order
+   */
+  private static long[] bookedDays(final Set<Date> dates) {
+    if (dates == null || dates.isEmpty()) {
+      return new long[0];
+    }
+    final long[] starts = new long[dates.size()];
+    final Calendar day = Calendar.getInstance();
+    int n = 0;
+    for (Date date : dates) {
+      day.setTime(date);
+      day.set(Calendar.HOUR_OF_DAY, 0);
+      day.set(Calendar.MINUTE, 0);
+      day.set(Calendar.SECOND, 0);
+      day.set(Calendar.MILLISECOND, 0);
+      starts[n++] = day.getTimeInMillis();
+    }
+    Arrays.sort(starts);
+    final long[] result = new long[2 * starts.length];
+    for (int i = 0; i < starts.length; i++) {
+      day.setTimeInMillis(starts[i]);
+      day.add(Calendar.DAY_OF_MONTH, 1);
+      result[2 * i] = starts[i];
+      result[2 * i + 1] = day.getTimeInMillis();
+    }
+    return result;
+  }
+
+  /**
+   * Find the earliest departure that keeps a mission clear of booked days.
+   *
+   * @param booked
+   *          start and end of each booked day, in pairs, in order
+   * @param from
+   *          earliest departure in ms since the epoch
+   * @param duration
+   *          length of the mission in ms
+   * @return the departure in ms since the epoch
+   */
+  private static long firstFree(final long[] booked, final long from, final long duration) {
+    long depart = from;
+    for (int i = 0; i < booked.length; i += 2) {
+      if (booked[i + 1] <= depart) {
+        continue;
+      }
+      if (booked[i] >= depart + duration) {
+        break;
+      }
+      depart = roundUp(booked[i + 1]);
+    }
+    return depart;
+  }
+
+  /**
+   * A vessel that passed screening.
+   */
+  private static final class Candidate {
+
+    /**
+     * Name of the vessel.
+     */
+    private final String name;
+
+    /**
+     * Cruising speed in m/s.
+     */
+    private final double speed;
+
+    /**
+     * Seconds to sail to the departure location.
+     */
+    private final double positioning;
+
+    /**
+     * Earliest departure clear of bookings, in ms since the epoch.
+     */
+    private final long depart;
+
+    /**
+     * Start and end of each booked day, in pairs, in order.
+     */
+    private final long[] booked;
+
+    /**
+     * The optimized route, shared by vessels of the same speed and departure.
+     */
+    private ForkJoinTask<RouteOptimizer.Result> plan;
+
+    /**
+     * Explicit constructor.
+     *
+     * @param vesselName
+     *          name of the vessel
+     * @param cruise
+     *          cruising speed in m/s
+     * @param toDeparture
+     *          seconds to sail to the departure location
+     * @param departure
+     *          earliest departure clear of bookings, in ms since the epoch
+     * @param days
+     *          start and end of each booked day, in pairs, in order
+     */
+    Candidate(final String vesselName, final double cruise, final double toDeparture,
+        final long departure, final long[] days) {
+      name = vesselName;
+      speed = cruise;
+      positioning = toDeparture;
+      depart = departure;
+      booked = days;
+    }
+  }
+}
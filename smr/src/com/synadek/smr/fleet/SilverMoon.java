@@ -9,15 +9,23 @@ package com.synadek.smr.fleet;
 
 import com.synadek.core.ComponentException;
 import com.synadek.core.GpsCoordinates;
+import com.synadek.smr.control.weather.Sunlight;
+import com.synadek.smr.control.weather.SunlightImpl;
+import com.synadek.smr.control.weather.Temperature;
+import com.synadek.smr.control.weather.TemperatureImpl;
 import com.synadek.smr.vessel.AbstractVesselImpl;
 import com.synadek.smr.vessel.Anchor;
 import com.synadek.smr.vessel.AnchorImpl;
+import com.synadek.smr.vessel.Attitude;
+import com.synadek.smr.vessel.AttitudeImpl;
 import com.synadek.smr.vessel.Battery;
 import com.synadek.smr.vessel.BatteryImpl;
 import com.synadek.smr.vessel.Compass;
 import com.synadek.smr.vessel.CompassImpl;
 import com.synadek.smr.vessel.GnssReceiver;
 import com.synadek.smr.vessel.GnssReceiverImpl;
+import com.synadek.smr.vessel.IntershipCommunications;
+import com.synadek.smr.vessel.IntershipCommunicationsImpl;
 import com.synadek.smr.vessel.PowerManagement;
 import com.synadek.smr.vessel.PowerManagementImpl;
 import com.synadek.smr.vessel.Propeller;
@@ -26,7 +34,10 @@ import com.synadek.smr.vessel.Rudder;
 import com.synadek.smr.vessel.RudderImpl;
 import com.synadek.smr.vessel.RunningLights;
 import com.synadek.smr.vessel.RunningLightsImpl;
+import com.synadek.smr.vessel.SensorFusion;
 import com.synadek.smr.vessel.Vessel;
+import com.synadek.smr.vessel.WaterSensor;
+import com.synadek.smr.vessel.WaterSensorImpl;
 import com.synadek.smr.vessel.WindSensor;
 import com.synadek.smr.vessel.WindSensorImpl;
 import com.synadek.smr.vessel.physical.VesselPhidget22;
@@ -56,6 +67,11 @@ public class SilverMoon extends AbstractVesselImpl {
    */
   private Anchor anchor;
 
+  /**
+   * Attitude.
+   */
+  private Attitude attitude;
+
   /**
    * Battery.
    */
@@ -71,6 +87,11 @@ public class SilverMoon extends AbstractVesselImpl {
    */
   private GnssReceiver gnssReceiver;
 
+  /**
+   * Ship-to-ship communications.
+   */
+  private IntershipCommunications intershipComms;
+
   /**
    * Power manager.
    */
@@ -91,6 +112,21 @@ public class SilverMoon extends AbstractVesselImpl {
    */
   private RunningLights runningLights;
 
+  /**
+   * Sunlight.
+   */
+  private Sunlight sunlight;
+
+  /**
+   * Air and water temperature.
+   */
+  private Temperature temperature;
+
+  /**
+   * Water sensor.
+   */
+  private WaterSensor waterSensor;
+
   /**
    * Wind sensor.
    */
@@ -111,16 +147,45 @@ public class SilverMoon extends AbstractVesselImpl {
       anchor = new AnchorImpl();
       addComponent(anchor);
 
-      battery = new BatteryImpl();
+      battery = new BatteryImpl("battery", getPhysicalModel());
       addComponent(battery);
 
-      compass = new CompassImpl();
+      // Heading and attitude come from one fusion engine
+      final SensorFusion fusion = new SensorFusion(getPhysicalModel());
+      fusion.setPublisher(getStatusPublisher());
+
+      attitude = new AttitudeImpl(fusion);
+      addComponent(attitude);
+
+      compass = new CompassImpl(fusion);
       addComponent(compass);
 
-      gnssReceiver = new GnssReceiverImpl("GNSS");
+      // The fusion listens to the compass and the IMU, and to each GNSS fix
+      final GnssReceiverImpl gnssReceiverImpl = new GnssReceiverImpl("GNSS",
+          getPhysicalModel());
+      gnssReceiverImpl.addGnssListener(fusion::onGnss);
+      gnssReceiverImpl.connect(false);
+      fusion.connect(false);
+      gnssReceiver = gnssReceiverImpl;
       addComponent(gnssReceiver);
 
-      powerManagement = new PowerManagementImpl();
+      // There is no intership radio driver yet, so this link reports that it
+      // cannot connect, and the vessel neither broadcasts nor hears traffic
+      final IntershipCommunicationsImpl intershipImpl = new IntershipCommunicationsImpl(
+          "ship-to-ship communications", getName());
+      intershipImpl.setStatusPublisher(getStatusPublisher());
+      intershipImpl.setClock(getPhysicalModel()::currentTimeMillis);
+      intershipImpl.addListener(getTrafficPicture());
+      intershipImpl.connect(false);
+      intershipComms = intershipImpl;
+      addComponent(intershipComms);
+
+      final PowerManagementImpl powerManagementImpl = new PowerManagementImpl(
+          getPhysicalModel());
+      powerManagementImpl.setStatusPublisher(getStatusPublisher());
+      powerManagementImpl.addLoadShedListener(intershipImpl);
+      powerManagementImpl.connect(false);
+      powerManagement = powerManagementImpl;
       addComponent(powerManagement);
 
       propeller = new PropellerImpl();
@@ -132,6 +197,25 @@ public class SilverMoon extends AbstractVesselImpl {
       runningLights = new RunningLightsImpl();
       addComponent(runningLights);
 
+      final SunlightImpl sunlightImpl = new SunlightImpl(getPhysicalModel());
+      sunlightImpl.setRollups(getWeatherRollups());
+      sunlightImpl.connect(false);
+      sunlight = sunlightImpl;
+
+      // Without a current shunt, solar charging offsets the hotel load
+      powerManagementImpl.setLoadSource(
+          () -> powerManagementImpl.getHotelLoad() - sunlightImpl.solarPower());
+
+      final TemperatureImpl temperatureImpl = new TemperatureImpl(getPhysicalModel());
+      temperatureImpl.setRollups(getWeatherRollups());
+      temperatureImpl.connect(false);
+      temperature = temperatureImpl;
+
+      final WaterSensorImpl waterSensorImpl = new WaterSensorImpl(getPhysicalModel());
+      waterSensorImpl.connect(false);
+      waterSensor = waterSensorImpl;
+      addComponent(waterSensor);
+
       windSensor = new WindSensorImpl();
       addComponent(windSensor);
 
@@ -249,6 +333,24 @@ public class SilverMoon extends AbstractVesselImpl {
     return 0;
   }
 
+  /**
+   * Get the sunlight sensing of this vessel.
+   *
+   * @return the sunlight component
+   */
+  public Sunlight getSunlight() {
+    return sunlight;
+  }
+
+  /**
+   * Get the air and water temperature sensing of this vessel.
+   *
+   * @return the temperature component
+   */
+  public Temperature getTemperature() {
+    return temperature;
+  }
+
   /**
    * Get the maximum cargo weight (kg).
    */
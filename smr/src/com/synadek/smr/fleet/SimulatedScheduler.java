@@ -0,0 +1,297 @@
+/**
+ * SimulatedScheduler.java
+ * 19 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.fleet;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A single-threaded scheduler on simulated time, for running code written
+ * for a ScheduledExecutorService (e.g. a MissionExecution) inside a
+ * simulation. Tasks run at once on the calling thread; delayed tasks run when
+ * the owner advances the time past when they are due. It is not thread safe:
+ * it must only be used by the thread simulating its vessel.
+ */
+final class SimulatedScheduler extends AbstractExecutorService
+    implements ScheduledExecutorService {
+
+  /**
+   * Delayed tasks, soonest first.
+   */
+  private final PriorityQueue<Timer<?>> timers = new PriorityQueue<>();
+
+  /**
+   * Current simulated time (ns).
+   */
+  private long nowNanos;
+
+  /**
+   * Number of tasks scheduled, to keep tasks due together in order.
+   */
+  private long sequence;
+
+  /**
+   * Whether the scheduler has been shut down.
+   */
+  private boolean shutdown;
+
+  /**
+   * Explicit constructor.
+   *
+   * @param startNanos
+   *          simulated time at the start (ns)
+   */
+  SimulatedScheduler(final long startNanos) {
+    nowNanos = startNanos;
+  }
+
+  /**
+   * Get the current simulated time.
+   *
+   * @return nanoseconds on the simulation clock
+   */
+  long nanoTime() {
+    return nowNanos;
+  }
+
+  /**
+   * Advance the simulated time, running every delayed task that falls due on
+   * the way, each at the time it is due.
+   *
+   * @param nanos
+   *          the new simulated time (ns)
+   */
+  void advanceTo(final long nanos) {
+    while (!timers.isEmpty() && timers.peek().dueNanos <= nanos) {
+      final Timer<?> timer = timers.poll();
+      nowNanos = Math.max(nowNanos, timer.dueNanos);
+      timer.fire();
+    }
+    nowNanos = Math.max(nowNanos, nanos);
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see java.util.concurrent.Executor#execute(java.lang.Runnable)
+   */
+  @Override
+  public void execute(final Runnable command) {
+    if (!shutdown) {
+      command.run();
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see java.util.concurrent.ScheduledExecutorService#schedule(java.lang.Runnable,
+   * long, java.util.concurrent.TimeUnit)
+   */
+  @Override
+  public ScheduledFuture<?> schedule(final Runnable command, final long delay,
+      final TimeUnit unit) {
+    return add(new Timer<>(Executors.callable(command), unit.toNanos(delay), 0L));
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see java.util.concurrent.ScheduledExecutorService#schedule(java.util.concurrent.Callable,
+   * long, java.util.concurrent.TimeUnit)
+   */
+  @Override
+  public <V> ScheduledFuture<V> schedule(final Callable<V> callable, final long delay,
+      final TimeUnit unit) {
+    return add(new Timer<>(callable, unit.toNanos(delay), 0L));
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see java.util.concurrent.ScheduledExecutorService#scheduleAtFixedRate(java.lang.Runnable,
+   * long, long, java.util.concurrent.TimeUnit)
+   */
+  @Override
+  public ScheduledFuture<?> scheduleAtFixedRate(final Runnable command,
+      final long initialDelay, final long period, final TimeUnit unit) {
+    return add(new Timer<>(Executors.callable(command), unit.toNanos(initialDelay),
+        unit.toNanos(period)));
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see java.util.concurrent.ScheduledExecutorService#scheduleWithFixedDelay(java.lang.Runnable,
+   * long, long, java.util.concurrent.TimeUnit)
+   */
+  @Override
+  public ScheduledFuture<?> scheduleWithFixedDelay(final Runnable command,
+      final long initialDelay, final long delay, final TimeUnit unit) {
+    return add(new Timer<>(Executors.callable(command), unit.toNanos(initialDelay),
+        -unit.toNanos(delay)));
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see java.util.concurrent.ExecutorService#shutdown()
+   */
+  @Override
+  public void shutdown() {
+    shutdown = true;
+    timers.clear();
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see java.util.concurrent.ExecutorService#shutdownNow()
+   */
+  @Override
+  public List<Runnable> shutdownNow() {
+    shutdown();
+    return Collections.emptyList();
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see java.util.concurrent.ExecutorService#isShutdown()
+   */
+  @Override
+  public boolean isShutdown() {
+    return shutdown;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see java.util.concurrent.ExecutorService#isTerminated()
+   */
+  @Override
+  public boolean isTerminated() {
+    return shutdown;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see java.util.concurrent.ExecutorService#awaitTermination(long,
+   * java.util.concurrent.TimeUnit)
+   */
+  @Override
+  public boolean awaitTermination(final long timeout, final TimeUnit unit) {
+    return shutdown;
+  }
+
+  /**
+   * Queue a delayed task, unless the scheduler has been shut down.
+   *
+   * @param <V>
+   *          the result type
+   * @param timer
+   *          the task
+   * @return the task
+   */
+  private <V> Timer<V> add(final Timer<V> timer) {
+    if (!shutdown) {
+      timers.add(timer);
+    } else {
+      timer.cancel(false);
+    }
+    return timer;
+  }
+
+  /**
+   * A delayed, possibly periodic, task.
+   *
+   * @param <V>
+   *          the result type
+   */
+  private final class Timer<V> extends FutureTask<V> implements ScheduledFuture<V> {
+
+    /**
+     * Order in which the task was scheduled.
+     */
+    private final long order = sequence++;
+
+    /**
+     * Interval between runs (ns): positive for a fixed rate, negative for a
+     * fixed delay, zero to run once.
+     */
+    private final long periodNanos;
+
+    /**
+     * Simulated time at which the task is next due (ns).
+     */
+    private long dueNanos;
+
+    /**
+     * Explicit constructor.
+     *
+     * @param callable
+     *          the work
+     * @param delayNanos
+     *          delay before the first run (ns)
+     * @param period
+     *          interval between runs (ns), as for periodNanos
+     */
+    Timer(final Callable<V> callable, final long delayNanos, final long period) {
+      super(callable);
+      dueNanos = nowNanos + Math.max(delayNanos, 0L);
+      periodNanos = period;
+    }
+
+    /**
+     * Run the task and, if it is periodic and still live, queue its next run.
+     */
+    void fire() {
+      if (periodNanos == 0L) {
+        run();
+      } else if (runAndReset()) {
+        dueNanos = periodNanos > 0L ? dueNanos + periodNanos : nowNanos - periodNanos;
+        add(this);
+      }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.util.concurrent.Delayed#getDelay(java.util.concurrent.TimeUnit)
+     */
+    @Override
+    public long getDelay(final TimeUnit unit) {
+      return unit.convert(dueNanos - nowNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Comparable#compareTo(java.lang.Object)
+     */
+    @Override
+    public int compareTo(final Delayed other) {
+      if (other instanceof Timer) {
+        final Timer<?> timer = (Timer<?>) other;
+        final int byDue = Long.compare(dueNanos, timer.dueNanos);
+        return byDue != 0 ? byDue : Long.compare(order, timer.order);
+      }
+      return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+    }
+  }
+}
@@ -0,0 +1,173 @@
+/**
+ * SimulatedVessel.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.fleet;
+
+import com.synadek.core.ComponentException;
+import com.synadek.core.GpsCoordinates;
+import com.synadek.smr.vessel.AbstractVesselImpl;
+import com.synadek.smr.vessel.VesselStatus;
+import com.synadek.smr.vessel.physical.VesselDynamics;
+import com.synadek.smr.vessel.physical.VesselSimulation;
+
+/**
+ * A vessel that exists only in simulation, e.g. one of many hulls in a fleet
+ * simulation. Unlike Golden Moon and Silver Moon it may be instantiated any
+ * number of times, each with its own simulation on a shared clock.
+ */
+public class SimulatedVessel extends AbstractVesselImpl {
+
+  /**
+   * Default cruising speed (knots).
+   */
+  private static final double DEFAULT_CRUISING_SPEED = 6.0;
+
+  /**
+   * The simulation backing this vessel.
+   */
+  private final VesselSimulation simulation;
+
+  /**
+   * Cruising speed of this vessel (knots).
+   */
+  private double cruisingSpeed = DEFAULT_CRUISING_SPEED;
+
+  /**
+   * Explicit constructor.
+   *
+   * @param name
+   *          the name of the vessel
+   * @param serialNumber
+   *          the serial number of the vessel
+   * @param sim
+   *          the simulation backing the vessel
+   */
+  public SimulatedVessel(final String name, final String serialNumber,
+      final VesselSimulation sim) {
+    super(sim, name, serialNumber);
+    simulation = sim;
+    setStatus(VesselStatus.VESSEL_READY);
+  }
+
+  /**
+   * Get the simulation backing this vessel.
+   *
+   * @return the simulation
+   */
+  public VesselSimulation getSimulation() {
+    return simulation;
+  }
+
+  /**
+   * Set the cruising speed.
+   *
+   * @param knots
+   *          the cruising speed
+   */
+  public void setCruisingSpeed(final double knots) {
+    cruisingSpeed = knots;
+  }
+
+  /**
+   * Connect parameter indicates whether to connect to a physical or simulated
+   * component.
+   *
+   * @param sim
+   *          true if the connection is to a simulation of the component
+   * @throws ComponentException
+   *           if an error occurs
+   */
+  @Override
+  public boolean connect(final boolean sim) throws ComponentException {
+    if (!sim) {
+      log.error("SimulatedVessel must connect using sim=true");
+      return false;
+    }
+    this.simulated = true;
+    this.connected = true;
+    return true;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.smr.vessel.Vessel#getCargoDepth()
+   */
+  @Override
+  public int getCargoDepth() {
+    return 0;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.smr.vessel.Vessel#getCargoHeight()
+   */
+  @Override
+  public int getCargoHeight() {
+    return 0;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.smr.vessel.Vessel#getCargoWidth()
+   */
+  @Override
+  public int getCargoWidth() {
+    return 0;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.smr.vessel.Vessel#getCruisingSpeed()
+   */
+  @Override
+  public double getCruisingSpeed() {
+    return cruisingSpeed;
+  }
+
+  /**
+   * Get the location of the vessel, straight from the simulation.
+   *
+   * @return the location
+   */
+  @Override
+  public GpsCoordinates getLocation() {
+    final VesselDynamics dynamics = simulation.getDynamics();
+    return new GpsCoordinates(dynamics.getLatitude(), dynamics.getLongitude());
+  }
+
+  /**
+   * Get the maximum cargo weight (kg).
+   */
+  @Override
+  public double getMaximumCargoWeight() {
+    return 0.5;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.smr.vessel.Vessel#offloadVessel()
+   */
+  @Override
+  public void offloadVessel() {
+    // Nothing to offload in simulation
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.smr.vessel.Vessel#secureVessel()
+   */
+  @Override
+  public void secureVessel() {
+    // Nothing to secure in simulation
+  }
+}
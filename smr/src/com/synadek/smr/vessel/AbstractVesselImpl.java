@@ -9,6 +9,8 @@ package com.synadek.smr.vessel;
 
 import com.synadek.core.AbstractComponent;
 import com.synadek.core.ComponentException;
+import com.synadek.smr.control.navigation.TrafficPicture;
+import com.synadek.smr.control.weather.WeatherRollups;
 import com.synadek.smr.vessel.VesselComponent.VesselComponentType;
 import com.synadek.smr.vessel.physical.VesselPhysicalModel;
 import java.util.Calendar;
@@ -29,6 +31,23 @@ public abstract class AbstractVesselImpl extends AbstractComponent implements Ve
    */
   private final VesselPhysicalModel myPhysicalModel;
 
+  /**
+   * Snapshots of the vessel's motion, position and power, shared by every
+   * component that contributes to them.
+   */
+  private final VesselStatusPublisher statusPublisher = new VesselStatusPublisher();
+
+  /**
+   * Long-horizon aggregates of this vessel's own weather observations, shared
+   * by its weather sensors.
+   */
+  private final WeatherRollups weatherRollups = new WeatherRollups();
+
+  /**
+   * Other vessels nearby, as heard over intership communications.
+   */
+  private final TrafficPicture trafficPicture;
+
   /**
    * Overall status of vessel.
    */
@@ -59,6 +78,7 @@ public abstract class AbstractVesselImpl extends AbstractComponent implements Ve
     super(name);
     myPhysicalModel = physicalModel;
     mySerialNumber = serialNumber;
+    trafficPicture = new TrafficPicture(name);
 
     // TODO Read booking info from database
     bookingList.put(new Date(), "some mission");
@@ -114,6 +134,34 @@ public abstract class AbstractVesselImpl extends AbstractComponent implements Ve
     return myPhysicalModel;
   }
 
+  /**
+   * Get the publisher of this vessel's status snapshots.
+   *
+   * @return the publisher
+   */
+  public VesselStatusPublisher getStatusPublisher() {
+    return statusPublisher;
+  }
+
+  /**
+   * Get the aggregates of this vessel's weather observations.
+   *
+   * @return the rollups
+   */
+  public WeatherRollups getWeatherRollups() {
+    return weatherRollups;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.smr.vessel.Vessel#getTrafficPicture()
+   */
+  @Override
+  public TrafficPicture getTrafficPicture() {
+    return trafficPicture;
+  }
+
   /**
    * Add a component to the list of known components for this vessel.
    *
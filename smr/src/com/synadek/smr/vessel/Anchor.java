@@ -7,6 +7,8 @@
 
 package com.synadek.smr.vessel;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Control of anchor.
  */
@@ -28,15 +30,22 @@ public interface Anchor extends VesselComponent {
   float anchorDepth();
 
   /**
-   * Raise anchor to fully retracted position.
+   * Raise anchor to fully retracted position. Returns immediately; the anchor
+   * motor is driven in the background.
+   *
+   * @return a future that completes with true when the anchor is raised, or
+   *         false if it could not be raised
    */
-  void raiseAnchor();
+  CompletableFuture<Boolean> raiseAnchor();
 
   /**
-   * Lower anchor to a specified depth.
+   * Lower anchor to a specified depth. Returns immediately; the anchor motor
+   * is driven in the background.
    *
    * @param desiredDepth
    *          is the desired extension (depth) of the anchor in meters.
+   * @return a future that completes with true when the anchor reaches the
+   *         depth, or false if it could not reach it
    */
-  void lowerAnchor(float desiredDepth);
+  CompletableFuture<Boolean> lowerAnchor(float desiredDepth);
 }
@@ -8,10 +8,13 @@
 package com.synadek.smr.vessel;
 
 import com.synadek.core.ComponentException;
+import com.synadek.core.ControlLoop;
+import com.synadek.core.ControlLoopScheduler;
 import com.synadek.core.ControlledActuator;
 import com.synadek.core.JsonSchema;
 import com.synadek.core.PidController;
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
 import org.json.simple.JSONObject;
 
 /**
@@ -65,10 +68,21 @@ public class AnchorImpl extends VesselComponentImpl implements Anchor, Controlle
    */
   protected static final int MAX_ITERATIONS = 100;
 
+  /**
+   * Proportional gain of the anchor controller. One step moves the anchor by
+   * the whole error, limited to the maximum movement per step.
+   */
+  private static final float ANCHOR_KP = 1.0f;
+
   /**
    * Track the extent of anchor chain (meters) that is out.
    */
-  private float anchorDepth;
+  private volatile float anchorDepth;
+
+  /**
+   * Control loop currently moving the anchor, if any.
+   */
+  private ControlLoop anchorLoop;
 
   /**
    * Motor controller value.
@@ -137,8 +151,8 @@ public class AnchorImpl extends VesselComponentImpl implements Anchor, Controlle
    * @see com.smr.vessel.Anchor#raiseAnchor()
    */
   @Override
-  public void raiseAnchor() {
-    drawAnchor(0.0f);
+  public CompletableFuture<Boolean> raiseAnchor() {
+    return drawAnchor(0.0f);
   }
 
   /*
@@ -147,8 +161,8 @@ public class AnchorImpl extends VesselComponentImpl implements Anchor, Controlle
    * @see com.smr.vessel.Anchor#lowerAnchor(float)
    */
   @Override
-  public void lowerAnchor(float desiredDepth) {
-    drawAnchor(desiredDepth);
+  public CompletableFuture<Boolean> lowerAnchor(float desiredDepth) {
+    return drawAnchor(desiredDepth);
   }
 
   /**
@@ -158,44 +172,52 @@ public class AnchorImpl extends VesselComponentImpl implements Anchor, Controlle
    * not achieve this vertical depth in the water and the vessel may drift
    * horizontally to the extent of the chain.
    *
+   * <p>
+   * The motor is driven by a PID controller ticked by the shared control loop
+   * scheduler, so the caller is not blocked. A new request supersedes one
+   * still in progress.
+   * </p>
+   *
    * @param desiredDepth
    *          is the new depth to which the anchor should be set. Depth of zero
    *          means anchor fully raised.
+   * @return a future that completes with true when the anchor is within
+   *         ERROR_MARGIN of the desired depth, or false after MAX_ITERATIONS
+   *         steps
    */
-  private void drawAnchor(final float desiredDepth) {
+  private synchronized CompletableFuture<Boolean> drawAnchor(final float desiredDepth) {
 
     // Compute acceptable results bounds
     final float minRange = desiredDepth - ERROR_MARGIN;
     final float maxRange = desiredDepth + ERROR_MARGIN;
 
+    // Abandon any movement still in progress
+    if (anchorLoop != null) {
+      anchorLoop.cancel();
+    }
+
     // Create a PID controller for the motor
     final PidController controller = new PidController(this, MIN_MOVEMENT, MAX_MOVEMENT, INTERVAL);
+    controller.setTunings(ANCHOR_KP, 0.0f, 0.0f);
 
     // Set the target depth for the controller
     controller.setTarget(desiredDepth);
     log.info("Making anchor depth from {} to {}", anchorDepth, desiredDepth);
 
-    // Stop trying after MAX_ITERATIONS regardless of anchor position
-    int failsafe = MAX_ITERATIONS;
-
-    // Move anchor until result is achieved or failsafe is triggered
-    while (failsafe-- > 0 && (anchorDepth < minRange || anchorDepth > maxRange)) {
-      log.info("Invoking PID to move anchor from {} to {}<x<<{}", anchorDepth, minRange, maxRange);
-      controller.compute();
-      try {
-        Thread.sleep(INTERVAL);
-      } catch (InterruptedException e) {
-        e.printStackTrace();
-        break;
-      }
-    }
+    // Move anchor until result is achieved or MAX_ITERATIONS steps have been
+    // taken regardless of anchor position
+    anchorLoop = ControlLoopScheduler.getDefault().start(getName(), controller,
+        () -> anchorDepth >= minRange && anchorDepth <= maxRange, MAX_ITERATIONS);
 
     // Check result
-    if (failsafe <= 0 && (anchorDepth < minRange || anchorDepth > maxRange)) {
-      log.warn("SimAnchor failed to reach desired depth of {} after {} iterations.", desiredDepth,
-          MAX_ITERATIONS);
-    }
-
+    return anchorLoop.reachedSetpoint().whenComplete((reached, err) -> {
+      if (Boolean.FALSE.equals(reached)) {
+        log.warn("Anchor failed to reach desired depth of {} after {} iterations.", desiredDepth,
+            MAX_ITERATIONS);
+      } else if (Boolean.TRUE.equals(reached)) {
+        log.info("Anchor depth is {}", anchorDepth);
+      }
+    });
   }
 
   /*
@@ -205,7 +227,8 @@ public class AnchorImpl extends VesselComponentImpl implements Anchor, Controlle
    */
   @Override
   public float getInputValue() {
-    return this.motorValue;
+    // The controlled value is the depth of the anchor
+    return this.anchorDepth;
   }
 
   /*
@@ -221,14 +244,12 @@ public class AnchorImpl extends VesselComponentImpl implements Anchor, Controlle
     // Compute the number of turns of the anchor spool to achieve the new depth
     // setting or move the desired amount
 
-    // Question: Is newValue the amount of chain to move e.g., 0.2 meters or the
-    // depth to move to?
-    // If it is depth, we must compute the current depth (input value) and the
-    // desired depth (newValue) and
-    // take the difference between the two as the amount of chain to move. Then
-    // calculate the amount of motor energy to apply (or, for a stepper motor,
-    // the number of steps to take) to achieve that much chain movement.
-    final float metersToMove = (anchorDepth - newValue);
+    // newValue is the amount of chain to move in this step e.g., 0.2 meters;
+    // positive values pay out chain. Calculate the amount of motor energy to
+    // apply (or, for a stepper motor, the number of steps to take) to achieve
+    // that much chain movement without running past either end of the chain.
+    final float metersToMove = Math.max(-anchorDepth,
+        Math.min(MAX_DEPTH - anchorDepth, newValue));
 
     // If anchor chain is spooled on a spool with radius 5 cm, circumference is
     // 31.4 cm or .314 meters.
@@ -255,7 +276,7 @@ public class AnchorImpl extends VesselComponentImpl implements Anchor, Controlle
 
     // Anchor moves by some amount proportional to motor controller setting.
     // For now, just make the proportion 1:1.
-    this.anchorDepth -= newValue;
+    this.anchorDepth += metersToMove;
   }
 
   /*
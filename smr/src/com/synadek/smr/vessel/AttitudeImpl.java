@@ -12,15 +12,25 @@ import com.synadek.core.ComponentException;
 /**
  * Report linear and rotational movement of the vessel
  * (heave,sway,surge,roll,pitch,yaw).
+ *
+ * <p>
+ * Values come from a SensorFusion engine: heave in centimetres, surge and sway
+ * in centimetres per second, roll and pitch in degrees and yaw as the rate of
+ * turn in degrees per second.
+ * </p>
  */
 public class AttitudeImpl extends VesselComponentImpl implements Attitude {
 
+  /**
+   * Source of the fused motion, or null if there is none.
+   */
+  private final SensorFusion fusion;
+
   /**
    * Default constructor.
    */
   public AttitudeImpl() {
-    super(VesselComponentType.VESSEL_ATTITUDE, "attitude");
-    resetConfiguration();
+    this("attitude", null);
   }
 
   /**
@@ -30,7 +40,32 @@ public class AttitudeImpl extends VesselComponentImpl implements Attitude {
    *          a name for this component
    */
   public AttitudeImpl(final String name) {
+    this(name, null);
+  }
+
+  /**
+   * Constructor for a component that reports the motion estimated by a fusion
+   * engine.
+   *
+   * @param sensorFusion
+   *          the fusion engine
+   */
+  public AttitudeImpl(final SensorFusion sensorFusion) {
+    this("attitude", sensorFusion);
+  }
+
+  /**
+   * Named constructor for a component that reports the motion estimated by a
+   * fusion engine.
+   *
+   * @param name
+   *          a name for this component
+   * @param sensorFusion
+   *          the fusion engine, or null
+   */
+  public AttitudeImpl(final String name, final SensorFusion sensorFusion) {
     super(VesselComponentType.VESSEL_ATTITUDE, name);
+    fusion = sensorFusion;
     resetConfiguration();
   }
 
@@ -46,7 +81,16 @@ public class AttitudeImpl extends VesselComponentImpl implements Attitude {
   @Override
   public boolean connect(final boolean sim) throws ComponentException {
 
-    // Simulation is not yet supported for this component
+    if (fusion != null) {
+      if (!fusion.connect(sim)) {
+        return false;
+      }
+      this.simulated = sim;
+      this.connected = true;
+      return true;
+    }
+
+    // Without a fusion engine, simulation is not supported
     if (sim) {
       log.error(ERR_SIM_NOT_AVAIL);
       return false;
@@ -64,8 +108,7 @@ public class AttitudeImpl extends VesselComponentImpl implements Attitude {
    */
   @Override
   public int getHeave() {
-    // TODO Auto-generated method stub
-    return 0;
+    return fusion == null ? 0 : round(fusion.getStatus().getHeave() * 100.0);
   }
 
   /*
@@ -75,8 +118,7 @@ public class AttitudeImpl extends VesselComponentImpl implements Attitude {
    */
   @Override
   public int getSway() {
-    // TODO Auto-generated method stub
-    return 0;
+    return fusion == null ? 0 : round(fusion.getStatus().getSway() * 100.0);
   }
 
   /*
@@ -86,8 +128,7 @@ public class AttitudeImpl extends VesselComponentImpl implements Attitude {
    */
   @Override
   public int getSurge() {
-    // TODO Auto-generated method stub
-    return 0;
+    return fusion == null ? 0 : round(fusion.getStatus().getSurge() * 100.0);
   }
 
   /*
@@ -97,8 +138,7 @@ public class AttitudeImpl extends VesselComponentImpl implements Attitude {
    */
   @Override
   public int getPitch() {
-    // TODO Auto-generated method stub
-    return 0;
+    return fusion == null ? 0 : round(fusion.getStatus().getPitch());
   }
 
   /*
@@ -108,8 +148,7 @@ public class AttitudeImpl extends VesselComponentImpl implements Attitude {
    */
   @Override
   public int getRoll() {
-    // TODO Auto-generated method stub
-    return 0;
+    return fusion == null ? 0 : round(fusion.getStatus().getRoll());
   }
 
   /*
@@ -119,8 +158,18 @@ public class AttitudeImpl extends VesselComponentImpl implements Attitude {
    */
   @Override
   public int getYaw() {
-    // TODO Auto-generated method stub
-    return 0;
+    return fusion == null ? 0 : round(fusion.getStatus().getYaw());
+  }
+
+  /**
+   * Round an estimate to a whole number, treating an unknown estimate as zero.
+   *
+   * @param val
+   *          the estimate
+   * @return the rounded value
+   */
+  private static int round(final double val) {
+    return Double.isNaN(val) ? 0 : (int) Math.round(val);
   }
 
   /*
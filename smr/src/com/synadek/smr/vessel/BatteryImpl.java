@@ -9,13 +9,18 @@ package com.synadek.smr.vessel;
 
 import com.synadek.core.ComponentException;
 import com.synadek.core.InvalidValueException;
+import com.synadek.smr.vessel.physical.PdlAnalogHandler;
+import com.synadek.smr.vessel.physical.VesselPhysicalModel;
+import com.synadek.smr.vessel.physical.VesselPhysicalModel.PhysicalDeviceType;
 import java.util.Locale;
 import org.json.simple.JSONObject;
 
 /**
- * Battery subsystem.
+ * Battery subsystem. When connected to hardware, the voltage follows the
+ * battery voltage sensor of the vessel's physical model; state of charge is
+ * estimated by power management.
  */
-public class BatteryImpl extends VesselComponentImpl implements Battery {
+public class BatteryImpl extends VesselComponentImpl implements Battery, PdlAnalogHandler {
 
   /**
    * Default value for simulated battery voltage in volts.
@@ -30,15 +35,18 @@ public class BatteryImpl extends VesselComponentImpl implements Battery {
   /**
    * Battery voltage.
    */
-  private float voltage;
+  private volatile float voltage;
+
+  /**
+   * Physical model supplying the voltage, or null if there is none.
+   */
+  private final VesselPhysicalModel model;
 
   /**
    * Default constructor.
    */
   public BatteryImpl() {
-    super(VesselComponentType.VESSEL_BATTERY, "battery");
-    this.voltage = DEFAULT_VOLTAGE;
-    resetConfiguration();
+    this("battery", null);
   }
 
   /**
@@ -48,8 +56,21 @@ public class BatteryImpl extends VesselComponentImpl implements Battery {
    *          a name for this component
    */
   public BatteryImpl(final String name) {
+    this(name, null);
+  }
+
+  /**
+   * Constructor for a battery whose voltage is read from a physical model.
+   *
+   * @param name
+   *          a name for this component
+   * @param physicalModel
+   *          the vessel's physical model, or null
+   */
+  public BatteryImpl(final String name, final VesselPhysicalModel physicalModel) {
     super(VesselComponentType.VESSEL_BATTERY, name);
     this.voltage = DEFAULT_VOLTAGE;
+    model = physicalModel;
     resetConfiguration();
   }
 
@@ -71,11 +92,40 @@ public class BatteryImpl extends VesselComponentImpl implements Battery {
       return false;
     }
 
+    if (model != null) {
+      model.addAnalogInputListener(PhysicalDeviceType.PHY_BATTERY_VOLTAGE_SENSOR, this);
+    }
+
     this.simulated = false;
     this.connected = true;
     return true;
   }
 
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.core.AbstractComponent#disconnect()
+   */
+  @Override
+  public void disconnect() throws ComponentException {
+    if (connected && model != null) {
+      model.removeAnalogInputListener(this);
+    }
+    super.disconnect();
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.smr.vessel.physical.PdlAnalogHandler#physicalDeviceStateChange
+   */
+  @Override
+  public void physicalDeviceStateChange(final PhysicalDeviceType idx, final double val) {
+    if (idx == PhysicalDeviceType.PHY_BATTERY_VOLTAGE_SENSOR) {
+      this.voltage = (float) val;
+    }
+  }
+
   /*
    * (non-Javadoc)
    * 
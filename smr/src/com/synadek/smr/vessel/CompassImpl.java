@@ -14,12 +14,16 @@ import com.synadek.core.ComponentException;
  */
 public class CompassImpl extends VesselComponentImpl implements Compass {
 
+  /**
+   * Source of the fused heading, or null if there is none.
+   */
+  private final SensorFusion fusion;
+
   /**
    * Default constructor.
    */
   public CompassImpl() {
-    super(VesselComponentType.VESSEL_COMPASS, "compass");
-    resetConfiguration();
+    this("compass", null);
   }
 
   /**
@@ -29,7 +33,31 @@ public class CompassImpl extends VesselComponentImpl implements Compass {
    *          a name for this component
    */
   public CompassImpl(final String name) {
+    this(name, null);
+  }
+
+  /**
+   * Constructor for a compass that reports the heading of a fusion engine.
+   *
+   * @param sensorFusion
+   *          the fusion engine
+   */
+  public CompassImpl(final SensorFusion sensorFusion) {
+    this("compass", sensorFusion);
+  }
+
+  /**
+   * Named constructor for a compass that reports the heading of a fusion
+   * engine.
+   *
+   * @param name
+   *          a name for this component
+   * @param sensorFusion
+   *          the fusion engine, or null
+   */
+  public CompassImpl(final String name, final SensorFusion sensorFusion) {
     super(VesselComponentType.VESSEL_COMPASS, name);
+    fusion = sensorFusion;
     resetConfiguration();
   }
 
@@ -45,7 +73,16 @@ public class CompassImpl extends VesselComponentImpl implements Compass {
   @Override
   public boolean connect(final boolean sim) throws ComponentException {
 
-    // Simulation is not yet supported for this component
+    if (fusion != null) {
+      if (!fusion.connect(sim)) {
+        return false;
+      }
+      this.simulated = sim;
+      this.connected = true;
+      return true;
+    }
+
+    // Without a fusion engine, simulation is not supported
     if (sim) {
       log.error(ERR_SIM_NOT_AVAIL);
       return false;
@@ -63,8 +100,8 @@ public class CompassImpl extends VesselComponentImpl implements Compass {
    */
   @Override
   public void disconnect() throws ComponentException {
-    // TODO Auto-generated method stub
-
+    // The fusion engine is shared with other components and keeps running
+    this.connected = false;
   }
 
   /*
@@ -74,8 +111,7 @@ public class CompassImpl extends VesselComponentImpl implements Compass {
    */
   @Override
   public boolean isConnected() {
-    // TODO Auto-generated method stub
-    return false;
+    return connected;
   }
 
   /*
@@ -85,8 +121,7 @@ public class CompassImpl extends VesselComponentImpl implements Compass {
    */
   @Override
   public boolean isSimulated() {
-    // TODO Auto-generated method stub
-    return false;
+    return simulated;
   }
 
   /*
@@ -96,8 +131,14 @@ public class CompassImpl extends VesselComponentImpl implements Compass {
    */
   @Override
   public int getDirection() {
-    // For now, we're always heading north
-    return 0;
+    if (fusion == null) {
+      return 0;
+    }
+    final double heading = fusion.getStatus().getHeading();
+    if (Double.isNaN(heading)) {
+      return 0;
+    }
+    return (int) Math.round(heading) % 360;
   }
 
   /*
@@ -0,0 +1,26 @@
+/**
+ * GnssListener.java
+ * 19 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.vessel;
+
+/**
+ * A GNSS Listener is told of each position fix the receiver produces.
+ */
+public interface GnssListener {
+
+  /**
+   * Respond to a new position fix.
+   *
+   * @param latitude
+   *          degrees
+   * @param longitude
+   *          degrees
+   * @param nanos
+   *          System.nanoTime() when the fix was received
+   */
+  void onFix(double latitude, double longitude, long nanos);
+}
@@ -21,4 +21,20 @@ public interface GnssReceiver extends VesselComponent {
    */
   public GpsCoordinates getLocation();
 
+  /**
+   * Add a listener for position fixes.
+   *
+   * @param listener
+   *          the listener
+   */
+  void addGnssListener(GnssListener listener);
+
+  /**
+   * Remove a listener for position fixes.
+   *
+   * @param listener
+   *          the listener
+   */
+  void removeGnssListener(GnssListener listener);
+
 }
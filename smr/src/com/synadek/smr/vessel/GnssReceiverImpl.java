@@ -9,11 +9,39 @@ package com.synadek.smr.vessel;
 
 import com.synadek.core.ComponentException;
 import com.synadek.core.GpsCoordinates;
+import com.synadek.smr.vessel.physical.PdlAnalogHandler;
+import com.synadek.smr.vessel.physical.VesselPhysicalModel;
+import com.synadek.smr.vessel.physical.VesselPhysicalModel.PhysicalDeviceType;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
- * GPS/GNSS receiver implementation.
+ * GPS/GNSS receiver implementation. The physical model signals the latitude
+ * and then the longitude of each fix; the pair is latched into a location and
+ * passed on to the listeners.
  */
-public class GnssReceiverImpl extends VesselComponentImpl implements GnssReceiver {
+public class GnssReceiverImpl extends VesselComponentImpl implements GnssReceiver,
+    PdlAnalogHandler {
+
+  /**
+   * Physical model supplying the fixes, or null if there is none.
+   */
+  private VesselPhysicalModel model;
+
+  /**
+   * Latitude of the fix being assembled (degrees), or NaN before the first.
+   */
+  private double pendingLatitude = Double.NaN;
+
+  /**
+   * Most recent complete fix, or null before the first.
+   */
+  private volatile GpsCoordinates location;
+
+  /**
+   * Listeners told of each fix.
+   */
+  private final List<GnssListener> listeners = new CopyOnWriteArrayList<>();
 
   /**
    * Default constructor.
@@ -34,6 +62,20 @@ public class GnssReceiverImpl extends VesselComponentImpl implements GnssReceive
     resetConfiguration();
   }
 
+  /**
+   * Constructor for a receiver that reads the physical model.
+   *
+   * @param name
+   *          a name for this component
+   * @param physicalModel
+   *          the vessel's physical model
+   */
+  public GnssReceiverImpl(final String name, final VesselPhysicalModel physicalModel) {
+    super(VesselComponentType.VESSEL_GNSS_RECEIVER, name);
+    model = physicalModel;
+    resetConfiguration();
+  }
+
   /**
    * Connect parameter indicates whether to connect to a physical or simulated
    * component.
@@ -52,11 +94,67 @@ public class GnssReceiverImpl extends VesselComponentImpl implements GnssReceive
       return false;
     }
 
+    // Listen to the receiver if there is a physical model to read
+    if (model != null) {
+      model.addAnalogInputListener(PhysicalDeviceType.PHY_GNSS_LATITUDE, this);
+      model.addAnalogInputListener(PhysicalDeviceType.PHY_GNSS_LONGITUDE, this);
+    }
+
     this.simulated = false;
     this.connected = true;
     return true;
   }
 
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.core.AbstractComponent#disconnect()
+   */
+  @Override
+  public void disconnect() throws ComponentException {
+    if (connected && model != null) {
+      model.removeAnalogInputListener(this);
+    }
+    super.disconnect();
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.smr.vessel.physical.PdlAnalogHandler#physicalDeviceStateChange
+   * (com.synadek.smr.vessel.physical.VesselPhysicalModel.PhysicalDeviceType,
+   * double)
+   */
+  @Override
+  public void physicalDeviceStateChange(final PhysicalDeviceType deviceId, final double val) {
+    if (deviceId == PhysicalDeviceType.PHY_GNSS_LATITUDE) {
+      pendingLatitude = val;
+    } else if (deviceId == PhysicalDeviceType.PHY_GNSS_LONGITUDE) {
+      recordFix(pendingLatitude, val, System.nanoTime());
+    }
+  }
+
+  /**
+   * Record a position fix and pass it on to the listeners. Fixes with a
+   * missing or non-finite coordinate are dropped.
+   *
+   * @param latitude
+   *          degrees
+   * @param longitude
+   *          degrees
+   * @param nanos
+   *          System.nanoTime() when the fix was received
+   */
+  public void recordFix(final double latitude, final double longitude, final long nanos) {
+    if (!Double.isFinite(latitude) || !Double.isFinite(longitude)) {
+      return;
+    }
+    location = new GpsCoordinates(latitude, longitude);
+    for (GnssListener listener : listeners) {
+      listener.onFix(latitude, longitude, nanos);
+    }
+  }
+
   /*
    * (non-Javadoc)
    * 
@@ -74,8 +172,29 @@ public class GnssReceiverImpl extends VesselComponentImpl implements GnssReceive
    */
   @Override
   public GpsCoordinates getLocation() {
-    // TODO Auto-generated method stub
-    return null;
+    return location;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.smr.vessel.GnssReceiver#addGnssListener(com.synadek.smr.
+   * vessel.GnssListener)
+   */
+  @Override
+  public void addGnssListener(final GnssListener listener) {
+    listeners.add(listener);
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.smr.vessel.GnssReceiver#removeGnssListener(com.synadek.smr.
+   * vessel.GnssListener)
+   */
+  @Override
+  public void removeGnssListener(final GnssListener listener) {
+    listeners.remove(listener);
   }
 
 }
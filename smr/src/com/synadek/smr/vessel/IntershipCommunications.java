@@ -11,13 +11,22 @@ import org.json.simple.JSONObject;
 
 /**
  * Communications from this vessel to other vessels in communications range.
+ * So far only simulated vessels can be in range: there is no radio driver for
+ * the vessels themselves.
  */
 public interface IntershipCommunications extends VesselComponent {
+
+  /**
+   * Ship name that addresses every ship in range.
+   */
+  String BROADCAST = "*";
+
   /**
    * Send a message to another ship.
    *
    * @param shipName
-   *          the name of the ship to which to send the communication
+   *          the name of the ship to which to send the communication, or
+   *          BROADCAST
    * @param message
    *          the message
    */
@@ -42,4 +51,22 @@ public interface IntershipCommunications extends VesselComponent {
    *          the listener
    */
   void addListener(CommunicationsListener comm);
+
+  /**
+   * Broadcast a status snapshot to the ships in range in its compact binary
+   * form.
+   *
+   * @param status
+   *          the snapshot
+   */
+  void sendStatus(VesselStatus status);
+
+  /**
+   * Get the most recent status received from another ship.
+   *
+   * @param shipName
+   *          the name of the ship
+   * @return the snapshot, or null if none has been received
+   */
+  VesselStatus getPeerStatus(String shipName);
 }
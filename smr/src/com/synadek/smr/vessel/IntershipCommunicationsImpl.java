@@ -8,21 +8,119 @@
 package com.synadek.smr.vessel;
 
 import com.synadek.core.ComponentException;
+import com.synadek.core.ControlLoopScheduler;
+import com.synadek.core.InvalidValueException;
+import com.synadek.smr.control.navigation.TrafficPicture;
+import com.synadek.smr.vessel.PowerManagement.LoadShedLevel;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.LongSupplier;
 import org.json.simple.JSONObject;
 
 /**
  * Communications from this vessel to other vessels in communications range.
+ *
+ * <p>
+ * Only simulated links are available: every station on the same
+ * SimulatedRadio is in range, and a message is delivered to the listeners of
+ * the named vessel, or of every other vessel for a broadcast, on the radio's
+ * delivery executor. There is no intership radio driver yet, so a link to
+ * hardware refuses to connect, and a vessel without a simulated link neither
+ * sends nor hears other ships.
+ * </p>
+ *
+ * <p>
+ * Status snapshots travel in their fixed binary layout rather than as JSON.
+ * Given a status publisher when it connects, a link broadcasts the vessel's
+ * current snapshot once a second, or less often while power management is
+ * shedding load, together with a TrafficPicture position report for the
+ * collision avoidance of the ships in range. Snapshots received from other
+ * ships are decoded into one publisher per ship, which discards stale and
+ * duplicate broadcasts.
+ * </p>
  */
 public class IntershipCommunicationsImpl extends VesselComponentImpl
     implements
-      IntershipCommunications {
+      IntershipCommunications,
+      LoadShedListener {
+
+  /**
+   * Interval (milliseconds) between status broadcasts.
+   */
+  private static final long STATUS_INTERVAL = 1000L;
+
+  /**
+   * Interval (milliseconds) between status broadcasts while sampling is
+   * reduced.
+   */
+  private static final long REDUCED_STATUS_INTERVAL = 10000L;
+
+  /**
+   * Interval (milliseconds) between status broadcasts while sensors sleep.
+   */
+  private static final long ASLEEP_STATUS_INTERVAL = 60000L;
+
+  /**
+   * Error reported when a link to radio hardware is requested.
+   */
+  private static final String ERR_RADIO_NOT_AVAIL =
+      "Intership radio is not supported; only simulated links can connect";
+
+  /**
+   * Listeners for inbound messages.
+   */
+  private final Set<CommunicationsListener> myListeners = new CopyOnWriteArraySet<>();
+
+  /**
+   * Name of the ship on which this component is installed.
+   */
+  private final String shipName;
+
+  /**
+   * Buffer into which outgoing status snapshots are encoded.
+   */
+  private final ByteBuffer statusBuffer = ByteBuffer.allocate(VesselStatus.ENCODED_SIZE);
+
+  /**
+   * Latest status received from each other ship, by ship name.
+   */
+  private final Map<String, VesselStatusPublisher> peerStatus = new ConcurrentHashMap<>();
+
+  /**
+   * Source of this vessel's status broadcasts, or null for none.
+   */
+  private volatile VesselStatusPublisher statusPublisher;
+
+  /**
+   * The simulated stations this link can reach.
+   */
+  private volatile SimulatedRadio radio = SimulatedRadio.getDefault();
+
+  /**
+   * Source of the time stamped on position reports, in millis since the
+   * epoch.
+   */
+  private volatile LongSupplier clock = System::currentTimeMillis;
+
+  /**
+   * Periodic status broadcast, or null if not running.
+   */
+  private ScheduledFuture<?> statusTask;
+
+  /**
+   * Interval (milliseconds) between status broadcasts.
+   */
+  private long statusInterval = STATUS_INTERVAL;
 
   /**
    * Default constructor.
    */
   public IntershipCommunicationsImpl() {
-    super(VesselComponentType.VESSEL_SHIP_TO_SHIP, "ship-to-ship communications");
-    resetConfiguration();
+    this("ship-to-ship communications", null);
   }
 
   /**
@@ -32,7 +130,21 @@ public class IntershipCommunicationsImpl extends VesselComponentImpl
    *          a name for this component
    */
   public IntershipCommunicationsImpl(final String name) {
+    this(name, null);
+  }
+
+  /**
+   * Explicit constructor.
+   *
+   * @param name
+   *          a name for this component
+   * @param ship
+   *          name of the ship on which the component is installed, by which
+   *          other ships address it
+   */
+  public IntershipCommunicationsImpl(final String name, final String ship) {
     super(VesselComponentType.VESSEL_SHIP_TO_SHIP, name);
+    shipName = ship != null ? ship : name;
     resetConfiguration();
   }
 
@@ -48,17 +160,142 @@ public class IntershipCommunicationsImpl extends VesselComponentImpl
   @Override
   public boolean connect(final boolean sim) throws ComponentException {
 
-    // Simulation is not yet supported for this component
-    if (sim) {
-      log.error(ERR_SIM_NOT_AVAIL);
+    // There is no radio driver, so only simulated links can carry traffic
+    if (!sim) {
+      log.error(ERR_RADIO_NOT_AVAIL);
       return false;
     }
 
-    this.simulated = false;
+    radio.join(this);
+    this.simulated = true;
     this.connected = true;
+
+    synchronized (this) {
+      if (statusTask == null && statusPublisher != null) {
+        statusTask = ControlLoopScheduler.getDefault().scheduleAtFixedRate(this::broadcastStatus,
+            statusInterval);
+      }
+    }
     return true;
   }
 
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.core.Component#disconnect()
+   */
+  @Override
+  public void disconnect() throws ComponentException {
+    synchronized (this) {
+      if (statusTask != null) {
+        statusTask.cancel(false);
+        statusTask = null;
+      }
+    }
+    radio.leave(this);
+    super.disconnect();
+  }
+
+  /**
+   * Broadcast this vessel's status snapshots from a publisher. Set before
+   * connecting for the broadcasts to run periodically.
+   *
+   * @param target
+   *          the publisher, or null to stop broadcasting
+   */
+  public void setStatusPublisher(final VesselStatusPublisher target) {
+    statusPublisher = target;
+  }
+
+  /**
+   * Set the simulated radio on which this link sends and hears. Set before
+   * connecting.
+   *
+   * @param target
+   *          the radio (default the one shared by the application)
+   */
+  public void setSimulatedRadio(final SimulatedRadio target) {
+    radio = target;
+  }
+
+  /**
+   * Set the source of the time stamped on position reports, e.g. the clock of
+   * the vessel's physical model.
+   *
+   * @param millis
+   *          supplies the current time in millis since the epoch (default the
+   *          system clock)
+   */
+  public void setClock(final LongSupplier millis) {
+    clock = millis;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.smr.vessel.LoadShedListener#loadShedLevelChanged(com.synadek
+   * .smr.vessel.PowerManagement.LoadShedLevel)
+   */
+  @Override
+  public synchronized void loadShedLevelChanged(final LoadShedLevel level) {
+    switch (level) {
+      case NONE:
+        statusInterval = STATUS_INTERVAL;
+        break;
+      case REDUCED_SAMPLING:
+        statusInterval = REDUCED_STATUS_INTERVAL;
+        break;
+      default:
+        statusInterval = ASLEEP_STATUS_INTERVAL;
+        break;
+    }
+    if (statusTask != null) {
+      statusTask.cancel(false);
+      statusTask = ControlLoopScheduler.getDefault().scheduleAtFixedRate(this::broadcastStatus,
+          statusInterval);
+    }
+  }
+
+  /**
+   * Broadcast the current status snapshot, if there is a publisher.
+   */
+  private void broadcastStatus() {
+    final VesselStatusPublisher source = statusPublisher;
+    if (source != null) {
+      broadcast(source.get());
+    }
+  }
+
+  /**
+   * Broadcast a status snapshot and, if it holds a position, a position
+   * report for the traffic pictures of the ships in range. This is what the
+   * periodic broadcast sends; a simulation on its own clock calls it at its
+   * own status ticks instead.
+   *
+   * @param status
+   *          the snapshot
+   */
+  public void broadcast(final VesselStatus status) {
+    sendStatus(status);
+    if (connected && Double.isFinite(status.getLatitude())
+        && Double.isFinite(status.getLongitude())) {
+      // Without a heading the direction of motion is unknown
+      final boolean moving = Double.isFinite(status.getHeading());
+      sendMessage(BROADCAST, TrafficPicture.positionReport(status.getLatitude(),
+          status.getLongitude(), moving ? status.getSpeed() : 0.0,
+          moving ? status.getHeading() : 0.0, clock.getAsLong()));
+    }
+  }
+
+  /**
+   * Get the name by which other ships address this one.
+   *
+   * @return the ship name
+   */
+  public String getShipName() {
+    return shipName;
+  }
+
   /*
    * (non-Javadoc)
    * 
@@ -67,8 +304,17 @@ public class IntershipCommunicationsImpl extends VesselComponentImpl
    */
   @Override
   public void sendMessage(String shipName, JSONObject message) {
-    // TODO Auto-generated method stub
-
+    if (!connected) {
+      log.warn("Intership communications not connected; message to {} dropped", shipName);
+      return;
+    }
+    final SimulatedRadio ether = radio;
+    for (IntershipCommunicationsImpl station : ether.getStations()) {
+      if (station != this
+          && (BROADCAST.equals(shipName) || station.getShipName().equals(shipName))) {
+        ether.getDelivery().execute(() -> station.receiveMessage(this.shipName, message));
+      }
+    }
   }
 
   /*
@@ -77,10 +323,13 @@ public class IntershipCommunicationsImpl extends VesselComponentImpl
    * @see com.synadek.smr.vessel.IntershipCommunications#sendMessage(java.lang.
    * String, org.json.simple.JSONObject, java.lang.String)
    */
+  @SuppressWarnings("unchecked")
   @Override
   public void sendMessage(String shipName, JSONObject metadata, String imagePath) {
-    // TODO Auto-generated method stub
-
+    final JSONObject message = new JSONObject();
+    message.putAll(metadata);
+    message.put("imagePath", imagePath);
+    sendMessage(shipName, message);
   }
 
   /*
@@ -92,8 +341,94 @@ public class IntershipCommunicationsImpl extends VesselComponentImpl
    */
   @Override
   public void addListener(CommunicationsListener comm) {
-    // TODO Auto-generated method stub
+    if (comm == null) {
+      throw new NullPointerException();
+    }
+    myListeners.add(comm);
+  }
+
+  /**
+   * Remove a listener for messages coming from off-ship.
+   *
+   * @param comm
+   *          the listener
+   */
+  public void removeListener(CommunicationsListener comm) {
+    myListeners.remove(comm);
+  }
+
+  /**
+   * Deliver a message received from another ship to the listeners.
+   *
+   * @param source
+   *          the name of the ship sending the message
+   * @param message
+   *          the message
+   */
+  public void receiveMessage(final String source, final JSONObject message) {
+    for (CommunicationsListener listener : myListeners) {
+      try {
+        listener.receiveMessage(source, message);
+      } catch (RuntimeException err) {
+        log.error("Intership message listener failed", err);
+      }
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.smr.vessel.IntershipCommunications#sendStatus(com.synadek.
+   * smr.vessel.VesselStatus)
+   */
+  @Override
+  public void sendStatus(final VesselStatus status) {
+    if (!connected) {
+      return;
+    }
+    synchronized (statusBuffer) {
+      statusBuffer.clear();
+      status.encode(statusBuffer);
+      statusBuffer.flip();
+
+      // Each station reads its own view of the one encoding
+      for (IntershipCommunicationsImpl station : radio.getStations()) {
+        if (station != this) {
+          station.receiveStatus(this.shipName, statusBuffer.duplicate());
+        }
+      }
+    }
+  }
 
+  /**
+   * Decode a status snapshot received from another ship and keep it if it is
+   * newer than the last one from that ship, or comes from a later boot of it.
+   *
+   * @param source
+   *          the name of the ship sending the status
+   * @param buf
+   *          the encoded snapshot, at the buffer's position
+   */
+  public void receiveStatus(final String source, final ByteBuffer buf) {
+    try {
+      peerStatus.computeIfAbsent(source, key -> new VesselStatusPublisher())
+          .offer(VesselStatus.decode(buf));
+    } catch (InvalidValueException err) {
+      log.warn("Invalid status from {}: {}", source, err.getMessage());
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * com.synadek.smr.vessel.IntershipCommunications#getPeerStatus(java.lang.
+   * String)
+   */
+  @Override
+  public VesselStatus getPeerStatus(final String shipName) {
+    final VesselStatusPublisher peer = peerStatus.get(shipName);
+    return peer != null ? peer.get() : null;
   }
 
   /*
@@ -0,0 +1,25 @@
+/**
+ * LoadShedListener.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.vessel;
+
+import com.synadek.smr.vessel.PowerManagement.LoadShedLevel;
+
+/**
+ * A Load Shed Listener is told when power management changes how hard the
+ * vessel must save energy, so that it can sleep or slow down accordingly.
+ */
+public interface LoadShedListener {
+
+  /**
+   * Respond to a new load shedding level.
+   *
+   * @param level
+   *          the new level
+   */
+  void loadShedLevelChanged(LoadShedLevel level);
+}
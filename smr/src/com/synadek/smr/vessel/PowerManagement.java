@@ -31,6 +31,24 @@ public interface PowerManagement extends VesselComponent {
     SLEEPING
   }
 
+  /**
+   * Define how hard the vessel is saving energy.
+   */
+  enum LoadShedLevel {
+    /**
+     * Normal operation.
+     */
+    NONE,
+    /**
+     * Sensors are sampled less often.
+     */
+    REDUCED_SAMPLING,
+    /**
+     * Sensors that are not essential to navigation are asleep.
+     */
+    SENSORS_ASLEEP
+  }
+
   /**
    * Get power status.
    *
@@ -53,4 +71,60 @@ public interface PowerManagement extends VesselComponent {
    */
   void sleep();
 
+  /**
+   * Get the estimated battery state of charge.
+   *
+   * @return state of charge, 0 to 1
+   */
+  double getStateOfCharge();
+
+  /**
+   * Get the state of charge held in reserve.
+   *
+   * @return state of charge, 0 to 1
+   */
+  double getReserve();
+
+  /**
+   * Get the current load shedding level.
+   *
+   * @return the level
+   */
+  LoadShedLevel getLoadShedLevel();
+
+  /**
+   * Change the load shedding level and tell the listeners.
+   *
+   * @param level
+   *          the new level
+   */
+  void setLoadShedLevel(LoadShedLevel level);
+
+  /**
+   * Choose and apply a load shedding level for an energy forecast.
+   *
+   * @param enduranceSeconds
+   *          forecast time until the battery reaches its reserve
+   * @param requiredSeconds
+   *          time the vessel must keep operating, e.g. to finish its route
+   * @return the level applied
+   */
+  LoadShedLevel shedForForecast(double enduranceSeconds, double requiredSeconds);
+
+  /**
+   * Add a listener for load shedding changes.
+   *
+   * @param listener
+   *          the listener
+   */
+  void addLoadShedListener(LoadShedListener listener);
+
+  /**
+   * Remove a listener for load shedding changes.
+   *
+   * @param listener
+   *          the listener
+   */
+  void removeLoadShedListener(LoadShedListener listener);
+
 }
@@ -7,20 +7,166 @@
 
 package com.synadek.smr.vessel;
 
+import com.synadek.core.CalibrationCurve;
 import com.synadek.core.ComponentException;
+import com.synadek.core.InvalidValueException;
+import com.synadek.core.JsonSchema;
+import com.synadek.smr.vessel.physical.PdlAnalogHandler;
+import com.synadek.smr.vessel.physical.VesselPhysicalModel;
+import com.synadek.smr.vessel.physical.VesselPhysicalModel.PhysicalDeviceType;
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+import org.json.simple.JSONObject;
 
 /**
  * Power management implementation.
+ *
+ * <p>
+ * Tracks the battery state of charge from the battery voltage sensor of the
+ * vessel's physical model, counting current from a shunt when one reports
+ * through onCurrent and otherwise from a model of the net electrical load.
+ * When the energy forecast for the mission is short, or the charge falls to the
+ * reserve, it sheds load: first by sampling the weather sensors less often,
+ * then by putting them to sleep. Each sensor's own sampling interval is saved
+ * when shedding begins and restored when it ends. Once the charge has fallen to
+ * the reserve, the sensors sleep until it recovers past the reserve by a
+ * hysteresis margin, so a voltage hovering at the threshold does not wake and
+ * sleep them on every reading.
+ * </p>
  */
-public class PowerManagementImpl extends VesselComponentImpl implements PowerManagement {
+public class PowerManagementImpl extends VesselComponentImpl
+    implements PowerManagement, PdlAnalogHandler {
+
+  /**
+   * Configuration key for the usable battery capacity in amp hours.
+   */
+  public static final String JSON_KEY_CAPACITY = "capacityAmpHours";
+
+  /**
+   * Configuration key for the internal resistance of the battery in ohms.
+   */
+  public static final String JSON_KEY_RESISTANCE = "internalResistance";
+
+  /**
+   * Configuration key for the open-circuit voltage curve.
+   */
+  public static final String JSON_KEY_SOC_CURVE = "socCurve";
+
+  /**
+   * Configuration key for the continuous load of electronics in watts.
+   */
+  public static final String JSON_KEY_HOTEL_LOAD = "hotelLoad";
+
+  /**
+   * Configuration key for the state of charge held in reserve.
+   */
+  public static final String JSON_KEY_RESERVE = "reserve";
+
+  /**
+   * Configuration key for how far the state of charge must recover above the
+   * reserve before the sensors wake.
+   */
+  public static final String JSON_KEY_RESERVE_HYSTERESIS = "reserveHysteresis";
+
+  /**
+   * Configuration key for the endurance margin below which sampling is
+   * reduced.
+   */
+  public static final String JSON_KEY_MARGIN = "margin";
+
+  /**
+   * Configuration key for the sensor sampling interval while shedding load.
+   */
+  public static final String JSON_KEY_SHED_INTERVAL = "shedSampleInterval";
+
+  private static final double DEFAULT_CAPACITY = 100.0;
+  private static final double DEFAULT_RESISTANCE = 0.02;
+
+  /**
+   * Default open-circuit voltage curve of a 12 volt lead-acid battery.
+   */
+  private static final CalibrationCurve DEFAULT_SOC_CURVE = new CalibrationCurve(
+      new double[] {11.8, 12.7}, new double[] {0.0, 1.0});
+
+  private static final double DEFAULT_HOTEL_LOAD = 5.0;
+  private static final double DEFAULT_RESERVE = 0.2;
+  private static final double DEFAULT_RESERVE_HYSTERESIS = 0.05;
+  private static final double DEFAULT_MARGIN = 0.25;
+  private static final int DEFAULT_SHED_INTERVAL = 10000;
+
+  /**
+   * Sensors whose sampling is reduced, and which are put to sleep, when
+   * shedding load.
+   */
+  private static final PhysicalDeviceType[] SHED_SENSORS = {
+      PhysicalDeviceType.PHY_AIR_TEMPERATURE_SENSOR,
+      PhysicalDeviceType.PHY_WATER_TEMPERATURE_SENSOR,
+      PhysicalDeviceType.PHY_WIND_DIRECTION_SENSOR, PhysicalDeviceType.PHY_WIND_SPEED_SENSOR};
+
+  /**
+   * Physical model supplying the battery voltage, or null if there is none.
+   */
+  private final VesselPhysicalModel model;
+
+  /**
+   * Source of time in nanoseconds.
+   */
+  private final LongSupplier clock;
+
+  /**
+   * Listeners for load shedding changes.
+   */
+  private final List<LoadShedListener> listeners = new CopyOnWriteArrayList<>();
+
+  /**
+   * State of charge estimator, rebuilt when the configuration changes.
+   */
+  private volatile StateOfChargeEstimator estimator;
+
+  /**
+   * Net electrical load in watts (consumption less solar charging), used when
+   * no shunt reports the battery current.
+   */
+  private volatile DoubleSupplier loadSource;
+
+  /**
+   * Flag indicating a shunt reports the battery current.
+   */
+  private volatile boolean currentMeasured;
+
+  /**
+   * Where the battery voltage is published, or null.
+   */
+  private volatile VesselStatusPublisher publisher;
+
+  /**
+   * Sampling interval of each shed sensor before shedding began (ms), or zero
+   * if unknown. Guarded by this.
+   */
+  private final int[] savedIntervals = new int[SHED_SENSORS.length];
+
+  // Configuration
+  private volatile double hotelLoad = DEFAULT_HOTEL_LOAD;
+  private volatile double reserve = DEFAULT_RESERVE;
+  private volatile double reserveHysteresis = DEFAULT_RESERVE_HYSTERESIS;
+  private volatile double margin = DEFAULT_MARGIN;
+  private volatile int shedInterval = DEFAULT_SHED_INTERVAL;
+
+  // State
+  private volatile PowerStatus powerStatus = PowerStatus.POWERED_DOWN;
+  private volatile LoadShedLevel shedLevel = LoadShedLevel.NONE;
+  private volatile LoadShedLevel forecastLevel = LoadShedLevel.NONE;
+  private volatile boolean reserveReached;
+  private volatile double lastVoltage = Double.NaN;
 
   /**
    * Default constructor.
    */
   public PowerManagementImpl() {
-    super(VesselComponentType.VESSEL_POWER_MANAGEMENT, "power management");
-    resetConfiguration();
+    this("power management", null);
   }
 
   /**
@@ -30,7 +176,49 @@ public class PowerManagementImpl extends VesselComponentImpl implements PowerMan
    *          a name for this component
    */
   public PowerManagementImpl(final String name) {
+    this(name, null);
+  }
+
+  /**
+   * Constructor for power management that reads the battery sensor of a
+   * physical model.
+   *
+   * @param physicalModel
+   *          the vessel's physical model
+   */
+  public PowerManagementImpl(final VesselPhysicalModel physicalModel) {
+    this("power management", physicalModel);
+  }
+
+  /**
+   * Named constructor for power management that reads the battery sensor of a
+   * physical model.
+   *
+   * @param name
+   *          a name for this component
+   * @param physicalModel
+   *          the vessel's physical model, or null
+   */
+  public PowerManagementImpl(final String name, final VesselPhysicalModel physicalModel) {
+    this(name, physicalModel, System::nanoTime);
+  }
+
+  /**
+   * Constructor with an explicit clock, for simulations.
+   *
+   * @param name
+   *          a name for this component
+   * @param physicalModel
+   *          the vessel's physical model, or null
+   * @param nanoClock
+   *          source of time in nanoseconds
+   */
+  public PowerManagementImpl(final String name, final VesselPhysicalModel physicalModel,
+      final LongSupplier nanoClock) {
     super(VesselComponentType.VESSEL_POWER_MANAGEMENT, name);
+    model = physicalModel;
+    clock = nanoClock;
+    loadSource = () -> hotelLoad;
     resetConfiguration();
   }
 
@@ -45,15 +233,18 @@ public class PowerManagementImpl extends VesselComponentImpl implements PowerMan
    */
   @Override
   public boolean connect(final boolean sim) throws ComponentException {
-
-    // Simulation is not yet supported for this component
-    if (sim) {
-      log.error(ERR_SIM_NOT_AVAIL);
+    // Confirm availability of HW to measure the battery
+    if (model == null && !sim) {
+      log.error("No physical model from which to read the battery");
       return false;
     }
+    if (model != null) {
+      model.addAnalogInputListener(PhysicalDeviceType.PHY_BATTERY_VOLTAGE_SENSOR, this);
+    }
 
-    this.simulated = false;
+    this.simulated = sim;
     this.connected = true;
+    powerStatus = PowerStatus.POWERED_UP;
     return true;
   }
 
@@ -64,62 +255,263 @@ public class PowerManagementImpl extends VesselComponentImpl implements PowerMan
    */
   @Override
   public void disconnect() throws ComponentException {
-    // TODO Auto-generated method stub
+    if (connected && model != null) {
+      model.removeAnalogInputListener(this);
+    }
+    super.disconnect();
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.smr.vessel.physical.PdlAnalogHandler#physicalDeviceStateChange
+   */
+  @Override
+  public void physicalDeviceStateChange(final PhysicalDeviceType idx, final double val) {
+    if (idx == PhysicalDeviceType.PHY_BATTERY_VOLTAGE_SENSOR) {
+      onVoltage(val);
+    }
+  }
 
+  /**
+   * Supply a battery voltage reading.
+   *
+   * @param volts
+   *          battery terminal voltage
+   */
+  public void onVoltage(final double volts) {
+    if (Double.isNaN(volts) || volts <= 0.0) {
+      return;
+    }
+    final long now = clock.getAsLong();
+    final StateOfChargeEstimator est = estimator;
+    if (!currentMeasured) {
+      est.onCurrent(loadSource.getAsDouble() / volts, now);
+    }
+    est.onVoltage(volts, now);
+    lastVoltage = volts;
+
+    final VesselStatusPublisher target = publisher;
+    if (target != null) {
+      target.update(bld -> bld.setBatteryVoltage(volts));
+    }
+
+    final double soc = est.getStateOfCharge();
+    if (soc <= reserve) {
+      reserveReached = true;
+      setLoadShedLevel(LoadShedLevel.SENSORS_ASLEEP);
+    } else if (reserveReached && soc >= reserve + reserveHysteresis) {
+      // Recovered: shed only as much as the last forecast asks
+      reserveReached = false;
+      setLoadShedLevel(forecastLevel);
+    }
+  }
+
+  /**
+   * Supply a battery current reading from a shunt. Once a current has been
+   * supplied, the load model is no longer used.
+   *
+   * @param amps
+   *          battery current, positive when discharging
+   */
+  public void onCurrent(final double amps) {
+    currentMeasured = true;
+    estimator.onCurrent(amps, clock.getAsLong());
+  }
+
+  /**
+   * Set the model of the net electrical load used when no shunt reports the
+   * battery current. By default the load is the configured hotel load.
+   *
+   * @param netWatts
+   *          supplies consumption less solar charging, in watts
+   */
+  public void setLoadSource(final DoubleSupplier netWatts) {
+    loadSource = netWatts;
+  }
+
+  /**
+   * Get the continuous load of electronics and sensors.
+   *
+   * @return watts
+   */
+  public double getHotelLoad() {
+    return hotelLoad;
+  }
+
+  /**
+   * Publish the battery voltage to a vessel status publisher.
+   *
+   * @param target
+   *          the publisher, or null
+   */
+  public void setStatusPublisher(final VesselStatusPublisher target) {
+    publisher = target;
+  }
+
+  /**
+   * Get the state of charge estimator.
+   *
+   * @return the estimator
+   */
+  public StateOfChargeEstimator getEstimator() {
+    return estimator;
   }
 
   /*
    * (non-Javadoc)
    * 
-   * @see com.synadek.core.Component#isConnected()
+   * @see com.synadek.smr.vessel.PowerManagement#getStateOfCharge()
    */
   @Override
-  public boolean isConnected() {
-    // TODO Auto-generated method stub
-    return false;
+  public double getStateOfCharge() {
+    return estimator.getStateOfCharge();
   }
 
   /*
    * (non-Javadoc)
    * 
-   * @see com.synadek.core.Component#isSimulated()
+   * @see com.synadek.smr.vessel.PowerManagement#getLoadShedLevel()
    */
   @Override
-  public boolean isSimulated() {
-    // TODO Auto-generated method stub
-    return false;
+  public LoadShedLevel getLoadShedLevel() {
+    return shedLevel;
   }
 
   /*
    * (non-Javadoc)
    * 
-   * @see com.synadek.core.Component#getStatusCode()
+   * @see com.synadek.smr.vessel.PowerManagement#setLoadShedLevel(com.synadek.smr.
+   * vessel.PowerManagement.LoadShedLevel)
    */
   @Override
-  public Status getStatusCode() {
-    // TODO Auto-generated method stub
-    return null;
+  public void setLoadShedLevel(final LoadShedLevel level) {
+    synchronized (this) {
+      final LoadShedLevel previous = shedLevel;
+      if (level == previous) {
+        return;
+      }
+      shedLevel = level;
+      if (model != null && connected) {
+        shedSensors(previous, level);
+      }
+    }
+    log.info("Load shedding level {}", level);
+
+    for (LoadShedListener listener : listeners) {
+      listener.loadShedLevelChanged(level);
+    }
+  }
+
+  /**
+   * Change how the shed sensors are sampled. Called holding this.
+   *
+   * @param previous
+   *          the level being left
+   * @param level
+   *          the level being entered
+   */
+  private void shedSensors(final LoadShedLevel previous, final LoadShedLevel level) {
+    for (int i = 0; i < SHED_SENSORS.length; i++) {
+      final PhysicalDeviceType dev = SHED_SENSORS[i];
+      try {
+        if (previous == LoadShedLevel.NONE) {
+          savedIntervals[i] = model.getAnalogDataInterval(dev);
+        }
+        if (previous == LoadShedLevel.SENSORS_ASLEEP) {
+          model.setAnalogInputEnabled(dev, true);
+        }
+        switch (level) {
+          case NONE:
+            if (savedIntervals[i] > 0) {
+              model.setAnalogDataInterval(dev, savedIntervals[i]);
+            }
+            break;
+          case REDUCED_SAMPLING:
+            model.setAnalogDataInterval(dev, Math.max(savedIntervals[i], shedInterval));
+            break;
+          default:
+            model.setAnalogInputEnabled(dev, false);
+            break;
+        }
+      } catch (ComponentException err) {
+        log.warn("Unable to shed load of {}: {}", dev, err.getMessage());
+      }
+    }
   }
 
   /*
    * (non-Javadoc)
    * 
-   * @see com.synadek.core.Component#getStatusMessage(java.util.Locale)
+   * @see com.synadek.smr.vessel.PowerManagement#shedForForecast(double, double)
    */
   @Override
-  public String getStatusMessage(Locale locale) {
-    // TODO Auto-generated method stub
-    return null;
+  public LoadShedLevel shedForForecast(final double enduranceSeconds,
+      final double requiredSeconds) {
+    if (enduranceSeconds < requiredSeconds) {
+      forecastLevel = LoadShedLevel.SENSORS_ASLEEP;
+    } else if (enduranceSeconds < requiredSeconds * (1.0 + margin)) {
+      forecastLevel = LoadShedLevel.REDUCED_SAMPLING;
+    } else {
+      forecastLevel = LoadShedLevel.NONE;
+    }
+    if (getStateOfCharge() <= reserve) {
+      reserveReached = true;
+    }
+    final LoadShedLevel level = reserveReached ? LoadShedLevel.SENSORS_ASLEEP : forecastLevel;
+    setLoadShedLevel(level);
+    return level;
   }
 
   /*
    * (non-Javadoc)
    * 
-   * @see com.synadek.core.Component#resetConfiguration()
+   * @see com.synadek.smr.vessel.PowerManagement#addLoadShedListener(com.synadek.
+   * smr.vessel.LoadShedListener)
    */
   @Override
-  public void resetConfiguration() {
+  public void addLoadShedListener(final LoadShedListener listener) {
+    listeners.add(listener);
+  }
 
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.smr.vessel.PowerManagement#removeLoadShedListener(com.synadek
+   * .smr.vessel.LoadShedListener)
+   */
+  @Override
+  public void removeLoadShedListener(final LoadShedListener listener) {
+    listeners.remove(listener);
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.smr.vessel.PowerManagement#getReserve()
+   */
+  @Override
+  public double getReserve() {
+    return reserve;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.core.AbstractComponent#getStatus(java.util.Locale)
+   */
+  @SuppressWarnings("unchecked")
+  @Override
+  public JSONObject getStatus(final Locale locale) {
+    final JSONObject result = super.getStatus(locale);
+    final StateOfChargeEstimator est = estimator;
+    result.put("powerStatus", powerStatus.toString());
+    result.put("loadShedLevel", shedLevel.toString());
+    result.put("voltage", Double.valueOf(lastVoltage));
+    result.put("stateOfCharge", Double.valueOf(est.getStateOfCharge()));
+    result.put("stateOfChargeUncertainty", Double.valueOf(est.getUncertainty()));
+    result.put("current", Double.valueOf(est.getCurrent()));
+    return result;
   }
 
   /*
@@ -129,8 +521,7 @@ public class PowerManagementImpl extends VesselComponentImpl implements PowerMan
    */
   @Override
   public PowerStatus getStatus() {
-    // TODO Auto-generated method stub
-    return null;
+    return powerStatus;
   }
 
   /*
@@ -140,8 +531,9 @@ public class PowerManagementImpl extends VesselComponentImpl implements PowerMan
    */
   @Override
   public void powerUp() {
-    // TODO Auto-generated method stub
-
+    setMasterRelay(true);
+    powerStatus = PowerStatus.POWERED_UP;
+    setLoadShedLevel(reserveReached ? LoadShedLevel.SENSORS_ASLEEP : forecastLevel);
   }
 
   /*
@@ -151,8 +543,8 @@ public class PowerManagementImpl extends VesselComponentImpl implements PowerMan
    */
   @Override
   public void powerDown() {
-    // TODO Auto-generated method stub
-
+    setMasterRelay(false);
+    powerStatus = PowerStatus.POWERED_DOWN;
   }
 
   /*
@@ -162,8 +554,88 @@ public class PowerManagementImpl extends VesselComponentImpl implements PowerMan
    */
   @Override
   public void sleep() {
-    // TODO Auto-generated method stub
+    setMasterRelay(false);
+    powerStatus = PowerStatus.SLEEPING;
+    setLoadShedLevel(LoadShedLevel.SENSORS_ASLEEP);
+  }
+
+  /**
+   * Switch the motors' master relay.
+   *
+   * @param on
+   *          true to power the motors
+   */
+  private void setMasterRelay(final boolean on) {
+    if (model == null || !connected || simulated) {
+      return;
+    }
+    try {
+      model.setDigitalOutputState(PhysicalDeviceType.PHY_MASTER_RELAY_CONTROL, on);
+    } catch (ComponentException err) {
+      log.error("Unable to switch master relay: {}", err.getMessage());
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.core.Component#resetConfiguration()
+   */
+  @Override
+  public void resetConfiguration() {
+    myConfiguration.setProperty(JSON_KEY_CAPACITY, DEFAULT_CAPACITY);
+    myConfiguration.setProperty(JSON_KEY_RESISTANCE, DEFAULT_RESISTANCE);
+    myConfiguration.setProperty(JSON_KEY_SOC_CURVE, DEFAULT_SOC_CURVE.toString());
+    myConfiguration.setProperty(JSON_KEY_HOTEL_LOAD, DEFAULT_HOTEL_LOAD);
+    myConfiguration.setProperty(JSON_KEY_RESERVE, DEFAULT_RESERVE);
+    myConfiguration.setProperty(JSON_KEY_RESERVE_HYSTERESIS, DEFAULT_RESERVE_HYSTERESIS);
+    myConfiguration.setProperty(JSON_KEY_MARGIN, DEFAULT_MARGIN);
+    myConfiguration.setProperty(JSON_KEY_SHED_INTERVAL, DEFAULT_SHED_INTERVAL);
+
+    final JsonSchema mySchema = this.myConfiguration.getConfigurationSchema();
+    mySchema.setProperty(JSON_KEY_CAPACITY,
+        JsonSchema.schemaNumber("Usable battery capacity in amp hours.", 0.0, true), true);
+    mySchema.setProperty(JSON_KEY_RESISTANCE,
+        JsonSchema.schemaNumber("Battery internal resistance in ohms.", 0.0, false), true);
+    mySchema.setProperty(JSON_KEY_SOC_CURVE, JsonSchema.schemaString(
+        "Open-circuit voltage curve as comma-separated volts:stateOfCharge pairs."), true);
+    mySchema.setProperty(JSON_KEY_HOTEL_LOAD, JsonSchema
+        .schemaNumber("Continuous load of electronics and sensors in watts.", 0.0, false), true);
+    mySchema.setProperty(JSON_KEY_RESERVE, JsonSchema.schemaNumber(
+        "State of charge (0 to 1) held in reserve; below it sensors sleep.", 0.0, false), true);
+    mySchema.setProperty(JSON_KEY_RESERVE_HYSTERESIS, JsonSchema.schemaNumber(
+        "State of charge above the reserve at which sleeping sensors wake.", 0.0, false), true);
+    mySchema.setProperty(JSON_KEY_MARGIN, JsonSchema.schemaNumber(
+        "Fraction of endurance beyond the mission below which sampling is reduced.", 0.0,
+        false), true);
+    mySchema.setProperty(JSON_KEY_SHED_INTERVAL, JsonSchema.schemaNumber(
+        "Milliseconds between weather sensor samples while shedding load.", 1.0, false), true);
 
+    applyConfiguration();
+  }
+
+  /**
+   * Apply the current configuration properties. The state of charge estimate
+   * restarts from the next voltage reading.
+   */
+  public void applyConfiguration() {
+    double capacity = DEFAULT_CAPACITY;
+    double resistance = DEFAULT_RESISTANCE;
+    CalibrationCurve curve = DEFAULT_SOC_CURVE;
+    try {
+      capacity = myConfiguration.getPropertyDouble(JSON_KEY_CAPACITY).doubleValue();
+      resistance = myConfiguration.getPropertyDouble(JSON_KEY_RESISTANCE).doubleValue();
+      hotelLoad = myConfiguration.getPropertyDouble(JSON_KEY_HOTEL_LOAD).doubleValue();
+      reserve = myConfiguration.getPropertyDouble(JSON_KEY_RESERVE).doubleValue();
+      reserveHysteresis = myConfiguration.getPropertyDouble(JSON_KEY_RESERVE_HYSTERESIS)
+          .doubleValue();
+      margin = myConfiguration.getPropertyDouble(JSON_KEY_MARGIN).doubleValue();
+      shedInterval = myConfiguration.getPropertyInteger(JSON_KEY_SHED_INTERVAL).intValue();
+      curve = CalibrationCurve.parse(myConfiguration.getPropertyString(JSON_KEY_SOC_CURVE));
+    } catch (InvalidValueException | NumberFormatException | NullPointerException err) {
+      log.error("Invalid power management configuration: {}", err.getMessage());
+    }
+    estimator = new StateOfChargeEstimator(curve, capacity, resistance);
   }
 
 }
@@ -0,0 +1,740 @@
+/**
+ * SensorFusion.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.vessel;
+
+import com.synadek.core.AbstractComponent;
+import com.synadek.core.ComponentException;
+import com.synadek.core.ControlLoopScheduler;
+import com.synadek.core.JsonSchema;
+import com.synadek.core.KalmanFilter;
+import com.synadek.smr.vessel.physical.PdlAnalogHandler;
+import com.synadek.smr.vessel.physical.VesselPhysicalModel;
+import com.synadek.smr.vessel.physical.VesselPhysicalModel.PhysicalDeviceType;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Fuses compass, inertial and GNSS measurements into a single estimate of the
+ * vessel's heading, attitude, motion and position.
+ *
+ * <p>
+ * Heading, roll and pitch come from complementary filters: gyro rates are
+ * integrated every step and pulled toward the compass and the gravity vector
+ * seen by the accelerometer. Without a recent gyro sample the heading simply
+ * follows the compass through a short low-pass filter. Position and velocity
+ * come from a constant-velocity Kalman filter in a local east/north plane
+ * centred on the first fix. Heave is a leaky double integral of vertical
+ * acceleration.
+ * </p>
+ *
+ * <p>
+ * Measurements may arrive on any thread; they are latched and consumed by
+ * step, which runs at a fixed rate on the control loop scheduler or is called
+ * directly by a simulation. Every matrix is preallocated, and each step
+ * publishes a VesselStatus snapshot through a VesselStatusPublisher, so readers
+ * always see a complete, consistent estimate without locking.
+ * </p>
+ *
+ * <p>
+ * The body frame has x forward, y to starboard and z down. Gyro rates follow
+ * the right-hand rule, so a positive z rate turns to starboard. The
+ * accelerometer reports specific force, about -9.81 m/s&sup2; on z when level.
+ * </p>
+ */
+public class SensorFusion extends AbstractComponent implements PdlAnalogHandler {
+
+  /**
+   * Configuration key for the fusion rate in Hz; zero leaves stepping to the
+   * caller.
+   */
+  public static final String JSON_KEY_RATE = "rateHz";
+
+  /**
+   * Configuration key for the time over which the compass corrects gyro drift.
+   */
+  public static final String JSON_KEY_HEADING_TIME_CONSTANT = "headingTimeConstant";
+
+  /**
+   * Configuration key for the time over which the accelerometer corrects roll
+   * and pitch.
+   */
+  public static final String JSON_KEY_ATTITUDE_TIME_CONSTANT = "attitudeTimeConstant";
+
+  /**
+   * Configuration key for the GNSS position error (one sigma, metres).
+   */
+  public static final String JSON_KEY_GNSS_SIGMA = "gnssSigma";
+
+  /**
+   * Configuration key for the unmodelled acceleration of the hull (one sigma,
+   * m/s&sup2;).
+   */
+  public static final String JSON_KEY_ACCELERATION_NOISE = "accelerationNoise";
+
+  /**
+   * Default fusion rate.
+   */
+  private static final int DEFAULT_RATE = 20;
+
+  /**
+   * Default heading correction time constant in seconds.
+   */
+  private static final double DEFAULT_HEADING_TIME_CONSTANT = 10.0;
+
+  /**
+   * Default roll and pitch correction time constant in seconds.
+   */
+  private static final double DEFAULT_ATTITUDE_TIME_CONSTANT = 2.0;
+
+  /**
+   * Default GNSS position error in metres.
+   */
+  private static final double DEFAULT_GNSS_SIGMA = 3.0;
+
+  /**
+   * Default unmodelled acceleration in m/s^2.
+   */
+  private static final double DEFAULT_ACCELERATION_NOISE = 0.2;
+
+  /**
+   * Compass smoothing time constant in seconds when no gyro is available.
+   */
+  private static final double COMPASS_ONLY_TIME_CONSTANT = 0.5;
+
+  /**
+   * Time constant in seconds of the leak that keeps heave from drifting.
+   */
+  private static final double HEAVE_TIME_CONSTANT = 8.0;
+
+  /**
+   * Inertial samples older than this are not integrated.
+   */
+  private static final long IMU_TIMEOUT_NANOS = 1_000_000_000L;
+
+  /**
+   * Steps longer than this are treated as a restart rather than integrated.
+   */
+  private static final double MAX_STEP_SECONDS = 5.0;
+
+  /**
+   * Fixes farther than this from the estimate are rejected (chi-squared, two
+   * degrees of freedom, 99.9%).
+   */
+  private static final double GNSS_GATE = 13.8;
+
+  /**
+   * After this many consecutive rejected fixes the estimate is reset to the
+   * next fix.
+   */
+  private static final int MAX_REJECTED_FIXES = 5;
+
+  /**
+   * Initial velocity variance in (m/s)^2.
+   */
+  private static final double INITIAL_VELOCITY_VARIANCE = 25.0;
+
+  /**
+   * Standard gravity in m/s^2.
+   */
+  private static final double GRAVITY = 9.80665;
+
+  /**
+   * Physical devices for the inertial measurement unit axes.
+   */
+  private static final PhysicalDeviceType[] IMU_AXES = {
+      PhysicalDeviceType.PHY_IMU_ROLL_RATE, PhysicalDeviceType.PHY_IMU_PITCH_RATE,
+      PhysicalDeviceType.PHY_IMU_YAW_RATE, PhysicalDeviceType.PHY_IMU_SURGE_ACCELERATION,
+      PhysicalDeviceType.PHY_IMU_SWAY_ACCELERATION,
+      PhysicalDeviceType.PHY_IMU_HEAVE_ACCELERATION };
+
+  /**
+   * Mean radius of the earth in metres.
+   */
+  private static final double EARTH_RADIUS = 6371000.0;
+
+  /**
+   * Physical model supplying the compass, or null if there is none.
+   */
+  private final VesselPhysicalModel model;
+
+  /**
+   * Source of time in nanoseconds.
+   */
+  private final LongSupplier clock;
+
+  /**
+   * Position and velocity filter; state is east, north, east velocity, north
+   * velocity.
+   */
+  private final KalmanFilter position = new KalmanFilter(4, 2);
+
+  /**
+   * GNSS measurement vector.
+   */
+  private final double[] gnssZ = new double[2];
+
+  /**
+   * GNSS measurement matrix.
+   */
+  private final double[] gnssH = {1.0, 0.0, 0.0, 0.0, 0.0, 1.0, 0.0, 0.0};
+
+  /**
+   * GNSS measurement noise.
+   */
+  private final double[] gnssR = new double[4];
+
+  // Configuration
+  private int rate = DEFAULT_RATE;
+  private double headingTimeConstant = DEFAULT_HEADING_TIME_CONSTANT;
+  private double attitudeTimeConstant = DEFAULT_ATTITUDE_TIME_CONSTANT;
+  private double gnssSigma = DEFAULT_GNSS_SIGMA;
+  private double accelerationNoise = DEFAULT_ACCELERATION_NOISE;
+
+  // Latest measurements, latched until the next step
+  private double compassHeading;
+  private long compassNanos;
+  private long lastCompassNanos;
+  private boolean compassPending;
+  private double gyroX;
+  private double gyroY;
+  private double gyroZ;
+  private double accelX;
+  private double accelY;
+  private double accelZ = -GRAVITY;
+  private long imuNanos;
+  private boolean imuValid;
+  private double fixLatitude;
+  private double fixLongitude;
+  private boolean fixPending;
+
+  // Estimates, in radians, metres and seconds
+  private double heading;
+  private boolean headingValid;
+  private double yawRate;
+  private double roll;
+  private double pitch;
+  private double heaveVelocity;
+  private double heave;
+  private double originLatitude;
+  private double originLongitude;
+  private double metresPerDegreeLongitude;
+  private boolean positionValid;
+  private int rejectedFixes;
+  private long lastStepNanos;
+
+  /**
+   * Handle of the fixed-rate task, or null if not running.
+   */
+  private ScheduledFuture<?> task;
+
+  /**
+   * Where estimates are published.
+   */
+  private volatile VesselStatusPublisher publisher = new VesselStatusPublisher();
+
+  /**
+   * Writes the current estimate to a status builder, allocated once.
+   */
+  private final Consumer<VesselStatus.Builder> estimateWriter = this::writeEstimate;
+
+  /**
+   * Default constructor, for a fusion engine fed only through its measurement
+   * methods.
+   */
+  public SensorFusion() {
+    this(null, System::nanoTime);
+  }
+
+  /**
+   * Constructor for a fusion engine that reads the compass of a physical model.
+   *
+   * @param physicalModel
+   *          the vessel's physical model
+   */
+  public SensorFusion(final VesselPhysicalModel physicalModel) {
+    this(physicalModel, System::nanoTime);
+  }
+
+  /**
+   * Constructor with an explicit clock, for simulations.
+   *
+   * @param physicalModel
+   *          the vessel's physical model, or null
+   * @param nanoClock
+   *          source of time in nanoseconds
+   */
+  public SensorFusion(final VesselPhysicalModel physicalModel, final LongSupplier nanoClock) {
+    super("sensorFusion");
+    model = physicalModel;
+    clock = nanoClock;
+    resetConfiguration();
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.core.Component#connect(boolean)
+   */
+  @Override
+  public boolean connect(final boolean sim) throws ComponentException {
+    // Shared by the compass and attitude components; connect once
+    if (connected) {
+      return true;
+    }
+    if (model != null) {
+      model.addAnalogInputListener(PhysicalDeviceType.PHY_COMPASS_SENSOR, this);
+      for (PhysicalDeviceType axis : IMU_AXES) {
+        model.addAnalogInputListener(axis, this);
+      }
+    }
+    synchronized (this) {
+      lastStepNanos = clock.getAsLong();
+      if (rate > 0 && task == null) {
+        task = ControlLoopScheduler.getDefault().scheduleAtFixedRate(this::step,
+            Math.max(1L, 1000L / rate));
+      }
+    }
+    this.simulated = sim;
+    this.connected = true;
+    return true;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.core.AbstractComponent#disconnect()
+   */
+  @Override
+  public void disconnect() throws ComponentException {
+    synchronized (this) {
+      if (task != null) {
+        task.cancel(false);
+        task = null;
+      }
+    }
+    if (connected && model != null) {
+      model.removeAnalogInputListener(this);
+    }
+    super.disconnect();
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.smr.vessel.physical.PdlAnalogHandler#physicalDeviceStateChange
+   */
+  @Override
+  public void physicalDeviceStateChange(final PhysicalDeviceType idx, final double val) {
+    if (idx == PhysicalDeviceType.PHY_COMPASS_SENSOR) {
+      onCompass(val, clock.getAsLong());
+    } else {
+      onImuAxis(idx, val, clock.getAsLong());
+    }
+  }
+
+  /**
+   * Supply one axis of an inertial sample from the physical model, which
+   * signals each axis separately. Axes not yet heard from keep their last value
+   * (level and at rest to begin with).
+   *
+   * @param axis
+   *          the IMU device
+   * @param val
+   *          rate in rad/s or specific force in m/s^2
+   * @param nanos
+   *          when the sample was taken
+   */
+  private synchronized void onImuAxis(final PhysicalDeviceType axis, final double val,
+      final long nanos) {
+    if (Double.isNaN(val)) {
+      return;
+    }
+    switch (axis) {
+      case PHY_IMU_ROLL_RATE:
+        gyroX = val;
+        break;
+      case PHY_IMU_PITCH_RATE:
+        gyroY = val;
+        break;
+      case PHY_IMU_YAW_RATE:
+        gyroZ = val;
+        break;
+      case PHY_IMU_SURGE_ACCELERATION:
+        accelX = val;
+        break;
+      case PHY_IMU_SWAY_ACCELERATION:
+        accelY = val;
+        break;
+      case PHY_IMU_HEAVE_ACCELERATION:
+        accelZ = val;
+        break;
+      default:
+        return;
+    }
+    imuNanos = nanos;
+    imuValid = true;
+  }
+
+  /**
+   * Supply a compass heading.
+   *
+   * @param degrees
+   *          magnetic or true heading in degrees
+   * @param nanos
+   *          when the heading was read
+   */
+  public synchronized void onCompass(final double degrees, final long nanos) {
+    if (Double.isNaN(degrees)) {
+      return;
+    }
+    compassHeading = Math.toRadians(degrees);
+    compassNanos = nanos;
+    compassPending = true;
+  }
+
+  /**
+   * Supply an inertial sample. Rates are held until the next sample, so the
+   * IMU may run faster or slower than the fusion rate.
+   *
+   * @param gx
+   *          roll rate in rad/s
+   * @param gy
+   *          pitch rate in rad/s
+   * @param gz
+   *          yaw rate in rad/s
+   * @param ax
+   *          forward specific force in m/s^2
+   * @param ay
+   *          starboard specific force in m/s^2
+   * @param az
+   *          downward specific force in m/s^2
+   * @param nanos
+   *          when the sample was taken
+   */
+  public synchronized void onImu(final double gx, final double gy, final double gz,
+      final double ax, final double ay, final double az, final long nanos) {
+    gyroX = gx;
+    gyroY = gy;
+    gyroZ = gz;
+    accelX = ax;
+    accelY = ay;
+    accelZ = az;
+    imuNanos = nanos;
+    imuValid = true;
+  }
+
+  /**
+   * Supply a GNSS position fix.
+   *
+   * @param latitude
+   *          latitude in degrees
+   * @param longitude
+   *          longitude in degrees
+   * @param nanos
+   *          when the fix was taken
+   */
+  public synchronized void onGnss(final double latitude, final double longitude,
+      final long nanos) {
+    if (Double.isNaN(latitude) || Double.isNaN(longitude)) {
+      return;
+    }
+    fixLatitude = latitude;
+    fixLongitude = longitude;
+    fixPending = true;
+  }
+
+  /**
+   * Advance the estimate to the current time of the clock.
+   */
+  public void step() {
+    step(clock.getAsLong());
+  }
+
+  /**
+   * Advance the estimate to a given time, consuming the latched measurements,
+   * and publish the result.
+   *
+   * @param nanos
+   *          the current time
+   */
+  public synchronized void step(final long nanos) {
+    double dt = (nanos - lastStepNanos) / 1.0e9;
+    lastStepNanos = nanos;
+    if (dt <= 0.0 || dt > MAX_STEP_SECONDS) {
+      dt = 0.0;
+    }
+    final boolean gyro = imuValid && nanos - imuNanos < IMU_TIMEOUT_NANOS;
+
+    stepHeading(dt, gyro);
+    if (gyro) {
+      stepAttitude(dt);
+    }
+    stepPosition(dt);
+    publish();
+  }
+
+  /**
+   * Propagate and correct the heading.
+   *
+   * @param dt
+   *          elapsed seconds
+   * @param gyro
+   *          true if a recent gyro rate is available
+   */
+  private void stepHeading(final double dt, final boolean gyro) {
+    // Between compass readings, turn at the gyro rate or the tracked rate
+    if (gyro) {
+      yawRate = gyroZ;
+    }
+    heading += yawRate * dt;
+
+    if (compassPending) {
+      compassPending = false;
+      final double interval = Math.min((compassNanos - lastCompassNanos) / 1.0e9,
+          MAX_STEP_SECONDS);
+      lastCompassNanos = compassNanos;
+      if (!headingValid) {
+        heading = compassHeading;
+        headingValid = true;
+      } else if (interval > 0.0) {
+        final double tau = gyro ? headingTimeConstant : COMPASS_ONLY_TIME_CONSTANT;
+        final double alpha = interval / (tau + interval);
+        final double residual = wrap(compassHeading - heading);
+        heading += alpha * residual;
+        if (!gyro) {
+          // Alpha-beta tracking of the rate of turn removes the lag in a
+          // steady turn
+          yawRate += alpha * alpha / (2.0 - alpha) * residual / interval;
+        }
+      }
+    }
+    heading = wrap(heading);
+  }
+
+  /**
+   * Propagate and correct roll and pitch, and integrate heave.
+   *
+   * @param dt
+   *          elapsed seconds
+   */
+  private void stepAttitude(final double dt) {
+    roll += gyroX * dt;
+    pitch += gyroY * dt;
+
+    final double gain = dt / (attitudeTimeConstant + dt);
+    roll += gain * (Math.atan2(-accelY, -accelZ) - roll);
+    pitch += gain
+        * (Math.atan2(accelX, Math.sqrt(accelY * accelY + accelZ * accelZ)) - pitch);
+
+    // Rotate specific force into the vertical; at rest it is -g
+    final double sinRoll = Math.sin(roll);
+    final double cosRoll = Math.cos(roll);
+    final double sinPitch = Math.sin(pitch);
+    final double cosPitch = Math.cos(pitch);
+    final double down = -sinPitch * accelX + sinRoll * cosPitch * accelY
+        + cosRoll * cosPitch * accelZ + GRAVITY;
+
+    final double leak = Math.max(0.0, 1.0 - dt / HEAVE_TIME_CONSTANT);
+    heaveVelocity = (heaveVelocity - down * dt) * leak;
+    heave = (heave + heaveVelocity * dt) * leak;
+  }
+
+  /**
+   * Propagate the position filter and apply any pending fix.
+   *
+   * @param dt
+   *          elapsed seconds
+   */
+  private void stepPosition(final double dt) {
+    if (positionValid && dt > 0.0) {
+      final double[] f = position.getTransition();
+      f[2] = dt;
+      f[7] = dt;
+
+      // Piecewise white acceleration
+      final double[] q = position.getProcessNoise();
+      final double var = accelerationNoise * accelerationNoise;
+      final double q11 = var * dt * dt * dt * dt / 4.0;
+      final double q13 = var * dt * dt * dt / 2.0;
+      final double q33 = var * dt * dt;
+      q[0] = q11;
+      q[2] = q13;
+      q[5] = q11;
+      q[7] = q13;
+      q[8] = q13;
+      q[10] = q33;
+      q[13] = q13;
+      q[15] = q33;
+      position.predict();
+    }
+
+    if (!fixPending) {
+      return;
+    }
+    fixPending = false;
+    if (!positionValid || rejectedFixes >= MAX_REJECTED_FIXES) {
+      resetPosition();
+      return;
+    }
+    gnssZ[0] = (fixLongitude - originLongitude) * metresPerDegreeLongitude;
+    gnssZ[1] = Math.toRadians(fixLatitude - originLatitude) * EARTH_RADIUS;
+    final double var = gnssSigma * gnssSigma;
+    gnssR[0] = var;
+    gnssR[3] = var;
+    if (position.update(gnssZ, gnssH, gnssR, 2, GNSS_GATE)) {
+      rejectedFixes = 0;
+    } else {
+      rejectedFixes++;
+      log.warn("GNSS fix rejected ({} consecutive)", rejectedFixes);
+    }
+  }
+
+  /**
+   * Restart the position filter at the pending fix.
+   */
+  private void resetPosition() {
+    originLatitude = fixLatitude;
+    originLongitude = fixLongitude;
+    metresPerDegreeLongitude = Math.toRadians(1.0) * EARTH_RADIUS
+        * Math.cos(Math.toRadians(fixLatitude));
+
+    final double[] x = position.getState();
+    final double[] p = position.getCovariance();
+    for (int i = 0; i < 4; i++) {
+      x[i] = 0.0;
+      for (int j = 0; j < 4; j++) {
+        p[i * 4 + j] = 0.0;
+      }
+    }
+    final double var = gnssSigma * gnssSigma;
+    p[0] = var;
+    p[5] = var;
+    p[10] = INITIAL_VELOCITY_VARIANCE;
+    p[15] = INITIAL_VELOCITY_VARIANCE;
+    positionValid = true;
+    rejectedFixes = 0;
+  }
+
+  /**
+   * Publish the current estimate.
+   */
+  private void publish() {
+    publisher.update(estimateWriter);
+  }
+
+  /**
+   * Write the current estimate to a status builder.
+   *
+   * @param bld
+   *          the builder
+   */
+  private void writeEstimate(final VesselStatus.Builder bld) {
+    bld.setHeading(headingValid ? Math.toDegrees(heading < 0.0 ? heading + 2.0 * Math.PI
+        : heading) : Double.NaN);
+    bld.setYaw(Math.toDegrees(yawRate));
+    bld.setRoll(Math.toDegrees(roll));
+    bld.setPitch(Math.toDegrees(pitch));
+    bld.setHeave(heave);
+    if (positionValid) {
+      final double[] x = position.getState();
+      final double east = x[2];
+      final double north = x[3];
+      final double sin = Math.sin(heading);
+      final double cos = Math.cos(heading);
+      bld.setSpeed(Math.sqrt(east * east + north * north));
+      bld.setSurge(east * sin + north * cos);
+      bld.setSway(east * cos - north * sin);
+      bld.setLatitude(originLatitude + Math.toDegrees(x[1] / EARTH_RADIUS));
+      bld.setLongitude(originLongitude + x[0] / metresPerDegreeLongitude);
+    } else {
+      bld.setLatitude(Double.NaN);
+      bld.setLongitude(Double.NaN);
+    }
+  }
+
+  /**
+   * Get the latest estimate. Heading, roll and pitch are in degrees, yaw is the
+   * rate of turn in degrees per second, speed, surge and sway are in m/s over
+   * the ground and heave is in metres, positive up.
+   *
+   * @return the estimate; latitude and longitude are NaN before the first fix
+   */
+  public VesselStatus getStatus() {
+    return publisher.get();
+  }
+
+  /**
+   * Publish estimates through a publisher shared with the vessel's other
+   * status writers.
+   *
+   * @param target
+   *          the publisher
+   */
+  public void setPublisher(final VesselStatusPublisher target) {
+    publisher = target;
+  }
+
+  /**
+   * Normalize an angle to the range -pi to pi.
+   *
+   * @param rad
+   *          the angle in radians
+   * @return the equivalent angle
+   */
+  private static double wrap(final double rad) {
+    return Math.IEEEremainder(rad, 2.0 * Math.PI);
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.core.AbstractComponent#resetConfiguration()
+   */
+  @Override
+  public void resetConfiguration() {
+    myConfiguration.setProperty(JSON_KEY_RATE, DEFAULT_RATE);
+    myConfiguration.setProperty(JSON_KEY_HEADING_TIME_CONSTANT, DEFAULT_HEADING_TIME_CONSTANT);
+    myConfiguration.setProperty(JSON_KEY_ATTITUDE_TIME_CONSTANT, DEFAULT_ATTITUDE_TIME_CONSTANT);
+    myConfiguration.setProperty(JSON_KEY_GNSS_SIGMA, DEFAULT_GNSS_SIGMA);
+    myConfiguration.setProperty(JSON_KEY_ACCELERATION_NOISE, DEFAULT_ACCELERATION_NOISE);
+
+    final JsonSchema mySchema = this.myConfiguration.getConfigurationSchema();
+    mySchema.setProperty(JSON_KEY_RATE, JsonSchema.schemaNumber(
+        "Fusion rate in Hz; 0 leaves stepping to the caller.", 0.0, false), true);
+    mySchema.setProperty(JSON_KEY_HEADING_TIME_CONSTANT, JsonSchema.schemaNumber(
+        "Seconds over which the compass corrects gyro drift.", 0.0, true), true);
+    mySchema.setProperty(JSON_KEY_ATTITUDE_TIME_CONSTANT, JsonSchema.schemaNumber(
+        "Seconds over which the accelerometer corrects roll and pitch.", 0.0, true), true);
+    mySchema.setProperty(JSON_KEY_GNSS_SIGMA, JsonSchema
+        .schemaNumber("GNSS position error in metres (one sigma).", 0.0, true), true);
+    mySchema.setProperty(JSON_KEY_ACCELERATION_NOISE, JsonSchema.schemaNumber(
+        "Unmodelled hull acceleration in m/s^2 (one sigma).", 0.0, true), true);
+
+    applyConfiguration();
+  }
+
+  /**
+   * Apply the current configuration properties. A new rate takes effect the
+   * next time the component is connected.
+   */
+  public synchronized void applyConfiguration() {
+    try {
+      rate = myConfiguration.getPropertyInteger(JSON_KEY_RATE).intValue();
+      headingTimeConstant = myConfiguration.getPropertyDouble(JSON_KEY_HEADING_TIME_CONSTANT)
+          .doubleValue();
+      attitudeTimeConstant = myConfiguration.getPropertyDouble(JSON_KEY_ATTITUDE_TIME_CONSTANT)
+          .doubleValue();
+      gnssSigma = myConfiguration.getPropertyDouble(JSON_KEY_GNSS_SIGMA).doubleValue();
+      accelerationNoise = myConfiguration.getPropertyDouble(JSON_KEY_ACCELERATION_NOISE)
+          .doubleValue();
+    } catch (NumberFormatException | NullPointerException err) {
+      log.error("Invalid sensor fusion configuration: {}", err.getMessage());
+    }
+  }
+}
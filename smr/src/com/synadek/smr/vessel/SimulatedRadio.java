@@ -0,0 +1,102 @@
+/**
+ * SimulatedRadio.java
+ * 19 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.vessel;
+
+import com.synadek.core.TaskExecutors;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * The simulated stations that can hear each other: every simulated intership
+ * link connected to the same radio is in range of every other.
+ *
+ * <p>
+ * The application's simulated vessels share the default radio, on which
+ * messages are delivered on background threads. A simulation that must be
+ * repeatable, e.g. a fleet simulation on its own clock, uses a radio of its
+ * own that delivers each message on the sending thread before the send
+ * returns.
+ * </p>
+ */
+public final class SimulatedRadio {
+
+  /**
+   * The radio shared by the application's simulated vessels.
+   */
+  private static final SimulatedRadio DEFAULT = new SimulatedRadio(null);
+
+  /**
+   * Connected stations, by ship name.
+   */
+  private final Map<String, IntershipCommunicationsImpl> stations = new ConcurrentHashMap<>();
+
+  /**
+   * Runs message deliveries, or null for the default task executor.
+   */
+  private final Executor delivery;
+
+  /**
+   * Explicit constructor.
+   *
+   * @param executor
+   *          runs each message delivery, e.g. Runnable::run to deliver on the
+   *          sending thread; null for the default task executor
+   */
+  public SimulatedRadio(final Executor executor) {
+    delivery = executor;
+  }
+
+  /**
+   * Get the radio shared by the application's simulated vessels.
+   *
+   * @return the radio
+   */
+  public static SimulatedRadio getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Bring a station into range, replacing any station of the same ship.
+   *
+   * @param station
+   *          the station
+   */
+  void join(final IntershipCommunicationsImpl station) {
+    stations.put(station.getShipName(), station);
+  }
+
+  /**
+   * Take a station out of range.
+   *
+   * @param station
+   *          the station
+   */
+  void leave(final IntershipCommunicationsImpl station) {
+    stations.remove(station.getShipName(), station);
+  }
+
+  /**
+   * Get the stations in range.
+   *
+   * @return the stations, a live view
+   */
+  Collection<IntershipCommunicationsImpl> getStations() {
+    return stations.values();
+  }
+
+  /**
+   * Get the executor on which messages are delivered.
+   *
+   * @return the executor
+   */
+  Executor getDelivery() {
+    return delivery != null ? delivery : TaskExecutors.getDefault();
+  }
+}
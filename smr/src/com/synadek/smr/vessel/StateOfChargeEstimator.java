@@ -0,0 +1,228 @@
+/**
+ * StateOfChargeEstimator.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.vessel;
+
+import com.synadek.core.CalibrationCurve;
+import com.synadek.core.KalmanFilter;
+
+/**
+ * Estimates battery state of charge by coulomb counting, corrected by the
+ * open-circuit voltage curve.
+ *
+ * <p>
+ * Counting current is accurate over minutes but drifts over days; the voltage
+ * curve never drifts but is distorted by load. The two are combined in a
+ * one-state Kalman filter: every current sample moves the estimate and grows
+ * its uncertainty, every voltage sample pulls it toward the curve. Voltage is
+ * first compensated for the drop across the internal resistance, and trusted
+ * less the harder the battery is working, so the curve dominates at rest and
+ * the count under load.
+ * </p>
+ *
+ * <p>
+ * Thread safe; samples may arrive on different threads.
+ * </p>
+ */
+public final class StateOfChargeEstimator {
+
+  /**
+   * Seconds per hour.
+   */
+  private static final double SECONDS_PER_HOUR = 3600.0;
+
+  /**
+   * Uncertainty of the current measurement, as a fraction of the current.
+   */
+  private static final double CURRENT_ERROR = 0.05;
+
+  /**
+   * Drift of the count regardless of current, in state of charge per hour.
+   */
+  private static final double DRIFT_PER_HOUR = 0.002;
+
+  /**
+   * Uncertainty of a voltage reading in volts.
+   */
+  private static final double VOLTAGE_ERROR = 0.02;
+
+  /**
+   * Current (amps) at which a voltage reading is half as trustworthy as at
+   * rest.
+   */
+  private static final double REST_CURRENT = 2.0;
+
+  /**
+   * Voltage step used to find the slope of the curve.
+   */
+  private static final double SLOPE_STEP = 0.01;
+
+  /**
+   * Open-circuit voltage to state of charge (0 to 1).
+   */
+  private final CalibrationCurve curve;
+
+  /**
+   * Usable capacity in amp hours.
+   */
+  private final double capacity;
+
+  /**
+   * Internal resistance in ohms.
+   */
+  private final double resistance;
+
+  /**
+   * The filter; state is state of charge.
+   */
+  private final KalmanFilter filter = new KalmanFilter(1, 1);
+
+  // Measurement work space
+  private final double[] z = new double[1];
+  private final double[] h = {1.0};
+  private final double[] r = new double[1];
+
+  // Latest current in amps, positive when discharging
+  private double current;
+  private long currentNanos;
+  private boolean currentValid;
+
+  // Flag indicating the estimate has been initialized from the curve
+  private boolean initialized;
+
+  /**
+   * Explicit constructor.
+   *
+   * @param openCircuitCurve
+   *          open-circuit voltage to state of charge (0 to 1)
+   * @param capacityAmpHours
+   *          usable capacity in amp hours
+   * @param internalResistance
+   *          internal resistance in ohms
+   */
+  public StateOfChargeEstimator(final CalibrationCurve openCircuitCurve,
+      final double capacityAmpHours, final double internalResistance) {
+    curve = openCircuitCurve;
+    capacity = capacityAmpHours;
+    resistance = internalResistance;
+    filter.getState()[0] = 1.0;
+  }
+
+  /**
+   * Count a current sample. The previous current is assumed to have flowed
+   * since the previous sample, however long ago; sensors that report on change
+   * are silent while the load is steady.
+   *
+   * @param amps
+   *          battery current, positive when discharging
+   * @param nanos
+   *          when the sample was taken
+   */
+  public synchronized void onCurrent(final double amps, final long nanos) {
+    if (Double.isNaN(amps)) {
+      return;
+    }
+    if (currentValid) {
+      final double dt = (nanos - currentNanos) / 1.0e9;
+      if (dt > 0.0) {
+        final double hours = dt / SECONDS_PER_HOUR;
+        final double[] x = filter.getState();
+        x[0] -= current * hours / capacity;
+
+        final double currentError = CURRENT_ERROR * Math.abs(current) * hours / capacity;
+        final double drift = DRIFT_PER_HOUR * hours;
+        filter.getProcessNoise()[0] = currentError * currentError + drift * drift;
+        filter.predict();
+        x[0] = clamp(x[0]);
+      }
+    }
+    current = amps;
+    currentNanos = nanos;
+    currentValid = true;
+  }
+
+  /**
+   * Correct the estimate with a terminal voltage sample.
+   *
+   * @param volts
+   *          battery terminal voltage
+   * @param nanos
+   *          when the sample was taken
+   */
+  public synchronized void onVoltage(final double volts, final long nanos) {
+    if (Double.isNaN(volts)) {
+      return;
+    }
+    final double amps = currentValid ? current : 0.0;
+    final double openCircuit = volts + amps * resistance;
+    final double soc = clamp(curve.apply(openCircuit));
+
+    if (!initialized) {
+      filter.getState()[0] = soc;
+      filter.getCovariance()[0] = 0.01;
+      initialized = true;
+      return;
+    }
+
+    // Voltage error expressed in state of charge, inflated under load
+    final double slope = (curve.apply(openCircuit + SLOPE_STEP)
+        - curve.apply(openCircuit - SLOPE_STEP)) / (2.0 * SLOPE_STEP);
+    final double load = amps / REST_CURRENT;
+    final double sigma = VOLTAGE_ERROR * slope;
+    z[0] = soc;
+    r[0] = sigma * sigma * (1.0 + load * load) + 1.0e-12;
+    filter.update(z, h, r, 1, 0.0);
+    filter.getState()[0] = clamp(filter.getState()[0]);
+  }
+
+  /**
+   * Get the estimated state of charge.
+   *
+   * @return state of charge, 0 to 1
+   */
+  public synchronized double getStateOfCharge() {
+    return filter.getState()[0];
+  }
+
+  /**
+   * Get the uncertainty of the estimate.
+   *
+   * @return one standard deviation, in state of charge
+   */
+  public synchronized double getUncertainty() {
+    return Math.sqrt(filter.getCovariance()[0]);
+  }
+
+  /**
+   * Get the estimated remaining charge.
+   *
+   * @return amp hours
+   */
+  public synchronized double getRemainingAmpHours() {
+    return filter.getState()[0] * capacity;
+  }
+
+  /**
+   * Get the latest current.
+   *
+   * @return amps, positive when discharging
+   */
+  public synchronized double getCurrent() {
+    return current;
+  }
+
+  /**
+   * Limit a state of charge to 0 to 1.
+   *
+   * @param soc
+   *          the state of charge
+   * @return the limited value
+   */
+  private static double clamp(final double soc) {
+    return Math.min(Math.max(soc, 0.0), 1.0);
+  }
+}
@@ -9,6 +9,7 @@ package com.synadek.smr.vessel;
 
 import com.synadek.core.Component;
 import com.synadek.core.GpsCoordinates;
+import com.synadek.smr.control.navigation.TrafficPicture;
 import com.synadek.smr.vessel.VesselComponent.VesselComponentType;
 import java.util.Date;
 import java.util.List;
@@ -54,6 +55,14 @@ public interface Vessel extends Component {
    */
   public GpsCoordinates getLocation();
 
+  /**
+   * Get the picture of the other vessels around this one, kept up to date
+   * from their position reports.
+   *
+   * @return the traffic picture
+   */
+  public TrafficPicture getTrafficPicture();
+
   /**
    * Get cruising speed (knots) of the vessel. One knot is 1.852 kilometres per
    * hour.
@@ -7,41 +7,105 @@
 
 package com.synadek.smr.vessel;
 
+import com.synadek.core.InvalidValueException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import org.json.simple.JSONObject;
 
 /**
- * VesselStatus status.
+ * An immutable, versioned snapshot of the status of a vessel.
+ *
+ * <p>
+ * Snapshots are assembled with a Builder and published through a
+ * VesselStatusPublisher, which stamps them with its boot epoch and numbers them
+ * so that receivers can discard stale or duplicate broadcasts, and can tell a
+ * restarted vessel from a stale one. For ship-to-shore and intership links a
+ * snapshot has a fixed little-endian layout of ENCODED_SIZE bytes that can be
+ * written to and read from a ByteBuffer without allocating. JSON, needed only
+ * by the web UI, is built on first request and cached.
+ * </p>
  */
-public class VesselStatus {
+public final class VesselStatus {
+
+  /**
+   * Version of the binary layout.
+   */
+  public static final short LAYOUT_VERSION = 2;
+
+  /**
+   * Size of the binary encoding in bytes: layout version and reserved
+   * (2+2), epoch (8), version (8), uptime (8), packet count (4), latitude and
+   * longitude (2x8) and ten float values (10x4).
+   */
+  public static final int ENCODED_SIZE = Short.BYTES * 2 + Long.BYTES * 3 + Integer.BYTES
+      + Double.BYTES * 2 + Float.BYTES * 10;
+
+  /**
+   * The status before anything has been published.
+   */
+  public static final VesselStatus EMPTY = new Builder().build(0L);
+
+  // When the publishing vessel booted (millis since the epoch)
+  private final long epoch;
+
+  // Publication sequence number within the boot epoch
+  private final long version;
 
   // propulsion
-  private double speed;
-  private double heading;
+  private final double speed;
+  private final double heading;
 
   // position
-  private double roll;
-  private double pitch;
-  private double yaw;
-  private double surge;
-  private double heave;
-  private double sway;
+  private final double roll;
+  private final double pitch;
+  private final double yaw;
+  private final double surge;
+  private final double heave;
+  private final double sway;
+  private final double latitude;
+  private final double longitude;
 
   // Power
-  private double batteryVoltage;
+  private final double batteryVoltage;
   // percent battery remaining?
 
   // Communications packets sent since last powered-up or rebooted
-  private int packetCount;
+  private final int packetCount;
 
   // Other
-  private long upTime; // time since last power-up or reboot (milliseconds)
-  private double temperature; // degrees celsius
+  private final long upTime; // time since last power-up or reboot (milliseconds)
+  private final double temperature; // degrees celsius
 
   /**
-   * Default constructor.
+   * JSON text, built on first request.
    */
-  public VesselStatus() {
+  private volatile String json;
 
+  /**
+   * Constructor used by the builder.
+   *
+   * @param bld
+   *          the values
+   * @param ver
+   *          the publication sequence number
+   */
+  private VesselStatus(final Builder bld, final long ver) {
+    epoch = bld.epoch;
+    version = ver;
+    speed = bld.speed;
+    heading = bld.heading;
+    roll = bld.roll;
+    pitch = bld.pitch;
+    yaw = bld.yaw;
+    surge = bld.surge;
+    heave = bld.heave;
+    sway = bld.sway;
+    latitude = bld.latitude;
+    longitude = bld.longitude;
+    batteryVoltage = bld.batteryVoltage;
+    packetCount = bld.packetCount;
+    upTime = bld.upTime;
+    temperature = bld.temperature;
   }
 
   /**
@@ -51,113 +115,121 @@ public class VesselStatus {
    *          to be parsed
    */
   public VesselStatus(final JSONObject obj) {
-    speed = ((Double) obj.get("speed")).doubleValue();
-    heading = ((Double) obj.get("heading")).doubleValue();
-    roll = ((Double) obj.get("roll")).doubleValue();
-    pitch = ((Double) obj.get("pitch")).doubleValue();
-    yaw = ((Double) obj.get("yaw")).doubleValue();
-    surge = ((Double) obj.get("surge")).doubleValue();
-    heave = ((Double) obj.get("heave")).doubleValue();
-    sway = ((Double) obj.get("sway")).doubleValue();
-    batteryVoltage = ((Double) obj.get("batteryVoltage")).doubleValue();
-    packetCount = ((Integer) obj.get("packetCount")).intValue();
-    upTime = ((Long) obj.get("upTime")).longValue();
-    temperature = ((Double) obj.get("temperature")).doubleValue();
+    epoch = longValue(obj.get("epoch"));
+    version = longValue(obj.get("version"));
+    speed = doubleValue(obj.get("speed"));
+    heading = doubleValue(obj.get("heading"));
+    roll = doubleValue(obj.get("roll"));
+    pitch = doubleValue(obj.get("pitch"));
+    yaw = doubleValue(obj.get("yaw"));
+    surge = doubleValue(obj.get("surge"));
+    heave = doubleValue(obj.get("heave"));
+    sway = doubleValue(obj.get("sway"));
+    latitude = doubleValue(obj.get("latitude"));
+    longitude = doubleValue(obj.get("longitude"));
+    batteryVoltage = doubleValue(obj.get("batteryVoltage"));
+    packetCount = (int) longValue(obj.get("packetCount"));
+    upTime = longValue(obj.get("upTime"));
+    temperature = doubleValue(obj.get("temperature"));
   }
 
   /**
-   * Get the speed.
+   * Convert a parsed JSON number, which may be a Long or a Double.
    *
-   * @return the speed
+   * @param val
+   *          the parsed value, or null
+   * @return the value, zero if absent
    */
-  public final double getSpeed() {
-    return speed;
+  private static double doubleValue(final Object val) {
+    return val instanceof Number ? ((Number) val).doubleValue() : 0.0;
   }
 
   /**
-   * Set the speed.
+   * Convert a parsed JSON number, which may be a Long or a Double.
    *
-   * @param speed
-   *          the speed to set
+   * @param val
+   *          the parsed value, or null
+   * @return the value, zero if absent
    */
-  public final void setSpeed(double speed) {
-    this.speed = speed;
+  private static long longValue(final Object val) {
+    return val instanceof Number ? ((Number) val).longValue() : 0L;
   }
 
   /**
-   * Get heading.
+   * Get the boot epoch of the publisher. It changes when the vessel restarts
+   * and its versions start again from 1.
    *
-   * @return the heading
+   * @return when the publisher started, in millis since the epoch
    */
-  public final double getHeading() {
-    return heading;
+  public long getEpoch() {
+    return epoch;
   }
 
   /**
-   * Set heading.
+   * Get the publication sequence number.
    *
-   * @param heading
-   *          the heading to set
+   * @return the version; later snapshots of the same epoch have higher
+   *         versions
    */
-  public final void setHeading(double heading) {
-    this.heading = heading;
+  public long getVersion() {
+    return version;
   }
 
   /**
-   * Get roll.
+   * Tell whether this snapshot was published after another: in a later boot
+   * epoch, or later in the same one.
    *
-   * @return the roll
+   * @param other
+   *          the other snapshot
+   * @return true if this snapshot is the newer
    */
-  public final double getRoll() {
-    return roll;
+  public boolean isNewerThan(final VesselStatus other) {
+    return epoch != other.epoch ? epoch > other.epoch : version > other.version;
   }
 
   /**
-   * Set roll.
+   * Get the speed.
    *
-   * @param roll
-   *          the roll to set
+   * @return the speed
    */
-  public final void setRoll(double roll) {
-    this.roll = roll;
+  public double getSpeed() {
+    return speed;
   }
 
   /**
-   * Get pitch.
+   * Get heading.
    *
-   * @return the pitch
+   * @return the heading
    */
-  public final double getPitch() {
-    return pitch;
+  public double getHeading() {
+    return heading;
   }
 
   /**
-   * Set pitch.
+   * Get roll.
    *
-   * @param pitch
-   *          the pitch to set
+   * @return the roll
    */
-  public final void setPitch(double pitch) {
-    this.pitch = pitch;
+  public double getRoll() {
+    return roll;
   }
 
   /**
-   * Get yaw.
+   * Get pitch.
    *
-   * @return the yaw
+   * @return the pitch
    */
-  public final double getYaw() {
-    return yaw;
+  public double getPitch() {
+    return pitch;
   }
 
   /**
-   * Set yaw.
+   * Get yaw.
    *
-   * @param yaw
-   *          the yaw to set
+   * @return the yaw
    */
-  public final void setYaw(double yaw) {
-    this.yaw = yaw;
+  public double getYaw() {
+    return yaw;
   }
 
   /**
@@ -165,75 +237,53 @@ public class VesselStatus {
    *
    * @return the surge
    */
-  public final double getSurge() {
+  public double getSurge() {
     return surge;
   }
 
-  /**
-   * Set surge.
-   *
-   * @param surge
-   *          the surge to set
-   */
-  public final void setSurge(double surge) {
-    this.surge = surge;
-  }
-
   /**
    * Get heave.
    *
    * @return the heave
    */
-  public final double getHeave() {
+  public double getHeave() {
     return heave;
   }
 
-  /**
-   * Set heave.
-   *
-   * @param heave
-   *          the heave to set
-   */
-  public final void setHeave(double heave) {
-    this.heave = heave;
-  }
-
   /**
    * Get sway.
    *
    * @return the sway
    */
-  public final double getSway() {
+  public double getSway() {
     return sway;
   }
 
   /**
-   * Set sway.
+   * Get latitude.
    *
-   * @param sway
-   *          the sway to set
+   * @return the latitude in degrees
    */
-  public final void setSway(double sway) {
-    this.sway = sway;
+  public double getLatitude() {
+    return latitude;
   }
 
   /**
-   * Get battery voltage.
+   * Get longitude.
    *
-   * @return the batteryVoltage
+   * @return the longitude in degrees
    */
-  public final double getBatteryVoltage() {
-    return batteryVoltage;
+  public double getLongitude() {
+    return longitude;
   }
 
   /**
-   * Set batteryVoltage.
+   * Get battery voltage.
    *
-   * @param batteryVoltage
-   *          the batteryVoltage to set
+   * @return the batteryVoltage
    */
-  public final void setBatteryVoltage(double batteryVoltage) {
-    this.batteryVoltage = batteryVoltage;
+  public double getBatteryVoltage() {
+    return batteryVoltage;
   }
 
   /**
@@ -241,56 +291,72 @@ public class VesselStatus {
    *
    * @return the packetCount
    */
-  public final int getPacketCount() {
+  public int getPacketCount() {
     return packetCount;
   }
 
-  /**
-   * Set packetCount.
-   *
-   * @param packetCount
-   *          the packetCount to set
-   */
-  public final void setPacketCount(int packetCount) {
-    this.packetCount = packetCount;
-  }
-
   /**
    * Get uptime.
    *
    * @return the upTime
    */
-  public final long getUpTime() {
+  public long getUpTime() {
     return upTime;
   }
 
   /**
-   * Set uptime.
+   * Get temperature.
    *
-   * @param upTime
-   *          the upTime to set
+   * @return the temperature
    */
-  public final void setUpTime(long upTime) {
-    this.upTime = upTime;
+  public double getTemperature() {
+    return temperature;
   }
 
   /**
-   * Get temperature.
+   * Write the binary encoding at the buffer's position, advancing it by
+   * ENCODED_SIZE. The buffer's byte order is restored afterwards.
    *
-   * @return the temperature
+   * @param buf
+   *          the buffer, with at least ENCODED_SIZE bytes remaining
    */
-  public final double getTemperature() {
-    return temperature;
+  public void encode(final ByteBuffer buf) {
+    final ByteOrder order = buf.order();
+    buf.order(ByteOrder.LITTLE_ENDIAN);
+    buf.putShort(LAYOUT_VERSION);
+    buf.putShort((short) 0);
+    buf.putLong(epoch);
+    buf.putLong(version);
+    buf.putLong(upTime);
+    buf.putInt(packetCount);
+    buf.putDouble(latitude);
+    buf.putDouble(longitude);
+    buf.putFloat((float) speed);
+    buf.putFloat((float) heading);
+    buf.putFloat((float) roll);
+    buf.putFloat((float) pitch);
+    buf.putFloat((float) yaw);
+    buf.putFloat((float) surge);
+    buf.putFloat((float) heave);
+    buf.putFloat((float) sway);
+    buf.putFloat((float) batteryVoltage);
+    buf.putFloat((float) temperature);
+    buf.order(order);
   }
 
   /**
-   * Set temperature.
+   * Read a snapshot from the buffer's position.
    *
-   * @param temperature
-   *          the temperature to set
+   * @param buf
+   *          the buffer
+   * @return the snapshot
+   * @throws InvalidValueException
+   *           if the buffer does not hold a snapshot in a known layout
    */
-  public final void setTemperature(double temperature) {
-    this.temperature = temperature;
+  public static VesselStatus decode(final ByteBuffer buf) throws InvalidValueException {
+    final Builder bld = new Builder();
+    final long ver = bld.decode(buf);
+    return bld.build(ver);
   }
 
   /**
@@ -301,6 +367,8 @@ public class VesselStatus {
   @SuppressWarnings("unchecked")
   public JSONObject toJson() {
     final JSONObject result = new JSONObject();
+    result.put("epoch", Long.valueOf(epoch));
+    result.put("version", Long.valueOf(version));
     result.put("speed", Double.valueOf(speed));
     result.put("heading", Double.valueOf(heading));
     result.put("roll", Double.valueOf(roll));
@@ -309,6 +377,8 @@ public class VesselStatus {
     result.put("surge", Double.valueOf(surge));
     result.put("heave", Double.valueOf(heave));
     result.put("sway", Double.valueOf(sway));
+    result.put("latitude", Double.valueOf(latitude));
+    result.put("longitude", Double.valueOf(longitude));
     result.put("batteryVoltage", Double.valueOf(batteryVoltage));
     result.put("packetCount", Integer.valueOf(packetCount));
     result.put("upTime", Long.valueOf(upTime));
@@ -316,4 +386,322 @@ public class VesselStatus {
     return result;
   }
 
+  /**
+   * Get the JSON text of the status, building it on the first call. Repeated
+   * requests for the same snapshot, e.g. from several web clients, share one
+   * string.
+   *
+   * @return the status as JSON text
+   */
+  public String toJsonString() {
+    String result = json;
+    if (result == null) {
+      result = toJson().toJSONString();
+      json = result;
+    }
+    return result;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    return toJsonString();
+  }
+
+  /**
+   * Mutable, reusable assembly of status values. A builder may be reused for
+   * any number of snapshots, and decoding into a builder allocates nothing.
+   */
+  public static final class Builder {
+
+    private long epoch;
+    private double speed;
+    private double heading;
+    private double roll;
+    private double pitch;
+    private double yaw;
+    private double surge;
+    private double heave;
+    private double sway;
+    private double latitude;
+    private double longitude;
+    private double batteryVoltage;
+    private int packetCount;
+    private long upTime;
+    private double temperature;
+
+    /**
+     * Default constructor; every value starts at zero.
+     */
+    public Builder() {
+
+    }
+
+    /**
+     * Copy every value of a snapshot.
+     *
+     * @param sts
+     *          the snapshot
+     * @return this builder
+     */
+    public Builder from(final VesselStatus sts) {
+      epoch = sts.epoch;
+      speed = sts.speed;
+      heading = sts.heading;
+      roll = sts.roll;
+      pitch = sts.pitch;
+      yaw = sts.yaw;
+      surge = sts.surge;
+      heave = sts.heave;
+      sway = sts.sway;
+      latitude = sts.latitude;
+      longitude = sts.longitude;
+      batteryVoltage = sts.batteryVoltage;
+      packetCount = sts.packetCount;
+      upTime = sts.upTime;
+      temperature = sts.temperature;
+      return this;
+    }
+
+    /**
+     * Set the boot epoch of the publisher.
+     *
+     * @param val
+     *          when the publisher started, in millis since the epoch
+     * @return this builder
+     */
+    public Builder setEpoch(final long val) {
+      epoch = val;
+      return this;
+    }
+
+    /**
+     * Set the speed.
+     *
+     * @param val
+     *          the speed to set
+     * @return this builder
+     */
+    public Builder setSpeed(final double val) {
+      speed = val;
+      return this;
+    }
+
+    /**
+     * Set heading.
+     *
+     * @param val
+     *          the heading to set
+     * @return this builder
+     */
+    public Builder setHeading(final double val) {
+      heading = val;
+      return this;
+    }
+
+    /**
+     * Set roll.
+     *
+     * @param val
+     *          the roll to set
+     * @return this builder
+     */
+    public Builder setRoll(final double val) {
+      roll = val;
+      return this;
+    }
+
+    /**
+     * Set pitch.
+     *
+     * @param val
+     *          the pitch to set
+     * @return this builder
+     */
+    public Builder setPitch(final double val) {
+      pitch = val;
+      return this;
+    }
+
+    /**
+     * Set yaw.
+     *
+     * @param val
+     *          the yaw to set
+     * @return this builder
+     */
+    public Builder setYaw(final double val) {
+      yaw = val;
+      return this;
+    }
+
+    /**
+     * Set surge.
+     *
+     * @param val
+     *          the surge to set
+     * @return this builder
+     */
+    public Builder setSurge(final double val) {
+      surge = val;
+      return this;
+    }
+
+    /**
+     * Set heave.
+     *
+     * @param val
+     *          the heave to set
+     * @return this builder
+     */
+    public Builder setHeave(final double val) {
+      heave = val;
+      return this;
+    }
+
+    /**
+     * Set sway.
+     *
+     * @param val
+     *          the sway to set
+     * @return this builder
+     */
+    public Builder setSway(final double val) {
+      sway = val;
+      return this;
+    }
+
+    /**
+     * Set latitude.
+     *
+     * @param val
+     *          the latitude to set, in degrees
+     * @return this builder
+     */
+    public Builder setLatitude(final double val) {
+      latitude = val;
+      return this;
+    }
+
+    /**
+     * Set longitude.
+     *
+     * @param val
+     *          the longitude to set, in degrees
+     * @return this builder
+     */
+    public Builder setLongitude(final double val) {
+      longitude = val;
+      return this;
+    }
+
+    /**
+     * Set battery voltage.
+     *
+     * @param val
+     *          the batteryVoltage to set
+     * @return this builder
+     */
+    public Builder setBatteryVoltage(final double val) {
+      batteryVoltage = val;
+      return this;
+    }
+
+    /**
+     * Set packet count.
+     *
+     * @param val
+     *          the packetCount to set
+     * @return this builder
+     */
+    public Builder setPacketCount(final int val) {
+      packetCount = val;
+      return this;
+    }
+
+    /**
+     * Set uptime.
+     *
+     * @param val
+     *          the upTime to set
+     * @return this builder
+     */
+    public Builder setUpTime(final long val) {
+      upTime = val;
+      return this;
+    }
+
+    /**
+     * Set temperature.
+     *
+     * @param val
+     *          the temperature to set
+     * @return this builder
+     */
+    public Builder setTemperature(final double val) {
+      temperature = val;
+      return this;
+    }
+
+    /**
+     * Read values from the binary encoding at the buffer's position, advancing
+     * it by ENCODED_SIZE. The buffer's byte order is restored afterwards.
+     *
+     * @param buf
+     *          the buffer
+     * @return the version of the encoded snapshot
+     * @throws InvalidValueException
+     *           if the buffer does not hold a snapshot in a known layout
+     */
+    public long decode(final ByteBuffer buf) throws InvalidValueException {
+      if (buf.remaining() < ENCODED_SIZE) {
+        throw new InvalidValueException("Vessel status needs " + ENCODED_SIZE + " bytes, "
+            + buf.remaining() + " remaining");
+      }
+      final ByteOrder order = buf.order();
+      buf.order(ByteOrder.LITTLE_ENDIAN);
+      try {
+        final short layout = buf.getShort();
+        if (layout != LAYOUT_VERSION) {
+          buf.position(buf.position() - Short.BYTES);
+          throw new InvalidValueException("Unsupported vessel status layout " + layout);
+        }
+        buf.getShort();
+        epoch = buf.getLong();
+        final long ver = buf.getLong();
+        upTime = buf.getLong();
+        packetCount = buf.getInt();
+        latitude = buf.getDouble();
+        longitude = buf.getDouble();
+        speed = buf.getFloat();
+        heading = buf.getFloat();
+        roll = buf.getFloat();
+        pitch = buf.getFloat();
+        yaw = buf.getFloat();
+        surge = buf.getFloat();
+        heave = buf.getFloat();
+        sway = buf.getFloat();
+        batteryVoltage = buf.getFloat();
+        temperature = buf.getFloat();
+        return ver;
+      } finally {
+        buf.order(order);
+      }
+    }
+
+    /**
+     * Create a snapshot of the current values.
+     *
+     * @param version
+     *          the publication sequence number
+     * @return the snapshot
+     */
+    public VesselStatus build(final long version) {
+      return new VesselStatus(this, version);
+    }
+  }
 }
@@ -0,0 +1,140 @@
+/**
+ * VesselStatusPublisher.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.vessel;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Publishes VesselStatus snapshots to any number of readers without locking.
+ *
+ * <p>
+ * Several components contribute to the status of a vessel: sensor fusion
+ * writes motion and position, power management the battery voltage,
+ * communications the packet count. Each writer changes only its own values
+ * with update, which copies the current snapshot, applies the change and
+ * installs the result with compare-and-set, retrying if another writer got
+ * there first. Every installed snapshot carries the publisher's boot epoch and
+ * a version one higher than its predecessor. Readers call get and always see a
+ * complete snapshot.
+ * </p>
+ *
+ * <p>
+ * A vessel that restarts creates a new publisher, whose versions start again
+ * from 1 under a later epoch, so its first broadcasts still count as newer
+ * than those received before the restart.
+ * </p>
+ */
+public final class VesselStatusPublisher {
+
+  /**
+   * Latest boot epoch handed out in this process, so that publishers created
+   * in the same millisecond still get distinct epochs.
+   */
+  private static final AtomicLong lastEpoch = new AtomicLong();
+
+  /**
+   * The current snapshot.
+   */
+  private final AtomicReference<VesselStatus> current =
+      new AtomicReference<>(VesselStatus.EMPTY);
+
+  /**
+   * Builder reused by each writing thread, so that an update allocates only
+   * the snapshot it installs.
+   */
+  private final ThreadLocal<VesselStatus.Builder> builders =
+      ThreadLocal.withInitial(VesselStatus.Builder::new);
+
+  /**
+   * Boot epoch stamped on every snapshot this publisher builds.
+   */
+  private final long epoch;
+
+  /**
+   * Default constructor, for a publisher whose epoch is the time it was
+   * created.
+   */
+  public VesselStatusPublisher() {
+    this(lastEpoch.updateAndGet(last -> Math.max(last + 1, System.currentTimeMillis())));
+  }
+
+  /**
+   * Explicit constructor.
+   *
+   * @param bootEpoch
+   *          the boot epoch, in millis since the epoch; it must be later than
+   *          that of any earlier publisher for the same vessel
+   */
+  public VesselStatusPublisher(final long bootEpoch) {
+    epoch = bootEpoch;
+  }
+
+  /**
+   * Get the boot epoch stamped on the snapshots this publisher builds.
+   *
+   * @return the epoch, in millis since the epoch
+   */
+  public long getEpoch() {
+    return epoch;
+  }
+
+  /**
+   * Get the current snapshot.
+   *
+   * @return the snapshot
+   */
+  public VesselStatus get() {
+    return current.get();
+  }
+
+  /**
+   * Publish a change to some of the status values, leaving the others as the
+   * current snapshot has them.
+   *
+   * @param change
+   *          sets the changed values on a builder holding the current values;
+   *          it may be called more than once if writers collide, and must not
+   *          itself update this publisher
+   * @return the snapshot installed
+   */
+  public VesselStatus update(final Consumer<VesselStatus.Builder> change) {
+    final VesselStatus.Builder bld = builders.get();
+    while (true) {
+      final VesselStatus prev = current.get();
+      change.accept(bld.from(prev));
+      final VesselStatus next = bld.setEpoch(epoch).build(prev.getVersion() + 1);
+      if (current.compareAndSet(prev, next)) {
+        return next;
+      }
+    }
+  }
+
+  /**
+   * Install a snapshot received from elsewhere, e.g. decoded from another
+   * vessel's broadcast, if it is newer than the current one. A snapshot from
+   * a later boot epoch is newer whatever its version, so a vessel that has
+   * restarted is heard again at once.
+   *
+   * @param sts
+   *          the received snapshot
+   * @return true if it was installed, false if it was stale or a duplicate
+   */
+  public boolean offer(final VesselStatus sts) {
+    while (true) {
+      final VesselStatus prev = current.get();
+      if (!sts.isNewerThan(prev)) {
+        return false;
+      }
+      if (current.compareAndSet(prev, sts)) {
+        return true;
+      }
+    }
+  }
+}
@@ -8,12 +8,42 @@
 package com.synadek.smr.vessel;
 
 import com.synadek.core.ComponentException;
+import com.synadek.core.InvalidValueException;
+import com.synadek.core.SensorChannel;
+import com.synadek.core.SensorConfiguration;
+import com.synadek.smr.vessel.physical.PdlAnalogHandler;
+import com.synadek.smr.vessel.physical.VesselPhysicalModel;
+import com.synadek.smr.vessel.physical.VesselPhysicalModel.PhysicalDeviceType;
 
 /**
  * Report conditions of the water surrounding the vessel and interactions of
- * water with the vessel.
+ * water with the vessel. Water temperature is read from the physical model,
+ * calibrated, filtered and published for lock-free reading.
  */
-public class WaterSensorImpl extends VesselComponentImpl implements WaterSensor {
+public class WaterSensorImpl extends VesselComponentImpl implements WaterSensor,
+    PdlAnalogHandler {
+
+  /**
+   * Configuration key for the water temperature calibration table.
+   */
+  public static final String JSON_KEY_TEMPERATURE_CALIBRATION = "temperatureCalibration";
+
+  /**
+   * Physical model supplying the sensors, or null if there is none.
+   */
+  private VesselPhysicalModel model;
+
+  /**
+   * Calibration and filter settings of the water sensors.
+   */
+  private final SensorConfiguration sensors = new SensorConfiguration();
+
+  /**
+   * Water temperature processing chain.
+   */
+  private final SensorChannel temperature = sensors.addChannel(
+      JSON_KEY_TEMPERATURE_CALIBRATION,
+      "Water temperature calibration as comma-separated raw:celsius pairs.");
 
   /**
    * Default constructor.
@@ -23,6 +53,18 @@ public class WaterSensorImpl extends VesselComponentImpl implements WaterSensor
     resetConfiguration();
   }
 
+  /**
+   * Constructor for a sensor that reads the physical model.
+   *
+   * @param physicalModel
+   *          the vessel's physical model
+   */
+  public WaterSensorImpl(final VesselPhysicalModel physicalModel) {
+    super(VesselComponentType.VESSEL_WATER_SENSOR, "water sensor");
+    model = physicalModel;
+    resetConfiguration();
+  }
+
   /**
    * Named constructor.
    *
@@ -52,11 +94,41 @@ public class WaterSensorImpl extends VesselComponentImpl implements WaterSensor
       return false;
     }
 
+    // Listen to the sensors if there is a physical model to read
+    if (model != null) {
+      model.addAnalogInputListener(PhysicalDeviceType.PHY_WATER_TEMPERATURE_SENSOR, this);
+    }
+
     this.simulated = false;
     this.connected = true;
     return true;
   }
 
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.core.AbstractComponent#disconnect()
+   */
+  @Override
+  public void disconnect() throws ComponentException {
+    if (connected && model != null) {
+      model.removeAnalogInputListener(this);
+    }
+    super.disconnect();
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.smr.vessel.physical.PdlAnalogHandler#physicalDeviceStateChange
+   */
+  @Override
+  public void physicalDeviceStateChange(final PhysicalDeviceType idx, final double val) {
+    if (idx == PhysicalDeviceType.PHY_WATER_TEMPERATURE_SENSOR) {
+      temperature.update(val, System.currentTimeMillis());
+    }
+  }
+
   /*
    * (non-Javadoc)
    * 
@@ -75,8 +147,9 @@ public class WaterSensorImpl extends VesselComponentImpl implements WaterSensor
    */
   @Override
   public float getWaterTemperature() {
-    // TODO Auto-generated method stub
-    return 0;
+    // Report 0 until the first reading arrives, as before sensing was added
+    final double value = temperature.getValue();
+    return Double.isNaN(value) ? 0.0f : (float) value;
   }
 
   /*
@@ -119,6 +192,18 @@ public class WaterSensorImpl extends VesselComponentImpl implements WaterSensor
    */
   @Override
   public void resetConfiguration() {
+    sensors.reset(myConfiguration);
+    applyConfiguration();
+  }
 
+  /**
+   * Apply the current configuration properties to the sensor channels.
+   */
+  public void applyConfiguration() {
+    try {
+      sensors.apply(myConfiguration);
+    } catch (InvalidValueException err) {
+      log.error("Invalid water sensor configuration: {}", err.getMessage());
+    }
   }
 }
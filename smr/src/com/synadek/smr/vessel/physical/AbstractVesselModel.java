@@ -10,13 +10,17 @@ package com.synadek.smr.vessel.physical;
 import com.synadek.core.AbstractComponent;
 import com.synadek.core.Component;
 import com.synadek.core.ComponentException;
+import com.synadek.core.TaskExecutors;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
+import org.json.simple.JSONObject;
 
 /**
  * Methods common to all physical device models for vessels.
@@ -53,15 +57,36 @@ public abstract class AbstractVesselModel extends AbstractComponent
    */
   private final LinkedBlockingQueue<DigitalInputEvent> diQueue = new LinkedBlockingQueue<>();
 
+  /**
+   * Maximum number of milliseconds to wait for a running handler when the
+   * event dispatchers are stopped.
+   */
+  private static final long DISPATCHER_STOP_WAIT = 3000;
+
+  /**
+   * JSON key for status messages.
+   */
+  private static final String KEY_EVENT_PATH = "eventPath";
+
   /**
    * Analog input event dispatcher.
    */
-  private AnalogEventDispatcher analogInputEventDispatcher;
+  private volatile AnalogEventDispatcher analogInputEventDispatcher;
 
   /**
    * Digital input event dispatcher.
    */
-  private DigitalInputEventDispatcher digitalInputEventDispatcher;
+  private volatile DigitalInputEventDispatcher digitalInputEventDispatcher;
+
+  /**
+   * Latency and queue depth measurements for the input event path.
+   */
+  private final EventPathMetrics eventPathMetrics = new EventPathMetrics();
+
+  /**
+   * Recorder (if any) to which every input event is appended.
+   */
+  private volatile EventRecorder eventRecorder;
 
   /**
    * Default constructor.
@@ -70,23 +95,27 @@ public abstract class AbstractVesselModel extends AbstractComponent
     super();
   }
 
+  /**
+   * Start signaling queued input events to registered handlers.
+   */
   protected synchronized void startEventDispatchers() {
-    analogInputEventDispatcher = new AnalogEventDispatcher(this, ainQueue);
-    digitalInputEventDispatcher = new DigitalInputEventDispatcher(this, diQueue);
+    final ExecutorService executor = TaskExecutors.getDefault();
+    analogInputEventDispatcher = new AnalogEventDispatcher(this, ainQueue, executor);
+    digitalInputEventDispatcher = new DigitalInputEventDispatcher(this, diQueue, executor);
+    analogInputEventDispatcher.start();
+    digitalInputEventDispatcher.start();
   }
 
+  /**
+   * Stop signaling input events, waiting for handlers already running to
+   * return. Events still queued are kept until the dispatchers are restarted.
+   */
   protected synchronized void stopEventDispatchers() {
-    // Stop the threads
-    try {
-      analogInputEventDispatcher.stop();
-    } catch (NullPointerException err) {
-      log.error(err);
+    if (analogInputEventDispatcher != null) {
+      analogInputEventDispatcher.stop(DISPATCHER_STOP_WAIT);
     }
-
-    try {
-      digitalInputEventDispatcher.stop();
-    } catch (NullPointerException err) {
-      log.error(err);
+    if (digitalInputEventDispatcher != null) {
+      digitalInputEventDispatcher.stop(DISPATCHER_STOP_WAIT);
     }
 
     // Discard the objects
@@ -382,6 +411,26 @@ public abstract class AbstractVesselModel extends AbstractComponent
     }
   }
 
+  /**
+   * Attach a recorder to which every analog and digital input event signaled by
+   * this model is appended, whether or not handlers are registered for it.
+   *
+   * @param rec
+   *          the recorder, or null to stop recording
+   */
+  public void setEventRecorder(final EventRecorder rec) {
+    eventRecorder = rec;
+  }
+
+  /**
+   * Get the recorder attached to this model.
+   *
+   * @return the recorder, or null if events are not being recorded
+   */
+  public EventRecorder getEventRecorder() {
+    return eventRecorder;
+  }
+
   /**
    * Get the (possibly empty) collection of digital input handlers registered
    * for this gpio index.
@@ -432,6 +481,12 @@ public abstract class AbstractVesselModel extends AbstractComponent
       return;
     }
 
+    // Record the event before filtering it
+    final EventRecorder rec = eventRecorder;
+    if (rec != null) {
+      rec.record(evt);
+    }
+
     // Get the analog input handlers (if any) associated with this device
     final Collection<PdlAnalogHandler> handlers = this.getAnalogInputHandlers(evt.getDevice());
 
@@ -440,8 +495,13 @@ public abstract class AbstractVesselModel extends AbstractComponent
       return;
     }
 
-    // Queue the event to be processed by the event processing thread of the Pio
+    // Queue the event to be processed by the event dispatcher of the Pio
     ainQueue.offer(evt);
+    eventPathMetrics.analogQueued(ainQueue.size());
+    final AnalogEventDispatcher dispatcher = analogInputEventDispatcher;
+    if (dispatcher != null) {
+      dispatcher.signal();
+    }
   }
 
   /**
@@ -458,16 +518,27 @@ public abstract class AbstractVesselModel extends AbstractComponent
       return;
     }
 
-    // Get the analog input handlers (if any) associated with this device
-    final Collection<PdlAnalogHandler> handlers = this.getAnalogInputHandlers(evt.getDevice());
+    // Record the event before filtering it
+    final EventRecorder rec = eventRecorder;
+    if (rec != null) {
+      rec.record(evt);
+    }
+
+    // Get the digital input handlers (if any) associated with this device
+    final Collection<PdlDigitalHandler> handlers = this.getDigitalInputHandlers(evt.getDevice());
 
     // No handlers?
     if (handlers == null) {
       return;
     }
 
-    // Queue the event to be processed by the event processing thread of the Pio
+    // Queue the event to be processed by the event dispatcher of the Pio
     diQueue.offer(evt);
+    eventPathMetrics.digitalQueued(diQueue.size());
+    final DigitalInputEventDispatcher dispatcher = digitalInputEventDispatcher;
+    if (dispatcher != null) {
+      dispatcher.signal();
+    }
   }
 
   /**
@@ -494,14 +565,20 @@ public abstract class AbstractVesselModel extends AbstractComponent
 
     log.info("Invoking handler(s) for event (" + evt.getDevice() + "," + evt.getNewValue() + ")");
 
-    // Invoke each handler in turn
+    // Invoke each handler in turn, timing each one
+    final long started = System.nanoTime();
+    long finished = started;
     for (PdlAnalogHandler hdlr : handlers) {
+      final long begin = finished;
       try {
         hdlr.physicalDeviceStateChange(evt.getDevice(), evt.getNewValue());
       } catch (Exception err) {
         log.error(err);
       }
+      finished = System.nanoTime();
+      eventPathMetrics.handlerInvoked(hdlr, finished - begin);
     }
+    eventPathMetrics.eventHandled(evt.getDevice(), evt.getTimestamp(), started, finished);
   }
 
   /**
@@ -528,14 +605,54 @@ public abstract class AbstractVesselModel extends AbstractComponent
 
     log.info("Invoking handler(s) for event (" + evt.getDevice() + "," + evt.getNewState() + ")");
 
-    // Invoke each handler in turn
+    // Invoke each handler in turn, timing each one
+    final long started = System.nanoTime();
+    long finished = started;
     for (PdlDigitalHandler hdlr : handlers) {
+      final long begin = finished;
       try {
         hdlr.physicalDeviceStateChange(evt.getDevice(), evt.getNewState());
       } catch (Exception err) {
         log.error(err);
       }
+      finished = System.nanoTime();
+      eventPathMetrics.handlerInvoked(hdlr, finished - begin);
     }
+    eventPathMetrics.eventHandled(evt.getDevice(), evt.getTimestamp(), started, finished);
+  }
+
+  /**
+   * Report latency histograms for the input event path, per device and per
+   * handler, together with the current and largest depths of the event
+   * queues.
+   *
+   * @return the report
+   */
+  public JSONObject getEventPathStatus() {
+    return eventPathMetrics.toJson(ainQueue.size(), diQueue.size());
+  }
+
+  /**
+   * Discard the latency and queue depth measurements e.g., after a change to
+   * the handler stack.
+   */
+  public void resetEventPathStatus() {
+    eventPathMetrics.reset();
+  }
+
+  /**
+   * Get status information including event path latencies.
+   *
+   * @param locale
+   *          locale in which to present information
+   * @return the information
+   */
+  @SuppressWarnings("unchecked")
+  @Override
+  public JSONObject getStatus(Locale locale) {
+    final JSONObject result = super.getStatus(locale);
+    result.put(KEY_EVENT_PATH, getEventPathStatus());
+    return result;
   }
 
   /*
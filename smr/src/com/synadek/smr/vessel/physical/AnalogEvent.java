@@ -24,6 +24,12 @@ public class AnalogEvent {
    */
   private final double newValue;
 
+  /**
+   * Time (System.nanoTime) at which the event was created, i.e., when the
+   * device reported it.
+   */
+  private final long timestamp;
+
   /**
    * Default constructor.
    *
@@ -35,6 +41,7 @@ public class AnalogEvent {
   public AnalogEvent(final PhysicalDeviceType dev, final double val) {
     device = dev;
     newValue = val;
+    timestamp = System.nanoTime();
   }
 
   /**
@@ -55,4 +62,13 @@ public class AnalogEvent {
     return newValue;
   }
 
+  /**
+   * Get the time at which the event was created.
+   *
+   * @return the System.nanoTime at creation
+   */
+  public final long getTimestamp() {
+    return timestamp;
+  }
+
 }
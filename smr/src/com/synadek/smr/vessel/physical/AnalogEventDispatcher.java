@@ -7,39 +7,22 @@
 
 package com.synadek.smr.vessel.physical;
 
-import java.util.concurrent.LinkedBlockingQueue;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
+import com.synadek.core.SerialDispatcher;
+import java.util.Queue;
+import java.util.concurrent.Executor;
 
 /**
- * Analog event dispatcher.
+ * Analog event dispatcher. Events are signaled to the handlers registered with
+ * the VesselPhysicalModel in the order they were queued, on a task of the
+ * shared executor rather than a dedicated thread.
  */
-public class AnalogEventDispatcher implements Runnable {
-  /**
-   * Acquire a reference to the application logger.
-   */
-  protected final Logger log = LogManager.getLogger(this.getClass().getPackage().getName());
-
-  /**
-   * Queue of analog input events to be signaled to registered event handlers.
-   */
-  private final LinkedBlockingQueue<AnalogEvent> analogEventQueue;
+public class AnalogEventDispatcher extends SerialDispatcher<AnalogEvent> {
 
   /**
    * VesselPhysicalModel implementation.
    */
   private final VesselPhysicalModel myPio;
 
-  /**
-   * Flag to terminate execution of the dispatch thread.
-   */
-  private boolean done;
-
-  /**
-   * Execution thread.
-   */
-  private Thread myThread;
-
   /**
    * Default constructor.
    *
@@ -47,53 +30,24 @@ public class AnalogEventDispatcher implements Runnable {
    *          PioMode implementation
    * @param myQueue
    *          event queue
+   * @param executor
+   *          executor on which handlers are invoked
    */
-  public AnalogEventDispatcher(final VesselPhysicalModel mdl,
-      final LinkedBlockingQueue<AnalogEvent> myQueue) {
-    analogEventQueue = myQueue;
+  public AnalogEventDispatcher(final VesselPhysicalModel mdl, final Queue<AnalogEvent> myQueue,
+      final Executor executor) {
+    super("Analog Input Event Dispatcher", myQueue, executor);
     myPio = mdl;
-    done = false;
-    new Thread(this).start();
   }
 
   /**
-   * Stop the event dispatcher.
-   */
-  public void stop() {
-    done = true;
-    try {
-      myThread.interrupt();
-    } catch (NullPointerException err) {
-      log.warn("Analog event dispatch thread is null");
-    }
-  }
-
-  /**
-   * Run the event dispatcher.
+   * Invoke the handlers for one event.
+   *
+   * @param evt
+   *          the event
    */
   @Override
-  public void run() {
-
-    myThread = Thread.currentThread();
-
-    log.info("Analog Input Event Dispatcher starting");
-
-    while (!done) {
-      try {
-        AnalogEvent ae = analogEventQueue.take();
-        if (ae != null) {
-          myPio.invokeAnalogHandlers(ae);
-        }
-      } catch (InterruptedException ie) {
-        if (!done) {
-          log.debug("Thread interrupted");
-        }
-      }
-    }
-
-    myThread = null;
-
-    log.info("Analog Input Event Dispatcher exiting");
+  protected void process(final AnalogEvent evt) {
+    myPio.invokeAnalogHandlers(evt);
   }
 
 }
@@ -24,6 +24,12 @@ public class DigitalInputEvent {
    */
   private final boolean newState;
 
+  /**
+   * Time (System.nanoTime) at which the event was created, i.e., when the
+   * device reported it.
+   */
+  private final long timestamp;
+
   /**
    * Default constructor.
    *
@@ -35,6 +41,7 @@ public class DigitalInputEvent {
   public DigitalInputEvent(final PhysicalDeviceType dev, final boolean val) {
     device = dev;
     newState = val;
+    timestamp = System.nanoTime();
   }
 
   /**
@@ -55,4 +62,13 @@ public class DigitalInputEvent {
     return newState;
   }
 
+  /**
+   * Get the time at which the event was created.
+   *
+   * @return the System.nanoTime at creation
+   */
+  public final long getTimestamp() {
+    return timestamp;
+  }
+
 }
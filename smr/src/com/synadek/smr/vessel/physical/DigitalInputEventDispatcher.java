@@ -7,39 +7,22 @@
 
 package com.synadek.smr.vessel.physical;
 
-import java.util.concurrent.LinkedBlockingQueue;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
+import com.synadek.core.SerialDispatcher;
+import java.util.Queue;
+import java.util.concurrent.Executor;
 
 /**
- * Dispatch digital input events to registered handlers.
+ * Dispatch digital input events to registered handlers. Events are signaled to
+ * the handlers registered with the VesselPhysicalModel in the order they were
+ * queued, on a task of the shared executor rather than a dedicated thread.
  */
-public class DigitalInputEventDispatcher implements Runnable {
-  /**
-   * Acquire a reference to the application logger.
-   */
-  protected final Logger log = LogManager.getLogger(this.getClass().getPackage().getName());
-
-  /**
-   * Queue of analog input events to be signaled to registered event handlers.
-   */
-  private final LinkedBlockingQueue<DigitalInputEvent> digitalEventQueue;
+public class DigitalInputEventDispatcher extends SerialDispatcher<DigitalInputEvent> {
 
   /**
    * VesselPhysicalModel implementation.
    */
   private final VesselPhysicalModel myPio;
 
-  /**
-   * Flag to terminate execution of the dispatch thread.
-   */
-  private boolean done;
-
-  /**
-   * Execution thread.
-   */
-  private Thread myThread;
-
   /**
    * Default constructor.
    *
@@ -47,53 +30,24 @@ public class DigitalInputEventDispatcher implements Runnable {
    *          PioMode implementation
    * @param myQueue
    *          event queue
+   * @param executor
+   *          executor on which handlers are invoked
    */
-  public DigitalInputEventDispatcher(final VesselPhysicalModel mdl,
-      final LinkedBlockingQueue<DigitalInputEvent> myQueue) {
-    digitalEventQueue = myQueue;
+  public DigitalInputEventDispatcher(final VesselPhysicalModel mdl, final Queue<DigitalInputEvent> myQueue,
+      final Executor executor) {
+    super("Digital Input Event Dispatcher", myQueue, executor);
     myPio = mdl;
-    done = false;
-    new Thread(this).start();
   }
 
   /**
-   * Stop the event dispatcher.
-   */
-  public void stop() {
-    done = true;
-    try {
-      myThread.interrupt();
-    } catch (NullPointerException err) {
-      log.warn("Analog event dispatch thread is null");
-    }
-  }
-
-  /**
-   * Run the event dispatcher.
+   * Invoke the handlers for one event.
+   *
+   * @param evt
+   *          the event
    */
   @Override
-  public void run() {
-
-    myThread = Thread.currentThread();
-
-    log.info("Digital Input Event Dispatcher starting");
-
-    while (!done) {
-      try {
-        DigitalInputEvent evt = digitalEventQueue.take();
-        if (evt != null) {
-          myPio.invokeDigitalInputHandlers(evt);
-        }
-      } catch (InterruptedException ie) {
-        if (!done) {
-          log.debug("Thread interrupted");
-        }
-      }
-    }
-
-    myThread = null;
-
-    log.info("Digital Input Event Dispatcher exiting");
+  protected void process(final DigitalInputEvent evt) {
+    myPio.invokeDigitalInputHandlers(evt);
   }
 
 }
@@ -0,0 +1,182 @@
+/**
+ * EventPathMetrics.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.vessel.physical;
+
+import com.synadek.core.Component;
+import com.synadek.core.LatencyHistogram;
+import com.synadek.smr.vessel.physical.VesselPhysicalModel.PhysicalDeviceType;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.json.simple.JSONObject;
+
+/**
+ * Latency and queue depth measurements for the input event path of a physical
+ * vessel model. For each device, the time from the creation of an event (the
+ * driver callback) until handlers begin is recorded as queue latency and the
+ * time until the last handler returns as total latency. For each handler, the
+ * time spent in the handler is recorded. All recording is lock-free.
+ */
+class EventPathMetrics {
+
+  /**
+   * JSON keys.
+   */
+  private static final String KEY_QUEUE = "queue";
+  private static final String KEY_TOTAL = "total";
+  private static final String KEY_DEPTH = "depth";
+  private static final String KEY_MAX_DEPTH = "maxDepth";
+
+  /**
+   * Queue latency per device.
+   */
+  private final Map<PhysicalDeviceType, LatencyHistogram> queueLatency =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Total latency per device.
+   */
+  private final Map<PhysicalDeviceType, LatencyHistogram> totalLatency =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Time spent in each handler, keyed by handler name.
+   */
+  private final Map<String, LatencyHistogram> handlerLatency = new ConcurrentHashMap<>();
+
+  /**
+   * Largest depth observed on the analog input event queue.
+   */
+  private final AtomicInteger analogMaxDepth = new AtomicInteger();
+
+  /**
+   * Largest depth observed on the digital input event queue.
+   */
+  private final AtomicInteger digitalMaxDepth = new AtomicInteger();
+
+  /**
+   * Note the depth of the analog queue after an event was queued.
+   *
+   * @param depth
+   *          the queue depth
+   */
+  void analogQueued(final int depth) {
+    analogMaxDepth.accumulateAndGet(depth, Math::max);
+  }
+
+  /**
+   * Note the depth of the digital queue after an event was queued.
+   *
+   * @param depth
+   *          the queue depth
+   */
+  void digitalQueued(final int depth) {
+    digitalMaxDepth.accumulateAndGet(depth, Math::max);
+  }
+
+  /**
+   * Record the handling of one event.
+   *
+   * @param dev
+   *          the device that signaled the event
+   * @param created
+   *          System.nanoTime when the event was created
+   * @param started
+   *          System.nanoTime when the first handler was invoked
+   * @param finished
+   *          System.nanoTime when the last handler returned
+   */
+  void eventHandled(final PhysicalDeviceType dev, final long created, final long started,
+      final long finished) {
+    queueLatency.computeIfAbsent(dev, k -> new LatencyHistogram()).record(started - created);
+    totalLatency.computeIfAbsent(dev, k -> new LatencyHistogram()).record(finished - created);
+  }
+
+  /**
+   * Record the time spent in a handler.
+   *
+   * @param hdlr
+   *          the handler
+   * @param nanos
+   *          the time spent (nanoseconds)
+   */
+  void handlerInvoked(final Object hdlr, final long nanos) {
+    handlerLatency.computeIfAbsent(handlerName(hdlr), k -> new LatencyHistogram()).record(nanos);
+  }
+
+  /**
+   * Name a handler for reporting.
+   *
+   * @param hdlr
+   *          the handler
+   * @return the component name, or the class name if the handler is not a
+   *         component
+   */
+  private static String handlerName(final Object hdlr) {
+    if (hdlr instanceof Component) {
+      return ((Component) hdlr).getName();
+    }
+    return hdlr.getClass().getSimpleName();
+  }
+
+  /**
+   * Discard all measurements.
+   */
+  void reset() {
+    queueLatency.clear();
+    totalLatency.clear();
+    handlerLatency.clear();
+    analogMaxDepth.set(0);
+    digitalMaxDepth.set(0);
+  }
+
+  /**
+   * Report the measurements.
+   *
+   * @param analogDepth
+   *          current depth of the analog input event queue
+   * @param digitalDepth
+   *          current depth of the digital input event queue
+   * @return the report
+   */
+  @SuppressWarnings("unchecked")
+  JSONObject toJson(final int analogDepth, final int digitalDepth) {
+    final JSONObject result = new JSONObject();
+
+    final JSONObject analog = new JSONObject();
+    analog.put(KEY_DEPTH, Integer.valueOf(analogDepth));
+    analog.put(KEY_MAX_DEPTH, Integer.valueOf(analogMaxDepth.get()));
+    result.put("analogQueue", analog);
+
+    final JSONObject digital = new JSONObject();
+    digital.put(KEY_DEPTH, Integer.valueOf(digitalDepth));
+    digital.put(KEY_MAX_DEPTH, Integer.valueOf(digitalMaxDepth.get()));
+    result.put("digitalQueue", digital);
+
+    final JSONObject devices = new JSONObject();
+    for (Entry<PhysicalDeviceType, LatencyHistogram> item : totalLatency.entrySet()) {
+      final JSONObject dev = new JSONObject();
+      dev.put(KEY_TOTAL, item.getValue().toJson());
+      final LatencyHistogram queued = queueLatency.get(item.getKey());
+      if (queued != null) {
+        dev.put(KEY_QUEUE, queued.toJson());
+      }
+      devices.put(item.getKey().toString(), dev);
+    }
+    result.put("devices", devices);
+
+    final JSONObject handlers = new JSONObject();
+    for (Entry<String, LatencyHistogram> item : handlerLatency.entrySet()) {
+      handlers.put(item.getKey(), item.getValue().toJson());
+    }
+    result.put("handlers", handlers);
+
+    return result;
+  }
+}
@@ -0,0 +1,301 @@
+/**
+ * EventRecorder.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.vessel.physical;
+
+import com.synadek.smr.vessel.physical.VesselPhysicalModel.PhysicalDeviceType;
+import com.synadek.smr.vessel.physical.VesselPhysicalModel.PinType;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongSupplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Append-only binary log of the analog and digital input events signaled by a
+ * physical vessel model. The log is written through a memory-mapped region of
+ * the file, so recording an event costs a handful of stores and no system call,
+ * and events already recorded survive a crash of the application.
+ *
+ * <p>
+ * Layout (little-endian): a header of MAGIC, VERSION, the number of devices,
+ * the wall-clock start time in milliseconds and one PinType ordinal per
+ * device, followed by fixed-size records of (nanoseconds since start, kind,
+ * device ordinal, value). Digital states are recorded as 1.0 or 0.0. A kind of
+ * zero marks the end of the log, so the zero-filled tail of an unfinished file
+ * is never mistaken for events. Timestamps are monotonic.
+ * </p>
+ *
+ * <p>
+ * The log is replayed by VesselReplay.
+ * </p>
+ */
+public class EventRecorder implements Closeable {
+
+  /**
+   * Identifies an event log ("SMRE").
+   */
+  static final int MAGIC = 0x534D5245;
+
+  /**
+   * Version of the log layout.
+   */
+  static final short VERSION = 1;
+
+  /**
+   * Record kind for an analog input event.
+   */
+  static final byte KIND_ANALOG = 1;
+
+  /**
+   * Record kind for a digital input event.
+   */
+  static final byte KIND_DIGITAL = 2;
+
+  /**
+   * Size of a record in bytes.
+   */
+  static final int RECORD_SIZE = Long.BYTES + 2 + Double.BYTES;
+
+  /**
+   * Size of the fixed part of the header in bytes.
+   */
+  static final int HEADER_SIZE = Integer.BYTES + Short.BYTES + Short.BYTES + Long.BYTES;
+
+  /**
+   * Size of each region of the file mapped for writing.
+   */
+  private static final int REGION_SIZE = 1 << 20;
+
+  /**
+   * Logger.
+   */
+  private static Logger log = LogManager.getLogger(EventRecorder.class.getPackage().getName());
+
+  /**
+   * The file being written.
+   */
+  private final Path file;
+
+  /**
+   * Channel on the file.
+   */
+  private final FileChannel channel;
+
+  /**
+   * Source of monotonic timestamps in nanoseconds.
+   */
+  private final LongSupplier nanoClock;
+
+  /**
+   * Timestamp corresponding to the start of the recording.
+   */
+  private final long startNanos;
+
+  /**
+   * Currently mapped region of the file.
+   */
+  private MappedByteBuffer region;
+
+  /**
+   * File offset of the start of the mapped region.
+   */
+  private long regionStart;
+
+  /**
+   * Most recent timestamp written, to keep timestamps monotonic.
+   */
+  private long lastNanos;
+
+  /**
+   * Number of events recorded.
+   */
+  private long eventCount;
+
+  /**
+   * Flag indicating the recorder has been closed.
+   */
+  private boolean closed;
+
+  /**
+   * Create a recorder timestamping events with System.nanoTime.
+   *
+   * @param logFile
+   *          the file to create or overwrite
+   * @param source
+   *          the model whose events will be recorded
+   * @throws IOException
+   *           if the file cannot be created
+   */
+  public EventRecorder(final Path logFile, final VesselPhysicalModel source) throws IOException {
+    this(logFile, source, System::nanoTime);
+  }
+
+  /**
+   * Create a recorder with an explicit time source, e.g. the nanoTime of a
+   * SimulationClock so that a simulation running faster than real time is
+   * recorded in simulated time.
+   *
+   * @param logFile
+   *          the file to create or overwrite
+   * @param source
+   *          the model whose events will be recorded
+   * @param clock
+   *          source of monotonic timestamps in nanoseconds
+   * @throws IOException
+   *           if the file cannot be created
+   */
+  public EventRecorder(final Path logFile, final VesselPhysicalModel source,
+      final LongSupplier clock) throws IOException {
+
+    file = logFile;
+    nanoClock = clock;
+    channel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+    final PhysicalDeviceType[] devices = PhysicalDeviceType.values();
+    regionStart = 0;
+    region = map(regionStart);
+    region.putInt(MAGIC);
+    region.putShort(VERSION);
+    region.putShort((short) devices.length);
+    region.putLong(System.currentTimeMillis());
+    for (PhysicalDeviceType dev : devices) {
+      final PinType type = source.getType(dev);
+      region.put((byte) (type == null ? PinType.UNKNOWN_TYPE : type).ordinal());
+    }
+
+    startNanos = nanoClock.getAsLong();
+    lastNanos = 0;
+  }
+
+  /**
+   * Map a region of the file for writing.
+   *
+   * @param position
+   *          file offset of the region
+   * @return the mapped region
+   * @throws IOException
+   *           if the region cannot be mapped
+   */
+  private MappedByteBuffer map(final long position) throws IOException {
+    final MappedByteBuffer buf = channel.map(MapMode.READ_WRITE, position, REGION_SIZE);
+    buf.order(ByteOrder.LITTLE_ENDIAN);
+    return buf;
+  }
+
+  /**
+   * Record an analog input event.
+   *
+   * @param evt
+   *          the event
+   */
+  public void record(final AnalogEvent evt) {
+    append(KIND_ANALOG, evt.getDevice(), evt.getNewValue());
+  }
+
+  /**
+   * Record a digital input event.
+   *
+   * @param evt
+   *          the event
+   */
+  public void record(final DigitalInputEvent evt) {
+    append(KIND_DIGITAL, evt.getDevice(), evt.getNewState() ? 1.0 : 0.0);
+  }
+
+  /**
+   * Append a record to the log. Events may be signaled from several driver
+   * threads, so appends are serialized.
+   *
+   * @param kind
+   *          the kind of record
+   * @param dev
+   *          the device signaling the event
+   * @param value
+   *          the value of the event
+   */
+  private synchronized void append(final byte kind, final PhysicalDeviceType dev,
+      final double value) {
+
+    if (closed) {
+      return;
+    }
+
+    final long nanos = Math.max(lastNanos, nanoClock.getAsLong() - startNanos);
+
+    try {
+      // Keep room for an end-of-log marker after every record
+      if (region.remaining() < RECORD_SIZE + 1) {
+        regionStart += region.position();
+        region = map(regionStart);
+      }
+    } catch (IOException err) {
+      log.error("Event recording to {} stopped: {}", file, err.getMessage());
+      closed = true;
+      return;
+    }
+
+    region.putLong(nanos);
+    region.put(kind);
+    region.put((byte) dev.ordinal());
+    region.putDouble(value);
+    lastNanos = nanos;
+    eventCount += 1;
+  }
+
+  /**
+   * Get the number of events recorded so far.
+   *
+   * @return the count
+   */
+  public synchronized long getEventCount() {
+    return eventCount;
+  }
+
+  /**
+   * Get the file being written.
+   *
+   * @return the path of the log
+   */
+  public Path getFile() {
+    return file;
+  }
+
+  /**
+   * Flush the log to storage and trim the unused tail of the file.
+   *
+   * @throws IOException
+   *           if the log cannot be flushed
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    if (closed && !channel.isOpen()) {
+      return;
+    }
+    closed = true;
+    final long length = regionStart + region.position();
+    region.force();
+    region = null;
+    try {
+      // Keep one byte of zero as the end-of-log marker
+      channel.truncate(length + 1);
+    } catch (IOException err) {
+      // Some platforms refuse to truncate a mapped file; the marker still
+      // terminates the log
+      log.debug("Unable to trim event log {}: {}", file, err.getMessage());
+    }
+    channel.close();
+    log.info("Recorded {} events to {}", Long.valueOf(eventCount), file);
+  }
+}
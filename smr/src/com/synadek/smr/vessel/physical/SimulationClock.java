@@ -0,0 +1,100 @@
+/**
+ * SimulationClock.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.vessel.physical;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Virtual clock for simulations. Simulated time only moves when the clock is
+ * advanced, so a simulation may run faster (or slower) than real time and
+ * still be repeatable. Several simulated vessels may share one clock.
+ */
+public class SimulationClock {
+
+  /**
+   * Number of nanoseconds in one second.
+   */
+  private static final double NANOS_PER_SECOND = 1.0e9;
+
+  /**
+   * Wall-clock date and time corresponding to simulated time zero.
+   */
+  private final OffsetDateTime epoch;
+
+  /**
+   * Simulated nanoseconds elapsed since the epoch.
+   */
+  private volatile long elapsedNanos;
+
+  /**
+   * Default constructor starts the clock at the current date and time.
+   */
+  public SimulationClock() {
+    this(OffsetDateTime.now());
+  }
+
+  /**
+   * Explicit constructor.
+   *
+   * @param start
+   *          the date and time at which the simulation begins
+   */
+  public SimulationClock(final OffsetDateTime start) {
+    epoch = start;
+    elapsedNanos = 0L;
+  }
+
+  /**
+   * Advance the clock.
+   *
+   * @param nanos
+   *          the number of simulated nanoseconds to advance
+   */
+  public synchronized void advance(final long nanos) {
+    if (nanos > 0) {
+      elapsedNanos += nanos;
+    }
+  }
+
+  /**
+   * Get simulated time as a monotonic nanosecond count, the simulated
+   * equivalent of System.nanoTime.
+   *
+   * @return nanoseconds since the start of the simulation
+   */
+  public long nanoTime() {
+    return elapsedNanos;
+  }
+
+  /**
+   * Get simulated time in seconds since the start of the simulation.
+   *
+   * @return the elapsed time in seconds
+   */
+  public double elapsedSeconds() {
+    return elapsedNanos / NANOS_PER_SECOND;
+  }
+
+  /**
+   * Get the simulated date and time.
+   *
+   * @return the current simulated date and time
+   */
+  public OffsetDateTime now() {
+    return epoch.plusNanos(elapsedNanos);
+  }
+
+  /**
+   * Get the date and time at which the simulation began.
+   *
+   * @return the epoch
+   */
+  public OffsetDateTime getEpoch() {
+    return epoch;
+  }
+}
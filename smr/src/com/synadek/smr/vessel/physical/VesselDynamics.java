@@ -0,0 +1,799 @@
+/**
+ * VesselDynamics.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.vessel.physical;
+
+import com.synadek.core.Conversions;
+import com.synadek.core.Solar;
+import java.time.OffsetDateTime;
+import java.util.Random;
+
+/**
+ * Fixed-timestep physical model of a small autonomous surface vessel used by
+ * VesselSimulation. The model is deliberately simple (first-order hull speed
+ * response, bicycle-model turning, linear battery curve) but it is driven by
+ * the same actuator outputs as the real hardware and produces values for every
+ * sensor in the physical device model.
+ *
+ * <p>
+ * All state is held in primitive fields and step() does not allocate, so a
+ * simulation can be stepped millions of times without garbage collection.
+ * </p>
+ */
+public class VesselDynamics {
+
+  /**
+   * Mean radius of the earth in meters.
+   */
+  private static final double EARTH_RADIUS = 6371008.8;
+
+  /**
+   * Interval (simulated seconds) between solar position updates. The sun moves
+   * about a quarter of a degree per minute, so there is no need to recompute
+   * it every step.
+   */
+  private static final double SOLAR_UPDATE_SECONDS = 60.0;
+
+  /**
+   * Seconds in one hour.
+   */
+  private static final double SECONDS_PER_HOUR = 3600.0;
+
+  // Vessel parameters
+
+  /**
+   * Hull speed (m/s) at full propeller power.
+   */
+  private double maxHullSpeed = Conversions.knotsToMps(8.0);
+
+  /**
+   * Time constant (seconds) of the hull speed response to a propeller change.
+   */
+  private double speedTimeConstant = 10.0;
+
+  /**
+   * Distance (meters) between the rudder and the pivot point of the hull.
+   */
+  private double hullLength = 2.0;
+
+  /**
+   * Maximum rudder deflection (degrees) either side of center.
+   */
+  private double maxRudderAngle = 35.0;
+
+  /**
+   * Rudder slew rate (degrees per second) at full rudder motor speed.
+   */
+  private double rudderSlewRate = 20.0;
+
+  /**
+   * Anchor winch speed (meters per second) at full anchor motor speed.
+   */
+  private double winchSpeed = 0.2;
+
+  /**
+   * Length of the anchor chain (meters).
+   */
+  private double chainLength = 5.0;
+
+  /**
+   * Usable battery capacity (watt-hours).
+   */
+  private double batteryCapacity = 1200.0;
+
+  /**
+   * Open circuit battery voltage when empty.
+   */
+  private double emptyVoltage = 11.8;
+
+  /**
+   * Open circuit battery voltage when full.
+   */
+  private double fullVoltage = 12.7;
+
+  /**
+   * Internal resistance of the battery (ohms).
+   */
+  private double internalResistance = 0.02;
+
+  /**
+   * Continuous electrical load (watts) of electronics and sensors.
+   */
+  private double hotelLoad = 5.0;
+
+  /**
+   * Propulsion power (watts) at full propeller speed.
+   */
+  private double propulsionPower = 300.0;
+
+  /**
+   * Anchor winch power (watts) at full speed.
+   */
+  private double winchPower = 100.0;
+
+  /**
+   * Solar panel output (watts) with the sun directly overhead.
+   */
+  private double solarPeakPower = 200.0;
+
+  /**
+   * Mean true wind speed (m/s).
+   */
+  private double windMeanSpeed = 5.0;
+
+  /**
+   * Mean true wind direction (degrees).
+   */
+  private double windMeanDirection = 270.0;
+
+  /**
+   * Standard deviation (m/s) of wind gusts about the mean speed.
+   */
+  private double gustStdDev = 1.5;
+
+  /**
+   * Standard deviation (degrees) of wind direction about the mean.
+   */
+  private double windDirectionStdDev = 10.0;
+
+  /**
+   * Correlation time (seconds) of gusts and wind shifts.
+   */
+  private double gustTimeConstant = 20.0;
+
+  /**
+   * Mean air temperature (degrees Celsius).
+   */
+  private double airMeanTemperature = 20.0;
+
+  /**
+   * Air temperature rise (degrees Celsius) in full sun.
+   */
+  private double airSolarGain = 6.0;
+
+  /**
+   * Water temperature (degrees Celsius).
+   */
+  private double waterTemperature = 18.0;
+
+  // Actuator inputs
+
+  /**
+   * Master relay state. Motors are unpowered while it is off.
+   */
+  private boolean masterRelay;
+
+  /**
+   * Propeller motor speed (0-1).
+   */
+  private double propellerSpeed;
+
+  /**
+   * Propeller direction, true for ahead.
+   */
+  private boolean propellerAhead = true;
+
+  /**
+   * Rudder motor speed (0-1).
+   */
+  private double rudderMotorSpeed;
+
+  /**
+   * Rudder motor direction, true to move the rudder to starboard.
+   */
+  private boolean rudderToStarboard;
+
+  /**
+   * Anchor motor speed (0-1).
+   */
+  private double anchorMotorSpeed;
+
+  /**
+   * Anchor motor direction, true to pay out chain.
+   */
+  private boolean anchorLowering;
+
+  // State
+
+  /**
+   * Speed through the water (m/s), negative when going astern.
+   */
+  private double speed;
+
+  /**
+   * Heading (degrees true, 0-360).
+   */
+  private double heading;
+
+  /**
+   * Rudder angle (degrees, positive to starboard).
+   */
+  private double rudderAngle;
+
+  /**
+   * Rate of turn (rad/s, positive to starboard).
+   */
+  private double yawRate;
+
+  /**
+   * Rate of change of speed through the water (m/s^2).
+   */
+  private double surgeAcceleration;
+
+  /**
+   * Latitude (degrees).
+   */
+  private double latitude;
+
+  /**
+   * Longitude (degrees).
+   */
+  private double longitude;
+
+  /**
+   * Length of anchor chain paid out (meters).
+   */
+  private double anchorDepth;
+
+  /**
+   * Battery state of charge (0-1).
+   */
+  private double stateOfCharge = 1.0;
+
+  /**
+   * Net battery current (amps), positive when discharging.
+   */
+  private double batteryCurrent;
+
+  /**
+   * Current solar panel output (watts).
+   */
+  private double solarPower;
+
+  /**
+   * Fraction (0-1) of peak solar irradiance at the current sun elevation.
+   */
+  private double solarFraction;
+
+  /**
+   * Simulated time (seconds) of the next solar position update.
+   */
+  private double nextSolarUpdate;
+
+  /**
+   * Current true wind speed (m/s).
+   */
+  private double windSpeed;
+
+  /**
+   * Current true wind direction (degrees).
+   */
+  private double windDirection;
+
+  /**
+   * Gust component of wind speed (m/s).
+   */
+  private double gust;
+
+  /**
+   * Shift component of wind direction (degrees).
+   */
+  private double windShift;
+
+  /**
+   * Source of randomness for wind. Seeded so that runs are repeatable.
+   */
+  private final Random random;
+
+  /**
+   * Default constructor.
+   *
+   * @param seed
+   *          seed for the wind model
+   * @param lat
+   *          initial latitude
+   * @param lon
+   *          initial longitude
+   */
+  public VesselDynamics(final long seed, final double lat, final double lon) {
+    random = new Random(seed);
+    latitude = lat;
+    longitude = lon;
+    windSpeed = windMeanSpeed;
+    windDirection = windMeanDirection;
+    nextSolarUpdate = 0.0;
+  }
+
+  /**
+   * Advance the model by one time step.
+   *
+   * @param dt
+   *          the length of the step in seconds
+   * @param elapsed
+   *          simulated seconds since the start of the simulation, after the
+   *          step
+   * @param now
+   *          simulated date and time, after the step. Only consulted when the
+   *          solar position is due to be updated.
+   */
+  public void step(final double dt, final double elapsed, final OffsetDateTime now) {
+
+    if (dt <= 0.0) {
+      return;
+    }
+
+    // Refresh the sun position occasionally
+    if (elapsed >= nextSolarUpdate) {
+      updateSolar(now);
+      nextSolarUpdate = elapsed + SOLAR_UPDATE_SECONDS;
+    }
+
+    stepWind(dt);
+    stepRudder(dt);
+    stepAnchor(dt);
+    stepHull(dt);
+    stepBattery(dt);
+  }
+
+  /**
+   * Update solar output from the sun elevation at the current position.
+   *
+   * @param now
+   *          simulated date and time
+   */
+  private void updateSolar(final OffsetDateTime now) {
+    double elevation;
+    try {
+      elevation = Solar.getSolarElevationCorrected(latitude, longitude, now);
+    } catch (IllegalArgumentException err) {
+      elevation = 0.0;
+    }
+    solarFraction = elevation > 0.0 ? Math.sin(Math.toRadians(elevation)) : 0.0;
+    solarPower = solarPeakPower * solarFraction;
+  }
+
+  /**
+   * Advance wind gusts and shifts as first-order (Ornstein-Uhlenbeck) random
+   * processes about the mean wind.
+   *
+   * @param dt
+   *          step length in seconds
+   */
+  private void stepWind(final double dt) {
+    final double decay = Math.exp(-dt / gustTimeConstant);
+    final double spread = Math.sqrt(1.0 - decay * decay);
+    gust = gust * decay + gustStdDev * spread * random.nextGaussian();
+    windShift = windShift * decay + windDirectionStdDev * spread * random.nextGaussian();
+    windSpeed = Math.max(0.0, windMeanSpeed + gust);
+    windDirection = normalizeDegrees(windMeanDirection + windShift);
+  }
+
+  /**
+   * Slew the rudder according to the rudder motor.
+   *
+   * @param dt
+   *          step length in seconds
+   */
+  private void stepRudder(final double dt) {
+    if (!masterRelay) {
+      return;
+    }
+    final double slew = rudderSlewRate * rudderMotorSpeed * dt;
+    rudderAngle += rudderToStarboard ? slew : -slew;
+    rudderAngle = clamp(rudderAngle, -maxRudderAngle, maxRudderAngle);
+  }
+
+  /**
+   * Move the anchor chain according to the anchor motor.
+   *
+   * @param dt
+   *          step length in seconds
+   */
+  private void stepAnchor(final double dt) {
+    if (!masterRelay) {
+      return;
+    }
+    final double travel = winchSpeed * anchorMotorSpeed * dt;
+    anchorDepth += anchorLowering ? travel : -travel;
+    anchorDepth = clamp(anchorDepth, 0.0, chainLength);
+  }
+
+  /**
+   * Advance hull speed, heading and position.
+   *
+   * @param dt
+   *          step length in seconds
+   */
+  private void stepHull(final double dt) {
+
+    // An anchored vessel does not make way
+    double target = 0.0;
+    if (masterRelay && anchorDepth <= 0.0) {
+      target = maxHullSpeed * Math.cbrt(propellerSpeed);
+      if (!propellerAhead) {
+        target = -target;
+      }
+    }
+    final double change = (target - speed) * (1.0 - Math.exp(-dt / speedTimeConstant));
+    speed += change;
+    surgeAcceleration = dt > 0.0 ? change / dt : 0.0;
+
+    // Bicycle model: yaw rate is proportional to speed and rudder angle
+    yawRate = speed * Math.tan(Math.toRadians(rudderAngle)) / hullLength;
+    heading = normalizeDegrees(heading + Math.toDegrees(yawRate * dt));
+
+    // Dead-reckon the new position
+    final double distance = speed * dt;
+    final double headingRad = Math.toRadians(heading);
+    final double latRad = Math.toRadians(latitude);
+    latitude += Math.toDegrees(distance * Math.cos(headingRad) / EARTH_RADIUS);
+    longitude += Math
+        .toDegrees(distance * Math.sin(headingRad) / (EARTH_RADIUS * Math.cos(latRad)));
+    if (longitude > 180.0) {
+      longitude -= 360.0;
+    } else if (longitude < -180.0) {
+      longitude += 360.0;
+    }
+  }
+
+  /**
+   * Drain and charge the battery.
+   *
+   * @param dt
+   *          step length in seconds
+   */
+  private void stepBattery(final double dt) {
+    final double load = hotelLoad + getMotorLoad();
+    final double netWatts = load - solarPower;
+
+    batteryCurrent = netWatts / getOpenCircuitVoltage();
+    stateOfCharge -= netWatts * dt / SECONDS_PER_HOUR / batteryCapacity;
+    stateOfCharge = clamp(stateOfCharge, 0.0, 1.0);
+  }
+
+  /**
+   * Get the electrical load (watts) of the motors.
+   *
+   * @return the load
+   */
+  public double getMotorLoad() {
+    if (!masterRelay) {
+      return 0.0;
+    }
+    final double winch = anchorDepth > 0.0 || anchorLowering ? winchPower * anchorMotorSpeed : 0.0;
+    return propulsionPower * propellerSpeed + winch;
+  }
+
+  /**
+   * Get the open circuit battery voltage at the current state of charge.
+   *
+   * @return the voltage
+   */
+  private double getOpenCircuitVoltage() {
+    return emptyVoltage + (fullVoltage - emptyVoltage) * stateOfCharge;
+  }
+
+  /**
+   * Get the battery terminal voltage under the current load.
+   *
+   * @return the voltage
+   */
+  public double getBatteryVoltage() {
+    return getOpenCircuitVoltage() - batteryCurrent * internalResistance;
+  }
+
+  /**
+   * Get the air temperature. Air warms with sunshine.
+   *
+   * @return degrees Celsius
+   */
+  public double getAirTemperature() {
+    return airMeanTemperature + airSolarGain * solarFraction;
+  }
+
+  /**
+   * Get the water temperature.
+   *
+   * @return degrees Celsius
+   */
+  public double getWaterTemperature() {
+    return waterTemperature;
+  }
+
+  /**
+   * Get the wind direction relative to the bow.
+   *
+   * @return degrees (0-360)
+   */
+  public double getApparentWindDirection() {
+    return normalizeDegrees(windDirection - heading);
+  }
+
+  /**
+   * Restrict a value to a range.
+   *
+   * @param val
+   *          the value
+   * @param min
+   *          minimum
+   * @param max
+   *          maximum
+   * @return the value, limited to the range
+   */
+  private static double clamp(final double val, final double min, final double max) {
+    if (val < min) {
+      return min;
+    }
+    if (val > max) {
+      return max;
+    }
+    return val;
+  }
+
+  /**
+   * Normalize an angle to the range 0 (inclusive) to 360 (exclusive).
+   *
+   * @param deg
+   *          the angle in degrees
+   * @return the normalized angle
+   */
+  static double normalizeDegrees(final double deg) {
+    final double result = deg % 360.0;
+    return result < 0.0 ? result + 360.0 : result;
+  }
+
+  /**
+   * Set the master relay state.
+   *
+   * @param on
+   *          true to power the motors
+   */
+  public void setMasterRelay(final boolean on) {
+    masterRelay = on;
+  }
+
+  /**
+   * Set propeller motor speed.
+   *
+   * @param val
+   *          fraction of full speed (0-1)
+   */
+  public void setPropellerSpeed(final double val) {
+    propellerSpeed = clamp(val, 0.0, 1.0);
+  }
+
+  /**
+   * Set propeller direction.
+   *
+   * @param ahead
+   *          true for ahead, false for astern
+   */
+  public void setPropellerAhead(final boolean ahead) {
+    propellerAhead = ahead;
+  }
+
+  /**
+   * Set rudder motor speed.
+   *
+   * @param val
+   *          fraction of full speed (0-1)
+   */
+  public void setRudderMotorSpeed(final double val) {
+    rudderMotorSpeed = clamp(val, 0.0, 1.0);
+  }
+
+  /**
+   * Set rudder motor direction.
+   *
+   * @param starboard
+   *          true to move the rudder to starboard
+   */
+  public void setRudderToStarboard(final boolean starboard) {
+    rudderToStarboard = starboard;
+  }
+
+  /**
+   * Set anchor motor speed.
+   *
+   * @param val
+   *          fraction of full speed (0-1)
+   */
+  public void setAnchorMotorSpeed(final double val) {
+    anchorMotorSpeed = clamp(val, 0.0, 1.0);
+  }
+
+  /**
+   * Set anchor motor direction.
+   *
+   * @param lowering
+   *          true to pay out chain
+   */
+  public void setAnchorLowering(final boolean lowering) {
+    anchorLowering = lowering;
+  }
+
+  /**
+   * Set the mean wind.
+   *
+   * @param meanSpeed
+   *          mean speed in m/s
+   * @param meanDirection
+   *          mean direction in degrees
+   */
+  public void setWind(final double meanSpeed, final double meanDirection) {
+    windMeanSpeed = Math.max(0.0, meanSpeed);
+    windMeanDirection = normalizeDegrees(meanDirection);
+  }
+
+  /**
+   * Set the heading, e.g. at the start of a simulation.
+   *
+   * @param deg
+   *          heading in degrees
+   */
+  public void setHeading(final double deg) {
+    heading = normalizeDegrees(deg);
+  }
+
+  /**
+   * Set the battery state of charge, e.g. at the start of a simulation.
+   *
+   * @param soc
+   *          state of charge (0-1)
+   */
+  public void setStateOfCharge(final double soc) {
+    stateOfCharge = clamp(soc, 0.0, 1.0);
+  }
+
+  /**
+   * Set the hull speed at full propeller power.
+   *
+   * @param mps
+   *          speed in meters per second
+   */
+  public void setMaxHullSpeed(final double mps) {
+    maxHullSpeed = Math.max(0.0, mps);
+  }
+
+  /**
+   * Set the usable battery capacity.
+   *
+   * @param wattHours
+   *          capacity in watt-hours
+   */
+  public void setBatteryCapacity(final double wattHours) {
+    if (wattHours > 0.0) {
+      batteryCapacity = wattHours;
+    }
+  }
+
+  /**
+   * Get speed through the water.
+   *
+   * @return the speed in m/s
+   */
+  public double getSpeed() {
+    return speed;
+  }
+
+  /**
+   * Get heading.
+   *
+   * @return the heading in degrees
+   */
+  public double getHeading() {
+    return heading;
+  }
+
+  /**
+   * Get rate of turn.
+   *
+   * @return rad/s, positive to starboard
+   */
+  public double getYawRate() {
+    return yawRate;
+  }
+
+  /**
+   * Get rate of change of speed through the water.
+   *
+   * @return m/s^2
+   */
+  public double getSurgeAcceleration() {
+    return surgeAcceleration;
+  }
+
+  /**
+   * Get rudder angle.
+   *
+   * @return degrees, positive to starboard
+   */
+  public double getRudderAngle() {
+    return rudderAngle;
+  }
+
+  /**
+   * Get latitude.
+   *
+   * @return latitude in degrees
+   */
+  public double getLatitude() {
+    return latitude;
+  }
+
+  /**
+   * Get longitude.
+   *
+   * @return longitude in degrees
+   */
+  public double getLongitude() {
+    return longitude;
+  }
+
+  /**
+   * Get the length of anchor chain paid out.
+   *
+   * @return the length in meters
+   */
+  public double getAnchorDepth() {
+    return anchorDepth;
+  }
+
+  /**
+   * Get the length of the anchor chain.
+   *
+   * @return the length in meters
+   */
+  public double getChainLength() {
+    return chainLength;
+  }
+
+  /**
+   * Get battery state of charge.
+   *
+   * @return state of charge (0-1)
+   */
+  public double getStateOfCharge() {
+    return stateOfCharge;
+  }
+
+  /**
+   * Get net battery current.
+   *
+   * @return amps, positive when discharging
+   */
+  public double getBatteryCurrent() {
+    return batteryCurrent;
+  }
+
+  /**
+   * Get solar panel output.
+   *
+   * @return watts
+   */
+  public double getSolarPower() {
+    return solarPower;
+  }
+
+  /**
+   * Get true wind speed.
+   *
+   * @return m/s
+   */
+  public double getWindSpeed() {
+    return windSpeed;
+  }
+
+  /**
+   * Get true wind direction.
+   *
+   * @return degrees
+   */
+  public double getWindDirection() {
+    return windDirection;
+  }
+}
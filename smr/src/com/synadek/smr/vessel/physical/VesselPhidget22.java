@@ -27,8 +27,20 @@ import com.phidget22.VoltageInputVoltageChangeEvent;
 import com.phidget22.VoltageInputVoltageChangeListener;
 import com.synadek.core.ComponentException;
 import com.synadek.core.InvalidValueException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
 
 /**
  * Implementation of Pio using Phidget22 library.
@@ -39,6 +51,18 @@ public class VesselPhidget22 extends AbstractVesselModel
       VoltageInputSensorChangeListener,
       VoltageInputVoltageChangeListener {
 
+  /**
+   * Maximum time (milliseconds) to wait for each channel to attach during
+   * connect. Channels are opened concurrently so this bounds the total time
+   * spent in connect, not the time per channel.
+   */
+  private static final int ATTACH_TIMEOUT_MILLIS = 5000;
+
+  /**
+   * JSON key for the list of devices whose channels are not attached.
+   */
+  private static final String KEY_DETACHED = "detached";
+
   /**
    * Map Physical Device Model device ids to Phidget meta data.
    */
@@ -60,15 +84,32 @@ public class VesselPhidget22 extends AbstractVesselModel
   /**
    * Channel map for digital inputs.
    */
-  private static final Map<Integer, DigitalInput> digitalInputChannelMap = new HashMap<>();
+  private static final Map<Integer, DigitalInput> digitalInputChannelMap =
+      new ConcurrentHashMap<>();
   /**
    * Channel map for digital outputs.
    */
-  private static final Map<Integer, DigitalOutput> digitalOutputChannelMap = new HashMap<>();
+  private static final Map<Integer, DigitalOutput> digitalOutputChannelMap =
+      new ConcurrentHashMap<>();
   /**
    * Channel map for analog inputs.
    */
-  private static final Map<Integer, VoltageInput> analogInputChannelMap = new HashMap<>();
+  private static final Map<Integer, VoltageInput> analogInputChannelMap =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Devices whose channels are open but not currently attached. The Phidget
+   * library keeps these channels open and attaches them in the background when
+   * the device becomes available, at which point the attach listener removes
+   * them from this set.
+   */
+  private final Set<PhysicalDeviceType> detachedDevices = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Analog inputs put to sleep, whose channels are closed so the Phidget stops
+   * sampling them.
+   */
+  private final Set<PhysicalDeviceType> sleepingDevices = ConcurrentHashMap.newKeySet();
 
   private static Map<PhysicalDeviceType, VesselPhidgetMeta> createPhysicaltoGpioMap() {
     final Map<VesselPhysicalModel.PhysicalDeviceType, VesselPhidgetMeta> myMap = new HashMap<>();
@@ -84,6 +125,8 @@ public class VesselPhidget22 extends AbstractVesselModel
         new VesselPhidgetMeta("wind direction sensor", PinType.ANALOG_INPUT_TYPE, 3));
     myMap.put(PhysicalDeviceType.PHY_WIND_SPEED_SENSOR,
         new VesselPhidgetMeta("wind speed sensor", PinType.ANALOG_INPUT_TYPE, 4));
+    myMap.put(PhysicalDeviceType.PHY_SOLAR_POWER_SENSOR,
+        new VesselPhidgetMeta("solar power sensor", PinType.ANALOG_INPUT_TYPE, 5));
 
     // Digital inputs
     myMap.put(PhysicalDeviceType.PHY_ANCHOR_SENSOR_DOWN,
@@ -168,50 +211,38 @@ public class VesselPhidget22 extends AbstractVesselModel
 
     log.info("Connecting PioPhidget...");
 
-    try {
-      // Map each device in the physical device model to a Phidget channel
-      for (Map.Entry<PhysicalDeviceType, VesselPhidgetMeta> devEntry : GpioMap.entrySet()) {
-        final PhysicalDeviceType dev = devEntry.getKey();
-        final VesselPhidgetMeta pin = devEntry.getValue();
-
-        final int index = pin.getIndex();
-        final PinType type = pin.getType();
-
-        switch (pin.getType()) {
-
-          case DIGITAL_INPUT_TYPE:
-            // Connect to the phidget channel
-            final DigitalInput din = openDigitalInputChannel(dev, pin.getIndex());
-            // Map the physical pin number to the channel
-            digitalInputChannelMap.put(Integer.valueOf(index), din);
-            log.info("Registered " + dev.toString() + " as digital input " + index);
-            break;
-
-          case DIGITAL_OUTPUT_TYPE:
-            // Connect to the phidget channel
-            final DigitalOutput dout = openDigitalOutputChannel(dev, pin.getIndex());
-            // Map the physical pin number to the channel
-            digitalOutputChannelMap.put(Integer.valueOf(index), dout);
-            log.info("Registered " + dev.toString() + " as digital output " + index);
-            break;
-
-          case ANALOG_INPUT_TYPE:
-            // Connect to the phidget channel
-            final VoltageInput ain = openVoltageInputChannel(dev, pin.getIndex());
-            // Map the physical pin number to the channel
-            analogInputChannelMap.put(Integer.valueOf(index), ain);
-            log.info("Registered " + dev.toString() + " as analog input " + index);
-            break;
-
-          default:
-            log.error("Unsupported pin type, " + type.toString());
+    // Open every channel concurrently so that connect takes roughly one attach
+    // timeout rather than one per channel
+    final ExecutorService opener = Executors.newFixedThreadPool(GpioMap.size());
+    final Map<PhysicalDeviceType, Future<Boolean>> pending = new LinkedHashMap<>();
+    for (Map.Entry<PhysicalDeviceType, VesselPhidgetMeta> devEntry : GpioMap.entrySet()) {
+      final PhysicalDeviceType dev = devEntry.getKey();
+      final VesselPhidgetMeta pin = devEntry.getValue();
+      pending.put(dev, opener.submit(() -> openChannel(dev, pin)));
+    }
+    opener.shutdown();
+
+    // Collect the results and report all failures together
+    final List<String> failures = new ArrayList<>();
+    for (Map.Entry<PhysicalDeviceType, Future<Boolean>> result : pending.entrySet()) {
+      final PhysicalDeviceType dev = result.getKey();
+      try {
+        if (!result.getValue().get().booleanValue()) {
+          failures.add(dev + " (not attached)");
         }
+      } catch (ExecutionException err) {
+        failures.add(dev + " (" + err.getCause() + ")");
+      } catch (InterruptedException err) {
+        Thread.currentThread().interrupt();
+        failures.add(dev + " (interrupted)");
       }
+    }
 
-    } catch (Exception err) {
-      log.error("Exception while connecting Phidget devices", err);
-    } finally {
+    if (failures.isEmpty()) {
       log.info("PioPhidget connections made.  Launching event dispatchers");
+    } else {
+      log.error("PioPhidget failed to attach " + failures.size() + " of " + GpioMap.size()
+          + " channels: " + String.join(", ", failures));
     }
 
     // Launch event dispatch threads
@@ -272,6 +303,7 @@ public class VesselPhidget22 extends AbstractVesselModel
       }
     }
     analogInputChannelMap.clear();
+    detachedDevices.clear();
 
     // Close the phidget
     try {
@@ -766,6 +798,26 @@ public class VesselPhidget22 extends AbstractVesselModel
     return false;
   }
 
+  /**
+   * Get status information including the devices whose channels are waiting
+   * to attach.
+   *
+   * @param locale
+   *          locale in which to present information
+   * @return the information
+   */
+  @SuppressWarnings("unchecked")
+  @Override
+  public JSONObject getStatus(Locale locale) {
+    final JSONObject result = super.getStatus(locale);
+    final JSONArray detached = new JSONArray();
+    for (PhysicalDeviceType dev : detachedDevices) {
+      detached.add(dev.toString());
+    }
+    result.put(KEY_DETACHED, detached);
+    return result;
+  }
+
   /*
    * (non-Javadoc)
    * 
@@ -882,7 +934,85 @@ public class VesselPhidget22 extends AbstractVesselModel
   }
 
   /**
-   * Open channel to a digitalInputDevice.
+   * Open the Phidget channel for a device and register it in the channel map
+   * for its pin type.
+   *
+   * @param dev
+   *          the Pio device id
+   * @param pin
+   *          the Phidget pin descriptor for the device
+   * @return true if the channel attached within ATTACH_TIMEOUT_MILLIS
+   */
+  private boolean openChannel(final PhysicalDeviceType dev, final VesselPhidgetMeta pin) {
+
+    final int index = pin.getIndex();
+
+    switch (pin.getType()) {
+
+      case DIGITAL_INPUT_TYPE:
+        final DigitalInput din = openDigitalInputChannel(dev, index);
+        if (din == null) {
+          return false;
+        }
+        digitalInputChannelMap.put(Integer.valueOf(index), din);
+        log.info("Registered " + dev.toString() + " as digital input " + index);
+        return attachChannel(dev, din);
+
+      case DIGITAL_OUTPUT_TYPE:
+        final DigitalOutput dout = openDigitalOutputChannel(dev, index);
+        if (dout == null) {
+          return false;
+        }
+        digitalOutputChannelMap.put(Integer.valueOf(index), dout);
+        log.info("Registered " + dev.toString() + " as digital output " + index);
+        return attachChannel(dev, dout);
+
+      case ANALOG_INPUT_TYPE:
+        final VoltageInput ain = openVoltageInputChannel(dev, index);
+        if (ain == null) {
+          return false;
+        }
+        analogInputChannelMap.put(Integer.valueOf(index), ain);
+        log.info("Registered " + dev.toString() + " as analog input " + index);
+        return attachChannel(dev, ain);
+
+      default:
+        log.error("Unsupported pin type, " + pin.getType().toString());
+        return false;
+    }
+  }
+
+  /**
+   * Open a channel and wait up to ATTACH_TIMEOUT_MILLIS for it to attach. A
+   * channel that does not attach in time is left open without waiting so the
+   * Phidget library attaches it in the background when the device appears.
+   *
+   * @param dev
+   *          the Pio device id
+   * @param ch
+   *          the channel to open
+   * @return true if the channel attached within the timeout
+   */
+  private boolean attachChannel(final PhysicalDeviceType dev, final Phidget ch) {
+    detachedDevices.add(dev);
+    try {
+      ch.open(ATTACH_TIMEOUT_MILLIS);
+      return true;
+    } catch (PhidgetException ex) {
+      log.warn("Channel for " + dev + " did not attach: " + ex.getDescription());
+    }
+
+    // Keep the channel open so it attaches lazily
+    try {
+      ch.open();
+    } catch (PhidgetException ex) {
+      log.error("Unable to leave channel for " + dev + " open: " + ex.getDescription());
+    }
+    return false;
+  }
+
+  /**
+   * Create and configure the (unopened) channel to a digitalInputDevice.
    *
    * @param device
    *          the Pio device id
@@ -909,6 +1039,7 @@ public class VesselPhidget22 extends AbstractVesselModel
     ch.addAttachListener(new AttachListener() {
       @Override
       public void onAttach(AttachEvent ae) {
+        detachedDevices.remove(device);
         DigitalInput phid = (DigitalInput) ae.getSource();
         try {
           if (phid.getDeviceClass() != DeviceClass.VINT) {
@@ -927,11 +1058,12 @@ public class VesselPhidget22 extends AbstractVesselModel
     ch.addDetachListener(new DetachListener() {
       @Override
       public void onDetach(DetachEvent de) {
+        detachedDevices.add(device);
         DigitalInput phid = (DigitalInput) de.getSource();
         try {
           if (phid.getDeviceClass() != DeviceClass.VINT) {
             log.info("Detached channel " + phid.getChannel() + " on device "
-                + phid.getDeviceSerialNumber());
+                + phid.getDeviceSerialNumber() + "; it will reattach when available");
           } else {
             log.info("Detached channel " + phid.getChannel() + " on device "
                 + phid.getDeviceSerialNumber() + " hub port " + phid.getHubPort());
@@ -953,19 +1085,11 @@ public class VesselPhidget22 extends AbstractVesselModel
     // Define a state change listener for this digital input
     ch.addStateChangeListener(this);
 
-    // Open the channel
-    try {
-      ch.open(5000);
-      return ch;
-    } catch (PhidgetException ex) {
-      log.error(ex.getDescription());
-    }
-
-    return null;
+    return ch;
   }
 
   /**
-   * Open channel to a digitalOutputDevice.
+   * Create and configure the (unopened) channel to a digitalOutputDevice.
    *
    * @param device
    *          the Pio device id
@@ -993,6 +1117,7 @@ public class VesselPhidget22 extends AbstractVesselModel
     ch.addAttachListener(new AttachListener() {
       @Override
       public void onAttach(AttachEvent ae) {
+        detachedDevices.remove(device);
         DigitalOutput phid = (DigitalOutput) ae.getSource();
         try {
           if (phid.getDeviceClass() != DeviceClass.VINT) {
@@ -1011,11 +1136,12 @@ public class VesselPhidget22 extends AbstractVesselModel
     ch.addDetachListener(new DetachListener() {
       @Override
       public void onDetach(DetachEvent de) {
+        detachedDevices.add(device);
         DigitalOutput phid = (DigitalOutput) de.getSource();
         try {
           if (phid.getDeviceClass() != DeviceClass.VINT) {
             log.info("Detached channel " + phid.getChannel() + " on device "
-                + phid.getDeviceSerialNumber());
+                + phid.getDeviceSerialNumber() + "; it will reattach when available");
           } else {
             log.info("Detached channel " + phid.getChannel() + " on device "
                 + phid.getDeviceSerialNumber() + " hub port " + phid.getHubPort());
@@ -1034,19 +1160,11 @@ public class VesselPhidget22 extends AbstractVesselModel
       }
     });
 
-    // Open the channel
-    try {
-      ch.open(5000);
-      return ch;
-    } catch (PhidgetException ex) {
-      log.error(ex.getDescription());
-    }
-
-    return null;
+    return ch;
   }
 
   /**
-   * Open channel to a VoltageInputDevice.
+   * Create and configure the (unopened) channel to a VoltageInputDevice.
    *
    * @param device
    *          the Pio device id
@@ -1074,6 +1192,7 @@ public class VesselPhidget22 extends AbstractVesselModel
     ch.addAttachListener(new AttachListener() {
       @Override
       public void onAttach(AttachEvent ae) {
+        detachedDevices.remove(device);
         VoltageInput phid = (VoltageInput) ae.getSource();
         try {
           if (phid.getDeviceClass() != DeviceClass.VINT) {
@@ -1092,11 +1211,12 @@ public class VesselPhidget22 extends AbstractVesselModel
     ch.addDetachListener(new DetachListener() {
       @Override
       public void onDetach(DetachEvent de) {
-        DigitalInput phid = (DigitalInput) de.getSource();
+        detachedDevices.add(device);
+        VoltageInput phid = (VoltageInput) de.getSource();
         try {
           if (phid.getDeviceClass() != DeviceClass.VINT) {
             log.info("Detached channel " + phid.getChannel() + " on device "
-                + phid.getDeviceSerialNumber());
+                + phid.getDeviceSerialNumber() + "; it will reattach when available");
           } else {
             log.info("Detached channel " + phid.getChannel() + " on device "
                 + phid.getDeviceSerialNumber() + " hub port " + phid.getHubPort());
@@ -1118,15 +1238,7 @@ public class VesselPhidget22 extends AbstractVesselModel
     // Define a state change listener for this digital input
     ch.addVoltageChangeListener(this);
 
-    // Open the channel
-    try {
-      ch.open(5000);
-      return ch;
-    } catch (PhidgetException ex) {
-      log.error(ex.getDescription());
-    }
-
-    return null;
+    return ch;
   }
 
   /**
@@ -1212,6 +1324,69 @@ public class VesselPhidget22 extends AbstractVesselModel
     }
   }
 
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * com.synadek.smr.vessel.physical.VesselPhysicalModel#setAnalogDataInterval(
+   * com.synadek.smr.vessel.physical.VesselPhysicalModel.PhysicalDeviceType,
+   * int)
+   */
+  @Override
+  public void setAnalogDataInterval(final PhysicalDeviceType deviceId, final int millis)
+      throws ComponentException {
+    setAnalogDataRate(deviceId, millis);
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * com.synadek.smr.vessel.physical.VesselPhysicalModel#getAnalogDataInterval(
+   * com.synadek.smr.vessel.physical.VesselPhysicalModel.PhysicalDeviceType)
+   */
+  @Override
+  public int getAnalogDataInterval(final PhysicalDeviceType deviceId)
+      throws ComponentException {
+    return getAnalogDataRate(deviceId);
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * com.synadek.smr.vessel.physical.VesselPhysicalModel#setAnalogInputEnabled(
+   * com.synadek.smr.vessel.physical.VesselPhysicalModel.PhysicalDeviceType,
+   * boolean)
+   */
+  @Override
+  public void setAnalogInputEnabled(final PhysicalDeviceType deviceId, final boolean enabled)
+      throws ComponentException {
+
+    // Map the VesselPhysicalModel device to a physical pin on the Phidget
+    final VesselPhidgetMeta pin = GpioMap.get(deviceId);
+    if (pin == null || pin.getType() != PinType.ANALOG_INPUT_TYPE) {
+      throw new ComponentException("Attempt to put " + deviceId + " to sleep; not an analog input");
+    }
+    final VoltageInput ain = analogInputChannelMap.get(Integer.valueOf(pin.getIndex()));
+    if (ain == null) {
+      throw new ComponentException("Device " + this.getClass().getName() + " is not attached");
+    }
+
+    if (!enabled && sleepingDevices.add(deviceId)) {
+      // A closed channel is not sampled
+      try {
+        ain.close();
+      } catch (PhidgetException pe) {
+        sleepingDevices.remove(deviceId);
+        throw new ComponentException(
+            "Phidget exception " + pe.getMessage() + ": " + pe.getDescription());
+      }
+    } else if (enabled && sleepingDevices.remove(deviceId)) {
+      attachChannel(deviceId, ain);
+    }
+  }
+
   /*
    * (non-Javadoc)
    * 
@@ -1224,6 +1399,21 @@ public class VesselPhidget22 extends AbstractVesselModel
     throw new ComponentException("Update of input fields is not implemented");
   }
 
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * com.synadek.smr.vessel.physical.VesselPhysicalModel#setAnalogOutputValue(
+   * com.synadek.smr.vessel.physical.VesselPhysicalModel.PhysicalDeviceType,
+   * double)
+   */
+  @Override
+  public void setAnalogOutputValue(final PhysicalDeviceType dev, double newVal)
+      throws ComponentException {
+
+    throw new ComponentException("Analog outputs are not supported by this interface kit");
+  }
+
   /**
    * Set the value of a digital output pin.
    *
@@ -90,6 +90,46 @@ public interface VesselPhysicalModel extends Component {
      * Wind speed sensor.
      */
     PHY_WIND_SPEED_SENSOR,
+    /**
+     * Solar power sensor. Listed last so that the ordinals of the devices
+     * above, which are stored in recorded event logs, are unchanged.
+     */
+    PHY_SOLAR_POWER_SENSOR,
+    /**
+     * GNSS latitude in degrees. Each fix signals the latitude and then the
+     * longitude.
+     */
+    PHY_GNSS_LATITUDE,
+    /**
+     * GNSS longitude in degrees.
+     */
+    PHY_GNSS_LONGITUDE,
+    /**
+     * Inertial measurement unit roll rate in rad/s.
+     */
+    PHY_IMU_ROLL_RATE,
+    /**
+     * Inertial measurement unit pitch rate in rad/s.
+     */
+    PHY_IMU_PITCH_RATE,
+    /**
+     * Inertial measurement unit yaw rate in rad/s, positive turning to
+     * starboard.
+     */
+    PHY_IMU_YAW_RATE,
+    /**
+     * Inertial measurement unit forward specific force in m/s^2.
+     */
+    PHY_IMU_SURGE_ACCELERATION,
+    /**
+     * Inertial measurement unit starboard specific force in m/s^2.
+     */
+    PHY_IMU_SWAY_ACCELERATION,
+    /**
+     * Inertial measurement unit downward specific force in m/s^2, about -9.81
+     * when level.
+     */
+    PHY_IMU_HEAVE_ACCELERATION,
   }
 
   /**
@@ -180,6 +220,20 @@ public interface VesselPhysicalModel extends Component {
   void setDigitalOutputState(PhysicalDeviceType deviceId, boolean newVal)
       throws ComponentException;
 
+  /**
+   * Set the value of an analog output e.g., the speed of a motor.
+   *
+   * @param deviceId
+   *          the id of the analog output
+   * @param newVal
+   *          the new value
+   * @throws ComponentException
+   *           if underlying device is not connected or does not support analog
+   *           outputs
+   */
+  void setAnalogOutputValue(PhysicalDeviceType deviceId, double newVal)
+      throws ComponentException;
+
   /**
    * Get the value of an analog input.
    *
@@ -299,6 +353,47 @@ public interface VesselPhysicalModel extends Component {
   void setAnalogChangeTrigger(PhysicalDeviceType deviceId, double newVal)
       throws ComponentException;
 
+  /**
+   * Set the interval between samples of an analog input. Longer intervals
+   * save power when energy is short.
+   *
+   * @param deviceId
+   *          the id of the analog input
+   * @param millis
+   *          milliseconds between samples
+   * @throws ComponentException
+   *           if underlying device is not connected or does not support the
+   *           operation
+   */
+  void setAnalogDataInterval(PhysicalDeviceType deviceId, int millis) throws ComponentException;
+
+  /**
+   * Get the interval between samples of an analog input.
+   *
+   * @param deviceId
+   *          the id of the analog input
+   * @return milliseconds between samples
+   * @throws ComponentException
+   *           if underlying device is not connected or does not support the
+   *           operation
+   */
+  int getAnalogDataInterval(PhysicalDeviceType deviceId) throws ComponentException;
+
+  /**
+   * Put an analog input to sleep or wake it. A sleeping input is not sampled
+   * and signals no events; on waking it is sampled again at its data interval.
+   *
+   * @param deviceId
+   *          the id of the analog input
+   * @param enabled
+   *          false to put the input to sleep, true to wake it
+   * @throws ComponentException
+   *           if underlying device is not connected or does not support the
+   *           operation
+   */
+  void setAnalogInputEnabled(PhysicalDeviceType deviceId, boolean enabled)
+      throws ComponentException;
+
   /**
    * Get a resource key for the name of a physical device.
    *
@@ -337,4 +432,14 @@ public interface VesselPhysicalModel extends Component {
    *          the event to dispatch
    */
   void invokeDigitalInputHandlers(DigitalInputEvent evt);
+
+  /**
+   * Get the time of day on the vessel's clock, which is simulated time for a
+   * simulation.
+   *
+   * @return milliseconds since the epoch
+   */
+  default long currentTimeMillis() {
+    return System.currentTimeMillis();
+  }
 }
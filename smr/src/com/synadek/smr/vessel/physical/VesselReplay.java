@@ -0,0 +1,623 @@
+/**
+ * VesselReplay.java
+ * 18 October 2026
+ *
+ * @author Daniel McCue
+ */
+
+package com.synadek.smr.vessel.physical;
+
+import com.synadek.core.ComponentException;
+import com.synadek.core.InvalidValueException;
+import com.synadek.core.JsonSchema;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.json.simple.JSONObject;
+
+/**
+ * Physical vessel model that replays a log written by an EventRecorder. Events
+ * are re-injected through the same dispatch path used by the hardware
+ * implementations, so the logical devices and handlers above this model
+ * behave exactly as they did when the log was recorded.
+ *
+ * <p>
+ * The replay speed is configurable: 1.0 reproduces the original timing, N
+ * replays N times faster and zero (or less) replays as fast as possible, which
+ * is useful for benchmarking the handler stack. Outputs set by logical devices
+ * are accepted and remembered but have no effect on the replayed inputs.
+ * </p>
+ */
+public class VesselReplay extends AbstractVesselModel {
+
+  /**
+   * Configuration key for the replay speed.
+   */
+  public static final String JSON_KEY_REPLAY_SPEED = "replaySpeed";
+
+  /**
+   * Default replay speed i.e., the original timing.
+   */
+  private static final double DEFAULT_REPLAY_SPEED = 1.0;
+
+  /**
+   * JSON key for status messages.
+   */
+  private static final String KEY_EVENTS_REPLAYED = "eventsReplayed";
+
+  /**
+   * Devices in the model, indexed by ordinal.
+   */
+  private static final PhysicalDeviceType[] DEVICES = PhysicalDeviceType.values();
+
+  /**
+   * Pin types, indexed by ordinal.
+   */
+  private static final PinType[] PIN_TYPES = PinType.values();
+
+  // Per-device tables indexed by PhysicalDeviceType ordinal
+  private final PinType[] pinTypes = new PinType[DEVICES.length];
+  private final boolean[] digitalValues = new boolean[DEVICES.length];
+  private final double[] analogValues = new double[DEVICES.length];
+  private final double[] analogChangeTriggers = new double[DEVICES.length];
+  private final int[] dataIntervals = new int[DEVICES.length];
+  private final boolean[] asleep = new boolean[DEVICES.length];
+
+  /**
+   * The log being replayed.
+   */
+  private final Path logFile;
+
+  /**
+   * The mapped log, positioned at the next record.
+   */
+  private MappedByteBuffer events;
+
+  /**
+   * File offset of the first record.
+   */
+  private int firstRecord;
+
+  /**
+   * Number of events replayed since the start of the log.
+   */
+  private volatile long eventsReplayed;
+
+  /**
+   * Ratio of replay speed to recorded speed. Zero or less means replay as fast
+   * as possible.
+   */
+  private volatile double replaySpeed = DEFAULT_REPLAY_SPEED;
+
+  /**
+   * Flag to terminate execution of the background replay thread.
+   */
+  private volatile boolean done = true;
+
+  /**
+   * Background replay thread.
+   */
+  private Thread myThread;
+
+  /**
+   * Explicit constructor.
+   *
+   * @param log
+   *          the event log to replay
+   */
+  public VesselReplay(final Path log) {
+    super("Replay of " + log.getFileName());
+    logFile = log;
+    for (PhysicalDeviceType dev : DEVICES) {
+      pinTypes[dev.ordinal()] = PinType.UNKNOWN_TYPE;
+    }
+    resetConfiguration();
+  }
+
+  /**
+   * Map the log and read its header.
+   *
+   * @throws ComponentException
+   *           if the log cannot be read or is not an event log
+   */
+  private void openLog() throws ComponentException {
+    try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+      events = channel.map(MapMode.READ_ONLY, 0, channel.size());
+    } catch (IOException err) {
+      throw new ComponentException("Unable to open event log " + logFile + ": " + err.getMessage());
+    }
+    events.order(ByteOrder.LITTLE_ENDIAN);
+
+    if (events.remaining() < EventRecorder.HEADER_SIZE
+        || events.getInt() != EventRecorder.MAGIC) {
+      throw new ComponentException(logFile + " is not an event log");
+    }
+    final short version = events.getShort();
+    if (version != EventRecorder.VERSION) {
+      throw new ComponentException("Unsupported event log version " + version);
+    }
+    final int count = events.getShort();
+    events.getLong();
+    for (int idx = 0; idx < count; idx++) {
+      final int type = events.get();
+      if (idx < DEVICES.length && type >= 0 && type < PIN_TYPES.length) {
+        pinTypes[idx] = PIN_TYPES[type];
+      }
+    }
+    firstRecord = events.position();
+  }
+
+  /**
+   * Replay the whole log on the calling thread as fast as possible. Events are
+   * still signaled through the dispatch queues, so handlers run on the event
+   * dispatcher threads as usual.
+   *
+   * @return the number of events replayed
+   */
+  public long runToCompletion() {
+    long count = 0;
+    synchronized (this) {
+      while (replayNext() >= 0) {
+        count += 1;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Signal the next event in the log.
+   *
+   * @return the timestamp of the event, or -1 at the end of the log
+   */
+  private long replayNext() {
+    if (events == null || events.remaining() < EventRecorder.RECORD_SIZE) {
+      return -1;
+    }
+    final int start = events.position();
+    final long nanos = events.getLong();
+    final byte kind = events.get();
+    final int idx = events.get();
+    final double value = events.getDouble();
+
+    if (kind != EventRecorder.KIND_ANALOG && kind != EventRecorder.KIND_DIGITAL
+        || idx < 0 || idx >= DEVICES.length) {
+      // End of log (or a torn record at the end of an unfinished log)
+      events.position(start);
+      return -1;
+    }
+
+    if (kind == EventRecorder.KIND_ANALOG) {
+      // A sleeping sensor misses the readings recorded while it sleeps
+      if (!asleep[idx]) {
+        analogValues[idx] = value;
+        dispatchEvent(new AnalogEvent(DEVICES[idx], value));
+      }
+    } else {
+      digitalValues[idx] = value != 0.0;
+      dispatchEvent(new DigitalInputEvent(DEVICES[idx], value != 0.0));
+    }
+    eventsReplayed += 1;
+    return nanos;
+  }
+
+  /**
+   * Rewind to the start of the log.
+   */
+  public synchronized void rewind() {
+    if (events != null) {
+      events.position(firstRecord);
+      eventsReplayed = 0;
+    }
+  }
+
+  /**
+   * Start replaying the log on a background thread at the configured speed.
+   */
+  public synchronized void start() {
+    if (myThread != null) {
+      log.warn("Replay {} is already running", getName());
+      return;
+    }
+    done = false;
+    myThread = new Thread(this::runInBackground, getName());
+    myThread.start();
+  }
+
+  /**
+   * Stop the background replay thread.
+   */
+  public void stop() {
+    final Thread thread;
+    synchronized (this) {
+      done = true;
+      thread = myThread;
+      myThread = null;
+    }
+    if (thread == null) {
+      return;
+    }
+    thread.interrupt();
+    try {
+      thread.join();
+    } catch (InterruptedException err) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Wait for the background replay to reach the end of the log.
+   *
+   * @param timeout
+   *          maximum time to wait
+   * @param unit
+   *          units of the timeout
+   * @return true if the replay finished
+   * @throws InterruptedException
+   *           if the calling thread is interrupted
+   */
+  public boolean awaitCompletion(final long timeout, final TimeUnit unit)
+      throws InterruptedException {
+    final Thread thread;
+    synchronized (this) {
+      thread = myThread;
+    }
+    if (thread != null) {
+      thread.join(Math.max(1, unit.toMillis(timeout)));
+      return !thread.isAlive();
+    }
+    return true;
+  }
+
+  /**
+   * Body of the background replay thread. Each event is held until its
+   * recorded time, scaled by the replay speed, has elapsed since the replay
+   * began.
+   */
+  private void runInBackground() {
+
+    log.info("Replay {} starting", getName());
+
+    final long startNanos = System.nanoTime();
+    long firstNanos = -1;
+
+    while (!done) {
+      final long nanos;
+      synchronized (this) {
+        nanos = peekTimestamp();
+        if (nanos < 0) {
+          break;
+        }
+      }
+      if (firstNanos < 0) {
+        firstNanos = nanos;
+      }
+
+      final double speed = replaySpeed;
+      if (speed > 0.0) {
+        final long wait = startNanos + (long) ((nanos - firstNanos) / speed) - System.nanoTime();
+        if (wait > 0) {
+          try {
+            TimeUnit.NANOSECONDS.sleep(wait);
+          } catch (InterruptedException ie) {
+            if (!done) {
+              log.debug("Thread interrupted");
+            }
+            continue;
+          }
+        }
+      }
+
+      synchronized (this) {
+        replayNext();
+      }
+    }
+
+    log.info("Replay {} exiting after {} events", getName(), Long.valueOf(eventsReplayed));
+  }
+
+  /**
+   * Get the timestamp of the next event without consuming it.
+   *
+   * @return the timestamp, or -1 at the end of the log
+   */
+  private long peekTimestamp() {
+    if (events == null || events.remaining() < EventRecorder.RECORD_SIZE) {
+      return -1;
+    }
+    final int pos = events.position();
+    final byte kind = events.get(pos + Long.BYTES);
+    if (kind != EventRecorder.KIND_ANALOG && kind != EventRecorder.KIND_DIGITAL) {
+      return -1;
+    }
+    return events.getLong(pos);
+  }
+
+  /**
+   * Set the replay speed.
+   *
+   * @param speed
+   *          ratio of replay speed to recorded speed; zero or less replays as
+   *          fast as possible
+   */
+  public void setReplaySpeed(final double speed) {
+    myConfiguration.setProperty(JSON_KEY_REPLAY_SPEED, speed);
+    replaySpeed = speed;
+  }
+
+  /**
+   * Get the number of events replayed since the start of the log.
+   *
+   * @return the count
+   */
+  public long getEventsReplayed() {
+    return eventsReplayed;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * com.synadek.smr.vessel.physical.VesselPhysicalModel#getType(com.synadek.
+   * smr. vessel.physical. VesselPhysicalModel.PhysicalDeviceType)
+   */
+  @Override
+  public PinType getType(PhysicalDeviceType dev) {
+    return pinTypes[dev.ordinal()];
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * com.synadek.smr.vessel.physical.VesselPhysicalModel#getDigitalInputState(
+   * com. synadek.smr.vessel .physical.VesselPhysicalModel.PhysicalDeviceType)
+   */
+  @Override
+  public synchronized boolean getDigitalInputState(PhysicalDeviceType deviceId)
+      throws ComponentException {
+    return digitalValues[deviceId.ordinal()];
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * com.synadek.smr.vessel.physical.VesselPhysicalModel#setDigitalInputState(
+   * com. synadek.smr.vessel .physical.VesselPhysicalModel.PhysicalDeviceType,
+   * boolean)
+   */
+  @Override
+  public void setDigitalInputState(PhysicalDeviceType deviceId, boolean newVal)
+      throws ComponentException {
+    throw new ComponentException("Digital inputs are read from the event log during a replay");
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * com.synadek.smr.vessel.physical.VesselPhysicalModel#getDigitalOutputState(
+   * com .synadek.smr. vessel.physical.VesselPhysicalModel.PhysicalDeviceType)
+   */
+  @Override
+  public synchronized boolean getDigitalOutputState(PhysicalDeviceType deviceId)
+      throws ComponentException {
+    return digitalValues[deviceId.ordinal()];
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * com.synadek.smr.vessel.physical.VesselPhysicalModel#setDigitalOutputState(
+   * com .synadek.smr. vessel.physical.VesselPhysicalModel.PhysicalDeviceType,
+   * boolean)
+   */
+  @Override
+  public synchronized void setDigitalOutputState(PhysicalDeviceType deviceId, boolean newVal)
+      throws ComponentException {
+    digitalValues[deviceId.ordinal()] = newVal;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * com.synadek.smr.vessel.physical.VesselPhysicalModel#setAnalogOutputValue(
+   * com.synadek.smr.vessel.physical.VesselPhysicalModel.PhysicalDeviceType,
+   * double)
+   */
+  @Override
+  public synchronized void setAnalogOutputValue(PhysicalDeviceType deviceId, double newVal)
+      throws ComponentException {
+    analogValues[deviceId.ordinal()] = newVal;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * com.synadek.smr.vessel.physical.VesselPhysicalModel#getAnalogInputValue(
+   * com. synadek.smr.vessel. physical.VesselPhysicalModel.PhysicalDeviceType)
+   */
+  @Override
+  public synchronized double getAnalogInputValue(PhysicalDeviceType deviceId)
+      throws ComponentException {
+    return analogValues[deviceId.ordinal()];
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * com.synadek.smr.vessel.physical.VesselPhysicalModel#getAnalogChangeTrigger(
+   * com.synadek.smr. vessel.physical.VesselPhysicalModel.PhysicalDeviceType)
+   */
+  @Override
+  public synchronized double getAnalogChangeTrigger(PhysicalDeviceType deviceId)
+      throws ComponentException {
+    return analogChangeTriggers[deviceId.ordinal()];
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * com.synadek.smr.vessel.physical.VesselPhysicalModel#setAnalogChangeTrigger(
+   * com.synadek.smr. vessel.physical.VesselPhysicalModel.PhysicalDeviceType,
+   * double)
+   */
+  @Override
+  public synchronized void setAnalogChangeTrigger(PhysicalDeviceType deviceId, double newVal)
+      throws ComponentException {
+    // The recorded events were already filtered by the original triggers
+    analogChangeTriggers[deviceId.ordinal()] = newVal;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * com.synadek.smr.vessel.physical.VesselPhysicalModel#setAnalogDataInterval(
+   * com.synadek.smr.vessel.physical.VesselPhysicalModel.PhysicalDeviceType,
+   * int)
+   */
+  @Override
+  public synchronized void setAnalogDataInterval(final PhysicalDeviceType deviceId,
+      final int millis) throws ComponentException {
+    // The recorded events keep the intervals at which they were recorded
+    dataIntervals[deviceId.ordinal()] = millis;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * com.synadek.smr.vessel.physical.VesselPhysicalModel#getAnalogDataInterval(
+   * com.synadek.smr.vessel.physical.VesselPhysicalModel.PhysicalDeviceType)
+   */
+  @Override
+  public synchronized int getAnalogDataInterval(final PhysicalDeviceType deviceId)
+      throws ComponentException {
+    // Zero until set: the intervals are whatever was recorded
+    return dataIntervals[deviceId.ordinal()];
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * com.synadek.smr.vessel.physical.VesselPhysicalModel#setAnalogInputEnabled(
+   * com.synadek.smr.vessel.physical.VesselPhysicalModel.PhysicalDeviceType,
+   * boolean)
+   */
+  @Override
+  public synchronized void setAnalogInputEnabled(final PhysicalDeviceType deviceId,
+      final boolean enabled) throws ComponentException {
+    asleep[deviceId.ordinal()] = !enabled;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * com.synadek.smr.vessel.physical.VesselPhysicalModel#getNameResource(com.
+   * synadek.smr.vessel. physical.VesselPhysicalModel.PhysicalDeviceType)
+   */
+  @Override
+  public String getNameResource(PhysicalDeviceType deviceId)
+      throws ComponentException, InvalidValueException {
+    return deviceId.toString();
+  }
+
+  /**
+   * Get status information including replay progress.
+   *
+   * @param locale
+   *          locale in which to present information
+   * @return the information
+   */
+  @SuppressWarnings("unchecked")
+  @Override
+  public JSONObject getStatus(Locale locale) {
+    final JSONObject result = super.getStatus(locale);
+    result.put(KEY_EVENTS_REPLAYED, Long.valueOf(eventsReplayed));
+    return result;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.core.Component#getConfigurationSchema()
+   */
+  @Override
+  public JSONObject getConfigurationSchema() {
+
+    return new JSONObject();
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.core.Component#resetConfiguration()
+   */
+  @Override
+  public void resetConfiguration() {
+    log.debug("Resetting configuration for {}", this.getName());
+
+    // Declare the schema for the configuration properties
+    final JsonSchema mySchema = this.myConfiguration.getConfigurationSchema();
+    mySchema.setProperty(JSON_KEY_REPLAY_SPEED, JsonSchema.schemaNumber(
+        "Ratio of replay speed to recorded speed. Zero replays as fast as possible.", 0.0, false),
+        true);
+
+    // Define configuration properties
+    setReplaySpeed(DEFAULT_REPLAY_SPEED);
+  }
+
+  @Override
+  public boolean connect(boolean sim) throws ComponentException {
+    if (!sim) {
+      log.error("VesselReplay must connect using sim=true");
+      return false;
+    }
+
+    // Ignore repeated connect requests
+    if (connected) {
+      return true;
+    }
+
+    synchronized (this) {
+      openLog();
+    }
+    this.simulated = true;
+    this.connected = true;
+    this.startEventDispatchers();
+    return true;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.core.AbstractComponent#disconnect()
+   */
+  @Override
+  public void disconnect() throws ComponentException {
+    if (!connected) {
+      return;
+    }
+    stop();
+    this.stopEventDispatchers();
+    synchronized (this) {
+      events = null;
+    }
+    super.disconnect();
+  }
+
+}
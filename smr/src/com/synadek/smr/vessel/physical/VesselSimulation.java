@@ -9,69 +9,477 @@ package com.synadek.smr.vessel.physical;
 
 import com.synadek.core.ComponentException;
 import com.synadek.core.InvalidValueException;
-import java.util.HashMap;
-import java.util.Map;
+import com.synadek.core.JsonSchema;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 import org.json.simple.JSONObject;
 
 /**
  * Simulation of a physical vessel model.
+ *
+ * <p>
+ * The simulation is a fixed-timestep engine. Each step advances a
+ * VesselDynamics model by timeStepMillis of simulated time, samples every
+ * sensor and signals analog and digital input events to registered handlers
+ * through the same dispatch path used by the hardware implementations. Time is
+ * kept by a SimulationClock so the engine can run in real time, at a multiple
+ * of real time, or as fast as the host allows.
+ * </p>
+ *
+ * <p>
+ * Actuators are driven through setDigitalOutputState and setAnalogOutputValue.
+ * Motor speeds are fractions (0-1) of full speed. Direction outputs are true
+ * for ahead (propeller), to starboard (rudder) and paying out chain (anchor).
+ * Sensors report engineering units: degrees Celsius, volts, degrees and m/s.
+ * </p>
  */
 public class VesselSimulation extends AbstractVesselModel {
 
-  private final Map<PhysicalDeviceType, PinType> pintypeMap = new HashMap<>();
-  private final Map<PhysicalDeviceType, Boolean> digitalValueMap = new HashMap<>();
-  private final Map<PhysicalDeviceType, Double> analogValueMap = new HashMap<>();
-  private final Map<PhysicalDeviceType, Double> analogChangeTrigger = new HashMap<>();
-  private final Map<PhysicalDeviceType, String> nameMap = new HashMap<>();
+  /**
+   * Configuration key for the length of a simulation step.
+   */
+  public static final String JSON_KEY_TIME_STEP = "timeStepMillis";
+
+  /**
+   * Configuration key for the ratio of simulated time to real time.
+   */
+  public static final String JSON_KEY_TIME_SCALE = "timeScale";
+
+  /**
+   * Configuration key for the default sensor data interval.
+   */
+  public static final String JSON_KEY_DATA_INTERVAL = "dataIntervalMillis";
+
+  /**
+   * Default simulation step (milliseconds) i.e., 50 Hz.
+   */
+  private static final int DEFAULT_TIME_STEP = 20;
+
+  /**
+   * Default ratio of simulated time to real time.
+   */
+  private static final double DEFAULT_TIME_SCALE = 1.0;
+
+  /**
+   * Default interval (milliseconds) between sensor events.
+   */
+  private static final int DEFAULT_DATA_INTERVAL = 1000;
+
+  /**
+   * Interval (milliseconds) between wind sensor events. Wind sensors report at
+   * 4 Hz.
+   */
+  private static final int WIND_DATA_INTERVAL = 250;
+
+  /**
+   * Interval (milliseconds) between inertial measurement unit events. The IMU
+   * reports at 20 Hz to match the sensor fusion rate.
+   */
+  private static final int IMU_DATA_INTERVAL = 50;
+
+  /**
+   * Standard gravity (m/s^2) sensed by a level, unaccelerated IMU.
+   */
+  private static final double GRAVITY = 9.80665;
+
+  /**
+   * Inertial measurement unit axes, which share a data interval.
+   */
+  private static final PhysicalDeviceType[] IMU_DEVICES = {
+      PhysicalDeviceType.PHY_IMU_ROLL_RATE, PhysicalDeviceType.PHY_IMU_PITCH_RATE,
+      PhysicalDeviceType.PHY_IMU_YAW_RATE, PhysicalDeviceType.PHY_IMU_SURGE_ACCELERATION,
+      PhysicalDeviceType.PHY_IMU_SWAY_ACCELERATION,
+      PhysicalDeviceType.PHY_IMU_HEAVE_ACCELERATION };
+
+  /**
+   * Default position of a simulated vessel (latitude).
+   */
+  private static final double DEFAULT_LATITUDE = 40.5;
+
+  /**
+   * Default position of a simulated vessel (longitude).
+   */
+  private static final double DEFAULT_LONGITUDE = -73.9;
+
+  /**
+   * Nanoseconds per millisecond.
+   */
+  private static final long NANOS_PER_MILLI = 1000000L;
+
+  /**
+   * JSON key for status messages.
+   */
+  private static final String KEY_SIMULATED_TIME = "simulatedTime";
+
+  /**
+   * Devices in the model, indexed by ordinal.
+   */
+  private static final PhysicalDeviceType[] DEVICES = PhysicalDeviceType.values();
+
+  // Per-device tables indexed by PhysicalDeviceType ordinal
+  private final PinType[] pinTypes = new PinType[DEVICES.length];
+  private final String[] names = new String[DEVICES.length];
+  private final boolean[] digitalValues = new boolean[DEVICES.length];
+  private final double[] analogValues = new double[DEVICES.length];
+  private final double[] analogChangeTriggers = new double[DEVICES.length];
+  private final long[] dataIntervalNanos = new long[DEVICES.length];
+  private final long[] nextEventNanos = new long[DEVICES.length];
+  private final double[] lastEventValues = new double[DEVICES.length];
+  private final boolean[] asleep = new boolean[DEVICES.length];
+
+  /**
+   * Virtual clock for this simulation. May be shared with other simulations.
+   */
+  private final SimulationClock clock;
+
+  /**
+   * Physics of the simulated vessel.
+   */
+  private final VesselDynamics dynamics;
+
+  /**
+   * Simulated time (nanoseconds) up to which the dynamics have been stepped.
+   */
+  private long steppedNanos;
+
+  /**
+   * Length of one simulation step (nanoseconds).
+   */
+  private long stepNanos;
+
+  /**
+   * Ratio of simulated to real time when running in the background. Zero or
+   * less means run as fast as possible.
+   */
+  private volatile double timeScale;
+
+  /**
+   * Flag to terminate execution of the background simulation thread.
+   */
+  private volatile boolean done = true;
+
+  /**
+   * Background simulation thread.
+   */
+  private Thread myThread;
 
   /**
    * Default constructor.
    */
   public VesselSimulation() {
+    this(new SimulationClock(), 0L, DEFAULT_LATITUDE, DEFAULT_LONGITUDE);
+  }
+
+  /**
+   * Explicit constructor.
+   *
+   * @param simClock
+   *          the virtual clock, which may be shared with other simulations
+   * @param seed
+   *          seed for random processes, so that runs are repeatable
+   * @param lat
+   *          initial latitude of the vessel
+   * @param lon
+   *          initial longitude of the vessel
+   */
+  public VesselSimulation(final SimulationClock simClock, final long seed, final double lat,
+      final double lon) {
+
+    clock = simClock;
+    dynamics = new VesselDynamics(seed, lat, lon);
+    steppedNanos = clock.nanoTime();
 
     // Initialize pin types
-    pintypeMap.put(PhysicalDeviceType.PHY_AIR_TEMPERATURE_SENSOR, PinType.ANALOG_INPUT_TYPE);
-    pintypeMap.put(PhysicalDeviceType.PHY_ANCHOR_MOTOR_DIRECTION, PinType.DIGITAL_OUTPUT_TYPE);
-    pintypeMap.put(PhysicalDeviceType.PHY_ANCHOR_MOTOR_SPEED, PinType.ANALOG_INPUT_TYPE);
-    pintypeMap.put(PhysicalDeviceType.PHY_ANCHOR_SENSOR_DOWN, PinType.DIGITAL_INPUT_TYPE);
-    pintypeMap.put(PhysicalDeviceType.PHY_ANCHOR_SENSOR_UP, PinType.DIGITAL_INPUT_TYPE);
-    pintypeMap.put(PhysicalDeviceType.PHY_BATTERY_VOLTAGE_SENSOR, PinType.ANALOG_INPUT_TYPE);
-    pintypeMap.put(PhysicalDeviceType.PHY_COMPASS_SENSOR, PinType.ANALOG_INPUT_TYPE);
-    pintypeMap.put(PhysicalDeviceType.PHY_GNSS_RECEIVER, PinType.ANALOG_INPUT_TYPE);
-    pintypeMap.put(PhysicalDeviceType.PHY_MASTER_RELAY_CONTROL, PinType.DIGITAL_OUTPUT_TYPE);
-    pintypeMap.put(PhysicalDeviceType.PHY_PROPELLER_MOTOR_DIRECTION, PinType.DIGITAL_OUTPUT_TYPE);
-    pintypeMap.put(PhysicalDeviceType.PHY_PROPELLER_MOTOR_SPEED, PinType.ANALOG_OUTPUT_TYPE);
-    pintypeMap.put(PhysicalDeviceType.PHY_RUDDER_MOTOR_DIRECTION, PinType.DIGITAL_OUTPUT_TYPE);
-    pintypeMap.put(PhysicalDeviceType.PHY_RUDDER_MOTOR_SPEED, PinType.ANALOG_OUTPUT_TYPE);
-    pintypeMap.put(PhysicalDeviceType.PHY_RUNNING_LIGHTS_RELAY, PinType.DIGITAL_OUTPUT_TYPE);
-    pintypeMap.put(PhysicalDeviceType.PHY_WATER_TEMPERATURE_SENSOR, PinType.DIGITAL_INPUT_TYPE);
-    pintypeMap.put(PhysicalDeviceType.PHY_WIND_DIRECTION_SENSOR, PinType.ANALOG_INPUT_TYPE);
-    pintypeMap.put(PhysicalDeviceType.PHY_WIND_SPEED_SENSOR, PinType.ANALOG_INPUT_TYPE);
-
-    // Initialize names
-    nameMap.put(PhysicalDeviceType.PHY_AIR_TEMPERATURE_SENSOR, "air temperature sensor");
-    nameMap.put(PhysicalDeviceType.PHY_ANCHOR_MOTOR_DIRECTION, "anchor motor direction");
-    nameMap.put(PhysicalDeviceType.PHY_ANCHOR_MOTOR_SPEED, "anchor motor speed");
-    nameMap.put(PhysicalDeviceType.PHY_ANCHOR_SENSOR_DOWN, "anchor down");
-    nameMap.put(PhysicalDeviceType.PHY_ANCHOR_SENSOR_UP, "anchor up");
-    nameMap.put(PhysicalDeviceType.PHY_BATTERY_VOLTAGE_SENSOR, "battery voltage");
-    nameMap.put(PhysicalDeviceType.PHY_COMPASS_SENSOR, "compass direction");
-    nameMap.put(PhysicalDeviceType.PHY_GNSS_RECEIVER, "GNSS");
-    nameMap.put(PhysicalDeviceType.PHY_MASTER_RELAY_CONTROL, "master power relay");
-    nameMap.put(PhysicalDeviceType.PHY_PROPELLER_MOTOR_DIRECTION, "propeller direction");
-    nameMap.put(PhysicalDeviceType.PHY_PROPELLER_MOTOR_SPEED, "propeller speed");
-    nameMap.put(PhysicalDeviceType.PHY_RUDDER_MOTOR_DIRECTION, "rudder direction");
-    nameMap.put(PhysicalDeviceType.PHY_RUDDER_MOTOR_SPEED, "rudder speed");
-    nameMap.put(PhysicalDeviceType.PHY_RUNNING_LIGHTS_RELAY, "running lights");
-    nameMap.put(PhysicalDeviceType.PHY_WATER_TEMPERATURE_SENSOR, "water temperature");
-    nameMap.put(PhysicalDeviceType.PHY_WIND_DIRECTION_SENSOR, "wind direction");
-    nameMap.put(PhysicalDeviceType.PHY_WIND_SPEED_SENSOR, "wind speed");
+    setPin(PhysicalDeviceType.PHY_AIR_TEMPERATURE_SENSOR, PinType.ANALOG_INPUT_TYPE,
+        "air temperature sensor");
+    setPin(PhysicalDeviceType.PHY_ANCHOR_MOTOR_DIRECTION, PinType.DIGITAL_OUTPUT_TYPE,
+        "anchor motor direction");
+    setPin(PhysicalDeviceType.PHY_ANCHOR_MOTOR_SPEED, PinType.ANALOG_OUTPUT_TYPE,
+        "anchor motor speed");
+    setPin(PhysicalDeviceType.PHY_ANCHOR_SENSOR_DOWN, PinType.DIGITAL_INPUT_TYPE, "anchor down");
+    setPin(PhysicalDeviceType.PHY_ANCHOR_SENSOR_UP, PinType.DIGITAL_INPUT_TYPE, "anchor up");
+    setPin(PhysicalDeviceType.PHY_BATTERY_VOLTAGE_SENSOR, PinType.ANALOG_INPUT_TYPE,
+        "battery voltage");
+    setPin(PhysicalDeviceType.PHY_COMPASS_SENSOR, PinType.ANALOG_INPUT_TYPE, "compass direction");
+    setPin(PhysicalDeviceType.PHY_GNSS_RECEIVER, PinType.ANALOG_INPUT_TYPE, "GNSS");
+    setPin(PhysicalDeviceType.PHY_GNSS_LATITUDE, PinType.ANALOG_INPUT_TYPE, "GNSS latitude");
+    setPin(PhysicalDeviceType.PHY_GNSS_LONGITUDE, PinType.ANALOG_INPUT_TYPE, "GNSS longitude");
+    setPin(PhysicalDeviceType.PHY_IMU_HEAVE_ACCELERATION, PinType.ANALOG_INPUT_TYPE,
+        "IMU heave acceleration");
+    setPin(PhysicalDeviceType.PHY_IMU_PITCH_RATE, PinType.ANALOG_INPUT_TYPE, "IMU pitch rate");
+    setPin(PhysicalDeviceType.PHY_IMU_ROLL_RATE, PinType.ANALOG_INPUT_TYPE, "IMU roll rate");
+    setPin(PhysicalDeviceType.PHY_IMU_SURGE_ACCELERATION, PinType.ANALOG_INPUT_TYPE,
+        "IMU surge acceleration");
+    setPin(PhysicalDeviceType.PHY_IMU_SWAY_ACCELERATION, PinType.ANALOG_INPUT_TYPE,
+        "IMU sway acceleration");
+    setPin(PhysicalDeviceType.PHY_IMU_YAW_RATE, PinType.ANALOG_INPUT_TYPE, "IMU yaw rate");
+    setPin(PhysicalDeviceType.PHY_MASTER_RELAY_CONTROL, PinType.DIGITAL_OUTPUT_TYPE,
+        "master power relay");
+    setPin(PhysicalDeviceType.PHY_PROPELLER_MOTOR_DIRECTION, PinType.DIGITAL_OUTPUT_TYPE,
+        "propeller direction");
+    setPin(PhysicalDeviceType.PHY_PROPELLER_MOTOR_SPEED, PinType.ANALOG_OUTPUT_TYPE,
+        "propeller speed");
+    setPin(PhysicalDeviceType.PHY_RUDDER_MOTOR_DIRECTION, PinType.DIGITAL_OUTPUT_TYPE,
+        "rudder direction");
+    setPin(PhysicalDeviceType.PHY_RUDDER_MOTOR_SPEED, PinType.ANALOG_OUTPUT_TYPE,
+        "rudder speed");
+    setPin(PhysicalDeviceType.PHY_RUNNING_LIGHTS_RELAY, PinType.DIGITAL_OUTPUT_TYPE,
+        "running lights");
+    setPin(PhysicalDeviceType.PHY_SOLAR_POWER_SENSOR, PinType.ANALOG_INPUT_TYPE,
+        "solar power");
+    setPin(PhysicalDeviceType.PHY_WATER_TEMPERATURE_SENSOR, PinType.ANALOG_INPUT_TYPE,
+        "water temperature");
+    setPin(PhysicalDeviceType.PHY_WIND_DIRECTION_SENSOR, PinType.ANALOG_INPUT_TYPE,
+        "wind direction");
+    setPin(PhysicalDeviceType.PHY_WIND_SPEED_SENSOR, PinType.ANALOG_INPUT_TYPE, "wind speed");
+
     // Initialize values
-    for (PhysicalDeviceType key : PhysicalDeviceType.values()) {
-      digitalValueMap.put(key, Boolean.FALSE);
-      analogValueMap.put(key, Double.valueOf(0.0));
-      analogChangeTrigger.put(key, Double.valueOf(1.0));
+    for (PhysicalDeviceType key : DEVICES) {
+      final int idx = key.ordinal();
+      analogChangeTriggers[idx] = 0.0;
+      lastEventValues[idx] = Double.NaN;
     }
+    digitalValues[PhysicalDeviceType.PHY_PROPELLER_MOTOR_DIRECTION.ordinal()] = true;
+
+    resetConfiguration();
+  }
+
+  /**
+   * Record the pin type and name of a device.
+   *
+   * @param dev
+   *          the device
+   * @param type
+   *          the pin type
+   * @param name
+   *          a name for diagnostics
+   */
+  private void setPin(final PhysicalDeviceType dev, final PinType type, final String name) {
+    pinTypes[dev.ordinal()] = type;
+    names[dev.ordinal()] = name;
+  }
+
+  /**
+   * Get the virtual clock driving this simulation.
+   *
+   * @return the clock
+   */
+  public SimulationClock getClock() {
+    return clock;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.smr.vessel.physical.VesselPhysicalModel#currentTimeMillis()
+   */
+  @Override
+  public long currentTimeMillis() {
+    return clock.getEpoch().toInstant().toEpochMilli() + clock.nanoTime() / NANOS_PER_MILLI;
+  }
+
+  /**
+   * Get the physics model of the simulated vessel, e.g. to set initial
+   * conditions or to observe state that has no sensor.
+   *
+   * @return the dynamics
+   */
+  public VesselDynamics getDynamics() {
+    return dynamics;
+  }
+
+  /**
+   * Set the interval at which a sensor signals events.
+   *
+   * @param dev
+   *          the analog input device
+   * @param millis
+   *          simulated milliseconds between events
+   */
+  public synchronized void setDataInterval(final PhysicalDeviceType dev, final int millis) {
+    if (millis > 0) {
+      dataIntervalNanos[dev.ordinal()] = millis * NANOS_PER_MILLI;
+    }
+  }
+
+  /**
+   * Advance the shared clock and the simulation by a period of simulated time.
+   * The simulation is stepped on the calling thread as fast as possible.
+   *
+   * @param period
+   *          the simulated time to run
+   */
+  public void runFor(final Duration period) {
+    final long end = clock.nanoTime() + period.toNanos();
+    while (clock.nanoTime() < end) {
+      clock.advance(Math.min(stepNanos, end - clock.nanoTime()));
+      synchronize();
+    }
+  }
+
+  /**
+   * Step the simulation until it has caught up with its clock. When several
+   * simulations share one clock, whoever advances the clock calls synchronize
+   * on each of them.
+   */
+  public void synchronize() {
+    stepTo(clock.nanoTime());
+  }
+
+  /**
+   * Step the simulation up to a simulated time, but no further than its
+   * clock. A controller may call this once per control interval to catch up
+   * in stages with a clock that has been advanced by several intervals.
+   *
+   * @param nanos
+   *          simulated time to step to
+   */
+  public synchronized void stepTo(final long nanos) {
+    final long now = Math.min(nanos, clock.nanoTime());
+    final double dt = stepNanos / 1.0e9;
+    while (steppedNanos + stepNanos <= now) {
+      steppedNanos += stepNanos;
+      dynamics.step(dt, steppedNanos / 1.0e9, clock.getEpoch().plusNanos(steppedNanos));
+      sampleSensors();
+      signalEvents();
+    }
+  }
+
+  /**
+   * Copy the state of the dynamics into the sensor tables.
+   */
+  private void sampleSensors() {
+    analogValues[PhysicalDeviceType.PHY_AIR_TEMPERATURE_SENSOR.ordinal()] = dynamics
+        .getAirTemperature();
+    analogValues[PhysicalDeviceType.PHY_BATTERY_VOLTAGE_SENSOR.ordinal()] = dynamics
+        .getBatteryVoltage();
+    analogValues[PhysicalDeviceType.PHY_COMPASS_SENSOR.ordinal()] = dynamics.getHeading();
+    analogValues[PhysicalDeviceType.PHY_GNSS_LATITUDE.ordinal()] = dynamics.getLatitude();
+    analogValues[PhysicalDeviceType.PHY_GNSS_LONGITUDE.ordinal()] = dynamics.getLongitude();
+    // The hull model is flat: no roll or pitch, and gravity straight down
+    analogValues[PhysicalDeviceType.PHY_IMU_ROLL_RATE.ordinal()] = 0.0;
+    analogValues[PhysicalDeviceType.PHY_IMU_PITCH_RATE.ordinal()] = 0.0;
+    analogValues[PhysicalDeviceType.PHY_IMU_YAW_RATE.ordinal()] = dynamics.getYawRate();
+    analogValues[PhysicalDeviceType.PHY_IMU_SURGE_ACCELERATION.ordinal()] = dynamics
+        .getSurgeAcceleration();
+    analogValues[PhysicalDeviceType.PHY_IMU_SWAY_ACCELERATION.ordinal()] = dynamics.getSpeed()
+        * dynamics.getYawRate();
+    analogValues[PhysicalDeviceType.PHY_IMU_HEAVE_ACCELERATION.ordinal()] = -GRAVITY;
+    analogValues[PhysicalDeviceType.PHY_SOLAR_POWER_SENSOR.ordinal()] = dynamics
+        .getSolarPower();
+    analogValues[PhysicalDeviceType.PHY_WATER_TEMPERATURE_SENSOR.ordinal()] = dynamics
+        .getWaterTemperature();
+    analogValues[PhysicalDeviceType.PHY_WIND_DIRECTION_SENSOR.ordinal()] = dynamics
+        .getApparentWindDirection();
+    analogValues[PhysicalDeviceType.PHY_WIND_SPEED_SENSOR.ordinal()] = dynamics.getWindSpeed();
+
+    digitalValues[PhysicalDeviceType.PHY_ANCHOR_SENSOR_UP.ordinal()] = dynamics
+        .getAnchorDepth() <= 0.0;
+    digitalValues[PhysicalDeviceType.PHY_ANCHOR_SENSOR_DOWN.ordinal()] = dynamics
+        .getAnchorDepth() >= dynamics.getChainLength();
+  }
+
+  /**
+   * Signal events for sensors whose data interval has elapsed and whose value
+   * has changed by at least the change trigger, and for digital inputs that
+   * have changed state.
+   */
+  private void signalEvents() {
+    for (int idx = 0; idx < DEVICES.length; idx++) {
+      final PinType type = pinTypes[idx];
+      if (type == PinType.ANALOG_INPUT_TYPE) {
+        if (asleep[idx] || steppedNanos < nextEventNanos[idx]) {
+          continue;
+        }
+        nextEventNanos[idx] = steppedNanos + dataIntervalNanos[idx];
+        final double val = analogValues[idx];
+        if (Double.isNaN(lastEventValues[idx])
+            || Math.abs(val - lastEventValues[idx]) >= analogChangeTriggers[idx]) {
+          lastEventValues[idx] = val;
+          dispatchEvent(new AnalogEvent(DEVICES[idx], val));
+        }
+      } else if (type == PinType.DIGITAL_INPUT_TYPE) {
+        final boolean state = digitalValues[idx];
+        final double encoded = state ? 1.0 : 0.0;
+        if (lastEventValues[idx] != encoded) {
+          lastEventValues[idx] = encoded;
+          dispatchEvent(new DigitalInputEvent(DEVICES[idx], state));
+        }
+      }
+    }
+  }
+
+  /**
+   * Start running the simulation on a background thread at the configured
+   * time scale.
+   */
+  public synchronized void start() {
+    if (myThread != null) {
+      log.warn("Simulation {} is already running", getName());
+      return;
+    }
+    done = false;
+    myThread = new Thread(this::runInBackground, getName());
+    myThread.start();
+  }
+
+  /**
+   * Stop the background simulation thread.
+   */
+  public void stop() {
+    final Thread thread;
+    synchronized (this) {
+      done = true;
+      thread = myThread;
+      myThread = null;
+    }
+    if (thread == null) {
+      return;
+    }
+    thread.interrupt();
+    try {
+      thread.join();
+    } catch (InterruptedException err) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Body of the background simulation thread. Each iteration advances the
+   * clock by one step and, unless running as fast as possible, sleeps until the
+   * corresponding real time.
+   */
+  private void runInBackground() {
+
+    log.info("Simulation {} starting", getName());
+
+    long deadline = System.nanoTime();
+
+    while (!done) {
+      clock.advance(stepNanos);
+      synchronize();
+
+      final double scale = timeScale;
+      if (scale > 0.0) {
+        deadline += (long) (stepNanos / scale);
+        final long wait = deadline - System.nanoTime();
+        if (wait > 0) {
+          try {
+            TimeUnit.NANOSECONDS.sleep(wait);
+          } catch (InterruptedException ie) {
+            if (!done) {
+              log.debug("Thread interrupted");
+            }
+          }
+        } else {
+          // Running behind, do not try to catch up with a burst of steps
+          deadline = System.nanoTime();
+        }
+      }
+    }
+
+    log.info("Simulation {} exiting", getName());
   }
 
   /*
@@ -83,7 +491,7 @@ public class VesselSimulation extends AbstractVesselModel {
    */
   @Override
   public PinType getType(PhysicalDeviceType dev) {
-    return pintypeMap.get(dev);
+    return pinTypes[dev.ordinal()];
   }
 
   /*
@@ -94,8 +502,9 @@ public class VesselSimulation extends AbstractVesselModel {
    * com. synadek.smr.vessel .physical.VesselPhysicalModel.PhysicalDeviceType)
    */
   @Override
-  public boolean getDigitalInputState(PhysicalDeviceType deviceId) throws ComponentException {
-    return digitalValueMap.get(deviceId).booleanValue();
+  public synchronized boolean getDigitalInputState(PhysicalDeviceType deviceId)
+      throws ComponentException {
+    return digitalValues[deviceId.ordinal()];
   }
 
   /*
@@ -107,9 +516,9 @@ public class VesselSimulation extends AbstractVesselModel {
    * boolean)
    */
   @Override
-  public void setDigitalInputState(PhysicalDeviceType deviceId, boolean newVal)
+  public synchronized void setDigitalInputState(PhysicalDeviceType deviceId, boolean newVal)
       throws ComponentException {
-    digitalValueMap.put(deviceId, Boolean.valueOf(newVal));
+    digitalValues[deviceId.ordinal()] = newVal;
   }
 
   /*
@@ -120,8 +529,9 @@ public class VesselSimulation extends AbstractVesselModel {
    * com .synadek.smr. vessel.physical.VesselPhysicalModel.PhysicalDeviceType)
    */
   @Override
-  public boolean getDigitalOutputState(PhysicalDeviceType deviceId) throws ComponentException {
-    return digitalValueMap.get(deviceId).booleanValue();
+  public synchronized boolean getDigitalOutputState(PhysicalDeviceType deviceId)
+      throws ComponentException {
+    return digitalValues[deviceId.ordinal()];
   }
 
   /*
@@ -133,9 +543,60 @@ public class VesselSimulation extends AbstractVesselModel {
    * boolean)
    */
   @Override
-  public void setDigitalOutputState(PhysicalDeviceType deviceId, boolean newVal)
+  public synchronized void setDigitalOutputState(PhysicalDeviceType deviceId, boolean newVal)
       throws ComponentException {
-    digitalValueMap.put(deviceId, Boolean.valueOf(newVal));
+    digitalValues[deviceId.ordinal()] = newVal;
+
+    switch (deviceId) {
+      case PHY_MASTER_RELAY_CONTROL:
+        dynamics.setMasterRelay(newVal);
+        break;
+      case PHY_PROPELLER_MOTOR_DIRECTION:
+        dynamics.setPropellerAhead(newVal);
+        break;
+      case PHY_RUDDER_MOTOR_DIRECTION:
+        dynamics.setRudderToStarboard(newVal);
+        break;
+      case PHY_ANCHOR_MOTOR_DIRECTION:
+        dynamics.setAnchorLowering(newVal);
+        break;
+      default:
+        break;
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * com.synadek.smr.vessel.physical.VesselPhysicalModel#setAnalogOutputValue(
+   * com.synadek.smr.vessel.physical.VesselPhysicalModel.PhysicalDeviceType,
+   * double)
+   */
+  @Override
+  public synchronized void setAnalogOutputValue(PhysicalDeviceType deviceId, double newVal)
+      throws ComponentException {
+
+    if (pinTypes[deviceId.ordinal()] != PinType.ANALOG_OUTPUT_TYPE) {
+      throw new ComponentException(
+          "Attempt to set analog output value for a pin of type " + getType(deviceId));
+    }
+
+    analogValues[deviceId.ordinal()] = newVal;
+
+    switch (deviceId) {
+      case PHY_PROPELLER_MOTOR_SPEED:
+        dynamics.setPropellerSpeed(newVal);
+        break;
+      case PHY_RUDDER_MOTOR_SPEED:
+        dynamics.setRudderMotorSpeed(newVal);
+        break;
+      case PHY_ANCHOR_MOTOR_SPEED:
+        dynamics.setAnchorMotorSpeed(newVal);
+        break;
+      default:
+        break;
+    }
   }
 
   /*
@@ -146,8 +607,9 @@ public class VesselSimulation extends AbstractVesselModel {
    * com. synadek.smr.vessel. physical.VesselPhysicalModel.PhysicalDeviceType)
    */
   @Override
-  public double getAnalogInputValue(PhysicalDeviceType deviceId) throws ComponentException {
-    return analogValueMap.get(deviceId).doubleValue();
+  public synchronized double getAnalogInputValue(PhysicalDeviceType deviceId)
+      throws ComponentException {
+    return analogValues[deviceId.ordinal()];
   }
 
   /*
@@ -158,8 +620,9 @@ public class VesselSimulation extends AbstractVesselModel {
    * com.synadek.smr. vessel.physical.VesselPhysicalModel.PhysicalDeviceType)
    */
   @Override
-  public double getAnalogChangeTrigger(PhysicalDeviceType deviceId) throws ComponentException {
-    return analogChangeTrigger.get(deviceId).doubleValue();
+  public synchronized double getAnalogChangeTrigger(PhysicalDeviceType deviceId)
+      throws ComponentException {
+    return analogChangeTriggers[deviceId.ordinal()];
   }
 
   /*
@@ -171,9 +634,60 @@ public class VesselSimulation extends AbstractVesselModel {
    * double)
    */
   @Override
-  public void setAnalogChangeTrigger(PhysicalDeviceType deviceId, double newVal)
+  public synchronized void setAnalogChangeTrigger(PhysicalDeviceType deviceId, double newVal)
       throws ComponentException {
-    analogChangeTrigger.put(deviceId, Double.valueOf(newVal));
+    analogChangeTriggers[deviceId.ordinal()] = newVal;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * com.synadek.smr.vessel.physical.VesselPhysicalModel#setAnalogDataInterval(
+   * com.synadek.smr.vessel.physical.VesselPhysicalModel.PhysicalDeviceType,
+   * int)
+   */
+  @Override
+  public void setAnalogDataInterval(final PhysicalDeviceType deviceId, final int millis)
+      throws ComponentException {
+    setDataInterval(deviceId, millis);
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * com.synadek.smr.vessel.physical.VesselPhysicalModel#getAnalogDataInterval(
+   * com.synadek.smr.vessel.physical.VesselPhysicalModel.PhysicalDeviceType)
+   */
+  @Override
+  public synchronized int getAnalogDataInterval(final PhysicalDeviceType deviceId)
+      throws ComponentException {
+    return (int) (dataIntervalNanos[deviceId.ordinal()] / NANOS_PER_MILLI);
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * com.synadek.smr.vessel.physical.VesselPhysicalModel#setAnalogInputEnabled(
+   * com.synadek.smr.vessel.physical.VesselPhysicalModel.PhysicalDeviceType,
+   * boolean)
+   */
+  @Override
+  public synchronized void setAnalogInputEnabled(final PhysicalDeviceType deviceId,
+      final boolean enabled) throws ComponentException {
+    final int idx = deviceId.ordinal();
+    if (pinTypes[idx] != PinType.ANALOG_INPUT_TYPE) {
+      throw new ComponentException(
+          "Attempt to put " + deviceId + " to sleep; it is not an analog input");
+    }
+    if (enabled && asleep[idx]) {
+      // Sample at the next step and signal the first value whatever it is
+      nextEventNanos[idx] = steppedNanos;
+      lastEventValues[idx] = Double.NaN;
+    }
+    asleep[idx] = !enabled;
   }
 
   /*
@@ -186,7 +700,26 @@ public class VesselSimulation extends AbstractVesselModel {
   @Override
   public String getNameResource(PhysicalDeviceType deviceId)
       throws ComponentException, InvalidValueException {
-    return nameMap.get(deviceId);
+    return names[deviceId.ordinal()];
+  }
+
+  /**
+   * Get status information including simulated time and vessel state.
+   *
+   * @param locale
+   *          locale in which to present information
+   * @return the information
+   */
+  @SuppressWarnings("unchecked")
+  @Override
+  public synchronized JSONObject getStatus(Locale locale) {
+    final JSONObject result = super.getStatus(locale);
+    result.put(KEY_SIMULATED_TIME, clock.now().toString());
+    result.put("speed", Double.valueOf(dynamics.getSpeed()));
+    result.put("heading", Double.valueOf(dynamics.getHeading()));
+    result.put("anchorDepth", Double.valueOf(dynamics.getAnchorDepth()));
+    result.put("stateOfCharge", Double.valueOf(dynamics.getStateOfCharge()));
+    return result;
   }
 
   /*
@@ -207,7 +740,51 @@ public class VesselSimulation extends AbstractVesselModel {
    */
   @Override
   public void resetConfiguration() {
+    log.debug("Resetting configuration for {}", this.getName());
+
+    // Declare the schema for the configuration properties
+    final JsonSchema mySchema = this.myConfiguration.getConfigurationSchema();
+    mySchema.setProperty(JSON_KEY_TIME_STEP,
+        JsonSchema.schemaNumber("Length of a simulation step in milliseconds.", 0.0, true), true);
+    mySchema.setProperty(JSON_KEY_TIME_SCALE, JsonSchema.schemaNumber(
+        "Ratio of simulated time to real time. Zero runs as fast as possible.", 0.0, false), true);
+    mySchema.setProperty(JSON_KEY_DATA_INTERVAL, JsonSchema
+        .schemaNumber("Default simulated milliseconds between sensor events.", 0.0, true), true);
 
+    // Define configuration properties
+    myConfiguration.setProperty(JSON_KEY_TIME_STEP, DEFAULT_TIME_STEP);
+    myConfiguration.setProperty(JSON_KEY_TIME_SCALE, DEFAULT_TIME_SCALE);
+    myConfiguration.setProperty(JSON_KEY_DATA_INTERVAL, DEFAULT_DATA_INTERVAL);
+
+    applyConfiguration();
+  }
+
+  /**
+   * Apply the current configuration properties to the simulation engine.
+   */
+  public synchronized void applyConfiguration() {
+    int step = DEFAULT_TIME_STEP;
+    double scale = DEFAULT_TIME_SCALE;
+    int interval = DEFAULT_DATA_INTERVAL;
+    try {
+      step = myConfiguration.getPropertyInteger(JSON_KEY_TIME_STEP).intValue();
+      scale = myConfiguration.getPropertyDouble(JSON_KEY_TIME_SCALE).doubleValue();
+      interval = myConfiguration.getPropertyInteger(JSON_KEY_DATA_INTERVAL).intValue();
+    } catch (NumberFormatException | NullPointerException err) {
+      log.error("Invalid simulation configuration, using defaults: {}", err.getMessage());
+    }
+
+    stepNanos = Math.max(1, step) * NANOS_PER_MILLI;
+    timeScale = scale;
+    for (PhysicalDeviceType dev : DEVICES) {
+      dataIntervalNanos[dev.ordinal()] = Math.max(step, interval) * NANOS_PER_MILLI;
+    }
+    setDataInterval(PhysicalDeviceType.PHY_WIND_DIRECTION_SENSOR,
+        Math.max(step, WIND_DATA_INTERVAL));
+    setDataInterval(PhysicalDeviceType.PHY_WIND_SPEED_SENSOR, Math.max(step, WIND_DATA_INTERVAL));
+    for (PhysicalDeviceType dev : IMU_DEVICES) {
+      setDataInterval(dev, Math.max(step, IMU_DATA_INTERVAL));
+    }
   }
 
   @Override
@@ -216,7 +793,31 @@ public class VesselSimulation extends AbstractVesselModel {
       log.error("VesselSimulation must connect using sim=true");
       return false;
     }
+
+    // Ignore repeated connect requests
+    if (connected) {
+      return true;
+    }
+
+    this.simulated = true;
+    this.connected = true;
+    this.startEventDispatchers();
     return true;
   }
 
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.synadek.core.AbstractComponent#disconnect()
+   */
+  @Override
+  public void disconnect() throws ComponentException {
+    if (!connected) {
+      return;
+    }
+    stop();
+    this.stopEventDispatchers();
+    super.disconnect();
+  }
+
 }